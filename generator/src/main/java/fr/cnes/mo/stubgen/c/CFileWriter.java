@@ -206,6 +206,19 @@ public class CFileWriter extends AbstractWriter {
     addNewLine();
   }
   
+  /**
+   * Add a preprocessor directive, not indented, possibly inside a function body.
+   *
+   * @param directive
+   * @throws IOException
+   */
+  public void addDirective(String directive) throws IOException
+  {
+  	// <directive>
+  	out.append(directive);
+    addNewLine();
+  }
+
   /**
    * Add a typedef struct statement.
    * 
@@ -461,6 +474,21 @@ public class CFileWriter extends AbstractWriter {
   	}
   }
 
+  /**
+   * Add a statement from a parsed template, the placeholders are replaced by the arguments.
+   *
+   * @param template	parsed statement shape
+   * @param args	values of the placeholders
+   * @throws IOException
+   */
+  public void addStatement(StatementTemplate template, String... args) throws IOException
+  {
+  	// <statement>
+  	addIndent();
+  	template.appendTo(out, args);
+  	addNewLine();
+  }
+
   public void addStatements(StatementWriter in) throws IOException {
   	List<String> inStatements = in.getStatements();
   	if (inStatements != null)
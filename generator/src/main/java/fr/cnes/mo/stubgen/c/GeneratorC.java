@@ -26,9 +26,12 @@ package fr.cnes.mo.stubgen.c;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.PrintStream;
+import java.io.PrintWriter;
 import java.io.Writer;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -36,6 +39,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.TreeSet;
 
 import javax.xml.bind.JAXBElement;
 import javax.xml.bind.JAXBException;
@@ -79,8 +83,8 @@ import esa.mo.xsd.TypeReference;
  */
 public class GeneratorC extends GeneratorBase
 {
-  // list of all enumeration types, with their malbinary encoding size
-  private final Map<TypeKey, MalbinaryEnumSize> enumTypesMBSize = new TreeMap<TypeKey, MalbinaryEnumSize>();
+  // index of all the known types, with their resolution, built once the specifications are preprocessed
+  private Map<TypeKey, TypeDetails> typeIndex = null;
   
   // define how arrays are referenced : [] or *
   // TODO: remove this choice, [] does not compile
@@ -103,6 +107,113 @@ public class GeneratorC extends GeneratorBase
 	private String zprojectName = "generated_areas";
 	List<String> zareas;
 	List<String> zclasses;
+	
+	// generate amalgamated (unity build) source files
+	// "area" generates a <area>_unity.c file per area, "project" a single <zproject>_unity.c file
+	private static final String UNITY_BUILD_AREA = "area";
+	private static final String UNITY_BUILD_PROJECT = "project";
+	private String unityBuild = null;
+	
+	// generate a CMakeLists.txt file next to the project.xml file
+	// with an object library per area, zareaClasses lists the zproject classes of each area
+	Map<String, List<String>> zareaClasses;
+	// number of sources in a CMake unity batch, 0 to disable the CMake unity build
+	private int cmakeUnityBatchSize = 0;
+	// precompile the <area>.h header in the CMake area object libraries
+	private boolean cmakePrecompileHeaders;
+	
+	// sort the composite structure members by alignment and pack the presence flags in bitfields
+	// the encoding order of the fields is not changed
+	private boolean optimizeStructLayout;
+	
+	// initial capacity allocated by the first append in an empty list
+	// the capacity is then doubled on each reallocation
+	private static final int LIST_MIN_CAPACITY = 4;
+	
+	// allocate the list structure and its initial content in a single block
+	// using a flexible array member, the content moves to a separate block when the list grows
+	private boolean singleAllocationLists;
+	
+	// generate per operation stage send contexts caching the encoder cursor and the message header fields
+	private boolean sendContexts;
+	
+	// generate per PubSub operation publishers accumulating the updates and publishing them in batches
+	private boolean batchedPublishers;
+	
+	// generate composite delta encoding functions, encoding only the fields changed since a previous value
+	private boolean deltaEncoding;
+	
+	// generate a <area>_bench.c throughput benchmark driver per area, requires the malbinary transport
+	// zbenchAreas lists the areas with a generated benchmark driver
+	private boolean generateBenchmarks;
+	List<String> zbenchAreas;
+	
+	// instrument the encoding, decoding and interaction stage functions with per function counters
+	// and latency histograms, compiled in only when the <AREA>_STATS preprocessor flag is defined
+	// the instrumented code requires a GCC compatible compiler and the POSIX clock_gettime function
+	private boolean generateStats;
+	
+	// generate USDT probe points at the start and end of the interaction stage and body encoding functions,
+	// compiled in only when the <AREA>_TRACE preprocessor flag is defined
+	private boolean generateTraceProbes;
+	
+	// areas, in lower case, whose composites are encoded by a table driven codec: static field descriptors
+	// interpreted by shared <area>_table_* functions rather than unrolled per field code
+	private Set<String> tableDrivenAreas;
+	
+	// define the list types functions by expanding the list templates macros declared in <area>_fwd.h,
+	// one line per list type, rather than by unrolled per list code
+	private boolean macroLists;
+	
+	// message header fields given to mal_message_new, kept by the send contexts and the batched publishers
+	private static final String[][] MESSAGE_HEADER_PARAMS = new String[][] {
+		{ "mal_blob_t *", "authentication_id" },
+		{ "mal_qoslevel_t ", "qoslevel" },
+		{ "mal_uinteger_t ", "priority" },
+		{ "mal_identifier_list_t *", "domain" },
+		{ "mal_identifier_t *", "network_zone" },
+		{ "mal_sessiontype_t ", "session" },
+		{ "mal_identifier_t *", "session_name" } };
+	
+	// placeholder element name of the list templates, replaced by the macro parameter
+	private static final String LIST_TEMPLATE_ELEM = "MO_LIST_ELEM";
+	
+	// statements shapes of the addMalbinaryEncoding* functions, parsed once
+	private static final StatementTemplate PRESENCE_FLAG_LENGTH = new StatementTemplate("rc = mal_encoder_add_presence_flag_encoding_length(encoder, {0}, cursor);");
+	private static final StatementTemplate PRESENCE_FLAG_ENCODE = new StatementTemplate("rc = mal_encoder_encode_presence_flag(encoder, cursor, {0});");
+	private static final StatementTemplate PRESENCE_FLAG_DECODE = new StatementTemplate("rc = mal_decoder_decode_presence_flag(decoder, cursor, {0});");
+	private static final StatementTemplate SHORT_FORM_LENGTH = new StatementTemplate("rc = mal_encoder_add_short_form_encoding_length(encoder, {0}, cursor);");
+	private static final StatementTemplate SHORT_FORM_ENCODE = new StatementTemplate("rc = mal_encoder_encode_short_form(encoder, cursor, {0});");
+	private static final StatementTemplate ATTRIBUTE_TAG_LENGTH = new StatementTemplate("rc = mal_encoder_add_attribute_tag_encoding_length(encoder, {0}, cursor);");
+	private static final StatementTemplate ATTRIBUTE_TAG_ENCODE = new StatementTemplate("rc = mal_encoder_encode_attribute_tag(encoder, cursor, {0});");
+	private static final StatementTemplate ATTRIBUTE_TAG_DECODE = new StatementTemplate("rc = mal_decoder_decode_attribute_tag(decoder, cursor, {0});");
+	private static final StatementTemplate ABSTRACT_ATTRIBUTE_LENGTH = new StatementTemplate("rc = mal_encoder_add_attribute_encoding_length(encoder, {0}, {1}, cursor);");
+	private static final StatementTemplate ABSTRACT_ATTRIBUTE_ENCODE = new StatementTemplate("rc = mal_encoder_encode_attribute(encoder, cursor, {0}, {1});");
+	private static final StatementTemplate ABSTRACT_ATTRIBUTE_DECODE = new StatementTemplate("rc = mal_decoder_decode_attribute(decoder, cursor, {0}, {1});");
+	private static final StatementTemplate ATTRIBUTE_LENGTH = new StatementTemplate("rc = mal_encoder_add_{0}_encoding_length(encoder, {1}, cursor);");
+	private static final StatementTemplate ATTRIBUTE_ENCODE = new StatementTemplate("rc = mal_encoder_encode_{0}(encoder, cursor, {1});");
+	private static final StatementTemplate ATTRIBUTE_DECODE = new StatementTemplate("rc = mal_decoder_decode_{0}(decoder, cursor, {1});");
+	private static final StatementTemplate SKIP = new StatementTemplate("rc = {0}_skip_" + transportMalbinary + "(decoder, cursor);");
+	private static final StatementTemplate COMPOSITE_LENGTH = new StatementTemplate("rc = {0}_add_encoding_length_" + transportMalbinary + "({1}, encoder, cursor);");
+	private static final StatementTemplate COMPOSITE_ENCODE = new StatementTemplate("rc = {0}_encode_" + transportMalbinary + "({1}, encoder, cursor);");
+	private static final StatementTemplate COMPOSITE_NEW = new StatementTemplate("{0} = {1}_new();");
+	private static final StatementTemplate COMPOSITE_DECODE = new StatementTemplate("rc = {0}_decode_" + transportMalbinary + "({1}, decoder, cursor);");
+	private static final StatementTemplate COMPOSITE_DECODE_CAST = new StatementTemplate("rc = {0}_decode_" + transportMalbinary + "(({0}_t *){1}, decoder, cursor);");
+	private static final StatementTemplate NULL_CHECK = new StatementTemplate("if ({0} == NULL) return -1;");
+	private static final StatementTemplate LIST_LENGTH = new StatementTemplate("rc = {0}_list_add_encoding_length_" + transportMalbinary + "({1}, encoder, cursor);");
+	private static final StatementTemplate LIST_ENCODE = new StatementTemplate("rc = {0}_list_encode_" + transportMalbinary + "({1}, encoder, cursor);");
+	private static final StatementTemplate LIST_NEW_DECODE = new StatementTemplate("rc = {0}_list_new_decode_" + transportMalbinary + "(&{1}, decoder, cursor);");
+	private static final StatementTemplate LIST_NEW_DECODE_CAST = new StatementTemplate("rc = {0}_list_new_decode_" + transportMalbinary + "(({0}_list_t **) &{1}, decoder, cursor);");
+	private static final StatementTemplate LIST_NEW = new StatementTemplate("{0} = {1}_list_new(0);");
+	private static final StatementTemplate LIST_DECODE = new StatementTemplate("rc = {0}_list_decode_" + transportMalbinary + "({1}, decoder, cursor);");
+	private static final StatementTemplate LIST_DECODE_CAST = new StatementTemplate("rc = {0}_list_decode_" + transportMalbinary + "(({0}_list_t *){1}, decoder, cursor);");
+	private static final StatementTemplate ENUM_LENGTH = new StatementTemplate("rc = mal_encoder_add_{0}_enum_encoding_length(encoder, {1}, cursor);");
+	private static final StatementTemplate ENUM_ENCODE = new StatementTemplate("rc = mal_encoder_encode_{0}_enum(encoder, cursor, {1});");
+	private static final StatementTemplate ENUM_DECODE = new StatementTemplate("rc = mal_decoder_decode_{0}_enum(decoder, cursor, &enumerated_value);");
+	private static final StatementTemplate ENUM_ASSIGN = new StatementTemplate("{0} = ({1}_t) enumerated_value;");
+	private static final StatementTemplate ELEMENT_LENGTH = new StatementTemplate("rc = {0}_" + transportMalbinary + "_add_mal_element_encoding_length(encoder, {1}, cursor);");
+	private static final StatementTemplate ELEMENT_ENCODE = new StatementTemplate("rc = {0}_" + transportMalbinary + "_encode_mal_element(encoder, cursor, {1});");
+	private static final StatementTemplate ELEMENT_DECODE = new StatementTemplate("rc = {0}_" + transportMalbinary + "_decode_mal_element(decoder, cursor, {1});");
   
   /**
    * Constructor used by the StubGenerator main.
@@ -120,6 +231,8 @@ public class GeneratorC extends GeneratorBase
                     "MALPubSubOperation"));
     zareas = new ArrayList<String>();
     zclasses = new ArrayList<String>();
+    zareaClasses = new LinkedHashMap<String, List<String>>();
+    zbenchAreas = new ArrayList<String>();
     
     generateTransportMalbinary = Boolean.getBoolean("generateTransportMalbinary");
     generateTransportMalsplitbinary = Boolean.getBoolean("generateTransportMalsplitbinary");
@@ -130,6 +243,37 @@ public class GeneratorC extends GeneratorBase
     }
     
     zprojectName = System.getProperty("zprojectName", zprojectName);
+    
+    unityBuild = System.getProperty("unityBuild");
+    if (unityBuild != null &&
+    		! UNITY_BUILD_AREA.equals(unityBuild) &&
+    		! UNITY_BUILD_PROJECT.equals(unityBuild)) {
+    	throw new IllegalArgumentException("invalid unityBuild value: " + unityBuild);
+    }
+    
+    cmakeUnityBatchSize = Integer.getInteger("cmakeUnityBatchSize", cmakeUnityBatchSize);
+    if (cmakeUnityBatchSize < 0) {
+    	throw new IllegalArgumentException("invalid cmakeUnityBatchSize value: " + cmakeUnityBatchSize);
+    }
+    cmakePrecompileHeaders = Boolean.getBoolean("cmakePrecompileHeaders");
+    optimizeStructLayout = Boolean.getBoolean("optimizeStructLayout");
+    singleAllocationLists = Boolean.getBoolean("singleAllocationLists");
+    sendContexts = Boolean.getBoolean("sendContexts");
+    batchedPublishers = Boolean.getBoolean("batchedPublishers");
+    deltaEncoding = Boolean.getBoolean("deltaEncoding");
+    generateBenchmarks = Boolean.getBoolean("generateBenchmarks") && generateTransportMalbinary;
+    generateStats = Boolean.getBoolean("generateStats");
+    generateTraceProbes = Boolean.getBoolean("generateTraceProbes");
+    macroLists = Boolean.getBoolean("macroLists");
+    tableDrivenAreas = new LinkedHashSet<String>();
+    String tableDrivenList = System.getProperty("tableDrivenAreas");
+    if (tableDrivenList != null) {
+    	for (String areaName : tableDrivenList.split(",")) {
+    		if (! areaName.trim().isEmpty()) {
+    			tableDrivenAreas.add(areaName.trim().toLowerCase());
+    		}
+    	}
+    }
   }
 
   @Override
@@ -198,6 +342,15 @@ public class GeneratorC extends GeneratorBase
     super.postinit(destinationFolderName, true, generateCOM, packageBindings, extraProperties);
     
     // the GeneratorLangs class declares here XML attribute types, seems unnecessary for our usage
+    
+    // all the types are known at this point, resolve them once
+    buildTypeIndex();
+    
+    if (UNITY_BUILD_PROJECT.equals(unityBuild) && !singleZproject) {
+    	// there is no project wide source folder, fall back to a unity source per area
+    	getLog().warn("unityBuild=project requires a single zproject, generating a unity source per area");
+    	unityBuild = UNITY_BUILD_AREA;
+    }
   }
 
   @Override
@@ -214,16 +367,15 @@ public class GeneratorC extends GeneratorBase
     {
       processArea(destFolder, area);
     }
-    
-    // generate the zproject project.xml file
-    if (singleZproject) {
-    	generateZproject(destFolder);
-    }
   }
 
 	@Override
   public void close(String destinationFolderName) throws IOException
   {
+    // generate the zproject project.xml file once all the specifications are compiled
+    if (singleZproject && !zareas.isEmpty()) {
+    	generateZproject(new File(destinationFolderName));
+    }
   	super.close(destinationFolderName);
   }
 
@@ -259,9 +411,11 @@ public class GeneratorC extends GeneratorBase
       AreaContext areaContext = new AreaContext(destinationFolder, area);
 
       zareas.add(areaContext.areaNameL);
+      zareaClasses.put(areaContext.areaNameL, areaContext.areaClasses);
       // add area to the list of zproject classes
       // add first so that the <area>_library.h generated by zproject is correct
       zclasses.add(areaContext.areaNameL);
+      areaContext.areaClasses.add(areaContext.areaNameL);
       
       // write the opening statements in the global files
       areaContext.areaH.openDefine();
@@ -269,6 +423,7 @@ public class GeneratorC extends GeneratorBase
       
       // initialize the .c file
       areaContext.areaC.addInclude(areaContext.areaNameL + ".h");
+      areaContext.areaC.addInclude(areaContext.areaNameL + "_random.h");
       
       // if area level types exist
       if (true && (null != area.getDataTypes()) && !area.getDataTypes().getFundamentalOrAttributeOrComposite().isEmpty())
@@ -313,29 +468,22 @@ public class GeneratorC extends GeneratorBase
         processService(areaContext, service);
       }
       
-    	areaContext.areaH.addInclude("mal.h");
-      if (generateTransportMalbinary)
-      {
-      	areaContext.areaH.addInclude("malbinary.h");
-      }
-      if (generateTransportMalsplitbinary)
-      {
-      	areaContext.areaH.addInclude("malsplitbinary.h");
-      }
+      // the area identifiers and the types declarations are written in the <area>_fwd.h file
+      generateAreaFwdHeader(areaContext);
+      areaContext.areaH.addInclude(areaContext.areaNameL + "_fwd.h");
       areaContext.areaH.addNewLine();
+      // the random instances generator used by the tests and benchmarks is written in the <area>_random.h file
+      generateAreaRandomHeader(areaContext);
 
       // define the generic decoding function for the area (it is actually generic for the application)
       addGenericParamXcodingFunctions(areaContext);
+      addMessageHeaderFunction(areaContext);
       
-      // write the standard area identifiers
-      comment = "standard area identifiers";
-      areaContext.areaH.addNewLine();
-      areaContext.areaH.addSingleLineComment(comment);
-      areaContext.areaH.addAreaDefine("AREA_NUMBER", String.valueOf(area.getNumber()));
-      areaContext.areaH.addAreaDefine("AREA_VERSION", String.valueOf(area.getVersion()));
-
-      // write the types part of the <area>.h file
-      areaContext.areaH.addStatements(areaContext.areaHTypesW);
+      // define the table driven codec functions shared by the area composites
+      if (areaContext.tableDriven)
+      {
+      	addTableCodecFunctions(areaContext);
+      }
 
       // include the required areas definitions
       comment = "include required areas definitions";
@@ -354,6 +502,18 @@ public class GeneratorC extends GeneratorBase
 
       // test function
       addAreaTestFunction(areaContext);
+      
+      // benchmark driver
+      if (generateBenchmarks)
+      {
+      	generateAreaBenchmark(areaContext);
+      }
+
+      // statistics of the instrumented functions
+      if (generateStats)
+      {
+      	addStatsDefinitions(areaContext);
+      }
 
       // include the area structures specific files
       areaContext.areaH.addNewLine();
@@ -368,1317 +528,3591 @@ public class GeneratorC extends GeneratorBase
       areaContext.areaH.close();
       areaContext.areaC.flush();
       areaContext.areaC.close();
+      
+      // amalgamated source file for the area
+      if (UNITY_BUILD_AREA.equals(unityBuild)) {
+      	generateUnitySource(new File(areaContext.areaFolder, "src"), areaContext.areaNameL, areaContext.areaClasses);
+      }
     }
   }
 
-  protected void processService(AreaContext areaContext, ServiceType service) throws IOException
+  /**
+   * Generate the <area>_fwd.h file, holding only the area identifiers, the types declarations and
+   * the short forms definitions. The per-type files include this header rather than the complete <area>.h.
+   * 
+   * @param areaContext	context of the area
+   * @throws IOException
+   */
+  private void generateAreaFwdHeader(AreaContext areaContext) throws IOException
   {
-    getLog().info("Processing service: " + service.getName());
-  	ServiceContext serviceContext = new ServiceContext(areaContext, service);
-
-    String comment = "standard service identifiers";
-    areaContext.areaHTypes.addNewLine();
-    areaContext.areaHTypes.addSingleLineComment(comment);
-  	areaContext.areaHTypes.addDefine(areaContext.areaNameL.toUpperCase() + "_" + serviceContext.serviceNameL.toUpperCase() + "_SERVICE_NUMBER", String.valueOf(service.getNumber()));
-  	
-    // if service level types exist
-    if ((null != service.getDataTypes()) && !service.getDataTypes().getCompositeOrEnumeration().isEmpty())
+  	AreaHWriter areaFwdH = new AreaHWriter(new File(areaContext.areaFolder, "include"), areaContext.areaNameL, "_fwd");
+  	areaFwdH.openDefine();
+  	areaFwdH.addInclude("mal.h");
+    if (generateTransportMalbinary)
     {
-      // all files are created in the same directory
-      for (Object oType : service.getDataTypes().getCompositeOrEnumeration())
-      {
-        if (oType instanceof EnumerationType)
-        {
-          createEnumeration(serviceContext.serviceFolder, areaContext, serviceContext, (EnumerationType) oType);
-        }
-        else if (oType instanceof CompositeType)
-        {
-          createComposite(serviceContext.serviceFolder, areaContext, serviceContext, (CompositeType) oType);
-        }
-        else
-        {
-          throw new IllegalArgumentException("Unexpected service (" + areaContext.area.getName() + ":" + service.getName() + ") level datatype of " + oType.getClass().getName());
-        }
-      }
+    	areaFwdH.addInclude("malbinary.h");
     }
-
-    // don't create operation classes for COM as this is autogenerated in the specific services
-    if (! serviceContext.summary.isComService())
+    if (generateTransportMalsplitbinary)
     {
-    	for (OperationSummary op : serviceContext.summary.getOperations())
-      {
-    		processOperation(serviceContext, op);
-      }
+    	areaFwdH.addInclude("malsplitbinary.h");
     }
-
+    
+    // include the required areas declarations
+    for (String reqArea : areaContext.reqAreas)
+    {
+    	if (! areaContext.area.getName().equals(reqArea) &&
+    			! StdStrings.MAL.equals(reqArea))
+    		areaFwdH.addInclude(reqArea.toLowerCase() + "_fwd.h");
+    }
+    if (generateStats)
+    {
+    	addStatsIncludes(areaContext, areaFwdH);
+    }
+    if (generateTraceProbes)
+    {
+    	addTraceIncludes(areaContext, areaFwdH);
+    }
+    areaFwdH.addNewLine();
+    areaFwdH.openC();
+    
+    // write the standard area identifiers
+    areaFwdH.addSingleLineComment("standard area identifiers");
+    areaFwdH.addAreaDefine("AREA_NUMBER", String.valueOf(areaContext.area.getNumber()));
+    areaFwdH.addAreaDefine("AREA_VERSION", String.valueOf(areaContext.area.getVersion()));
+    
+    // the random instances generator is only declared, the _random functions prototypes refer to it
+    areaFwdH.addNewLine();
+    areaFwdH.addTypedefStruct("_mo_random_t", "mo_random_t");
+    
+    // declare the statistics of the instrumented functions
+    if (generateStats)
+    {
+    	addStatsDeclarations(areaContext, areaFwdH);
+    }
+    
+    // declare the trace probes macros
+    if (generateTraceProbes)
+    {
+    	addTraceDeclarations(areaContext, areaFwdH);
+    }
+    
+    // declare the table driven codec
+    if (areaContext.tableDriven)
+    {
+    	addTableCodecDeclarations(areaContext, areaFwdH);
+    }
+    
+    // declare the list templates
+    if (macroLists)
+    {
+    	addListTemplateDeclarations(areaFwdH);
+    }
+    
+    // write the types part
+    areaFwdH.addStatements(areaContext.areaHTypesW);
+    
+    areaFwdH.closeC();
+    areaFwdH.closeDefine();
+    areaFwdH.flush();
+    areaFwdH.close();
   }
 
-  protected void processOperation(ServiceContext serviceContext, OperationSummary operation) throws IOException
+  /**
+   * Generate the <area>_random.h file, defining the random instances generator. The header is
+   * only included by the generated sources of the _random, _test and benchmark functions, and by
+   * the applications using the _random functions, so that the public headers do not define the
+   * generator helpers.
+   * 
+   * @param areaContext	context of the area
+   * @throws IOException
+   */
+  private void generateAreaRandomHeader(AreaContext areaContext) throws IOException
   {
-    getLog().info("Processing operation: " + operation.getName());
-  	OperationContext opContext = new OperationContext(serviceContext, operation);
-  	OperationErrorList errors = null;
+  	AreaHWriter randomH = new AreaHWriter(new File(areaContext.areaFolder, "include"), areaContext.areaNameL, "_random");
+  	randomH.openDefine();
+  	randomH.addInclude(areaContext.areaNameL + "_fwd.h");
+  	randomH.addStatement("#include <stdlib.h>");
+  	randomH.addNewLine();
+  	randomH.openC();
+  	addRandomGeneratorDeclarations(randomH);
+  	randomH.closeC();
+  	randomH.closeDefine();
+  	randomH.flush();
+  	randomH.close();
+  }
 
-    String comment = "generated code for operation " + opContext.qfOpNameL;
-    CFileWriter areaH = serviceContext.areaContext.areaHContent;
-    CFileWriter areaC = serviceContext.areaContext.areaC;
-    areaH.addNewLine();
-    areaH.addSingleLineComment(comment);
-    areaC.addNewLine();
-    areaC.addSingleLineComment(comment);
+  /**
+   * Define the random instances generator used by the _random functions, in the <area>_random.h file.
+   * The definitions are shared by all the generated areas and guarded against multiple definitions.
+   */
+  private void addRandomGeneratorDeclarations(CFileWriter code) throws IOException
+  {
+  	code.addNewLine();
+  	code.addSingleLineComment("random instances generator, shared by all the generated areas");
+  	code.addStatement("#ifndef MO_RANDOM_DEFINED");
+  	code.addDefine("MO_RANDOM_DEFINED", "");
+  	code.addNewLine();
+  	// typedef enum {
+  	//	MO_RANDOM_UNIFORM,
+  	//	MO_RANDOM_GEOMETRIC,
+  	//	MO_RANDOM_MAXIMUM
+  	// } mo_random_distribution_t;
+  	code.addSingleLineComment("distribution of the strings, blobs and lists sizes, up to a maximum size");
+  	code.addSingleLineComment("the geometric distribution halves the probability of each additional element");
+  	code.openTypedefEnum(null);
+  	code.addTypedefEnumElement("MO_RANDOM_UNIFORM", null, false);
+  	code.addTypedefEnumElement("MO_RANDOM_GEOMETRIC", null, false);
+  	code.addTypedefEnumElement("MO_RANDOM_MAXIMUM", null, true);
+  	code.closeTypedefEnum("mo_random_distribution_t");
+  	code.addNewLine();
+  	// struct _mo_random_t {
+  	//	unsigned int seed;
+  	//	unsigned int presence_percent;
+  	//	unsigned int max_string_length;
+  	//	mo_random_distribution_t string_distribution;
+  	//	mo_random_distribution_t list_distribution;
+  	// };
+  	code.openStruct("_mo_random_t");
+  	code.addSingleLineComment("state of the rand_r generator");
+  	code.addStatement("unsigned int seed;");
+  	code.addSingleLineComment("probability in percent that an optional field or list element is present");
+  	code.addStatement("unsigned int presence_percent;");
+  	code.addSingleLineComment("maximum length of the strings and blobs");
+  	code.addStatement("unsigned int max_string_length;");
+  	code.addStatement("mo_random_distribution_t string_distribution;");
+  	code.addStatement("mo_random_distribution_t list_distribution;");
+  	code.closeStruct();
+  	code.addNewLine();
+  	// static inline void mo_random_init(mo_random_t *rng, unsigned int seed) {
+  	//	rng->seed = seed;
+  	//	rng->presence_percent = 50;
+  	//	rng->max_string_length = 15;
+  	//	rng->string_distribution = MO_RANDOM_UNIFORM;
+  	//	rng->list_distribution = MO_RANDOM_UNIFORM;
+  	// }
+  	code.openFunction("static inline void", "mo_random_init", 2);
+  	code.addFunctionParameter("mo_random_t *", "rng", false);
+  	code.addFunctionParameter("unsigned int", "seed", true);
+  	code.openFunctionBody();
+  	code.addStatement("rng->seed = seed;");
+  	code.addStatement("rng->presence_percent = 50;");
+  	code.addStatement("rng->max_string_length = 15;");
+  	code.addStatement("rng->string_distribution = MO_RANDOM_UNIFORM;");
+  	code.addStatement("rng->list_distribution = MO_RANDOM_UNIFORM;");
+  	code.closeFunctionBody();
+  	code.addNewLine();
+  	// static inline unsigned int mo_random_next(mo_random_t *rng) {
+  	//	return (unsigned int) rand_r(&rng->seed);
+  	// }
+  	code.openFunction("static inline unsigned int", "mo_random_next", 1);
+  	code.addFunctionParameter("mo_random_t *", "rng", true);
+  	code.openFunctionBody();
+  	code.addStatement("return (unsigned int) rand_r(&rng->seed);");
+  	code.closeFunctionBody();
+  	code.addNewLine();
+  	// static inline bool mo_random_present(mo_random_t *rng) {
+  	//	return (mo_random_next(rng) % 100) < rng->presence_percent;
+  	// }
+  	code.openFunction("static inline bool", "mo_random_present", 1);
+  	code.addFunctionParameter("mo_random_t *", "rng", true);
+  	code.openFunctionBody();
+  	code.addStatement("return (mo_random_next(rng) % 100) < rng->presence_percent;");
+  	code.closeFunctionBody();
+  	code.addNewLine();
+  	// static inline unsigned int mo_random_size(mo_random_t *rng, mo_random_distribution_t distribution, unsigned int max) {
+  	//	if (max == 0)
+  	//		return 0;
+  	//	if (distribution == MO_RANDOM_MAXIMUM)
+  	//		return max;
+  	//	if (distribution == MO_RANDOM_UNIFORM)
+  	//		return mo_random_next(rng) % (max + 1);
+  	//	unsigned int size = 0;
+  	//	while (size < max && (mo_random_next(rng) & 1))
+  	//		size++;
+  	//	return size;
+  	// }
+  	code.openFunction("static inline unsigned int", "mo_random_size", 3);
+  	code.addFunctionParameter("mo_random_t *", "rng", false);
+  	code.addFunctionParameter("mo_random_distribution_t", "distribution", false);
+  	code.addFunctionParameter("unsigned int", "max", true);
+  	code.openFunctionBody();
+  	code.addStatement("if (max == 0)", 1);
+  	code.addStatement("return 0;", -1);
+  	code.addStatement("if (distribution == MO_RANDOM_MAXIMUM)", 1);
+  	code.addStatement("return max;", -1);
+  	code.addStatement("if (distribution == MO_RANDOM_UNIFORM)", 1);
+  	code.addStatement("return mo_random_next(rng) % (max + 1);", -1);
+  	code.addStatement("unsigned int size = 0;");
+  	code.addStatement("while (size < max && (mo_random_next(rng) & 1))", 1);
+  	code.addStatement("size++;", -1);
+  	code.addStatement("return size;");
+  	code.closeFunctionBody();
+  	code.addNewLine();
+  	// allocated random lower case string, to be freed by the caller
+  	// static inline char *mo_random_string(mo_random_t *rng) {
+  	//	unsigned int len = mo_random_size(rng, rng->string_distribution, rng->max_string_length);
+  	//	char *chars = (char *) malloc(len + 1);
+  	//	if (!chars)
+  	//		return NULL;
+  	//	for (unsigned int i = 0; i < len; i++)
+  	//		chars[i] = 'a' + mo_random_next(rng) % 26;
+  	//	chars[len] = '\0';
+  	//	return chars;
+  	// }
+  	code.addSingleLineComment("allocated random lower case string, to be freed by the caller");
+  	code.openFunction("static inline char *", "mo_random_string", 1);
+  	code.addFunctionParameter("mo_random_t *", "rng", true);
+  	code.openFunctionBody();
+  	code.addStatement("unsigned int len = mo_random_size(rng, rng->string_distribution, rng->max_string_length);");
+  	code.addStatement("char *chars = (char *) malloc(len + 1);");
+  	code.addStatement("if (!chars)", 1);
+  	code.addStatement("return NULL;", -1);
+  	code.addStatement("for (unsigned int i = 0; i < len; i++)", 1);
+  	code.addStatement("chars[i] = 'a' + mo_random_next(rng) % 26;", -1);
+  	code.addStatement("chars[len] = '\\0';");
+  	code.addStatement("return chars;");
+  	code.closeFunctionBody();
+  	code.addStatement("#endif");
+  	code.addNewLine();
+  }
 
-    areaH.addDefine(opContext.qfOpNameL.toUpperCase() + "_OPERATION_NUMBER", String.valueOf(operation.getNumber()));
+  /**
+   * Declare the list templates, in the <area>_fwd.h file. The templates are the list functions generated
+   * for the placeholder element name LIST_TEMPLATE_ELEM, turned into macros parameterized by the element name.
+   * The enumeration lists definitions depend on the malbinary encoding size, there is one template per size.
+   * The declarations are shared by all the generated areas and guarded against multiple definitions.
+   * The guard and macros names depend on the lists layout, so that areas generated with different
+   * options do not share a template.
+   */
+  private void addListTemplateDeclarations(CFileWriter code) throws IOException
+  {
+  	String prefix = getListTemplatePrefix();
+  	code.addNewLine();
+  	code.addSingleLineComment("list templates, expanded once per list type, shared by all the generated areas");
+  	code.addStatement("#ifndef " + prefix + "LIST_TEMPLATE_DEFINED");
+  	code.addDefine(prefix + "LIST_TEMPLATE_DEFINED", "");
   	
-    switch (operation.getPattern())
-    {
-    	case SEND_OP:
-    	{
-    		addInitInteractionFunction(opContext, "send", operation.getArgTypes());
-    		break;
-    	}
-    	case SUBMIT_OP:
-    	{
-    		addInitInteractionFunction(opContext, "submit", operation.getArgTypes());
-    		addResultInteractionFunctions(opContext, "submit_ack", operation.getAckTypes());
-    		OperationType opType = operation.getOriginalOp();
-    		if (opType == null || ! (opType instanceof SubmitOperationType))
-    		{
-    			throw new IllegalStateException("Submit operation " + opContext.qfOpNameL + " is not typed SubmitOperationType");
-    		}
-    		errors = ((SubmitOperationType) opType).getErrors();
-    		break;
-    	}
-    	case REQUEST_OP:
-    	{
-    		addInitInteractionFunction(opContext, "request", operation.getArgTypes());
-    		addResultInteractionFunctions(opContext, "request_response", operation.getRetTypes());
-    		OperationType opType = operation.getOriginalOp();
-    		if (opType == null || ! (opType instanceof RequestOperationType))
-    		{
-    			throw new IllegalStateException("Request operation " + opContext.qfOpNameL + " is not typed RequestOperationType");
-    		}
-    		errors = ((RequestOperationType) opType).getErrors();
-    		break;
-    	}
-    	case INVOKE_OP:
-    	{
-    		addInitInteractionFunction(opContext, "invoke", operation.getArgTypes());
-    		addResultInteractionFunctions(opContext, "invoke_ack", operation.getAckTypes());
-    		addResultInteractionFunctions(opContext, "invoke_response", operation.getRetTypes());
-    		OperationType opType = operation.getOriginalOp();
-    		if (opType == null || ! (opType instanceof InvokeOperationType))
-    		{
-    			throw new IllegalStateException("Invoke operation " + opContext.qfOpNameL + " is not typed InvokeOperationType");
-    		}
-    		errors = ((InvokeOperationType) opType).getErrors();
-    		break;
-    	}
-    	case PROGRESS_OP:
-    	{
-    		addInitInteractionFunction(opContext, "progress", operation.getArgTypes());
-    		addResultInteractionFunctions(opContext, "progress_ack", operation.getAckTypes());
-    		addResultInteractionFunctions(opContext, "progress_update", operation.getUpdateTypes());
-    		addResultInteractionFunctions(opContext, "progress_response", operation.getRetTypes());
-    		OperationType opType = operation.getOriginalOp();
-    		if (opType == null || ! (opType instanceof ProgressOperationType))
-    		{
-    			throw new IllegalStateException("Progress operation " + opContext.qfOpNameL + " is not typed ProgressOperationType");
-    		}
-    		errors = ((ProgressOperationType) opType).getErrors();
-    		break;
-    	}
-    	case PUBSUB_OP:
+  	// <prefix>COMPOSITE_LIST_DECLARE(elem), <prefix>COMPOSITE_LIST_DEFINE(elem)
+  	StatementWriter declW = new StatementWriter();
+  	StatementWriter defW = new StatementWriter();
+  	addCompListFunctions(null, new CFileWriter(declW), new CFileWriter(defW), LIST_TEMPLATE_ELEM);
+  	addListTemplateMacro(code, prefix + "COMPOSITE_LIST_DECLARE", declW);
+  	addListTemplateMacro(code, prefix + "COMPOSITE_LIST_DEFINE", defW);
+  	
+  	// <prefix>ENUM_LIST_DECLARE(elem), <prefix><SIZE>_ENUM_LIST_DEFINE(elem)
+  	for (MalbinaryEnumSize mbSize : MalbinaryEnumSize.values())
+  	{
+    	declW = new StatementWriter();
+    	defW = new StatementWriter();
+    	addEnumListFunctions(null, new CFileWriter(declW), new CFileWriter(defW), LIST_TEMPLATE_ELEM, mbSize);
+    	if (mbSize == MalbinaryEnumSize.MB_SMALL)
     	{
-    		generatePubSubEncodingRelatedParameters(opContext, "update", operation.getUpdateTypes());
-    		addRegisterFunction(opContext, "register");
-    		addXregisterGenericFunction(opContext, "register");
-    		addPublishRegisterFunction(opContext, "publish_register");
-    		addPublishFunction(opContext, "publish", operation.getUpdateTypes());
-    		addDeregisterFunction(opContext, "deregister");
-    		addXregisterGenericFunction(opContext, "deregister");
-    		addPublishDeregisterFunction(opContext, "publish_deregister");
-    		OperationType opType = operation.getOriginalOp();
-    		if (opType == null || ! (opType instanceof PubSubOperationType))
-    		{
-    			throw new IllegalStateException("PubSub operation " + opContext.qfOpNameL + " is not typed PubSubOperationType");
-    		}
-    		errors = ((PubSubOperationType) opType).getErrors();
-    		break;
+    		// the declarations do not depend on the encoding size
+    		addListTemplateMacro(code, prefix + "ENUM_LIST_DECLARE", declW);
     	}
-    }
-    if (errors != null)
-    {
-    	// declare the errors
-    	processOpErrors(opContext, errors);
-
-    	addInteractionErrorXcodingFunctions(opContext, errors);
-    }
+    	addListTemplateMacro(code, prefix + mbSize.getCgenPrefix().toUpperCase() + "_ENUM_LIST_DEFINE", defW);
+  	}
+  	code.addStatement("#endif");
+  	code.addNewLine();
   }
-  
-  protected void processOpErrors(OperationContext opContext, OperationErrorList errors) throws IOException
+
+  /**
+   * Prefix of the list templates guard and macros names, MO_SA_ for the single allocation lists.
+   */
+  private String getListTemplatePrefix()
   {
-  	if (errors == null)
-  		return;
-  	List<Object> errorList = errors.getErrorOrErrorRef();
-  	if (errorList.isEmpty())
-  		return;
+  	return singleAllocationLists ? "MO_SA_" : "MO_";
+  }
 
-  	for (Object error : errorList)
+  /**
+   * Write a list template macro from the code generated for the placeholder element name.
+   * The comments and empty lines are removed, as a line comment would swallow the continuation of the macro.
+   * The placeholder is replaced by the macro parameter, token pasted to the adjacent identifier characters.
+   * 
+   * @param code	writer of the macro
+   * @param macroName	name of the macro
+   * @param templateW	code generated for the placeholder element name
+   */
+  private void addListTemplateMacro(CFileWriter code, String macroName, StatementWriter templateW) throws IOException
+  {
+  	List<String> lines = new ArrayList<String>();
+  	for (String st : templateW.getStatements())
   	{
-  		if (error instanceof ErrorDefinitionType)
-  		{
-  			ErrorDefinitionType errorDef = (ErrorDefinitionType) error;
-  			// declare the error in the area include file
-  			// #define <AREA>_<SERVICE>_<OPERATION>_<ERROR>_ERROR_NUMBER <error number>
-  			opContext.serviceContext.areaContext.areaH.addDefine(
-  					opContext.qfOpNameL.toUpperCase() + "_" + errorDef.getName().toUpperCase() + "_ERROR_NUMBER",
-  					Long.toString(errorDef.getNumber()));
-  		}
-  		else if (error instanceof ErrorReferenceType)
-  		{
-  			// should include the reference area
-  			// currently unnecessary as all areas are included
-  		}
-  		else
+  		if (st.trim().isEmpty() || st.trim().startsWith("//"))
   		{
-  			throw new IllegalStateException("unexpected error structure: " + error.getClass().getName());
+  			continue;
   		}
+  		String line = st;
+  		// <id>MO_LIST_ELEM<id> -> <id>##elem##<id>
+  		line = line.replaceAll("(?<=\\w)" + LIST_TEMPLATE_ELEM, "##" + LIST_TEMPLATE_ELEM);
+  		line = line.replaceAll(LIST_TEMPLATE_ELEM + "(?=\\w)", LIST_TEMPLATE_ELEM + "##");
+  		lines.add("  " + line.replace(LIST_TEMPLATE_ELEM, "elem"));
+  	}
+  	// #define <macro>(elem) \
+  	//	<line> \
+  	//	<last line>
+  	code.addNewLine();
+  	code.addDirective("#define " + macroName + "(elem) \\");
+  	for (int i = 0; i < lines.size(); i++)
+  	{
+  		code.addDirective(lines.get(i) + (i < lines.size() - 1 ? " \\" : ""));
   	}
   }
-  
-  protected List<TypeReference> getOpErrorTypes(OperationErrorList errors)
+
+  /**
+   * Include the headers of the statistics, in the <area>_fwd.h file before the extern "C" block.
+   * The statistics use the GCC atomic builtins and the POSIX monotonic clock, a compilation
+   * with the <AREA>_STATS flag fails on other platforms.
+   */
+  private void addStatsIncludes(AreaContext areaContext, CFileWriter code) throws IOException
   {
-  	// error management is not optimal here
-  	// we must generate encoding functions for all possible types, and an abstract decoding function.
-  	// we have considered 3 strategies :
-  	// 1- build a list of unique acceptable types and call the proper generation functions with those types
-  	// 2- call the generation functions with all the error types, and do not generate codes for types already handled for this operation
-  	// 3- call the generation functions for all the types in the area (i.e. MAL::Element)
-  	// Strategy 3 is the simplest to implement, it has been chosen with a little optimizing
-  	List<Object> errorList = errors.getErrorOrErrorRef();
-  	if (errorList.isEmpty())
+  	String areaNameU = areaContext.areaNameL.toUpperCase();
+  	// #ifdef <AREA>_STATS
+  	// #include <time.h>
+  	// #if !defined(__GNUC__) || !defined(CLOCK_MONOTONIC)
+  	// #error "<AREA>_STATS requires the GCC atomic builtins and the POSIX clock_gettime function"
+  	// #endif
+  	// #endif
+  	code.addStatement("#ifdef " + areaNameU + "_STATS");
+  	code.addStatement("#include <time.h>");
+  	code.addStatement("#if !defined(__GNUC__) || !defined(CLOCK_MONOTONIC)");
+  	code.addStatement("#error \"" + areaNameU + "_STATS requires the GCC atomic builtins and the POSIX clock_gettime function\"");
+  	code.addStatement("#endif");
+  	code.addStatement("#endif");
+  }
+
+  /**
+   * Declare the statistics of the area instrumented functions, in the <area>_fwd.h file.
+   * The latency histogram bucket i counts the calls which lasted less than 2^i nanoseconds
+   * and at least 2^(i-1) nanoseconds, the last bucket counts all the longer calls.
+   * The counters are updated with relaxed atomic additions, without any lock.
+   */
+  private void addStatsDeclarations(AreaContext areaContext, CFileWriter code) throws IOException
+  {
+  	String areaNameU = areaContext.areaNameL.toUpperCase();
+  	String statsType = areaContext.areaNameL + "_stats_t";
+  	code.addNewLine();
+  	code.addSingleLineComment("statistics of the instrumented functions, enabled by the " + areaNameU + "_STATS flag");
+  	code.addSingleLineComment("the malbinary encode, decode, decode_into, list_new_decode and skip functions of the types,");
+  	code.addSingleLineComment("the stage body encode and decode functions and the stage functions are instrumented,");
+  	code.addSingleLineComment("the stage functions record no bytes, their message body is counted by the body functions");
+  	code.addStatement("#ifdef " + areaNameU + "_STATS");
+  	code.addDefine(areaNameU + "_STATS_BUCKETS", "32");
+  	// typedef struct <area>_stats_t {
+  	//	const char *name;
+  	//	uint64_t calls;
+  	//	uint64_t bytes;
+  	//	uint64_t failures;
+  	//	uint64_t latency[<AREA>_STATS_BUCKETS];
+  	// } <area>_stats_t;
+  	code.addStatement("typedef struct " + statsType + " {", 1);
+  	code.addStatement("const char *name;");
+  	code.addStatement("uint64_t calls;");
+  	code.addStatement("uint64_t bytes;");
+  	code.addStatement("uint64_t failures;");
+  	code.addStatement("uint64_t latency[" + areaNameU + "_STATS_BUCKETS];");
+  	code.addStatement("} " + statsType + ";", -1, true);
+  	code.addStatement("extern " + statsType + " " + areaContext.areaNameL + "_stats[];");
+  	code.addNewLine();
+  	// static inline uint64_t <area>_stats_now(void) {
+  	//	struct timespec ts;
+  	//	clock_gettime(CLOCK_MONOTONIC, &ts);
+  	//	return (uint64_t) ts.tv_sec * 1000000000 + ts.tv_nsec;
+  	// }
+  	code.openFunction("static inline uint64_t", areaContext.areaNameL + "_stats_now", 0);
+  	code.openFunctionBody();
+  	code.addStatement("struct timespec ts;");
+  	code.addStatement("clock_gettime(CLOCK_MONOTONIC, &ts);");
+  	code.addStatement("return (uint64_t) ts.tv_sec * 1000000000 + ts.tv_nsec;");
+  	code.closeFunctionBody();
+  	// static inline void <area>_stats_record(<area>_stats_t *stats, uint64_t start, long bytes, int rc) {
+  	//	uint64_t elapsed = <area>_stats_now() - start;
+  	//	unsigned int bucket = (elapsed == 0) ? 0 : 64 - __builtin_clzll(elapsed);
+  	//	if (bucket >= <AREA>_STATS_BUCKETS)
+  	//		bucket = <AREA>_STATS_BUCKETS - 1;
+  	//	__atomic_fetch_add(&stats->calls, 1, __ATOMIC_RELAXED);
+  	//	if (rc < 0)
+  	//		__atomic_fetch_add(&stats->failures, 1, __ATOMIC_RELAXED);
+  	//	else if (bytes > 0)
+  	//		__atomic_fetch_add(&stats->bytes, (uint64_t) bytes, __ATOMIC_RELAXED);
+  	//	__atomic_fetch_add(&stats->latency[bucket], 1, __ATOMIC_RELAXED);
+  	// }
+  	code.openFunction("static inline void", areaContext.areaNameL + "_stats_record", 4);
+  	code.addFunctionParameter(statsType + " *", "stats", false);
+  	code.addFunctionParameter("uint64_t", "start", false);
+  	code.addFunctionParameter("long", "bytes", false);
+  	code.addFunctionParameter("int", "rc", true);
+  	code.openFunctionBody();
+  	code.addStatement("uint64_t elapsed = " + areaContext.areaNameL + "_stats_now() - start;");
+  	code.addStatement("unsigned int bucket = (elapsed == 0) ? 0 : 64 - __builtin_clzll(elapsed);");
+  	code.addStatement("if (bucket >= " + areaNameU + "_STATS_BUCKETS)", 1);
+  	code.addStatement("bucket = " + areaNameU + "_STATS_BUCKETS - 1;", -1);
+  	code.addStatement("__atomic_fetch_add(&stats->calls, 1, __ATOMIC_RELAXED);");
+  	code.addStatement("if (rc < 0)", 1);
+  	code.addStatement("__atomic_fetch_add(&stats->failures, 1, __ATOMIC_RELAXED);", -1);
+  	code.addStatement("else if (bytes > 0)", 1);
+  	code.addStatement("__atomic_fetch_add(&stats->bytes, (uint64_t) bytes, __ATOMIC_RELAXED);", -1);
+  	code.addStatement("__atomic_fetch_add(&stats->latency[bucket], 1, __ATOMIC_RELAXED);");
+  	code.closeFunctionBody();
+  	code.addNewLine();
+  	// calls the iterator function with a snapshot of the statistics of each instrumented function
+  	// void <area>_stats_dump(void (*iterator)(const <area>_stats_t *stats, void *arg), void *arg);
+  	code.openFunctionPrototype("void", areaContext.areaNameL + "_stats_dump", 2);
+  	code.addFunctionParameter("void (*iterator)(const " + statsType + " *stats, void *arg)", null, false);
+  	code.addFunctionParameter("void *", "arg", true);
+  	code.closeFunctionPrototype();
+  	code.addStatement("#endif");
+  	code.addNewLine();
+  }
+
+  /**
+   * Define the statistics of the area instrumented functions and the dump function, at the end of the <area>.c file.
+   */
+  private void addStatsDefinitions(AreaContext areaContext) throws IOException
+  {
+  	String areaNameU = areaContext.areaNameL.toUpperCase();
+  	String statsType = areaContext.areaNameL + "_stats_t";
+  	CFileWriter areaC = areaContext.areaC;
+  	areaC.addNewLine();
+  	areaC.addStatement("#ifdef " + areaNameU + "_STATS");
+  	// <area>_stats_t <area>_stats[] = {
+  	//	{ "<function>" },
+  	//	...
+  	// };
+  	areaC.addStatement(statsType + " " + areaContext.areaNameL + "_stats[] = {", 1);
+  	if (areaContext.statsNames.isEmpty())
   	{
-  		return null;
+  		areaC.addStatement("{ NULL }");
   	}
-  	
-  	List<TypeReference> opErrorTypes = new ArrayList<TypeReference>();
-  	
-  	for (Object error : errorList)
+  	for (String statsName : areaContext.statsNames)
   	{
-  		ElementReferenceWithCommentType errorType = null;
-  		if (error instanceof ErrorDefinitionType)
-  		{
-  			errorType = ((ErrorDefinitionType) error).getExtraInformation();
-  		}
-  		else if (error instanceof ErrorReferenceType)
-  		{
-  			errorType = ((ErrorReferenceType) error).getExtraInformation();
-  		}
-  		else
-  		{
-  			throw new IllegalStateException("unexpected error structure: " + error.getClass().getName());
-  		}
-  		if (errorType != null)
-  		{
-			// Check that this type is not already in the list
-			boolean contains = false;
-			TypeReference errorTypeRef = errorType.getType();
-			for (TypeReference typeReference : opErrorTypes) {
-				// Test equality of the references
-				if (typeReference == errorTypeRef)
-					// instance equality
-					contains = true;
-				else if (typeReference.isList() == errorTypeRef.isList() &&
-						Objects.equals(typeReference.getArea(), errorTypeRef.getArea()) &&
-						Objects.equals(typeReference.getService(), errorTypeRef.getService()) &&
-						Objects.equals(typeReference.getName(), errorTypeRef.getName()))
-					// Values equality
-					contains = true;
-			}
-			if (!contains)
-				opErrorTypes.add(errorTypeRef);
-  		}
+  		areaC.addStatement("{ \"" + statsName + "\" },");
   	}
-	return opErrorTypes;
+  	areaC.addStatement("};", -1, true);
+  	areaC.addNewLine();
+  	// void <area>_stats_dump(void (*iterator)(const <area>_stats_t *stats, void *arg), void *arg) {
+  	//	for (unsigned int i = 0; i < <count>; i++) {
+  	//		<area>_stats_t *stats = &<area>_stats[i];
+  	//		<area>_stats_t snapshot;
+  	//		snapshot.name = stats->name;
+  	//		snapshot.calls = __atomic_load_n(&stats->calls, __ATOMIC_RELAXED);
+  	//		...
+  	//		iterator(&snapshot, arg);
+  	//	}
+  	// }
+  	areaC.openFunction("void", areaContext.areaNameL + "_stats_dump", 2);
+  	areaC.addFunctionParameter("void (*iterator)(const " + statsType + " *stats, void *arg)", null, false);
+  	areaC.addFunctionParameter("void *", "arg", true);
+  	areaC.openFunctionBody();
+  	areaC.addStatement("for (unsigned int i = 0; i < " + areaContext.statsNames.size() + "; i++)");
+  	areaC.openBlock();
+  	areaC.addStatement(statsType + " *stats = &" + areaContext.areaNameL + "_stats[i];");
+  	areaC.addStatement(statsType + " snapshot;");
+  	areaC.addStatement("snapshot.name = stats->name;");
+  	areaC.addStatement("snapshot.calls = __atomic_load_n(&stats->calls, __ATOMIC_RELAXED);");
+  	areaC.addStatement("snapshot.bytes = __atomic_load_n(&stats->bytes, __ATOMIC_RELAXED);");
+  	areaC.addStatement("snapshot.failures = __atomic_load_n(&stats->failures, __ATOMIC_RELAXED);");
+  	areaC.addStatement("for (unsigned int j = 0; j < " + areaNameU + "_STATS_BUCKETS; j++)", 1);
+  	areaC.addStatement("snapshot.latency[j] = __atomic_load_n(&stats->latency[j], __ATOMIC_RELAXED);", -1);
+  	areaC.addStatement("iterator(&snapshot, arg);");
+  	areaC.closeBlock();
+  	areaC.closeFunctionBody();
+  	areaC.addStatement("#endif");
   }
-  
-  @Override
-  protected CompositeField createCompositeElementsDetails(TargetWriter file, boolean checkType, String fieldName, TypeReference elementType, boolean isStructure, boolean canBeNull, String comment)
-  {
-  	// this function is currently called in the C generator with a null file parameter
-  	// type dependencies are handled in another way
-    CompositeField ele;
 
-    String typeName = elementType.getName();
+  /**
+   * Open the definition of an encoding or decoding function instrumented by the statistics.
+   * The function is defined as a static <function>_unmeasured function, wrapped by the measuring
+   * function generated by addStatsWrapperFunction, or directly when the statistics are not generated
+   * or when the function is not bound to an area (null areaContext).
+   */
+  private void openStatsMeasuredFunction(CFileWriter code, AreaContext areaContext, String funcName, int paramNumber) throws IOException
+  {
+  	openStatsMeasuredFunction(code, areaContext, "int", funcName, paramNumber);
+  }
 
-    if (checkType && !isKnownType(elementType))
-    {
-      getLog().warn("Unknown type (" + new TypeKey(elementType)
-              + ") is being referenced as field (" + fieldName + ")");
-    }
+  /**
+   * Open the definition of a function instrumented by the statistics, funcType being its type when it is not measured.
+   */
+  private void openStatsMeasuredFunction(CFileWriter code, AreaContext areaContext, String funcType, String funcName, int paramNumber) throws IOException
+  {
+  	if (generateStats && areaContext != null)
+  	{
+  		code.openFunction("static int", funcName + "_unmeasured", paramNumber);
+  	}
+  	else
+  	{
+  		code.openFunction(funcType, funcName, paramNumber);
+  	}
+  }
 
-    if (elementType.isList())
-    {
-    	String fqTypeName;
-    	if (isAttributeNativeType(elementType))
-    	{
-    		fqTypeName = createElementType((LanguageWriter) file, StdStrings.MAL, null, typeName + "List");
-    	}
-    	else
-    	{
-    		fqTypeName = createElementType((LanguageWriter) file, elementType, true) + "List";
-    	}
+  /**
+   * Define the measuring function of an encoding or decoding function opened by openStatsMeasuredFunction.
+   * The encoded or decoded bytes are given by the cursor offset.
+   * 
+   * @param code	writer of the function definition
+   * @param areaContext	context of the area holding the statistics, null if the function is not measured
+   * @param funcName	name of the measured function
+   * @param selfType	type of the encoded or decoded value, null for the skip functions
+   * @param xcoder	encoder or decoder
+   */
+  private void addStatsWrapperFunction(CFileWriter code, AreaContext areaContext, String funcName, String selfType, String xcoder) throws IOException
+  {
+  	String[][] params;
+  	if (selfType == null)
+  	{
+  		params = new String[][] { { "mal_" + xcoder + "_t *", xcoder }, { "void *", "cursor" } };
+  	}
+  	else
+  	{
+  		params = new String[][] { { selfType, "self" }, { "mal_" + xcoder + "_t *", xcoder }, { "void *", "cursor" } };
+  	}
+  	addStatsWrapperFunction(code, areaContext, "int", funcName, funcName, params, xcoder);
+  }
 
-    	String newCall = null;
-    	String encCall = null;
-    	if (!isAbstract(elementType))
-    	{
-    		newCall = "new " + fqTypeName + "()";
-    		encCall = StdStrings.ELEMENT;
-    	}
+  /**
+   * Define the measuring function of a function opened by openStatsMeasuredFunction, with any parameters
+   * including a cursor parameter.
+   * 
+   * @param code	writer of the function definition
+   * @param areaContext	context of the area holding the statistics, null if the function is not measured
+   * @param funcType	type of the measuring function
+   * @param funcName	name of the measuring function
+   * @param statsName	name of the function in the statistics
+   * @param params	types and names of the function parameters
+   * @param xcoder	encoder or decoder
+   */
+  private void addStatsWrapperFunction(CFileWriter code, AreaContext areaContext, String funcType, String funcName,
+  		String statsName, String[][] params, String xcoder) throws IOException
+  {
+  	if (!generateStats || areaContext == null)
+  	{
+  		return;
+  	}
+  	String areaNameU = areaContext.areaNameL.toUpperCase();
+  	areaContext.statsNames.add(statsName);
+  	String stats = "&" + areaContext.areaNameL + "_stats[" + (areaContext.statsNames.size() - 1) + "]";
+  	String offset = "mal_" + xcoder + "_cursor_get_offset(" + xcoder + ", cursor)";
+  	StringBuilder args = new StringBuilder();
+  	for (String[] param : params)
+  	{
+  		args.append(args.length() == 0 ? "" : ", ").append(param[1]);
+  	}
+  	// <function type> <function>(<parameters>) {
+  	// #ifdef <AREA>_STATS
+  	//	uint64_t stats_start = <area>_stats_now();
+  	//	unsigned int stats_offset = mal_<xcoder>_cursor_get_offset(<xcoder>, cursor);
+  	//	int rc = <function>_unmeasured(<parameters names>);
+  	//	<area>_stats_record(&<area>_stats[<index>], stats_start,
+  	//		mal_<xcoder>_cursor_get_offset(<xcoder>, cursor) - stats_offset, rc);
+  	//	return rc;
+  	// #else
+  	//	return <function>_unmeasured(<parameters names>);
+  	// #endif
+  	// }
+  	code.openFunction(funcType, funcName, params.length);
+  	code.addFunctionParameters(params);
+  	code.openFunctionBody();
+  	code.addDirective("#ifdef " + areaNameU + "_STATS");
+  	code.addStatement("uint64_t stats_start = " + areaContext.areaNameL + "_stats_now();");
+  	code.addStatement("unsigned int stats_offset = " + offset + ";");
+  	code.addStatement("int rc = " + funcName + "_unmeasured(" + args + ");");
+  	code.addStatement(areaContext.areaNameL + "_stats_record(" + stats + ", stats_start, " + offset + " - stats_offset, rc);");
+  	code.addStatement("return rc;");
+  	code.addDirective("#else");
+  	code.addStatement("return " + funcName + "_unmeasured(" + args + ");");
+  	code.addDirective("#endif");
+  	code.closeFunctionBody();
+  }
 
-    	ele = new CompositeField(fqTypeName, elementType, fieldName, elementType.isList(), canBeNull, false, encCall, "(" + fqTypeName + ") ", StdStrings.ELEMENT, true, newCall, comment);
-    }
-    else
-    {
-      if (isAttributeType(elementType))
-      {
-        AttributeTypeDetails details = getAttributeDetails(elementType);
-        String fqTypeName = createElementType((LanguageWriter) file, elementType, isStructure);
-        ele = new CompositeField(details.getTargetType(), elementType, fieldName, elementType.isList(), canBeNull, false, typeName, "", typeName, false, "new " + fqTypeName + "()", comment);
-      }
-      else
-      {
-        TypeReference elementTypeIndir = elementType;
+  /**
+   * Start the measure of an interaction stage function, after the rc variable declaration.
+   */
+  private void addStageStatsStart(OpStageContext opStageCtxt, CFileWriter areaC) throws IOException
+  {
+  	if (!generateStats)
+  	{
+  		return;
+  	}
+  	AreaContext areaContext = opStageCtxt.opContext.serviceContext.areaContext;
+  	// #ifdef <AREA>_STATS
+  	//	uint64_t stats_start = <area>_stats_now();
+  	// #endif
+  	areaC.addDirective("#ifdef " + areaContext.areaNameL.toUpperCase() + "_STATS");
+  	areaC.addStatement("uint64_t stats_start = " + areaContext.areaNameL + "_stats_now();");
+  	areaC.addDirective("#endif");
+  }
 
-        // have to work around the fact that JAXB does not replicate the XML type name into Java in all cases
-        if ("XML".equalsIgnoreCase(elementType.getArea()))
-        {
-          elementTypeIndir = TypeUtils.createTypeReference(elementType.getArea(), elementType.getService(), StubUtils.preCap(elementType.getName()), elementType.isList());
-        }
+  /**
+   * Record the measure of an interaction stage function, before the return statement.
+   * No bytes are recorded, the message body is measured by the stage body encoding functions.
+   */
+  private void addStageStatsRecord(OpStageContext opStageCtxt, CFileWriter areaC) throws IOException
+  {
+  	if (!generateStats)
+  	{
+  		return;
+  	}
+  	AreaContext areaContext = opStageCtxt.opContext.serviceContext.areaContext;
+  	areaContext.statsNames.add(opStageCtxt.qfOpStageNameL);
+  	// #ifdef <AREA>_STATS
+  	//	<area>_stats_record(&<area>_stats[<index>], stats_start, 0, rc);
+  	// #endif
+  	areaC.addDirective("#ifdef " + areaContext.areaNameL.toUpperCase() + "_STATS");
+  	areaC.addStatement(areaContext.areaNameL + "_stats_record(&" + areaContext.areaNameL + "_stats[" + (areaContext.statsNames.size() - 1) + "], stats_start, 0, rc);");
+  	areaC.addDirective("#endif");
+  }
 
-        String fqTypeName = createElementType((LanguageWriter) file, elementTypeIndir, isStructure);
+  /**
+   * Include the systemtap sys/sdt.h header defining the trace probes, in the <area>_fwd.h file
+   * before the extern "C" block. The header is only included when the compiler finds it.
+   */
+  private void addTraceIncludes(AreaContext areaContext, CFileWriter code) throws IOException
+  {
+  	String areaNameU = areaContext.areaNameL.toUpperCase();
+  	// #ifdef <AREA>_TRACE
+  	// #if defined(__has_include)
+  	// #if __has_include(<sys/sdt.h>)
+  	// #include <sys/sdt.h>
+  	// #endif
+  	// #endif
+  	// #endif
+  	code.addStatement("#ifdef " + areaNameU + "_TRACE");
+  	code.addStatement("#if defined(__has_include)");
+  	code.addStatement("#if __has_include(<sys/sdt.h>)");
+  	code.addStatement("#include <sys/sdt.h>");
+  	code.addStatement("#endif");
+  	code.addStatement("#endif");
+  	code.addStatement("#endif");
+  }
 
-        if (isEnum(elementType))
-        {
-          EnumerationType typ = getEnum(elementType);
-          String firstEle = fqTypeName + "." + typ.getItem().get(0).getValue();
-          ele = new CompositeField(fqTypeName, elementType, fieldName, elementType.isList(), canBeNull, false, StdStrings.ELEMENT, "(" + fqTypeName + ") ", StdStrings.ELEMENT, true, firstEle, comment);
-        }
-        else if (StdStrings.ATTRIBUTE.equals(typeName))
-        {
-          ele = new CompositeField(fqTypeName, elementType, fieldName, elementType.isList(), canBeNull, false, StdStrings.ATTRIBUTE, "(" + fqTypeName + ") ", StdStrings.ATTRIBUTE, false, "", comment);
-        }
-        else if (StdStrings.ELEMENT.equals(typeName))
-        {
-          ele = new CompositeField(fqTypeName, elementType, fieldName, elementType.isList(), canBeNull, false, StdStrings.ELEMENT, "(" + fqTypeName + ") ", StdStrings.ELEMENT, false, "", comment);
-        }
-        else
-        {
-          ele = new CompositeField(fqTypeName, elementType, fieldName, elementType.isList(), canBeNull, false, StdStrings.ELEMENT, "(" + fqTypeName + ") ", StdStrings.ELEMENT, true, "new " + fqTypeName + "()", comment);
-        }
-      }
-    }
+  /**
+   * Declare the trace probes macros of the area, in the <area>_fwd.h file.
+   * The probes are USDT probes of the <area> provider, defined by the systemtap sys/sdt.h header.
+   * The start probes arguments are the function name, the area, service and operation numbers
+   * and the transaction id, the end probes add the returned code.
+   * The macros expand to nothing when the <AREA>_TRACE flag is not defined or when the sys/sdt.h
+   * header is not available.
+   */
+  private void addTraceDeclarations(AreaContext areaContext, CFileWriter code) throws IOException
+  {
+  	String areaNameU = areaContext.areaNameL.toUpperCase();
+  	code.addNewLine();
+  	code.addSingleLineComment("trace probes, enabled by the " + areaNameU + "_TRACE flag when the sys/sdt.h header is available");
+  	code.addStatement("#if defined(" + areaNameU + "_TRACE) && defined(DTRACE_PROBE6)");
+  	code.addDefine(areaNameU + "_TRACE_START(probe, name, service, operation, tid)",
+  			"DTRACE_PROBE5(" + areaContext.areaNameL + ", probe##_start, name, " + areaNameU + "_AREA_NUMBER, service, operation, tid)");
+  	code.addDefine(areaNameU + "_TRACE_END(probe, name, service, operation, tid, rc)",
+  			"DTRACE_PROBE6(" + areaContext.areaNameL + ", probe##_end, name, " + areaNameU + "_AREA_NUMBER, service, operation, tid, rc)");
+  	code.addStatement("#else");
+  	code.addDefine(areaNameU + "_TRACE_START(probe, name, service, operation, tid)", "");
+  	code.addDefine(areaNameU + "_TRACE_END(probe, name, service, operation, tid, rc)", "");
+  	code.addStatement("#endif");
+  	code.addNewLine();
+  }
 
-    return ele;
+  /**
+   * Get the arguments of a trace probe macro, for an operation stage.
+   */
+  private String getTraceProbeArgs(OpStageContext opStageCtxt, String probe, String funcName, String tid)
+  {
+  	// <probe>, "<function>", <AREA>_<SERVICE>_SERVICE_NUMBER, <AREA>_<SERVICE>_<OPERATION>_OPERATION_NUMBER, <tid>
+  	String areaNameU = opStageCtxt.opContext.serviceContext.areaContext.areaNameL.toUpperCase();
+  	String serviceNameU = opStageCtxt.opContext.serviceContext.serviceNameL.toUpperCase();
+  	StringBuilder buf = new StringBuilder();
+  	buf.append(probe).append(", ");
+  	buf.append("\"").append(funcName).append("\", ");
+  	buf.append(areaNameU).append("_").append(serviceNameU).append("_SERVICE_NUMBER, ");
+  	buf.append(opStageCtxt.opContext.qfOpNameL.toUpperCase()).append("_OPERATION_NUMBER, ");
+  	buf.append(tid);
+  	return buf.toString();
   }
 
-  protected void createEnumeration(File folder, AreaContext areaContext, ServiceContext serviceContext, EnumerationType enumeration) throws IOException
+  /**
+   * Get the arguments of a trace probe macro, for a function which does not belong to an operation.
+   * The probes carry 0 service and operation numbers and a 0 transaction id.
+   */
+  private String getTraceProbeArgs(String probe, String funcName)
   {
-  	String comment;
-    String enumName = enumeration.getName();
-    AreaType area = areaContext.area;
-    ServiceType service = null;
-    if (serviceContext != null)
-    {
-    	service = serviceContext.summary.getService();
-    }
-    String malEnumName = area.getName() + ":" + (service == null ? "_" : service.getName()) + ":" + enumName;
+  	// <probe>, "<function>", 0, 0, 0
+  	return probe + ", \"" + funcName + "\", 0, 0, 0";
+  }
 
-    getLog().info("Creating enumeration " + malEnumName);
-    
-    // fill in the enumTypesMBSize table
-    int enumSize = enumeration.getItem().size();
-    TypeReference enumTypeRef = new TypeReference();
-    enumTypeRef.setArea(area.getName());
-    if (service != null)
-    {
-    	enumTypeRef.setService(service.getName());
-    }
-    enumTypeRef.setName(enumeration.getName());
-    MalbinaryEnumSize mbSize = getEnumTypeMBSize(enumTypeRef, enumeration);
-    
-    // define the enumeration type itself
-    // the enumeration is defined only in the <area>.h file
+  /**
+   * Add the start probe of an interaction stage function, after the rc variable declaration.
+   */
+  private void addStageTraceStart(OpStageContext opStageCtxt, CFileWriter areaC, String messageVar) throws IOException
+  {
+  	if (!generateTraceProbes)
+  	{
+  		return;
+  	}
+  	String areaNameU = opStageCtxt.opContext.serviceContext.areaContext.areaNameL.toUpperCase();
+  	// <AREA>_TRACE_START(stage, "<qfop>_<stage>", <service>, <operation>, mal_message_get_transaction_id(<message>));
+  	areaC.addStatement(areaNameU + "_TRACE_START(" +
+  			getTraceProbeArgs(opStageCtxt, "stage", opStageCtxt.qfOpStageNameL, "mal_message_get_transaction_id(" + messageVar + ")") + ");");
+  }
 
-    StringBuilder buf = new StringBuilder();
-    buf.append(areaContext.areaNameL);
-    buf.append("_");
-    if (serviceContext != null)
-    {
-    	buf.append(serviceContext.serviceNameL);
-    	buf.append("_");
-    }
-    buf.append(enumName.toLowerCase());
-    String mapEnumNameL = buf.toString();
-    String mapEnumNameU = mapEnumNameL.toUpperCase();
+  /**
+   * Read the transaction id of an interaction stage function, before the send statement
+   * which takes the ownership of the message.
+   */
+  private void addStageTraceBeforeSend(OpStageContext opStageCtxt, CFileWriter areaC, String messageVar) throws IOException
+  {
+  	if (!generateTraceProbes)
+  	{
+  		return;
+  	}
+  	String areaNameU = opStageCtxt.opContext.serviceContext.areaContext.areaNameL.toUpperCase();
+  	// #ifdef <AREA>_TRACE
+  	//	long trace_tid = mal_message_get_transaction_id(<message>);
+  	// #endif
+  	areaC.addDirective("#ifdef " + areaNameU + "_TRACE");
+  	areaC.addStatement("long trace_tid = mal_message_get_transaction_id(" + messageVar + ");");
+  	areaC.addDirective("#endif");
+  }
 
-    comment = "generated code for enumeration " + mapEnumNameL;
+  /**
+   * Add the end probe of an interaction stage function, before the return statement.
+   * The transaction id is the one read by addStageTraceBeforeSend.
+   */
+  private void addStageTraceEnd(OpStageContext opStageCtxt, CFileWriter areaC) throws IOException
+  {
+  	if (!generateTraceProbes)
+  	{
+  		return;
+  	}
+  	String areaNameU = opStageCtxt.opContext.serviceContext.areaContext.areaNameL.toUpperCase();
+  	// <AREA>_TRACE_END(stage, "<qfop>_<stage>", <service>, <operation>, trace_tid, rc);
+  	areaC.addStatement(areaNameU + "_TRACE_END(" +
+  			getTraceProbeArgs(opStageCtxt, "stage", opStageCtxt.qfOpStageNameL, "trace_tid") + ", rc);");
+  }
+
+  /**
+   * Open the definition of a body encoding or decoding function with trace probes and statistics.
+   * The function is defined as a static <function>_untraced function, wrapped by the tracing
+   * function generated by addTraceWrapperFunction, or directly when the probes are not generated.
+   * The statistics wrap the function the same way, inside the tracing function.
+   */
+  private void openTracedFunction(CFileWriter code, AreaContext areaContext, String funcName, int paramNumber) throws IOException
+  {
+  	if (generateTraceProbes)
+  	{
+  		openStatsMeasuredFunction(code, areaContext, "static int", funcName + "_untraced", paramNumber);
+  	}
+  	else
+  	{
+  		openStatsMeasuredFunction(code, areaContext, "int", funcName, paramNumber);
+  	}
+  }
+
+  /**
+   * Define the measuring and tracing functions of a body encoding or decoding function opened by openTracedFunction.
+   * The body functions do not see the message, their probes carry a 0 transaction id.
+   * 
+   * @param opStageCtxt	context of the operation stage
+   * @param funcName	name of the traced function
+   * @param probe	name of the probes, without the _start and _end suffixes
+   * @param xcoderType	type of the encoder or decoder
+   * @param xcoder	encoder or decoder
+   * @param bodyType	type of the body structure
+   */
+  private void addTraceWrapperFunction(OpStageContext opStageCtxt, String funcName, String probe,
+  		String xcoderType, String xcoder, String bodyType) throws IOException
+  {
+  	AreaContext areaContext = opStageCtxt.opContext.serviceContext.areaContext;
+  	String[][] params = { { "void *", "cursor" }, { xcoderType, xcoder }, { bodyType + " *", "body" } };
+  	String probeArgs = getTraceProbeArgs(opStageCtxt, probe, opStageCtxt.qfOpStageNameL, "0");
+  	addTraceWrapperFunction(areaContext.areaC, areaContext, funcName, probeArgs, params, xcoder);
+  }
+
+  /**
+   * Define the measuring and tracing functions of a function opened by openTracedFunction, with any parameters
+   * including a cursor parameter.
+   * 
+   * @param code	writer of the function definition
+   * @param areaContext	context of the area holding the probes and the statistics
+   * @param funcName	name of the traced function
+   * @param probeArgs	arguments of the trace probes macros, without the returned code
+   * @param params	types and names of the function parameters
+   * @param xcoder	encoder or decoder
+   */
+  private void addTraceWrapperFunction(CFileWriter code, AreaContext areaContext, String funcName, String probeArgs,
+  		String[][] params, String xcoder) throws IOException
+  {
+  	if (generateTraceProbes)
+  	{
+  		addStatsWrapperFunction(code, areaContext, "static int", funcName + "_untraced", funcName, params, xcoder);
+  	}
+  	else
+  	{
+  		addStatsWrapperFunction(code, areaContext, "int", funcName, funcName, params, xcoder);
+  		return;
+  	}
+  	String areaNameU = areaContext.areaNameL.toUpperCase();
+  	StringBuilder args = new StringBuilder();
+  	for (String[] param : params)
+  	{
+  		args.append(args.length() == 0 ? "" : ", ").append(param[1]);
+  	}
+  	// int <function>(<parameters>) {
+  	// #ifdef <AREA>_TRACE
+  	//	<AREA>_TRACE_START(<probe>, "<name>", <service>, <operation>, 0);
+  	//	int rc = <function>_untraced(<parameters names>);
+  	//	<AREA>_TRACE_END(<probe>, "<name>", <service>, <operation>, 0, rc);
+  	//	return rc;
+  	// #else
+  	//	return <function>_untraced(<parameters names>);
+  	// #endif
+  	// }
+  	code.openFunction("int", funcName, params.length);
+  	code.addFunctionParameters(params);
+  	code.openFunctionBody();
+  	code.addDirective("#ifdef " + areaNameU + "_TRACE");
+  	code.addStatement(areaNameU + "_TRACE_START(" + probeArgs + ");");
+  	code.addStatement("int rc = " + funcName + "_untraced(" + args + ");");
+  	code.addStatement(areaNameU + "_TRACE_END(" + probeArgs + ", rc);");
+  	code.addStatement("return rc;");
+  	code.addDirective("#else");
+  	code.addStatement("return " + funcName + "_untraced(" + args + ");");
+  	code.addDirective("#endif");
+  	code.closeFunctionBody();
+  }
+
+  /**
+   * Get the header file declaring the functions of a type, when it is not included from the <area>_fwd.h file.
+   * 
+   * @param areaContext	context of the area including the header
+   * @param type	the referenced type
+   * @return the header file name, or null if no specific header is required
+   */
+  private String getTypeHeader(AreaContext areaContext, TypeReference type)
+  {
+  	// the MAL types are declared in mal.h, included from <area>_fwd.h
+  	if (StdStrings.MAL.equals(type.getArea()))
+  		return null;
+  	TypeDetails typeDetails = getTypeDetails(type);
+  	String qfTypeNameL = typeDetails.qfTypeNameL;
+  	if (type.isList())
+  		return qfTypeNameL + "_list.h";
+  	if (typeDetails.isComposite)
+  		return qfTypeNameL + ".h";
+  	// an enumeration is declared in the <area>_fwd.h file of its area
+  	if (areaContext.area.getName().equals(type.getArea()))
+  		return null;
+  	return type.getArea().toLowerCase() + "_fwd.h";
+  }
+
+  protected void processService(AreaContext areaContext, ServiceType service) throws IOException
+  {
+    getLog().info("Processing service: " + service.getName());
+  	ServiceContext serviceContext = new ServiceContext(areaContext, service);
+
+    String comment = "standard service identifiers";
     areaContext.areaHTypes.addNewLine();
     areaContext.areaHTypes.addSingleLineComment(comment);
-    
-    // typedef enum {
-    //	<AREA>_[<SERVICE>_]<ENUMERATION>_<ENUMERATED NAME>,
-    //	...
-    // } <area>_[<service>_]<enumeration>_t;
-    areaContext.areaHTypes.openTypedefEnum(null);
-    for (int i = 0; i < enumSize; i++)
+  	areaContext.areaHTypes.addDefine(areaContext.areaNameL.toUpperCase() + "_" + serviceContext.serviceNameL.toUpperCase() + "_SERVICE_NUMBER", String.valueOf(service.getNumber()));
+  	
+    // if service level types exist
+    if ((null != service.getDataTypes()) && !service.getDataTypes().getCompositeOrEnumeration().isEmpty())
     {
-      Item item = enumeration.getItem().get(i);
-      // the nValue of the enumerated variable is ignored at this stage
-      // we keep the default value set by the C language, optimal for encoding
-      areaContext.areaHTypes.addTypedefEnumElement(mapEnumNameU + "_" + item.getValue().toUpperCase(), null, i == (enumSize-1));
+      // all files are created in the same directory
+      for (Object oType : service.getDataTypes().getCompositeOrEnumeration())
+      {
+        if (oType instanceof EnumerationType)
+        {
+          createEnumeration(serviceContext.serviceFolder, areaContext, serviceContext, (EnumerationType) oType);
+        }
+        else if (oType instanceof CompositeType)
+        {
+          createComposite(serviceContext.serviceFolder, areaContext, serviceContext, (CompositeType) oType);
+        }
+        else
+        {
+          throw new IllegalArgumentException("Unexpected service (" + areaContext.area.getName() + ":" + service.getName() + ") level datatype of " + oType.getClass().getName());
+        }
+      }
     }
-    areaContext.areaHTypes.closeTypedefEnum(mapEnumNameL + "_t");
-    
-    // create an array holding the enumerated values in the <area>.c file
-    // only the indexes of the enumerated variables are kept in the <area>.h
-    //	int <AREA>_<SERVICE>_<ENUMERATION>_NUMERIC_VALUES[] = {
-    //		<numeric value>,
-    //		...
-    //	}
-    areaContext.areaC.addNewLine();
-    areaContext.areaC.addStatement("int " + mapEnumNameL.toUpperCase() + "_NUMERIC_VALUES[] =");
-    areaContext.areaC.addStatement("{", 1);
-    for (int i = 0; i < enumSize; i++)
+
+    // don't create operation classes for COM as this is autogenerated in the specific services
+    if (! serviceContext.summary.isComService())
     {
-      Item item = enumeration.getItem().get(i);
-      areaContext.areaC.addStatement(Long.toString(item.getNvalue()) + (i == (enumSize-1) ? "" : ","));
+    	for (OperationSummary op : serviceContext.summary.getOperations())
+      {
+    		processOperation(serviceContext, op);
+      }
     }
-    areaContext.areaC.addStatement("};", -1, true);
-    
-    // create the type short form
-    comment = "short form for enumeration type " + mapEnumNameL;
-    areaContext.areaHTypes.addNewLine();
-    areaContext.areaHTypes.addSingleLineComment(comment);
-    // #define <AREA>_[<SERVICE>_]<ENUMERATION>_SHORT_FORM <type absolute short form>
-    long typeShortForm = getAbsoluteShortForm(
-				area.getNumber(),
-				service == null ? 0 : service.getNumber(),
-				area.getVersion(),
-				(int) enumeration.getShortFormPart());
-    areaContext.areaHTypes.addDefine(
-    		mapEnumNameU + "_SHORT_FORM",
-    		"0x" + Long.toHexString(typeShortForm) + "L");
-    
-    // create the list type associated with the enumeration
-    createEnumerationList(folder, areaContext, serviceContext, enumeration, mapEnumNameL, mbSize);
-    
-    // create the type short form
-    comment = "short form for list of enumeration type " + mapEnumNameL;
-    areaContext.areaHTypes.addNewLine();
-    areaContext.areaHTypes.addSingleLineComment(comment);
-    // #define <AREA>_[<SERVICE>_]<ENUMERATION>_LIST_SHORT_FORM <type absolute short form>
-    typeShortForm = getAbsoluteShortForm(
-    		area.getNumber(),
-    		service == null ? 0 : service.getNumber(),
-				area.getVersion(),
-				- (int) enumeration.getShortFormPart());
-    areaContext.areaHTypes.addDefine(
-    		mapEnumNameU + "_LIST_SHORT_FORM",
-    		"0x" + Long.toHexString(typeShortForm) + "L");
 
-    areaContext.areaHTypes.flush();
-    areaContext.areaHContent.flush();
   }
 
-  protected void createEnumerationList(File folder, AreaContext areaContext, ServiceContext serviceContext, EnumerationType enumeration, String mapEnumNameL, MalbinaryEnumSize mbSize) throws IOException
+  protected void processOperation(ServiceContext serviceContext, OperationSummary operation) throws IOException
   {
-  	String comment;
-    String enumName = enumeration.getName();
-    AreaType area = areaContext.area;
-    ServiceType service = null;
-    if (serviceContext != null)
+    getLog().info("Processing operation: " + operation.getName());
+  	OperationContext opContext = new OperationContext(serviceContext, operation);
+  	OperationErrorList errors = null;
+
+    String comment = "generated code for operation " + opContext.qfOpNameL;
+    CFileWriter areaH = serviceContext.areaContext.areaHContent;
+    CFileWriter areaC = serviceContext.areaContext.areaC;
+    areaH.addNewLine();
+    areaH.addSingleLineComment(comment);
+    areaC.addNewLine();
+    areaC.addSingleLineComment(comment);
+
+    areaH.addDefine(opContext.qfOpNameL.toUpperCase() + "_OPERATION_NUMBER", String.valueOf(operation.getNumber()));
+  	
+    switch (operation.getPattern())
     {
-    	service = serviceContext.summary.getService();
+    	case SEND_OP:
+    	{
+    		addInitInteractionFunction(opContext, "send", operation.getArgTypes());
+    		break;
+    	}
+    	case SUBMIT_OP:
+    	{
+    		addInitInteractionFunction(opContext, "submit", operation.getArgTypes());
+    		addResultInteractionFunctions(opContext, "submit_ack", operation.getAckTypes());
+    		OperationType opType = operation.getOriginalOp();
+    		if (opType == null || ! (opType instanceof SubmitOperationType))
+    		{
+    			throw new IllegalStateException("Submit operation " + opContext.qfOpNameL + " is not typed SubmitOperationType");
+    		}
+    		errors = ((SubmitOperationType) opType).getErrors();
+    		break;
+    	}
+    	case REQUEST_OP:
+    	{
+    		addInitInteractionFunction(opContext, "request", operation.getArgTypes());
+    		addResultInteractionFunctions(opContext, "request_response", operation.getRetTypes());
+    		OperationType opType = operation.getOriginalOp();
+    		if (opType == null || ! (opType instanceof RequestOperationType))
+    		{
+    			throw new IllegalStateException("Request operation " + opContext.qfOpNameL + " is not typed RequestOperationType");
+    		}
+    		errors = ((RequestOperationType) opType).getErrors();
+    		break;
+    	}
+    	case INVOKE_OP:
+    	{
+    		addInitInteractionFunction(opContext, "invoke", operation.getArgTypes());
+    		addResultInteractionFunctions(opContext, "invoke_ack", operation.getAckTypes());
+    		addResultInteractionFunctions(opContext, "invoke_response", operation.getRetTypes());
+    		OperationType opType = operation.getOriginalOp();
+    		if (opType == null || ! (opType instanceof InvokeOperationType))
+    		{
+    			throw new IllegalStateException("Invoke operation " + opContext.qfOpNameL + " is not typed InvokeOperationType");
+    		}
+    		errors = ((InvokeOperationType) opType).getErrors();
+    		break;
+    	}
+    	case PROGRESS_OP:
+    	{
+    		addInitInteractionFunction(opContext, "progress", operation.getArgTypes());
+    		addResultInteractionFunctions(opContext, "progress_ack", operation.getAckTypes());
+    		addResultInteractionFunctions(opContext, "progress_update", operation.getUpdateTypes());
+    		addResultInteractionFunctions(opContext, "progress_response", operation.getRetTypes());
+    		OperationType opType = operation.getOriginalOp();
+    		if (opType == null || ! (opType instanceof ProgressOperationType))
+    		{
+    			throw new IllegalStateException("Progress operation " + opContext.qfOpNameL + " is not typed ProgressOperationType");
+    		}
+    		errors = ((ProgressOperationType) opType).getErrors();
+    		break;
+    	}
+    	case PUBSUB_OP:
+    	{
+    		OpStageContext updateCtxt = generatePubSubEncodingRelatedParameters(opContext, "update", operation.getUpdateTypes());
+    		addRegisterFunction(opContext, "register");
+    		addXregisterGenericFunction(opContext, "register");
+    		addPublishRegisterFunction(opContext, "publish_register");
+    		addPublishFunction(opContext, "publish", operation.getUpdateTypes());
+    		if (batchedPublishers)
+    		{
+    			addBatchedPublisher(updateCtxt);
+    		}
+    		addDeregisterFunction(opContext, "deregister");
+    		addXregisterGenericFunction(opContext, "deregister");
+    		addPublishDeregisterFunction(opContext, "publish_deregister");
+    		OperationType opType = operation.getOriginalOp();
+    		if (opType == null || ! (opType instanceof PubSubOperationType))
+    		{
+    			throw new IllegalStateException("PubSub operation " + opContext.qfOpNameL + " is not typed PubSubOperationType");
+    		}
+    		errors = ((PubSubOperationType) opType).getErrors();
+    		break;
+    	}
     }
-    String malEnumName = area.getName() + ":" + (service == null ? "_" : service.getName()) + ":" + enumName;
+    if (errors != null)
+    {
+    	// declare the errors
+    	processOpErrors(opContext, errors);
 
-    getLog().info("Creating list type for enumeration " + malEnumName);
+    	addInteractionErrorXcodingFunctions(opContext, errors);
+    }
+  }
+  
+  protected void processOpErrors(OperationContext opContext, OperationErrorList errors) throws IOException
+  {
+  	if (errors == null)
+  		return;
+  	List<Object> errorList = errors.getErrorOrErrorRef();
+  	if (errorList.isEmpty())
+  		return;
+
+  	for (Object error : errorList)
+  	{
+  		if (error instanceof ErrorDefinitionType)
+  		{
+  			ErrorDefinitionType errorDef = (ErrorDefinitionType) error;
+  			// declare the error in the area include file
+  			// #define <AREA>_<SERVICE>_<OPERATION>_<ERROR>_ERROR_NUMBER <error number>
+  			opContext.serviceContext.areaContext.areaH.addDefine(
+  					opContext.qfOpNameL.toUpperCase() + "_" + errorDef.getName().toUpperCase() + "_ERROR_NUMBER",
+  					Long.toString(errorDef.getNumber()));
+  		}
+  		else if (error instanceof ErrorReferenceType)
+  		{
+  			// should include the reference area
+  			// currently unnecessary as all areas are included
+  		}
+  		else
+  		{
+  			throw new IllegalStateException("unexpected error structure: " + error.getClass().getName());
+  		}
+  	}
+  }
+  
+  protected List<TypeReference> getOpErrorTypes(OperationErrorList errors)
+  {
+  	// error management is not optimal here
+  	// we must generate encoding functions for all possible types, and an abstract decoding function.
+  	// we have considered 3 strategies :
+  	// 1- build a list of unique acceptable types and call the proper generation functions with those types
+  	// 2- call the generation functions with all the error types, and do not generate codes for types already handled for this operation
+  	// 3- call the generation functions for all the types in the area (i.e. MAL::Element)
+  	// Strategy 3 is the simplest to implement, it has been chosen with a little optimizing
+  	List<Object> errorList = errors.getErrorOrErrorRef();
+  	if (errorList.isEmpty())
+  	{
+  		return null;
+  	}
+  	
+  	List<TypeReference> opErrorTypes = new ArrayList<TypeReference>();
+  	
+  	for (Object error : errorList)
+  	{
+  		ElementReferenceWithCommentType errorType = null;
+  		if (error instanceof ErrorDefinitionType)
+  		{
+  			errorType = ((ErrorDefinitionType) error).getExtraInformation();
+  		}
+  		else if (error instanceof ErrorReferenceType)
+  		{
+  			errorType = ((ErrorReferenceType) error).getExtraInformation();
+  		}
+  		else
+  		{
+  			throw new IllegalStateException("unexpected error structure: " + error.getClass().getName());
+  		}
+  		if (errorType != null)
+  		{
+			// Check that this type is not already in the list
+			boolean contains = false;
+			TypeReference errorTypeRef = errorType.getType();
+			for (TypeReference typeReference : opErrorTypes) {
+				// Test equality of the references
+				if (typeReference == errorTypeRef)
+					// instance equality
+					contains = true;
+				else if (typeReference.isList() == errorTypeRef.isList() &&
+						Objects.equals(typeReference.getArea(), errorTypeRef.getArea()) &&
+						Objects.equals(typeReference.getService(), errorTypeRef.getService()) &&
+						Objects.equals(typeReference.getName(), errorTypeRef.getName()))
+					// Values equality
+					contains = true;
+			}
+			if (!contains)
+				opErrorTypes.add(errorTypeRef);
+  		}
+  	}
+	return opErrorTypes;
+  }
+  
+  @Override
+  protected CompositeField createCompositeElementsDetails(TargetWriter file, boolean checkType, String fieldName, TypeReference elementType, boolean isStructure, boolean canBeNull, String comment)
+  {
+  	// this function is currently called in the C generator with a null file parameter
+  	// type dependencies are handled in another way
+    CompositeField ele;
+
+    String typeName = elementType.getName();
+
+    if (checkType && !isKnownType(elementType))
+    {
+      getLog().warn("Unknown type (" + new TypeKey(elementType)
+              + ") is being referenced as field (" + fieldName + ")");
+    }
+
+    if (elementType.isList())
+    {
+    	String fqTypeName;
+    	if (isAttributeNativeType(elementType))
+    	{
+    		fqTypeName = createElementType((LanguageWriter) file, StdStrings.MAL, null, typeName + "List");
+    	}
+    	else
+    	{
+    		fqTypeName = createElementType((LanguageWriter) file, elementType, true) + "List";
+    	}
+
+    	String newCall = null;
+    	String encCall = null;
+    	if (!isAbstract(elementType))
+    	{
+    		newCall = "new " + fqTypeName + "()";
+    		encCall = StdStrings.ELEMENT;
+    	}
+
+    	ele = new CompositeField(fqTypeName, elementType, fieldName, elementType.isList(), canBeNull, false, encCall, "(" + fqTypeName + ") ", StdStrings.ELEMENT, true, newCall, comment);
+    }
+    else
+    {
+      if (isAttributeType(elementType))
+      {
+        AttributeTypeDetails details = getAttributeDetails(elementType);
+        String fqTypeName = createElementType((LanguageWriter) file, elementType, isStructure);
+        ele = new CompositeField(details.getTargetType(), elementType, fieldName, elementType.isList(), canBeNull, false, typeName, "", typeName, false, "new " + fqTypeName + "()", comment);
+      }
+      else
+      {
+        TypeReference elementTypeIndir = elementType;
+
+        // have to work around the fact that JAXB does not replicate the XML type name into Java in all cases
+        if ("XML".equalsIgnoreCase(elementType.getArea()))
+        {
+          elementTypeIndir = TypeUtils.createTypeReference(elementType.getArea(), elementType.getService(), StubUtils.preCap(elementType.getName()), elementType.isList());
+        }
+
+        String fqTypeName = createElementType((LanguageWriter) file, elementTypeIndir, isStructure);
+
+        if (isEnum(elementType))
+        {
+          EnumerationType typ = getEnum(elementType);
+          String firstEle = fqTypeName + "." + typ.getItem().get(0).getValue();
+          ele = new CompositeField(fqTypeName, elementType, fieldName, elementType.isList(), canBeNull, false, StdStrings.ELEMENT, "(" + fqTypeName + ") ", StdStrings.ELEMENT, true, firstEle, comment);
+        }
+        else if (StdStrings.ATTRIBUTE.equals(typeName))
+        {
+          ele = new CompositeField(fqTypeName, elementType, fieldName, elementType.isList(), canBeNull, false, StdStrings.ATTRIBUTE, "(" + fqTypeName + ") ", StdStrings.ATTRIBUTE, false, "", comment);
+        }
+        else if (StdStrings.ELEMENT.equals(typeName))
+        {
+          ele = new CompositeField(fqTypeName, elementType, fieldName, elementType.isList(), canBeNull, false, StdStrings.ELEMENT, "(" + fqTypeName + ") ", StdStrings.ELEMENT, false, "", comment);
+        }
+        else
+        {
+          ele = new CompositeField(fqTypeName, elementType, fieldName, elementType.isList(), canBeNull, false, StdStrings.ELEMENT, "(" + fqTypeName + ") ", StdStrings.ELEMENT, true, "new " + fqTypeName + "()", comment);
+        }
+      }
+    }
+
+    return ele;
+  }
+
+  protected void createEnumeration(File folder, AreaContext areaContext, ServiceContext serviceContext, EnumerationType enumeration) throws IOException
+  {
+  	String comment;
+    String enumName = enumeration.getName();
+    AreaType area = areaContext.area;
+    ServiceType service = null;
+    if (serviceContext != null)
+    {
+    	service = serviceContext.summary.getService();
+    }
+    String malEnumName = area.getName() + ":" + (service == null ? "_" : service.getName()) + ":" + enumName;
+
+    getLog().info("Creating enumeration " + malEnumName);
+    
+    // malbinary encoding size of the enumeration
+    int enumSize = enumeration.getItem().size();
+    MalbinaryEnumSize mbSize = getEnumMBSize(enumSize);
+    
+    // define the enumeration type itself
+    // the enumeration is defined only in the <area>.h file
+
+    StringBuilder buf = new StringBuilder();
+    buf.append(areaContext.areaNameL);
+    buf.append("_");
+    if (serviceContext != null)
+    {
+    	buf.append(serviceContext.serviceNameL);
+    	buf.append("_");
+    }
+    buf.append(enumName.toLowerCase());
+    String mapEnumNameL = buf.toString();
+    String mapEnumNameU = mapEnumNameL.toUpperCase();
+
+    comment = "generated code for enumeration " + mapEnumNameL;
+    areaContext.areaHTypes.addNewLine();
+    areaContext.areaHTypes.addSingleLineComment(comment);
+    
+    // typedef enum {
+    //	<AREA>_[<SERVICE>_]<ENUMERATION>_<ENUMERATED NAME>,
+    //	...
+    // } <area>_[<service>_]<enumeration>_t;
+    areaContext.areaHTypes.openTypedefEnum(null);
+    for (int i = 0; i < enumSize; i++)
+    {
+      Item item = enumeration.getItem().get(i);
+      // the nValue of the enumerated variable is ignored at this stage
+      // we keep the default value set by the C language, optimal for encoding
+      areaContext.areaHTypes.addTypedefEnumElement(mapEnumNameU + "_" + item.getValue().toUpperCase(), null, i == (enumSize-1));
+    }
+    areaContext.areaHTypes.closeTypedefEnum(mapEnumNameL + "_t");
+    
+    // create an array holding the enumerated values in the <area>.c file
+    // only the indexes of the enumerated variables are kept in the <area>.h
+    //	int <AREA>_<SERVICE>_<ENUMERATION>_NUMERIC_VALUES[] = {
+    //		<numeric value>,
+    //		...
+    //	}
+    areaContext.areaC.addNewLine();
+    areaContext.areaC.addStatement("int " + mapEnumNameL.toUpperCase() + "_NUMERIC_VALUES[] =");
+    areaContext.areaC.addStatement("{", 1);
+    for (int i = 0; i < enumSize; i++)
+    {
+      Item item = enumeration.getItem().get(i);
+      areaContext.areaC.addStatement(Long.toString(item.getNvalue()) + (i == (enumSize-1) ? "" : ","));
+    }
+    areaContext.areaC.addStatement("};", -1, true);
+    
+    // reverse lookup of the numeric values and lookup by name
+    addEnumLookupFunctions(areaContext, enumeration, mapEnumNameL);
+    addEnumTestCode(areaContext, mapEnumNameL, enumSize);
+    
+    // create the type short form
+    comment = "short form for enumeration type " + mapEnumNameL;
+    areaContext.areaHTypes.addNewLine();
+    areaContext.areaHTypes.addSingleLineComment(comment);
+    // #define <AREA>_[<SERVICE>_]<ENUMERATION>_SHORT_FORM <type absolute short form>
+    long typeShortForm = getAbsoluteShortForm(
+				area.getNumber(),
+				service == null ? 0 : service.getNumber(),
+				area.getVersion(),
+				(int) enumeration.getShortFormPart());
+    areaContext.areaHTypes.addDefine(
+    		mapEnumNameU + "_SHORT_FORM",
+    		"0x" + Long.toHexString(typeShortForm) + "L");
+    
+    // create the list type associated with the enumeration
+    createEnumerationList(folder, areaContext, serviceContext, enumeration, mapEnumNameL, mbSize);
+    
+    // create the type short form
+    comment = "short form for list of enumeration type " + mapEnumNameL;
+    areaContext.areaHTypes.addNewLine();
+    areaContext.areaHTypes.addSingleLineComment(comment);
+    // #define <AREA>_[<SERVICE>_]<ENUMERATION>_LIST_SHORT_FORM <type absolute short form>
+    typeShortForm = getAbsoluteShortForm(
+    		area.getNumber(),
+    		service == null ? 0 : service.getNumber(),
+				area.getVersion(),
+				- (int) enumeration.getShortFormPart());
+    areaContext.areaHTypes.addDefine(
+    		mapEnumNameU + "_LIST_SHORT_FORM",
+    		"0x" + Long.toHexString(typeShortForm) + "L");
+
+    areaContext.areaHTypes.flush();
+    areaContext.areaHContent.flush();
+  }
+
+  /**
+   * Generate the reverse lookup of the enumeration numeric values and the name lookups.
+   * The reverse lookup uses a table indexed by the numeric value when the values are dense,
+   * and a perfect hash table otherwise. The name lookup always uses a perfect hash table.
+   */
+  private void addEnumLookupFunctions(AreaContext areaContext, EnumerationType enumeration, String mapEnumNameL) throws IOException
+  {
+  	String mapEnumNameU = mapEnumNameL.toUpperCase();
+  	int enumSize = enumeration.getItem().size();
+  	CFileWriter areaC = areaContext.areaC;
+  	
+  	// declare the functions in the <area>.h file
+  	String comment = "numeric value and name lookups for enumeration " + mapEnumNameL;
+  	areaContext.areaHContent.addNewLine();
+  	areaContext.areaHContent.addSingleLineComment(comment);
+  	// int <area>_[<service>_]<enumeration>_from_numeric_value(int numeric_value, <area>_[<service>_]<enumeration>_t *value);
+  	areaContext.areaHContent.openFunctionPrototype("int", mapEnumNameL + "_from_numeric_value", 2);
+  	areaContext.areaHContent.addFunctionParameter("int", "numeric_value", false);
+  	areaContext.areaHContent.addFunctionParameter(mapEnumNameL + "_t *", "value", true);
+  	areaContext.areaHContent.closeFunctionPrototype();
+  	// const char *<area>_[<service>_]<enumeration>_to_string(<area>_[<service>_]<enumeration>_t value);
+  	areaContext.areaHContent.openFunctionPrototype("const char *", mapEnumNameL + "_to_string", 1);
+  	areaContext.areaHContent.addFunctionParameter(mapEnumNameL + "_t", "value", true);
+  	areaContext.areaHContent.closeFunctionPrototype();
+  	// int <area>_[<service>_]<enumeration>_from_string(const char *name, <area>_[<service>_]<enumeration>_t *value);
+  	areaContext.areaHContent.openFunctionPrototype("int", mapEnumNameL + "_from_string", 2);
+  	areaContext.areaHContent.addFunctionParameter("const char *", "name", false);
+  	areaContext.areaHContent.addFunctionParameter(mapEnumNameL + "_t *", "value", true);
+  	areaContext.areaHContent.closeFunctionPrototype();
+  	
+  	if (! areaContext.enumHashDefined)
+  	{
+  		addEnumHashFunction(areaContext);
+  		areaContext.enumHashDefined = true;
+  	}
+  	
+  	int[] nvalues = new int[enumSize];
+  	List<byte[]> nvalueKeys = new ArrayList<byte[]>(enumSize);
+  	List<byte[]> nameKeys = new ArrayList<byte[]>(enumSize);
+  	long minValue = Long.MAX_VALUE;
+  	long maxValue = Long.MIN_VALUE;
+  	for (int i = 0; i < enumSize; i++)
+  	{
+  		Item item = enumeration.getItem().get(i);
+  		// the values are stored as int in the NUMERIC_VALUES array
+  		nvalues[i] = (int) item.getNvalue();
+  		nvalueKeys.add(PerfectHash.intKey(nvalues[i]));
+  		nameKeys.add(PerfectHash.stringKey(item.getValue()));
+  		minValue = Math.min(minValue, nvalues[i]);
+  		maxValue = Math.max(maxValue, nvalues[i]);
+  	}
+  	
+  	// the names of the enumerated values, indexed by the enumerated value
+  	//	static const char *<AREA>_[<SERVICE>_]<ENUMERATION>_NAMES[] = {
+  	//		"<name>",
+  	//		...
+  	//	};
+  	areaC.addNewLine();
+  	areaC.addStatement("static const char *" + mapEnumNameU + "_NAMES[] =");
+  	areaC.addStatement("{", 1);
+  	for (int i = 0; i < enumSize; i++)
+  	{
+  		areaC.addStatement("\"" + enumeration.getItem().get(i).getValue() + "\"" + (i == (enumSize-1) ? "" : ","));
+  	}
+  	areaC.addStatement("};", -1, true);
+  	
+  	// the enumeration is dense if the numeric values range is not much larger than the number of values
+  	long range = maxValue - minValue + 1;
+  	boolean dense = (range <= 2 * enumSize);
+  	if (dense)
+  	{
+  		// table indexed by the numeric value minus the minimum value
+  		// giving the enumerated value, or -1 for an undefined numeric value
+  		//	static const int <AREA>_[<SERVICE>_]<ENUMERATION>_NVALUE_INDEX[] = {
+  		//		<enumerated value>,
+  		//		...
+  		//	};
+  		int[] index = new int[(int) range];
+  		Arrays.fill(index, -1);
+  		for (int i = 0; i < enumSize; i++)
+  		{
+  			int pos = (int) (nvalues[i] - minValue);
+  			if (index[pos] != -1)
+  			{
+  				throw new IllegalArgumentException("duplicate numeric value " + nvalues[i] + " in enumeration " + mapEnumNameL);
+  			}
+  			index[pos] = i;
+  		}
+  		addEnumIntTable(areaC, "static const int " + mapEnumNameU + "_NVALUE_INDEX[]", index);
+  		
+  		// int <area>_[<service>_]<enumeration>_from_numeric_value(int numeric_value, <area>_[<service>_]<enumeration>_t *value) {
+  		//	if (numeric_value < <min> || numeric_value > <max>) return -1;
+  		//	int ordinal = <AREA>_[<SERVICE>_]<ENUMERATION>_NVALUE_INDEX[numeric_value - <min>];
+  		//	if (ordinal < 0) return -1;
+  		//	*value = (<area>_[<service>_]<enumeration>_t) ordinal;
+  		//	return 0;
+  		// }
+  		areaC.addNewLine();
+  		areaC.openFunction("int", mapEnumNameL + "_from_numeric_value", 2);
+  		areaC.addFunctionParameter("int", "numeric_value", false);
+  		areaC.addFunctionParameter(mapEnumNameL + "_t *", "value", true);
+  		areaC.openFunctionBody();
+  		areaC.addStatement("if (numeric_value < " + minValue + " || numeric_value > " + maxValue + ")", 1);
+  		areaC.addStatement("return -1;", -1);
+  		areaC.addStatement("int ordinal = " + mapEnumNameU + "_NVALUE_INDEX[numeric_value - " + minValue + "];");
+  		areaC.addStatement("if (ordinal < 0)", 1);
+  		areaC.addStatement("return -1;", -1);
+  	}
+  	else
+  	{
+  		PerfectHash nvalueHash = PerfectHash.build(nvalueKeys);
+  		addEnumPerfectHashTables(areaC, mapEnumNameU + "_NVALUE", nvalueHash);
+  		
+  		// int <area>_[<service>_]<enumeration>_from_numeric_value(int numeric_value, <area>_[<service>_]<enumeration>_t *value) {
+  		//	uint32_t u = (uint32_t) numeric_value;
+  		//	unsigned char key[4] = { u & 0xff, (u >> 8) & 0xff, (u >> 16) & 0xff, (u >> 24) & 0xff };
+  		//	uint32_t seed = <AREA>_[<SERVICE>_]<ENUMERATION>_NVALUE_SEEDS[<area>_enum_hash(key, 4, 0) & <size - 1>];
+  		//	int ordinal = <AREA>_[<SERVICE>_]<ENUMERATION>_NVALUE_SLOTS[<area>_enum_hash(key, 4, seed) & <size - 1>];
+  		//	if (ordinal < 0 || <AREA>_[<SERVICE>_]<ENUMERATION>_NUMERIC_VALUES[ordinal] != numeric_value) return -1;
+  		//	*value = (<area>_[<service>_]<enumeration>_t) ordinal;
+  		//	return 0;
+  		// }
+  		areaC.addNewLine();
+  		areaC.openFunction("int", mapEnumNameL + "_from_numeric_value", 2);
+  		areaC.addFunctionParameter("int", "numeric_value", false);
+  		areaC.addFunctionParameter(mapEnumNameL + "_t *", "value", true);
+  		areaC.openFunctionBody();
+  		areaC.addStatement("uint32_t u = (uint32_t) numeric_value;");
+  		areaC.addStatement("unsigned char key[4] = { u & 0xff, (u >> 8) & 0xff, (u >> 16) & 0xff, (u >> 24) & 0xff };");
+  		areaC.addStatement("uint32_t seed = " + mapEnumNameU + "_NVALUE_SEEDS[" + areaContext.areaNameL + "_enum_hash(key, 4, 0) & " + (nvalueHash.size - 1) + "];");
+  		areaC.addStatement("int ordinal = " + mapEnumNameU + "_NVALUE_SLOTS[" + areaContext.areaNameL + "_enum_hash(key, 4, seed) & " + (nvalueHash.size - 1) + "];");
+  		areaC.addStatement("if (ordinal < 0 || " + mapEnumNameU + "_NUMERIC_VALUES[ordinal] != numeric_value)", 1);
+  		areaC.addStatement("return -1;", -1);
+  	}
+  	areaC.addStatement("*value = (" + mapEnumNameL + "_t) ordinal;");
+  	areaC.addStatement("return 0;");
+  	areaC.closeFunctionBody();
+  	
+  	// const char *<area>_[<service>_]<enumeration>_to_string(<area>_[<service>_]<enumeration>_t value) {
+  	//	if ((unsigned int) value >= <enum size>) return NULL;
+  	//	return <AREA>_[<SERVICE>_]<ENUMERATION>_NAMES[value];
+  	// }
+  	areaC.openFunction("const char *", mapEnumNameL + "_to_string", 1);
+  	areaC.addFunctionParameter(mapEnumNameL + "_t", "value", true);
+  	areaC.openFunctionBody();
+  	areaC.addStatement("if ((unsigned int) value >= " + enumSize + ")", 1);
+  	areaC.addStatement("return NULL;", -1);
+  	areaC.addStatement("return " + mapEnumNameU + "_NAMES[value];");
+  	areaC.closeFunctionBody();
+  	
+  	PerfectHash nameHash = PerfectHash.build(nameKeys);
+  	addEnumPerfectHashTables(areaC, mapEnumNameU + "_NAME", nameHash);
+  	
+  	// int <area>_[<service>_]<enumeration>_from_string(const char *name, <area>_[<service>_]<enumeration>_t *value) {
+  	//	size_t len = strlen(name);
+  	//	uint32_t seed = <AREA>_[<SERVICE>_]<ENUMERATION>_NAME_SEEDS[<area>_enum_hash((const unsigned char *) name, len, 0) & <size - 1>];
+  	//	int ordinal = <AREA>_[<SERVICE>_]<ENUMERATION>_NAME_SLOTS[<area>_enum_hash((const unsigned char *) name, len, seed) & <size - 1>];
+  	//	if (ordinal < 0 || strcmp(<AREA>_[<SERVICE>_]<ENUMERATION>_NAMES[ordinal], name) != 0) return -1;
+  	//	*value = (<area>_[<service>_]<enumeration>_t) ordinal;
+  	//	return 0;
+  	// }
+  	areaC.addNewLine();
+  	areaC.openFunction("int", mapEnumNameL + "_from_string", 2);
+  	areaC.addFunctionParameter("const char *", "name", false);
+  	areaC.addFunctionParameter(mapEnumNameL + "_t *", "value", true);
+  	areaC.openFunctionBody();
+  	areaC.addStatement("size_t len = strlen(name);");
+  	areaC.addStatement("uint32_t seed = " + mapEnumNameU + "_NAME_SEEDS[" + areaContext.areaNameL + "_enum_hash((const unsigned char *) name, len, 0) & " + (nameHash.size - 1) + "];");
+  	areaC.addStatement("int ordinal = " + mapEnumNameU + "_NAME_SLOTS[" + areaContext.areaNameL + "_enum_hash((const unsigned char *) name, len, seed) & " + (nameHash.size - 1) + "];");
+  	areaC.addStatement("if (ordinal < 0 || strcmp(" + mapEnumNameU + "_NAMES[ordinal], name) != 0)", 1);
+  	areaC.addStatement("return -1;", -1);
+  	areaC.addStatement("*value = (" + mapEnumNameL + "_t) ordinal;");
+  	areaC.addStatement("return 0;");
+  	areaC.closeFunctionBody();
+  }
+  
+  private void addEnumHashFunction(AreaContext areaContext) throws IOException
+  {
+  	// hash function used by the enumeration perfect hash tables, see PerfectHash.hash
+  	// static uint32_t <area>_enum_hash(const unsigned char *key, size_t len, uint32_t seed) {
+  	//	uint32_t h = 2166136261u ^ seed;
+  	//	for (size_t i = 0; i < len; i++) {
+  	//		h ^= key[i];
+  	//		h *= 16777619u;
+  	//	}
+  	//	h ^= h >> 16;
+  	//	h *= 0x85ebca6bu;
+  	//	h ^= h >> 13;
+  	//	h *= 0xc2b2ae35u;
+  	//	h ^= h >> 16;
+  	//	return h;
+  	// }
+  	CFileWriter areaC = areaContext.areaC;
+  	areaC.addNewLine();
+  	areaC.addSingleLineComment("hash function of the enumeration lookup tables");
+  	areaC.openFunction("static uint32_t", areaContext.areaNameL + "_enum_hash", 3);
+  	areaC.addFunctionParameter("const unsigned char *", "key", false);
+  	areaC.addFunctionParameter("size_t", "len", false);
+  	areaC.addFunctionParameter("uint32_t", "seed", true);
+  	areaC.openFunctionBody();
+  	areaC.addStatement("uint32_t h = " + Integer.toUnsignedString(PerfectHash.FNV_OFFSET_BASIS) + "u ^ seed;");
+  	areaC.addStatement("for (size_t i = 0; i < len; i++)");
+  	areaC.openBlock();
+  	areaC.addStatement("h ^= key[i];");
+  	areaC.addStatement("h *= " + Integer.toUnsignedString(PerfectHash.FNV_PRIME) + "u;");
+  	areaC.closeBlock();
+  	areaC.addStatement("h ^= h >> 16;");
+  	areaC.addStatement("h *= 0x85ebca6bu;");
+  	areaC.addStatement("h ^= h >> 13;");
+  	areaC.addStatement("h *= 0xc2b2ae35u;");
+  	areaC.addStatement("h ^= h >> 16;");
+  	areaC.addStatement("return h;");
+  	areaC.closeFunctionBody();
+  }
+  
+  private void addEnumPerfectHashTables(CFileWriter areaC, String tablePrefix, PerfectHash table) throws IOException
+  {
+  	//	static const uint32_t <prefix>_SEEDS[] = {
+  	//		<bucket seed>,
+  	//		...
+  	//	};
+  	//	static const int <prefix>_SLOTS[] = {
+  	//		<enumerated value or -1>,
+  	//		...
+  	//	};
+  	addEnumIntTable(areaC, "static const uint32_t " + tablePrefix + "_SEEDS[]", table.seeds);
+  	addEnumIntTable(areaC, "static const int " + tablePrefix + "_SLOTS[]", table.slots);
+  }
+  
+  private void addEnumIntTable(CFileWriter areaC, String declaration, int[] values) throws IOException
+  {
+  	areaC.addNewLine();
+  	areaC.addStatement(declaration + " =");
+  	areaC.addStatement("{", 1);
+  	for (int i = 0; i < values.length; i++)
+  	{
+  		areaC.addStatement(Integer.toString(values[i]) + (i == (values.length-1) ? "" : ","));
+  	}
+  	areaC.addStatement("};", -1, true);
+  }
+
+  protected void createEnumerationList(File folder, AreaContext areaContext, ServiceContext serviceContext, EnumerationType enumeration, String mapEnumNameL, MalbinaryEnumSize mbSize) throws IOException
+  {
+    String enumName = enumeration.getName();
+    AreaType area = areaContext.area;
+    ServiceType service = null;
+    if (serviceContext != null)
+    {
+    	service = serviceContext.summary.getService();
+    }
+    String malEnumName = area.getName() + ":" + (service == null ? "_" : service.getName()) + ":" + enumName;
+
+    getLog().info("Creating list type for enumeration " + malEnumName);
+
+    // declare the type in <area>.h
+    // typedef _<area>_[<service>_]<type>_list_t <area>_[<service>_]<type>_list_t;
+    areaContext.areaHTypes.addTypedefStruct("_" + mapEnumNameL + "_list_t", mapEnumNameL + "_list_t");
+    
+    // we create an <enumeration>_list.h and an <enumeration>_list.c files
+    // create the Writer structures
+    String nameBase = mapEnumNameL + "_list";
+    TypeListWriter enumListH = new TypeListWriter(folder, nameBase, "h");
+    TypeListWriter enumListC = new TypeListWriter(folder, nameBase, "c");
+    zclasses.add(nameBase);
+    areaContext.areaClasses.add(nameBase);
+
+    // write the opening statements in the global files
+    enumListH.openDefine();
+    enumListH.addInclude(areaContext.areaNameL + "_fwd.h");
+    enumListH.addNewLine();
+    enumListH.openC();
+
+    // initialize the .c file
+    // #include "<area>_[<service>_]<enumeration>_list.h"
+    enumListC.addInclude(nameBase + ".h");
+    enumListC.addInclude(areaContext.areaNameL + "_random.h");
+    enumListC.addNewLine();
+
+    // define the list structure and functions, from the list template or unrolled
+    if (macroLists)
+    {
+    	// <prefix>ENUM_LIST_DECLARE(<area>_[<service>_]<enumeration>)
+    	// <prefix><SIZE>_ENUM_LIST_DEFINE(<area>_[<service>_]<enumeration>)
+    	enumListH.addStatement(getListTemplatePrefix() + "ENUM_LIST_DECLARE(" + mapEnumNameL + ")");
+    	enumListC.addStatement(getListTemplatePrefix() + mbSize.getCgenPrefix().toUpperCase() + "_ENUM_LIST_DEFINE(" + mapEnumNameL + ")");
+    }
+    else
+    {
+    	addEnumListFunctions(areaContext, enumListH, enumListC, mapEnumNameL, mbSize);
+    }
+
+    // add a random instance function
+    addEnumListRandomFunction(enumListH, enumListC, mapEnumNameL, enumeration.getItem().size());
+
+    // add a test function
+    addEnumListTestFunction(enumListH, enumListC, mapEnumNameL);
+    if (generateBenchmarks)
+    {
+    	addBenchType(areaContext, mapEnumNameL + "_list", true);
+    }
+    
+    // write the closing statements in the global files
+    enumListH.closeC();
+    enumListH.closeDefine();
+    
+    // finalize the structure specific files
+    enumListH.flush();
+    enumListH.close();
+    enumListC.flush();
+    enumListC.close();
+    
+    // include the file in the main <area>.h
+    // assumes that the file folder is the main folder for the area 
+    areaContext.structureIncludes.addInclude(mapEnumNameL + "_list.h");
+  }
+  
+  /**
+   * Define the enumeration list structure and its constructor, destructor, accessors, capacity management
+   * and encoding functions. Also used with a placeholder element name to generate the list templates.
+   * 
+   * @param areaContext	context of the area, null for the list templates whose functions are not measured
+   * @param enumListH	writer of the declarations
+   * @param enumListC	writer of the definitions
+   * @param mapEnumNameL	<area>_[<service>_]<enumeration>
+   * @param mbSize	malbinary encoding size of the enumeration
+   */
+  private void addEnumListFunctions(AreaContext areaContext, CFileWriter enumListH, CFileWriter enumListC, String mapEnumNameL, MalbinaryEnumSize mbSize) throws IOException
+  {
+  	String comment;
+
+    // define the structure
+    // struct _<area>_[<service>_]<enumeration>_list_t {
+    //	unsigned int element_count;
+    //	unsigned int capacity;
+    //	bool *presence_flags;
+    //	<area>_[<service>_]<enumeration>_t *content;
+    // };
+    // the arrays are allocated for capacity elements, only the first element_count are used
+    enumListC.openStruct("_" + mapEnumNameL + "_list_t");
+    enumListC.addStructField("unsigned int", "element_count");
+    enumListC.addStructField("unsigned int", "capacity");
+    enumListC.addStructField("bool " + BRACKETS, "presence_flags");
+    enumListC.addStructField(mapEnumNameL + "_t " + BRACKETS, "content");
+    if (singleAllocationLists)
+    {
+    	// the presence flags are stored after the element_count initial values
+    	//	<area>_[<service>_]<enumeration>_t inline_content[];
+    	enumListC.addStructField(mapEnumNameL + "_t", "inline_content[]");
+    }
+    enumListC.closeStruct();
+    
+    // declare the constructor prototype in the .h file and define it in the .c file
+    comment = "default constructor";
+    enumListH.addNewLine();
+    enumListH.addSingleLineComment(comment);
+    enumListC.addNewLine();
+    enumListC.addSingleLineComment(comment);
+    
+    // <area>_[<service>_]<enumeration>_list_t *<area>_[<service>_]<enumeration>_list_new(unsigned int element_count);
+    enumListH.openFunctionPrototype(mapEnumNameL + "_list_t *", mapEnumNameL + "_list_new", 1);
+    enumListH.addFunctionParameter("unsigned int", "element_count", true);
+    enumListH.closeFunctionPrototype();
+    
+    // <area>_[<service>_]<enumeration>_list_t *<area>_[<service>_]<enumeration>_list_new(unsigned int element_count) { 
+    //		<area>_[<service>_]<enumeration>_list_t *self = (<area>_[<service>_]<enumeration>_list_t *) calloc(1, sizeof(<area>_[<service>_]<enumeration>_list_t));
+    //		if (!self) return NULL;
+    //		self->element_count = element_count;
+    //		self->capacity = element_count;
+    //		if (element_count == 0) return self;
+    //		self->presence_flags = (bool *) calloc(element_count, sizeof(bool));
+    //		if (!self->presence_flags) {
+    //			free(self);
+    //			return NULL;
+    //		}
+    //		self->content = (<area>_[<service>_]<enumeration>_t *) calloc(element_count, sizeof(<area>_[<service>_]<enumeration>_t));
+    //		if (!self->content) {
+    //			free(self->presence_flags);
+    //			free(self);
+    //			return NULL;
+    //		}
+    //		return self;
+    // }
+    // with the single allocation option:
+    // <area>_[<service>_]<enumeration>_list_t *<area>_[<service>_]<enumeration>_list_new(unsigned int element_count) { 
+    //		<area>_[<service>_]<enumeration>_list_t *self = (<area>_[<service>_]<enumeration>_list_t *) calloc(1,
+    //			sizeof(<area>_[<service>_]<enumeration>_list_t) + element_count * (sizeof(<area>_[<service>_]<enumeration>_t) + sizeof(bool)));
+    //		if (!self) return NULL;
+    //		self->element_count = element_count;
+    //		self->capacity = element_count;
+    //		self->content = self->inline_content;
+    //		self->presence_flags = (bool *) (self->inline_content + element_count);
+    //		return self;
+    // }
+    enumListC.openFunction(mapEnumNameL + "_list_t *", mapEnumNameL + "_list_new", 1);
+    enumListC.addFunctionParameter("unsigned int", "element_count", true);
+    enumListC.openFunctionBody();
+    if (singleAllocationLists)
+    {
+    	enumListC.addStatement(mapEnumNameL + "_list_t *self = (" + mapEnumNameL + "_list_t *) calloc(1, sizeof(" + mapEnumNameL + "_list_t) + element_count * (sizeof(" + mapEnumNameL + "_t) + sizeof(bool)));");
+    	enumListC.addStatement("if (!self)", 1);
+    	enumListC.addStatement("return NULL;", -1);
+    	enumListC.addStatement("self->element_count = element_count;");
+    	enumListC.addStatement("self->capacity = element_count;");
+    	enumListC.addStatement("self->content = self->inline_content;");
+    	enumListC.addStatement("self->presence_flags = (bool *) (self->inline_content + element_count);");
+    	enumListC.addStatement("return self;");
+    	enumListC.closeFunctionBody();
+    }
+    else
+    {
+    	enumListC.addStatement(mapEnumNameL + "_list_t *self = (" + mapEnumNameL + "_list_t *) calloc(1, sizeof(" + mapEnumNameL + "_list_t));");
+    	enumListC.addStatement("if (!self)", 1);
+    	enumListC.addStatement("return NULL;", -1);
+    	enumListC.addStatement("self->element_count = element_count;");
+    	enumListC.addStatement("self->capacity = element_count;");
+    	enumListC.addStatement("if (element_count == 0)", 1);
+    	enumListC.addStatement("return self;", -1);
+    	enumListC.addStatement("self->presence_flags = (bool *) calloc(element_count, sizeof(bool));");
+    	enumListC.addStatement("if (!self->presence_flags)");
+    	enumListC.openBlock();
+    	enumListC.addStatement("free(self);");
+    	enumListC.addStatement("return NULL;");
+    	enumListC.closeBlock();
+    	enumListC.addStatement("self->content = (" + mapEnumNameL + "_t *) calloc(element_count, sizeof(" + mapEnumNameL + "_t));");
+    	enumListC.addStatement("if (!self->content)");
+    	enumListC.openBlock();
+    	enumListC.addStatement("free(self->presence_flags);");
+    	enumListC.addStatement("free(self);");
+    	enumListC.addStatement("return NULL;");
+    	enumListC.closeBlock();
+    	enumListC.addStatement("return self;");
+    	enumListC.closeFunctionBody();
+    }
+
+    // declare the destructor prototype in the .h file and define it in the .c file
+    comment = "destructor, free the list and its content";
+    enumListH.addNewLine();
+    enumListH.addSingleLineComment(comment);
+    enumListC.addNewLine();
+    enumListC.addSingleLineComment(comment);
+    
+    // void <area>_[<service>_]<enum>_list_destroy(<area>_[<service>_]<enum>_list_t **self_p);
+    enumListH.openFunctionPrototype("void", mapEnumNameL + "_list_destroy", 1);
+    enumListH.addFunctionParameter(mapEnumNameL + "_list_t **", "self_p", true);
+    enumListH.closeFunctionPrototype();
+
+    // void <area>_[<service>_]<enum>_list_destroy(<area>_[<service>_]<enum>_list_t **self_p) {
+    //	free((*self_p)->presence_flags);
+    //	free((*self_p)->content);
+    //	free (*self_p);
+    //	(*self_p) = NULL;
+    // }
+    // the arrays may be allocated for an empty list reused by the decode_into function
+    // with the single allocation option the arrays are only freed when they are not inline:
+    //	if ((*self_p)->content != (*self_p)->inline_content) {
+    //		free((*self_p)->presence_flags);
+    //		free((*self_p)->content);
+    //	}
+    enumListC.openFunction("void", mapEnumNameL + "_list_destroy", 1);
+    enumListC.addFunctionParameter(mapEnumNameL + "_list_t **", "self_p", true);
+    enumListC.openFunctionBody();
+    if (singleAllocationLists)
+    {
+    	enumListC.addStatement("if ((*self_p)->content != (*self_p)->inline_content)");
+    	enumListC.openBlock();
+    }
+    enumListC.addStatement("free((*self_p)->presence_flags);");
+    enumListC.addStatement("free((*self_p)->content);");
+    if (singleAllocationLists)
+    {
+    	enumListC.closeBlock();
+    }
+    enumListC.addStatement("free (*self_p);");
+    enumListC.addStatement("(*self_p) = NULL;");
+    enumListC.closeFunctionBody();
+    
+    // declare the reset function prototype in the .h file and define it in the .c file
+    comment = "reset function, empty the list and keep the allocated content for reuse";
+    enumListH.addNewLine();
+    enumListH.addSingleLineComment(comment);
+    enumListC.addNewLine();
+    enumListC.addSingleLineComment(comment);
+    
+    // void <area>_[<service>_]<enum>_list_clear(<area>_[<service>_]<enum>_list_t *self);
+    enumListH.openFunctionPrototype("void", mapEnumNameL + "_list_clear", 1);
+    enumListH.addFunctionParameter(mapEnumNameL + "_list_t *", "self", true);
+    enumListH.closeFunctionPrototype();
+    
+    // void <area>_[<service>_]<enum>_list_clear(<area>_[<service>_]<enum>_list_t *self) {
+    //	for (int i = 0; i < self->element_count; i++)
+    //		self->presence_flags[i] = false;
+    //	self->element_count = 0;
+    // }
+    enumListC.openFunction("void", mapEnumNameL + "_list_clear", 1);
+    enumListC.addFunctionParameter(mapEnumNameL + "_list_t *", "self", true);
+    enumListC.openFunctionBody();
+    enumListC.addStatement("for (int i = 0; i < self->element_count; i++)", 1);
+    enumListC.addStatement("self->presence_flags[i] = false;", -1);
+    enumListC.addStatement("self->element_count = 0;");
+    enumListC.closeFunctionBody();
+    
+    // declare the accessors prototypes in the .h file and define them in the .c file
+    comment = "fields accessors for enumeration list " + mapEnumNameL + "_list";
+    enumListH.addNewLine();
+    enumListH.addSingleLineComment(comment);
+    enumListC.addNewLine();
+    enumListC.addSingleLineComment(comment);
+    
+    // unsigned int <area>_[<service>_]<enumeration>_list_get_element_count(<area>_[<service>_]<enumeration>_list_t *self);
+    enumListH.openFunctionPrototype("unsigned int", mapEnumNameL + "_list_get_element_count", 1);
+    enumListH.addFunctionParameter(mapEnumNameL + "_list_t *", "self", true);
+    enumListH.closeFunctionPrototype();
+    // bool *<area>_[<service>_]<enumeration>_list_get_presence_flags(<area>_[<service>_]<enumeration>_list_t *self);
+    enumListH.openFunctionPrototype("bool " + BRACKETS, mapEnumNameL + "_list_get_presence_flags", 1);
+    enumListH.addFunctionParameter(mapEnumNameL + "_list_t *", "self", true);
+    enumListH.closeFunctionPrototype();
+    // <area>_[<service>_]<enumeration>_t *<area>_[<service>_]<enumeration>_list_get_content(<area>_[<service>_]<enumeration>_list_t *self);
+    enumListH.openFunctionPrototype(mapEnumNameL + "_t " + BRACKETS, mapEnumNameL + "_list_get_content", 1);
+    enumListH.addFunctionParameter(mapEnumNameL + "_list_t *", "self", true);
+    enumListH.closeFunctionPrototype();
+    
+    // unsigned int <area>_[<service>_]<enumeration>_list_get_element_count(<area>_[<service>_]<enumeration>_list_t *self) {
+    //	return self->element_count;
+    // }
+    enumListC.openFunction("unsigned int", mapEnumNameL + "_list_get_element_count", 1);
+    enumListC.addFunctionParameter(mapEnumNameL + "_list_t *", "self", true);
+    enumListC.openFunctionBody();
+    enumListC.addStatement("return self->element_count;");
+    enumListC.closeFunctionBody();
+    // bool *<area>_[<service>_]<enumeration>_list_get_presence_flags(<area>_[<service>_]<enumeration>_list_t *self) {
+    //	return self->presence_flags;
+    // }
+    enumListC.openFunction("bool " + BRACKETS, mapEnumNameL + "_list_get_presence_flags", 1);
+    enumListC.addFunctionParameter(mapEnumNameL + "_list_t *", "self", true);
+    enumListC.openFunctionBody();
+    enumListC.addStatement("return self->presence_flags;");
+    enumListC.closeFunctionBody();
+    // <area>_[<service>_]<enumeration>_t *<area>_[<service>_]<enumeration>_list_get_content(<area>_[<service>_]<enumeration>_list_t *self) {
+    //	return self->content;
+    // }
+    enumListC.openFunction(mapEnumNameL + "_t " + BRACKETS, mapEnumNameL + "_list_get_content", 1);
+    enumListC.addFunctionParameter(mapEnumNameL + "_list_t *", "self", true);
+    enumListC.openFunctionBody();
+    enumListC.addStatement("return self->content;");
+    enumListC.closeFunctionBody();
+
+    addEnumListGrowthFunctions(enumListH, enumListC, mapEnumNameL);
+
+    // declare the prototypes of the encoding functions in the .h file
+    // and define them in the .c file
+    if (generateTransportMalbinary || generateTransportMalsplitbinary)
+    {
+    	addEnumListEncodingFunctions(areaContext, enumListH, enumListC, mapEnumNameL, mbSize);
+    }
+  }
+  
+  /**
+   * Generate code for a composite type.
+   * The type may be declared at the area level or at the service level.
+   * @param folder folder to create the composite files in
+   * @param areaContext context of the area defining the composite
+   * @param serviceContext context of the service defining the composite, may be null
+   * @param composite
+   * @throws IOException
+   */
+  protected void createComposite(File folder, AreaContext areaContext, ServiceContext serviceContext, CompositeType composite) throws IOException
+  {
+  	String comment;
+    AreaType area = areaContext.area;
+    ServiceType service = null;
+    if (serviceContext != null)
+    {
+    	service = serviceContext.summary.getService();
+    }
+    String malCompName = area.getName() + ":" + (service == null ? "_" : service.getName()) + ":" + composite.getName();
+
+    getLog().info("Creating composite " + malCompName);
+
+    // nothing is generated for abstract types
+    boolean abstractComposite = (null == composite.getShortFormPart());
+    if (abstractComposite)
+    {
+    	return;
+    }
+    
+    comment = "generated code for composite " + malCompName;
+    areaContext.areaHContent.addNewLine();
+    areaContext.areaHContent.addSingleLineComment(comment);
+    areaContext.areaHTypes.addNewLine();
+    areaContext.areaHTypes.addSingleLineComment(comment);
+    
+    CompositeContext compCtxt = new CompositeContext(areaContext, serviceContext, composite, folder);
+    String mapCompNameL = compCtxt.mapCompNameL;
+    String mapCompNameU = mapCompNameL.toUpperCase();
 
     // declare the type in <area>.h
-    // typedef _<area>_[<service>_]<type>_list_t <area>_[<service>_]<type>_list_t;
-    areaContext.areaHTypes.addTypedefStruct("_" + mapEnumNameL + "_list_t", mapEnumNameL + "_list_t");
+    // typedef struct _<area>_[<service>_]<composite>_t <area>_[<service>_]<composite>_t;
+    areaContext.areaHTypes.addTypedefStruct("_" + mapCompNameL + "_t", mapCompNameL + "_t");
     
-    // we create an <enumeration>_list.h and an <enumeration>_list.c files
+    // we create a <composite>.h and a <composite>.c files
     // create the Writer structures
-    String nameBase = mapEnumNameL + "_list";
-    TypeListWriter enumListH = new TypeListWriter(folder, nameBase, "h");
-    TypeListWriter enumListC = new TypeListWriter(folder, nameBase, "c");
-    zclasses.add(nameBase);
+    CompositeHWriter compositeH = compCtxt.compositeH;
+    CompositeCWriter compositeC = compCtxt.compositeC;
+    zclasses.add(mapCompNameL);
+    compCtxt.areaContext.areaClasses.add(mapCompNameL);
 
+    // include the file in the main <area>.h
+    // assumes that the file folder is the main folder for the area 
+    areaContext.structureIncludes.addInclude(mapCompNameL + ".h");
+    
     // write the opening statements in the global files
-    enumListH.openDefine();
-    enumListH.openC();
+    compositeH.openDefine();
+    compositeH.addInclude(areaContext.areaNameL + "_fwd.h");
+    compositeH.addNewLine();
+    compositeH.openC();
+
+    // generate all code related to the composite fields
+    // and define the structure in the <composite>.c file
+    // the <composite>.c file includes are written there, once the field types are known
+    processCompFields(compCtxt);
+
+    // declare and define the composite constructor
+    addCompositeConstructor(compCtxt);
+    
+    // declare the prototypes of the encoding functions in <composite>.h file
+    // and define them in the <composite>.c file
+    if (generateTransportMalbinary || generateTransportMalsplitbinary)
+    {
+    	addCompositeEncodingFunctions(compCtxt);
+    }
+    
+    // declare and define the composite destructor
+    addCompositeDestructor(compCtxt);
+    
+    // declare and define the composite reset function
+    addCompositeClearFunction(compCtxt);
+    
+    // create the type short form in the <area>.h file
+    comment = "short form for composite type " + malCompName;
+    areaContext.areaHTypes.addNewLine();
+    areaContext.areaHTypes.addSingleLineComment(comment);
+    // #define <AREA>_[<SERVICE>_]<COMPOSITE>_SHORT_FORM <type absolute short form>
+    long typeShortForm = getAbsoluteShortForm(
+				area.getNumber(),
+				service == null ? 0 : service.getNumber(),
+				area.getVersion(),
+				composite.getShortFormPart().intValue());
+    areaContext.areaHTypes.addDefine(
+    		mapCompNameU + "_SHORT_FORM",
+    		"0x" + Long.toHexString(typeShortForm) + "L");
+
+    // create the list type associated to the composite
+    createCompositeList(folder, compCtxt);
+    
+    // create the type short form
+    comment = "short form for list of composite type " + malCompName;
+    areaContext.areaHTypes.addNewLine();
+    areaContext.areaHTypes.addSingleLineComment(comment);
+    // #define <AREA>_[<SERVICE>_]<COMPOSITE>_LIST_SHORT_FORM <type absolute short form>
+    typeShortForm = getAbsoluteShortForm(
+    		area.getNumber(),
+    		service == null ? 0 : service.getNumber(),
+				area.getVersion(),
+				-composite.getShortFormPart().intValue());
+    areaContext.areaHTypes.addDefine(
+    		mapCompNameU + "_LIST_SHORT_FORM",
+    		"0x" + Long.toHexString(typeShortForm) + "L");
+
+    // add a random instance function
+    addCompositeRandomFunction(compCtxt);
+
+    // add a test function
+    addCompositeTestFunction(compCtxt);
+    if (generateBenchmarks)
+    {
+    	addBenchType(areaContext, mapCompNameL, false);
+    }
+    
+    // write the closing statements in the global files
+    compositeH.closeC();
+    compositeH.closeDefine();
+    
+    // finalize the structure specific files
+    compositeH.flush();
+    compositeH.close();
+    compositeC.flush();
+    compositeC.close();
+  }
+  
+  protected void createCompositeList(File folder, CompositeContext compCtxt) throws IOException
+  {
+  	StringBuilder buf = new StringBuilder();
+  	buf.append(compCtxt.areaContext.area.getName());
+  	if (compCtxt.serviceContext != null)
+  	{
+  		buf.append(":");
+  		buf.append(compCtxt.serviceContext.summary.getService().getName());
+  	}
+		buf.append(":");
+		buf.append(compCtxt.composite.getName());
+    String malCompName = buf.toString();
+
+    getLog().info("Creating list type for composite " + malCompName);
+
+    // declare the type in <area>.h
+    // typedef _<area>_[<service>_]<type>_list_t <area>_[<service>_]<type>_list_t;
+    String mapCompListType = compCtxt.mapCompNameL + "_list_t";
+    CFileWriter areaH = compCtxt.areaContext.areaHTypes;
+    areaH.addTypedefStruct("_" + mapCompListType, mapCompListType);
+
+    // we create a <composite>_list.h and a <composite>_list.c files
+    // create the Writer structures
+    String baseName = compCtxt.mapCompNameL + "_list";
+    TypeListWriter compListH = new TypeListWriter(folder, baseName, "h");
+    TypeListWriter compListC = new TypeListWriter(folder, baseName, "c");
+    zclasses.add(baseName);
+    compCtxt.areaContext.areaClasses.add(baseName);
+
+    // write the opening statements in the global files
+    compListH.openDefine();
+    compListH.addInclude(compCtxt.areaContext.areaNameL + "_fwd.h");
+    compListH.addNewLine();
+    compListH.openC();
 
     // initialize the .c file
-    // #include "<area>.h"
-    enumListC.addInclude(areaContext.areaNameL + ".h");
-    enumListC.addNewLine();
+    // #include "<area>_[<service>_]<composite>_list.h"
+    // #include "<area>_[<service>_]<composite>.h"
+    compListC.addInclude(baseName + ".h");
+    compListC.addInclude(compCtxt.mapCompNameL + ".h");
+    compListC.addInclude(compCtxt.areaContext.areaNameL + "_random.h");
+    compListC.addNewLine();
+
+    // define the list structure and functions, from the list template or unrolled
+    if (macroLists)
+    {
+    	// <prefix>COMPOSITE_LIST_DECLARE(<area>_[<service>_]<composite>)
+    	// <prefix>COMPOSITE_LIST_DEFINE(<area>_[<service>_]<composite>)
+    	compListH.addStatement(getListTemplatePrefix() + "COMPOSITE_LIST_DECLARE(" + compCtxt.mapCompNameL + ")");
+    	compListC.addStatement(getListTemplatePrefix() + "COMPOSITE_LIST_DEFINE(" + compCtxt.mapCompNameL + ")");
+    }
+    else
+    {
+    	addCompListFunctions(compCtxt.areaContext, compListH, compListC, compCtxt.mapCompNameL);
+    }
+
+    // add a random instance function
+    addCompositeListRandomFunction(compListH, compListC, compCtxt);
+
+    // add a test function
+    addCompositeListTestFunction(compListH, compListC, compCtxt);
+    if (generateBenchmarks)
+    {
+    	addBenchType(compCtxt.areaContext, compCtxt.mapCompNameL + "_list", true);
+    }
+    
+    // write the closing statements in the global files
+    compListH.closeC();
+    compListH.closeDefine();
+    
+    // finalize the structure specific files
+    compListH.flush();
+    compListH.close();
+    compListC.flush();
+    compListC.close();
+    
+    // include the file in the main <area>.h
+    // assumes that the file folder is the main folder for the area
+    compCtxt.areaContext.structureIncludes.addInclude(compCtxt.mapCompNameL + "_list.h");
+  }
+  
+  /**
+   * Define the composite list structure and its constructor, destructor, accessors, capacity management
+   * and encoding functions. Also used with a placeholder element name to generate the list template.
+   * 
+   * @param areaContext	context of the area, null for the list template whose functions are not measured
+   * @param compListH	writer of the declarations
+   * @param compListC	writer of the definitions
+   * @param mapCompNameL	<area>_[<service>_]<composite>
+   */
+  private void addCompListFunctions(AreaContext areaContext, CFileWriter compListH, CFileWriter compListC, String mapCompNameL) throws IOException
+  {
+  	String comment;
+    String mapCompListType = mapCompNameL + "_list_t";
 
     // define the structure
-    // struct _<area>_[<service>_]<enumeration>_list_t {
+    // struct _<area>_[<service>_]<composite>_list_t {
     //	unsigned int element_count;
-    //	bool *presence_flags;
-    //	<area>_[<service>_]<enumeration>_t *content;
+    //	unsigned int capacity;
+    //	<area>_[<service>_]<composite>_t **content;
     // };
-    enumListC.openStruct("_" + mapEnumNameL + "_list_t");
-    enumListC.addStructField("unsigned int", "element_count");
-    enumListC.addStructField("bool " + BRACKETS, "presence_flags");
-    enumListC.addStructField(mapEnumNameL + "_t " + BRACKETS, "content");
-    enumListC.closeStruct();
+    // the content is allocated for capacity elements, the elements beyond element_count are NULL
+    compListC.openStruct("_" + mapCompListType);
+    compListC.addStructField("unsigned int", "element_count");
+    compListC.addStructField("unsigned int", "capacity");
+    compListC.addStructField(mapCompNameL + "_t *" + BRACKETS, "content");
+    if (singleAllocationLists)
+    {
+    	//	<area>_[<service>_]<composite>_t *inline_content[];
+    	compListC.addStructField(mapCompNameL + "_t *", "inline_content[]");
+    }
+    compListC.closeStruct();
     
     // declare the constructor prototype in the .h file and define it in the .c file
     comment = "default constructor";
-    enumListH.addNewLine();
-    enumListH.addSingleLineComment(comment);
-    enumListC.addNewLine();
-    enumListC.addSingleLineComment(comment);
+    compListH.addNewLine();
+    compListH.addSingleLineComment(comment);
+    compListC.addNewLine();
+    compListC.addSingleLineComment(comment);
     
-    // <area>_[<service>_]<enumeration>_list_t *<area>_[<service>_]<enumeration>_list_new(unsigned int element_count);
-    enumListH.openFunctionPrototype(mapEnumNameL + "_list_t *", mapEnumNameL + "_list_new", 1);
-    enumListH.addFunctionParameter("unsigned int", "element_count", true);
-    enumListH.closeFunctionPrototype();
+    // <area>_[<service>_]<composite>_list_t *<area>_[<service>_]<composite>_list_new(unsigned int element_count);
+    compListH.openFunctionPrototype(mapCompListType + " *", mapCompNameL + "_list_new", 1);
+    compListH.addFunctionParameter("unsigned int", "element_count", true);
+    compListH.closeFunctionPrototype();
     
-    // <area>_[<service>_]<enumeration>_list_t *<area>_[<service>_]<enumeration>_list_new(unsigned int element_count) { 
-    //		<area>_[<service>_]<enumeration>_list_t *self = (<area>_[<service>_]<enumeration>_list_t *) calloc(1, sizeof(<area>_[<service>_]<enumeration>_list_t));
+    // <area>_[<service>_]<composite>_list_t *<area>_[<service>_]<composite>_list_new(unsigned int element_count) { 
+    //		<area>_[<service>_]<composite>_list_t *self = (<area>_[<service>_]<composite>_list_t *) calloc(1, sizeof(<area>_[<service>_]<composite>_list_t));
     //		if (!self) return NULL;
     //		self->element_count = element_count;
-    //		if (element_count == 0) return self;
-    //		self->presence_flags = (bool *) calloc(element_count, sizeof(bool));
-    //		if (!self->presence_flags) {
-    //			free(self);
-    //			return NULL;
-    //		}
-    //		self->content = (<area>_[<service>_]<enumeration>_t *) calloc(element_count, sizeof(<area>_[<service>_]<enumeration>_t));
-    //		if (!self->content) {
-    //			free(self->presence_flags);
+    //		self->capacity = element_count;
+    //		self->content = (<area>_[<service>_]<composite>_t **) calloc(element_count, sizeof(<area>_[<service>_]<composite>_t *));
+    //		if (!self->content && (element_count > 0)) {
     //			free(self);
     //			return NULL;
     //		}
     //		return self;
     // }
-    enumListC.openFunction(mapEnumNameL + "_list_t *", mapEnumNameL + "_list_new", 1);
-    enumListC.addFunctionParameter("unsigned int", "element_count", true);
-    enumListC.openFunctionBody();
-    enumListC.addStatement(mapEnumNameL + "_list_t *self = (" + mapEnumNameL + "_list_t *) calloc(1, sizeof(" + mapEnumNameL + "_list_t));");
-    enumListC.addStatement("if (!self)", 1);
-    enumListC.addStatement("return NULL;", -1);
-    enumListC.addStatement("self->element_count = element_count;");
-    enumListC.addStatement("if (element_count == 0)", 1);
-    enumListC.addStatement("return self;", -1);
-    enumListC.addStatement("self->presence_flags = (bool *) calloc(element_count, sizeof(bool));");
-    enumListC.addStatement("if (!self->presence_flags)");
-    enumListC.openBlock();
-    enumListC.addStatement("free(self);");
-    enumListC.addStatement("return NULL;");
-    enumListC.closeBlock();
-    enumListC.addStatement("self->content = (" + mapEnumNameL + "_t *) calloc(element_count, sizeof(" + mapEnumNameL + "_t));");
-    enumListC.addStatement("if (!self->content)");
-    enumListC.openBlock();
-    enumListC.addStatement("free(self->presence_flags);");
-    enumListC.addStatement("free(self);");
-    enumListC.addStatement("return NULL;");
-    enumListC.closeBlock();
-    enumListC.addStatement("return self;");
-    enumListC.closeFunctionBody();
-
-    // declare the destructor prototype in the .h file and define it in the .c file
-    comment = "destructor, free the list and its content";
-    enumListH.addNewLine();
-    enumListH.addSingleLineComment(comment);
-    enumListC.addNewLine();
-    enumListC.addSingleLineComment(comment);
+    // with the single allocation option:
+    // <area>_[<service>_]<composite>_list_t *<area>_[<service>_]<composite>_list_new(unsigned int element_count) { 
+    //		<area>_[<service>_]<composite>_list_t *self = (<area>_[<service>_]<composite>_list_t *) calloc(1,
+    //			sizeof(<area>_[<service>_]<composite>_list_t) + element_count * sizeof(<area>_[<service>_]<composite>_t *));
+    //		if (!self) return NULL;
+    //		self->element_count = element_count;
+    //		self->capacity = element_count;
+    //		self->content = self->inline_content;
+    //		return self;
+    // }
+    compListC.openFunction(mapCompListType + " *", mapCompNameL + "_list_new", 1);
+    compListC.addFunctionParameter("unsigned int", "element_count", true);
+    compListC.openFunctionBody();
+    if (singleAllocationLists)
+    {
+    	compListC.addStatement(mapCompListType + " *self = (" + mapCompListType + " *) calloc(1, sizeof(" + mapCompListType + ") + element_count * sizeof(" + mapCompNameL + "_t *));");
+    }
+    else
+    {
+    	compListC.addStatement(mapCompListType + " *self = (" + mapCompListType + " *) calloc(1, sizeof(" + mapCompListType + "));");
+    }
+    compListC.addStatement("if (!self)", 1);
+    compListC.addStatement("return NULL;", -1);
+    compListC.addStatement("self->element_count = element_count;");
+    compListC.addStatement("self->capacity = element_count;");
+    if (singleAllocationLists)
+    {
+    	compListC.addStatement("self->content = self->inline_content;");
+    	compListC.addStatement("return self;");
+    	compListC.closeFunctionBody();
+    }
+    else
+    {
+    	compListC.addStatement("self->content = (" + mapCompNameL + "_t **) calloc(element_count, sizeof(" + mapCompNameL + "_t *));");
+    	compListC.addStatement("if (!self->content && (element_count > 0))");
+    	compListC.openBlock();
+    	compListC.addStatement("free(self);");
+    	compListC.addStatement("return NULL;");
+    	compListC.closeBlock();
+    	compListC.addStatement("return self;");
+    	compListC.closeFunctionBody();
+    }
+
+    // declare the destructor prototype in the .h file and define it in the .c file
+    comment = "destructor, free the list, its content and its elements";
+    compListH.addNewLine();
+    compListH.addSingleLineComment(comment);
+    compListC.addNewLine();
+    compListC.addSingleLineComment(comment);
     
-    // void <area>_[<service>_]<enum>_list_destroy(<area>_[<service>_]<enum>_list_t **self_p);
-    enumListH.openFunctionPrototype("void", mapEnumNameL + "_list_destroy", 1);
-    enumListH.addFunctionParameter(mapEnumNameL + "_list_t **", "self_p", true);
-    enumListH.closeFunctionPrototype();
+    // void <area>_[<service>_]<composite>_list_destroy(<area>_[<service>_]<composite>_list_t **self_p);
+    compListH.openFunctionPrototype("void", mapCompNameL + "_list_destroy", 1);
+    compListH.addFunctionParameter(mapCompListType + " **", "self_p", true);
+    compListH.closeFunctionPrototype();
 
-    // void <area>_[<service>_]<enum>_list_destroy(<area>_[<service>_]<enum>_list_t **self_p) {
+    // void <area>_[<service>_]<composite>_list_destroy(<area>_[<service>_]<composite>_list_t **self_p) {
     //	if ((*self_p)->element_count > 0) {
-    //		free((*self_p)->presence_flags);
+    //		for (int i = 0; i < (*self_p)->element_count; i++) {
+    //			if ((*self_p)->content[i] != NULL)
+    //				<area>_[<service>_]<composite>_destroy(&(*self_p)->content[i]);
+    //		}
     //		free((*self_p)->content);
     //	}
     //	free (*self_p);
     //	(*self_p) = NULL;
     // }
-    enumListC.openFunction("void", mapEnumNameL + "_list_destroy", 1);
-    enumListC.addFunctionParameter(mapEnumNameL + "_list_t **", "self_p", true);
-    enumListC.openFunctionBody();
-    enumListC.addStatement("if ((*self_p)->element_count > 0)");
-    enumListC.openBlock();
-    enumListC.addStatement("free((*self_p)->presence_flags);");
-    enumListC.addStatement("free((*self_p)->content);");
-    enumListC.closeBlock();
-    enumListC.addStatement("free (*self_p);");
-    enumListC.addStatement("(*self_p) = NULL;");
-    enumListC.closeFunctionBody();
+    compListC.openFunction("void", mapCompNameL + "_list_destroy", 1);
+    compListC.addFunctionParameter(mapCompListType + " **", "self_p", true);
+    compListC.openFunctionBody();
+    compListC.addStatement("if (self_p && *self_p)");
+    compListC.openBlock();
+    compListC.addStatement("for (int i = 0; i < (*self_p)->element_count; i++)");
+    compListC.openBlock();
+    compListC.addStatement("if ((*self_p)->content[i] != NULL)", 1);
+    compListC.addStatement(mapCompNameL + "_destroy(&(*self_p)->content[i]);", -1);
+    compListC.closeBlock();
+    if (singleAllocationLists)
+    {
+    	//	if ((*self_p)->content != (*self_p)->inline_content)
+    	//		free((*self_p)->content);
+    	compListC.addStatement("if ((*self_p)->content != (*self_p)->inline_content)", 1);
+    	compListC.addStatement("free((*self_p)->content);", -1);
+    }
+    else
+    {
+    	compListC.addStatement("free((*self_p)->content);");
+    }
+    compListC.closeBlock();
+    compListC.addStatement("free (*self_p);");
+    compListC.addStatement("(*self_p) = NULL;");
+    compListC.closeFunctionBody();
+    
+    // declare the reset function prototype in the .h file and define it in the .c file
+    comment = "reset function, destroy the elements, empty the list and keep the allocated content for reuse";
+    compListH.addNewLine();
+    compListH.addSingleLineComment(comment);
+    compListC.addNewLine();
+    compListC.addSingleLineComment(comment);
+    
+    // void <area>_[<service>_]<composite>_list_clear(<area>_[<service>_]<composite>_list_t *self);
+    compListH.openFunctionPrototype("void", mapCompNameL + "_list_clear", 1);
+    compListH.addFunctionParameter(mapCompListType + " *", "self", true);
+    compListH.closeFunctionPrototype();
+    
+    // void <area>_[<service>_]<composite>_list_clear(<area>_[<service>_]<composite>_list_t *self) {
+    //	for (int i = 0; i < self->element_count; i++) {
+    //		if (self->content[i] != NULL)
+    //			<area>_[<service>_]<composite>_destroy(&self->content[i]);
+    //	}
+    //	self->element_count = 0;
+    // }
+    compListC.openFunction("void", mapCompNameL + "_list_clear", 1);
+    compListC.addFunctionParameter(mapCompListType + " *", "self", true);
+    compListC.openFunctionBody();
+    compListC.addStatement("for (int i = 0; i < self->element_count; i++)");
+    compListC.openBlock();
+    compListC.addStatement("if (self->content[i] != NULL)", 1);
+    compListC.addStatement(mapCompNameL + "_destroy(&self->content[i]);", -1);
+    compListC.closeBlock();
+    compListC.addStatement("self->element_count = 0;");
+    compListC.closeFunctionBody();
     
     // declare the accessors prototypes in the .h file and define them in the .c file
-    comment = "fields accessors for enumeration list " + mapEnumNameL + "_list";
-    enumListH.addNewLine();
-    enumListH.addSingleLineComment(comment);
-    enumListC.addNewLine();
-    enumListC.addSingleLineComment(comment);
+    comment = "fields accessors for composite list " + mapCompNameL + "_list";
+    compListH.addNewLine();
+    compListH.addSingleLineComment(comment);
+    compListC.addNewLine();
+    compListC.addSingleLineComment(comment);
     
-    // unsigned int <area>_[<service>_]<enumeration>_list_get_element_count(<area>_[<service>_]<enumeration>_list_t *self);
-    enumListH.openFunctionPrototype("unsigned int", mapEnumNameL + "_list_get_element_count", 1);
-    enumListH.addFunctionParameter(mapEnumNameL + "_list_t *", "self", true);
-    enumListH.closeFunctionPrototype();
-    // bool *<area>_[<service>_]<enumeration>_list_get_presence_flags(<area>_[<service>_]<enumeration>_list_t *self);
-    enumListH.openFunctionPrototype("bool " + BRACKETS, mapEnumNameL + "_list_get_presence_flags", 1);
-    enumListH.addFunctionParameter(mapEnumNameL + "_list_t *", "self", true);
-    enumListH.closeFunctionPrototype();
-    // <area>_[<service>_]<enumeration>_t *<area>_[<service>_]<enumeration>_list_get_content(<area>_[<service>_]<enumeration>_list_t *self);
-    enumListH.openFunctionPrototype(mapEnumNameL + "_t " + BRACKETS, mapEnumNameL + "_list_get_content", 1);
-    enumListH.addFunctionParameter(mapEnumNameL + "_list_t *", "self", true);
-    enumListH.closeFunctionPrototype();
+    // unsigned int <area>_[<service>_]<composite>_list_get_element_count(<area>_[<service>_]<composite>_list_t *self);
+    compListH.openFunctionPrototype("unsigned int", mapCompNameL + "_list_get_element_count", 1);
+    compListH.addFunctionParameter(mapCompListType + " *", "self", true);
+    compListH.closeFunctionPrototype();
+    // <area>_[<service>_]<composite>_t **<area>_[<service>_]<composite>_list_get_content(<area>_[<service>_]<composite>_list_t *self);
+    compListH.openFunctionPrototype(mapCompNameL + "_t *" + BRACKETS, mapCompNameL + "_list_get_content", 1);
+    compListH.addFunctionParameter(mapCompListType + " *", "self", true);
+    compListH.closeFunctionPrototype();
     
-    // unsigned int <area>_[<service>_]<enumeration>_list_get_element_count(<area>_[<service>_]<enumeration>_list_t *self) {
+    // unsigned int <area>_[<service>_]<composite>_list_get_element_count(<area>_[<service>_]<composite>_list_t *self) {
     //	return self->element_count;
     // }
-    enumListC.openFunction("unsigned int", mapEnumNameL + "_list_get_element_count", 1);
-    enumListC.addFunctionParameter(mapEnumNameL + "_list_t *", "self", true);
-    enumListC.openFunctionBody();
-    enumListC.addStatement("return self->element_count;");
-    enumListC.closeFunctionBody();
-    // bool *<area>_[<service>_]<enumeration>_list_get_presence_flags(<area>_[<service>_]<enumeration>_list_t *self) {
-    //	return self->presence_flags;
-    // }
-    enumListC.openFunction("bool " + BRACKETS, mapEnumNameL + "_list_get_presence_flags", 1);
-    enumListC.addFunctionParameter(mapEnumNameL + "_list_t *", "self", true);
-    enumListC.openFunctionBody();
-    enumListC.addStatement("return self->presence_flags;");
-    enumListC.closeFunctionBody();
-    // <area>_[<service>_]<enumeration>_t *<area>_[<service>_]<enumeration>_list_get_content(<area>_[<service>_]<enumeration>_list_t *self) {
+    compListC.openFunction("unsigned int", mapCompNameL + "_list_get_element_count", 1);
+    compListC.addFunctionParameter(mapCompListType + " *", "self", true);
+    compListC.openFunctionBody();
+    compListC.addStatement("return self->element_count;");
+    compListC.closeFunctionBody();
+    // <area>_[<service>_]<composite>_t **<area>_[<service>_]<composite>_list_get_content(
+    //		<area>_[<service>_]<composite>_list_t *self) {
     //	return self->content;
     // }
-    enumListC.openFunction(mapEnumNameL + "_t " + BRACKETS, mapEnumNameL + "_list_get_content", 1);
-    enumListC.addFunctionParameter(mapEnumNameL + "_list_t *", "self", true);
-    enumListC.openFunctionBody();
-    enumListC.addStatement("return self->content;");
-    enumListC.closeFunctionBody();
+    compListC.openFunction(mapCompNameL + "_t *" + BRACKETS, mapCompNameL + "_list_get_content", 1);
+    compListC.addFunctionParameter(mapCompListType + " *", "self", true);
+    compListC.openFunctionBody();
+    compListC.addStatement("return self->content;");
+    compListC.closeFunctionBody();
+
+    addCompListGrowthFunctions(compListH, compListC, mapCompNameL);
+
+    // declare the prototypes of the encoding functions in the .h file
+    // and define them in the .c file
+    if (generateTransportMalbinary || generateTransportMalsplitbinary)
+    {
+    	addCompListEncodingFunctions(areaContext, compListH, compListC, mapCompNameL);
+    }
+  }
+  
+  private void processCompFields(CompositeContext compCtxt) throws IOException
+  {
+  	// generate code in memory for some constructs of the <composite>.c file
+  	// so that the algorithm is shared for all constructs
+
+  	String comment;
+  	CompositeHWriter compositeH = compCtxt.compositeH;
+  	CompositeCWriter compositeC = compCtxt.compositeC;
+  	
+  	// generation of the structure definition
+    StatementWriter compCStructDefW = new StatementWriter();
+    CFileWriter compCStructDef = new CFileWriter(compCStructDefW);
+    // structure members, in the specification order
+    List<StructMember> structMembers = new ArrayList<StructMember>();
+    
+    // generation of the accessors
+    StatementWriter compCStructAccessW = new StatementWriter();
+    CFileWriter compCStructAccess = new CFileWriter(compCStructAccessW);
+    
+    // headers required by the <composite>.c file
+    Set<String> compCIncludes = new LinkedHashSet<String>();
+    compCIncludes.add(compCtxt.mapCompNameL + ".h");
+    compCIncludes.add(compCtxt.areaContext.areaNameL + "_random.h");
+    
+    // find the parent type, if not base Composite type
+    TypeReference parentType = null;
+    if ((null != compCtxt.composite.getExtends()) && (!StdStrings.COMPOSITE.equals(compCtxt.composite.getExtends().getType().getName())))
+    {
+      parentType = compCtxt.composite.getExtends().getType();
+    }
+    
+    // build the list of the component fields, including the inherited ones
+    // these functions call the createCompositeElementsDetails function which has not been adapted to the C generation
+    List<CompositeField> compElements = createCompositeElementsList(null, compCtxt.composite);
+    List<CompositeField> superCompElements = new LinkedList<CompositeField>();
+    createCompositeSuperElementsList(null, parentType, superCompElements);
+    List<List<CompositeField>> allCompElements = new ArrayList<List<CompositeField>>(2);
+    allCompElements.add(superCompElements);
+    allCompElements.add(compElements);
+
+    comment = "fields accessors for composite " + compCtxt.mapCompNameL;
+    compositeH.addNewLine();
+    compositeH.addSingleLineComment(comment);
+    
+    for (List<CompositeField> lst : allCompElements)
+    {
+    	if (!lst.isEmpty())
+    	{
+    		for (CompositeField element : lst)
+    		{
+    			// keep the field area name for future include
+    			compCtxt.areaContext.reqAreas.add(element.getTypeReference().getArea());
+    			String typeHeader = getTypeHeader(compCtxt.areaContext, element.getTypeReference());
+    			if (typeHeader != null)
+    			{
+    				compCIncludes.add(typeHeader);
+    			}
+    			
+    			// sets generation flags in a first step, filling in the CompositeFieldDetails structure
+    			CompositeFieldDetails cfDetails = new CompositeFieldDetails();
+    			cfDetails.fieldName = element.getFieldName().toLowerCase();
+    			cfDetails.type = element.getTypeReference();
+    	  	// in the code below we cannot use element.getTypeName which should be set in createCompositeElementsDetails
+    	  	// according to the GeneratorLang framework
+
+  	    	if (element.isCanBeNull())
+  	    	{
+  	    		compCtxt.holdsOptionalField = true;
+  	    	}
+  	    	
+    	  	// a composite field may be of the following types: attribute, attribute list, enumeration, enumeration list, composite, composite list
+    	  	// the type must be concrete except for a possible abstract attribute
+    	  	
+    	  	TypeDetails typeDetails = getTypeDetails(cfDetails.type);
+    	  	if (typeDetails.isAbstract)
+    	  	{
+    	  		// the only allowed abstract type is Attribute
+    	  		if (! StdStrings.MAL.equals(cfDetails.type.getArea()) ||
+    	  				! StdStrings.ATTRIBUTE.equals(cfDetails.type.getName()))
+    	  		{
+    	  			throw new IllegalStateException("abstract type " + cfDetails.type.getName() + " is not Attribute as a composite field");
+    	  		}
+    	  		cfDetails.isAbstractAttribute = true;
+    	    	if (element.isCanBeNull())
+    	    	{
+    	    		cfDetails.isPresentField = true;
+    	    	}
+						cfDetails.isDestroyable = true;
+    	  	}
+    	  	else
+    	  	{
+  	  	    cfDetails.qfTypeNameL = typeDetails.qfTypeNameL;
+
+  	  			if (cfDetails.type.isList())
+  	  			{
+  	  				cfDetails.isList = true;
+  						cfDetails.isDestroyable = true;
+  	  				//	<qualified type>_list_t * <field>;
+  	  				cfDetails.fieldType = cfDetails.qfTypeNameL + "_list_t *";
+  	  			}
+  	  			else if (typeDetails.isAttribute)
+    	  		{
+  	  				cfDetails.isAttribute = true;
+  	  				// fieldType is also <qfTypeNameL>_t, with an optional *
+  	  				cfDetails.fieldType = typeDetails.cType;
+	  					if (cfDetails.fieldType.endsWith("*"))
+	  					{
+	  						cfDetails.isDestroyable = true;
+	  					}
+	  					else if (element.isCanBeNull())
+	  					{
+  	  					// map type is not a pointer, declare the is_present field
+	  						cfDetails.isPresentField = true;
+  	  				}
+    	  		}
+  	  			else if (typeDetails.isEnumeration)
+  	  			{
+  	  				compCtxt.holdsEnumField = true;
+  	  				cfDetails.isEnumeration = true;
+  	  				//	<qualified field type>_t <field>;
+  	  				cfDetails.fieldType = typeDetails.cType;
+  	  				if (element.isCanBeNull()) {
+  	  					cfDetails.isPresentField = true;
+  	  				}
+  	  			}
+  	  			else if (typeDetails.isComposite)
+  	  			{
+  	  				cfDetails.isComposite = true;
+  						cfDetails.isDestroyable = true;
+  	  				//	<qualified field type>_t <field>;
+  	  				cfDetails.fieldType = typeDetails.cType;
+  	  			}
+  	  			else
+  	  			{
+  	  				throw new IllegalArgumentException("unexpected type " + cfDetails.type.toString() + " for composite field " + element.getFieldName());
+    	  		}
+    	  	}
+
+    	  	// generate code in a second step
+
+    	  	// generate variables definition and accessors
+  	  		if (cfDetails.isPresentField)
+  	  		{
+  	  			// add present field definition
+  					//	[bool <field>_is_present;]
+  	    		structMembers.add(new StructMember("bool", fieldPrefix + cfDetails.fieldName + "_is_present", true));
+  	    		
+  	    		// add present field accessors
+  	    		addCompFieldPresentAccessors(compositeH, compCStructAccess, compCtxt.mapCompNameL, cfDetails.fieldName);
+  	  		}
+  	  		
+  	  		if (cfDetails.isAbstractAttribute)
+  	  		{
+    	    	// add specific fields definition
+    	  		//	unsigned char <field>_attribute_tag;
+    	  		//	union mal_attribute_t <field>;
+  	    		structMembers.add(new StructMember("unsigned char", fieldPrefix + cfDetails.fieldName + "_attribute_tag", false));
+  	    		structMembers.add(new StructMember("union mal_attribute_t", fieldPrefix + cfDetails.fieldName, false));
 
-    // declare the prototypes of the encoding functions in the .h file
-    // and define them in the .c file
-    if (generateTransportMalbinary || generateTransportMalsplitbinary)
-    {
-    	addEnumListEncodingFunctions(enumListH, enumListC, mapEnumNameL, mbSize);
+  	    		// add field accessors
+  	    		addAttributeFieldAccessors(compositeH, compCStructAccess, compCtxt.mapCompNameL, cfDetails.fieldName);
+  	  		}
+  	  		else
+  	  		{
+    	  		// add the field definition
+  	    		structMembers.add(new StructMember(cfDetails.fieldType, fieldPrefix + cfDetails.fieldName, false));
+
+  	    		// add field accessors
+  	    		addCompFieldAccessors(compositeH, compCStructAccess, compCtxt.mapCompNameL, cfDetails.fieldType, cfDetails.fieldName);
+  	  		}
+
+	    		// provision encoding code
+  	  		if (generateTransportMalbinary || generateTransportMalsplitbinary)
+  	  		{
+  	  			addCompFieldMalbinaryEncoding(compCtxt, element, cfDetails);
+  	  		}
+  	  		
+  	  		// provision destructor code
+  	  		if (cfDetails.isDestroyable)
+  	  		{
+  	  			addCompFieldDestroy(compCtxt, element, cfDetails);
+  	  		}
+  	  		
+  	  		// provision the random instance code used by the tests
+  	  		addCompFieldRandom(compCtxt, element, cfDetails);
+    		}
+    	}
     }
 
-    // add a test function
-    addEnumListTestFunction(enumListH, enumListC, mapEnumNameL);
-    
-    // write the closing statements in the global files
-    enumListH.closeC();
-    enumListH.closeDefine();
+    // define the structure
+    // struct _<area>_[<service>_]<composite>_t {
+    //	<members>
+    // };
+    addCompositeStructDefinition(compCStructDef, compCtxt.mapCompNameL, structMembers, compCtxt.areaContext.tableDriven);
     
-    // finalize the structure specific files
-    enumListH.flush();
-    enumListH.close();
-    enumListC.flush();
-    enumListC.close();
+    // initialize the .c file
+    // #include "<area>_[<service>_]<composite>.h"
+    // #include "<field type>.h"
+    for (String include : compCIncludes)
+    {
+    	compositeC.addInclude(include);
+    }
     
-    // include the file in the main <area>.h
-    // assumes that the file folder is the main folder for the area 
-    areaContext.structureIncludes.addInclude(mapEnumNameL + "_list.h");
+    // write the structure definition in the <composite>.c file
+    comment = "structure definition for composite " + compCtxt.mapCompNameL;
+    compositeC.addNewLine();
+    compositeC.addSingleLineComment(comment);
+    compositeC.addStatements(compCStructDefW);
+
+    // write the structure field accessors in the <composite>.c file
+    comment = "fields accessors for composite " + compCtxt.mapCompNameL;
+    compositeC.addNewLine();
+    compositeC.addSingleLineComment(comment);
+    compositeC.addStatements(compCStructAccessW);
   }
-  
+
   /**
-   * Generate code for a composite type.
-   * The type may be declared at the area level or at the service level.
-   * @param folder folder to create the composite files in
-   * @param areaContext context of the area defining the composite
-   * @param serviceContext context of the service defining the composite, may be null
-   * @param composite
+   * Define the composite structure.
+   * The members are declared in the specification order, or sorted by decreasing alignment
+   * when the layout optimization is enabled. In that case the presence flags are packed in bitfields,
+   * and a static assertion checks that the structure is not larger than the specification order one.
+   * The table driven codec addresses the members by offset, which is not possible for bitfields.
+   * 
+   * @param compCStructDef	writer for the structure definition
+   * @param mapCompNameL	fully qualified name of the composite
+   * @param structMembers	members of the structure in the specification order
+   * @param tableDriven	true if the composite uses the table driven codec
    * @throws IOException
    */
-  protected void createComposite(File folder, AreaContext areaContext, ServiceContext serviceContext, CompositeType composite) throws IOException
+  private void addCompositeStructDefinition(CFileWriter compCStructDef, String mapCompNameL, List<StructMember> structMembers, boolean tableDriven) throws IOException
   {
-  	String comment;
-    AreaType area = areaContext.area;
-    ServiceType service = null;
-    if (serviceContext != null)
-    {
-    	service = serviceContext.summary.getService();
-    }
-    String malCompName = area.getName() + ":" + (service == null ? "_" : service.getName()) + ":" + composite.getName();
-
-    getLog().info("Creating composite " + malCompName);
-
-    // nothing is generated for abstract types
-    boolean abstractComposite = (null == composite.getShortFormPart());
-    if (abstractComposite)
-    {
-    	return;
-    }
-    
-    comment = "generated code for composite " + malCompName;
-    areaContext.areaHContent.addNewLine();
-    areaContext.areaHContent.addSingleLineComment(comment);
-    areaContext.areaHTypes.addNewLine();
-    areaContext.areaHTypes.addSingleLineComment(comment);
-    
-    CompositeContext compCtxt = new CompositeContext(areaContext, serviceContext, composite, folder);
-    String mapCompNameL = compCtxt.mapCompNameL;
-    String mapCompNameU = mapCompNameL.toUpperCase();
-
-    // declare the type in <area>.h
-    // typedef struct _<area>_[<service>_]<composite>_t <area>_[<service>_]<composite>_t;
-    areaContext.areaHTypes.addTypedefStruct("_" + mapCompNameL + "_t", mapCompNameL + "_t");
-    
-    // we create a <composite>.h and a <composite>.c files
-    // create the Writer structures
-    CompositeHWriter compositeH = compCtxt.compositeH;
-    CompositeCWriter compositeC = compCtxt.compositeC;
-    zclasses.add(mapCompNameL);
-
-    // include the file in the main <area>.h
-    // assumes that the file folder is the main folder for the area 
-    areaContext.structureIncludes.addInclude(mapCompNameL + ".h");
-    
-    // write the opening statements in the global files
-    compositeH.openDefine();
-    compositeH.openC();
+  	String structName = "_" + mapCompNameL + "_t";
+  	if (! optimizeStructLayout || tableDriven)
+  	{
+  		compCStructDef.openStruct(structName);
+  		for (StructMember member : structMembers)
+  		{
+  			compCStructDef.addStructField(member.type, member.name);
+  		}
+  		compCStructDef.closeStruct();
+  		return;
+  	}
+  	
+  	// stable sort, members with the same alignment keep the specification order
+  	// presence flags are all gathered at the end as 1 bit fields
+  	List<StructMember> sortedMembers = new ArrayList<StructMember>(structMembers);
+  	sortedMembers.sort((m1, m2) -> {
+  		if (m1.isFlag != m2.isFlag)
+  			return m1.isFlag ? 1 : -1;
+  		return Integer.compare(m2.alignment, m1.alignment);
+  	});
+  	compCStructDef.openStruct(structName);
+  	for (StructMember member : sortedMembers)
+  	{
+  		compCStructDef.addStructField(member.type, member.isFlag ? member.name + " : 1" : member.name);
+  	}
+  	compCStructDef.closeStruct();
+  	
+  	// structure in the specification order, only used to check the layout optimization
+  	compCStructDef.addNewLine();
+  	compCStructDef.addSingleLineComment("structure in the specification order, for layout checking only");
+  	compCStructDef.openStruct("_" + mapCompNameL + "_spec_layout_t");
+  	for (StructMember member : structMembers)
+  	{
+  		compCStructDef.addStructField(member.type, member.name);
+  	}
+  	compCStructDef.closeStruct();
+  	compCStructDef.addStatement("_Static_assert(sizeof(struct " + structName + ") <= sizeof(struct _" + mapCompNameL + "_spec_layout_t), \"" +
+  			"layout optimization increased the size of " + mapCompNameL + "_t\");");
+  	
+  	getLog().info("Structure " + mapCompNameL + "_t layout: " +
+  			getStructSizeEstimate(structMembers, false) + " bytes in specification order, " +
+  			getStructSizeEstimate(sortedMembers, true) + " bytes after optimization (LP64 estimate)");
+  }
+  
+  /**
+   * Estimate the size of a structure on a LP64 platform.
+   */
+  private int getStructSizeEstimate(List<StructMember> members, boolean packedFlags)
+  {
+  	int offset = 0;
+  	int maxAlignment = 1;
+  	int flagBits = 0;
+  	for (StructMember member : members)
+  	{
+  		if (member.isFlag && packedFlags)
+  		{
+  			flagBits ++;
+  			continue;
+  		}
+  		int alignment = member.alignment;
+  		maxAlignment = Math.max(maxAlignment, alignment);
+  		offset = (offset + alignment - 1) / alignment * alignment;
+  		// the union mal_attribute_t holds at most a 8 bytes value
+  		offset += alignment;
+  	}
+  	offset += (flagBits + 7) / 8;
+  	return (offset + maxAlignment - 1) / maxAlignment * maxAlignment;
+  }
+  
+  /**
+   * Get the alignment of a structure member type on a LP64 platform.
+   * The size of these types is equal to their alignment.
+   */
+  private static int getStructMemberAlignment(String type)
+  {
+  	if (type.endsWith("*"))
+  		return 8;
+  	switch (type)
+  	{
+  	case "union mal_attribute_t":
+  	case "mal_long_t":
+  	case "mal_ulong_t":
+  	case "mal_double_t":
+  	case "mal_duration_t":
+  	case "mal_time_t":
+  	case "mal_finetime_t":
+  		return 8;
+  	case "mal_short_t":
+  	case "mal_ushort_t":
+  		return 2;
+  	case "bool":
+  	case "unsigned char":
+  	case "mal_boolean_t":
+  	case "mal_octet_t":
+  	case "mal_uoctet_t":
+  		return 1;
+  	default:
+  		// mal_integer_t, mal_uinteger_t, mal_float_t and enumerations
+  		return 4;
+  	}
+  }
 
-    // initialize the .c file
-    // #include "<area>.h"
-    compositeC.addInclude(areaContext.areaNameL + ".h");
-    compositeC.addNewLine();
-    
-    // generate all code related to the composite fields
-    // and define the structure in the <composite>.c file
-    processCompFields(compCtxt);
+  private void addCompFieldPresentAccessors(
+  		CFileWriter compositeH, CFileWriter compositeC,
+  		String mapCompNameL, String fieldName) throws IOException
+  {
+  	//	bool <area>_[<service>_]<composite>_<field>_is_present(
+  	//		<area>_[<service>_]<composite>_t *self);
+  	compositeH.openFunctionPrototype("bool", mapCompNameL + "_" + fieldName + "_is_present", 1);
+  	compositeH.addFunctionParameter(mapCompNameL + "_t *", "self", true);
+  	compositeH.closeFunctionPrototype();
 
-    // declare and define the composite constructor
-    addCompositeConstructor(compCtxt);
-    
-    // declare the prototypes of the encoding functions in <composite>.h file
-    // and define them in the <composite>.c file
-    if (generateTransportMalbinary || generateTransportMalsplitbinary)
-    {
-    	addCompositeEncodingFunctions(compCtxt);
-    }
-    
-    // declare and define the composite destructor
-    addCompositeDestructor(compCtxt);
-    
-    // create the type short form in the <area>.h file
-    comment = "short form for composite type " + malCompName;
-    areaContext.areaHTypes.addNewLine();
-    areaContext.areaHTypes.addSingleLineComment(comment);
-    // #define <AREA>_[<SERVICE>_]<COMPOSITE>_SHORT_FORM <type absolute short form>
-    long typeShortForm = getAbsoluteShortForm(
-				area.getNumber(),
-				service == null ? 0 : service.getNumber(),
-				area.getVersion(),
-				composite.getShortFormPart().intValue());
-    areaContext.areaHTypes.addDefine(
-    		mapCompNameU + "_SHORT_FORM",
-    		"0x" + Long.toHexString(typeShortForm) + "L");
+  	//	void <area>_[<service>_]<composite>_<field>_set_present(
+  	//		<area>_[<service>_]<composite>_t *self, bool is_present);
+  	compositeH.openFunctionPrototype("void", mapCompNameL + "_" + fieldName + "_set_present", 2);
+  	compositeH.addFunctionParameter(mapCompNameL + "_t *", "self", false);
+  	compositeH.addFunctionParameter("bool", "is_present", true);
+  	compositeH.closeFunctionPrototype();
+        
+  	//	bool <area>_[<service>_]<composite>_<field>_is_present(
+  	//		<area>_[<service>_]<composite>_t *self) {
+  	//			return self-><f_><field>_is_present;
+  	//	}
+  	compositeC.openFunction("bool", mapCompNameL + "_" + fieldName + "_is_present", 1);
+  	compositeC.addFunctionParameter(mapCompNameL + "_t *", "self", true);
+  	compositeC.openFunctionBody();
+  	compositeC.addStatement("return self->" + fieldPrefix + fieldName + "_is_present;");
+  	compositeC.closeFunctionBody();
 
-    // create the list type associated to the composite
-    createCompositeList(folder, compCtxt);
-    
-    // create the type short form
-    comment = "short form for list of composite type " + malCompName;
-    areaContext.areaHTypes.addNewLine();
-    areaContext.areaHTypes.addSingleLineComment(comment);
-    // #define <AREA>_[<SERVICE>_]<COMPOSITE>_LIST_SHORT_FORM <type absolute short form>
-    typeShortForm = getAbsoluteShortForm(
-    		area.getNumber(),
-    		service == null ? 0 : service.getNumber(),
-				area.getVersion(),
-				-composite.getShortFormPart().intValue());
-    areaContext.areaHTypes.addDefine(
-    		mapCompNameU + "_LIST_SHORT_FORM",
-    		"0x" + Long.toHexString(typeShortForm) + "L");
+  	//	void <area>_[<service>_]<composite>_<field>_set_present(
+  	//		<area>_[<service>_]<composite>_t *self, bool is_present) {
+  	//			self-><f_><field>_is_present = is_present;
+  	//	}
+  	compositeC.openFunction("void", mapCompNameL + "_" + fieldName + "_set_present", 2);
+  	compositeC.addFunctionParameter(mapCompNameL + "_t *", "self", false);
+  	compositeC.addFunctionParameter("bool", "is_present", true);
+  	compositeC.openFunctionBody();
+  	compositeC.addStatement("self->" + fieldPrefix + fieldName + "_is_present = is_present;");
+  	compositeC.closeFunctionBody();
+  }
+  
+  private void addAttributeFieldAccessors(CFileWriter compositeH, CFileWriter compositeC, String mapCompNameL, String fieldName) throws IOException
+  {
+		// unsigned char <area>_[<service>_]<composite>_<field>_get_attribute_tag(<area>_[<service>_]<composite>_t * self);
+		compositeH.openFunctionPrototype("unsigned char", mapCompNameL + "_" + fieldName + "_get_attribute_tag", 1);
+		compositeH.addFunctionParameter(mapCompNameL + "_t *", "self", true);
+		compositeH.closeFunctionPrototype();
+		// void <area>_[<service>_]<composite>_<field>_set_attribute_tag(<area>_[<service>_]<composite>_t * self, unsigned char attribute_tag);
+		compositeH.openFunctionPrototype("void", mapCompNameL + "_" + fieldName + "_set_attribute_tag", 2);
+		compositeH.addFunctionParameter(mapCompNameL + "_t *", "self", false);
+		compositeH.addFunctionParameter("unsigned char", "attribute_tag", true);
+		compositeH.closeFunctionPrototype();
+		
+		// unsigned char <area>_[<service>_]<composite>_<field>_get_attribute_tag(
+		//	<area>_[<service>_]<composite>_t *self) {
+		//		return self-><f_><field>_attribute_tag;
+		//	}
+  	compositeC.openFunction("unsigned char", mapCompNameL + "_" + fieldName + "_get_attribute_tag", 1);
+  	compositeC.addFunctionParameter(mapCompNameL + "_t *", "self", true);
+  	compositeC.openFunctionBody();
+  	compositeC.addStatement("return self->" + fieldPrefix + fieldName + "_attribute_tag;");
+  	compositeC.closeFunctionBody();
 
-    // add a test function
-    addCompositeTestFunction(compCtxt);
-    
-    // write the closing statements in the global files
-    compositeH.closeC();
-    compositeH.closeDefine();
-    
-    // finalize the structure specific files
-    compositeH.flush();
-    compositeH.close();
-    compositeC.flush();
-    compositeC.close();
+		// void <area>_[<service>_]<composite>_<field>_set_attribute_tag(
+		//	<area>_[<service>_]<composite>_t *self, 
+		//	unsigned char attribute_tag) {
+		//		self-><f_><field>_attribute_tag = attribute_tag;
+		//	}
+  	compositeC.openFunction("void", mapCompNameL + "_" + fieldName + "_set_attribute_tag", 2);
+  	compositeC.addFunctionParameter(mapCompNameL + "_t *", "self", false);
+  	compositeC.addFunctionParameter("unsigned char", "attribute_tag", true);
+  	compositeC.openFunctionBody();
+  	compositeC.addStatement("self->" + fieldPrefix + fieldName + "_attribute_tag = attribute_tag;");
+  	compositeC.closeFunctionBody();
+  	
+  	addCompFieldAccessors(compositeH, compositeC, mapCompNameL, "union mal_attribute_t", fieldName);
   }
   
-  protected void createCompositeList(File folder, CompositeContext compCtxt) throws IOException
+  private void addCompFieldAccessors(CFileWriter compositeH, CFileWriter compositeC, String mapCompNameL, String fieldType, String fieldName) throws IOException
   {
-  	String comment;
-  	StringBuilder buf = new StringBuilder();
-  	buf.append(compCtxt.areaContext.area.getName());
-  	if (compCtxt.serviceContext != null)
-  	{
-  		buf.append(":");
-  		buf.append(compCtxt.serviceContext.summary.getService().getName());
-  	}
-		buf.append(":");
-		buf.append(compCtxt.composite.getName());
-    String malCompName = buf.toString();
-
-    getLog().info("Creating list type for composite " + malCompName);
-
-    // declare the type in <area>.h
-    // typedef _<area>_[<service>_]<type>_list_t <area>_[<service>_]<type>_list_t;
-    String mapCompListType = compCtxt.mapCompNameL + "_list_t";
-    CFileWriter areaH = compCtxt.areaContext.areaHTypes;
-    areaH.addTypedefStruct("_" + mapCompListType, mapCompListType);
-
-    // we create a <composite>_list.h and a <composite>_list.c files
-    // create the Writer structures
-    String baseName = compCtxt.mapCompNameL + "_list";
-    TypeListWriter compListH = new TypeListWriter(folder, baseName, "h");
-    TypeListWriter compListC = new TypeListWriter(folder, baseName, "c");
-    zclasses.add(baseName);
+  	//	<field type> <area>_[<service>_]<composite>_get_<field>(
+  	//		<area>_[<service>_]<composite>_t *self);
+  	compositeH.openFunctionPrototype(fieldType, mapCompNameL + "_get_" + fieldName, 1);
+  	compositeH.addFunctionParameter(mapCompNameL + "_t *", "self", true);
+  	compositeH.closeFunctionPrototype();
 
-    // write the opening statements in the global files
-    compListH.openDefine();
-    compListH.openC();
+  	//	void <area>_[<service>_]<composite>_set_<field>(
+  	//		<area>_[<service>_]<composite>_t *self, <field type> <f_><field>);
+  	compositeH.openFunctionPrototype("void", mapCompNameL + "_set_" + fieldName, 2);
+  	compositeH.addFunctionParameter(mapCompNameL + "_t *", "self", false);
+  	compositeH.addFunctionParameter(fieldType, fieldPrefix + fieldName, true);
+  	compositeH.closeFunctionPrototype();
+  		
+  	//	<field type> <area>_[<service>_]<composite>_get_<field>(
+  	//		<area>_[<service>_]<composite>_t *self) {
+  	//		return self-><f_><field>;
+  	//	}
+  	compositeC.openFunction(fieldType, mapCompNameL + "_get_" + fieldName, 1);
+  	compositeC.addFunctionParameter(mapCompNameL + "_t *", "self", true);
+  	compositeC.openFunctionBody();
+  	compositeC.addStatement("return self->" + fieldPrefix + fieldName + ";");
+  	compositeC.closeFunctionBody();
 
-    // initialize the .c file
-    // #include "<area>.h"
-    compListC.addInclude(compCtxt.areaContext.areaNameL + ".h");
-    compListC.addNewLine();
+  	//	void <area>_[<service>_]<composite>_set_<field>(
+  	//		<area>_[<service>_]<composite>_t *self, <field type> <f_><field>) {
+  	//		self-><f_><field> = <f_><field>;
+  	//	}
+  	compositeC.openFunction("void", mapCompNameL + "_set_" + fieldName, 2);
+  	compositeC.addFunctionParameter(mapCompNameL + "_t *", "self", false);
+  	compositeC.addFunctionParameter(fieldType, fieldPrefix + fieldName, true);
+  	compositeC.openFunctionBody();
+  	compositeC.addStatement("self->" + fieldPrefix + fieldName + " = " + fieldPrefix + fieldName + ";");
+  	compositeC.closeFunctionBody();
+  }
 
-    // define the structure
-    // struct _<area>_[<service>_]<composite>_list_t {
-    //	unsigned int element_count;
-    //	<area>_[<service>_]<composite>_t **content;
-    // };
-    compListC.openStruct("_" + mapCompListType);
-    compListC.addStructField("unsigned int", "element_count");
-    compListC.addStructField(compCtxt.mapCompNameL + "_t *" + BRACKETS, "content");
-    compListC.closeStruct();
-    
-    // declare the constructor prototype in the .h file and define it in the .c file
-    comment = "default constructor";
-    compListH.addNewLine();
-    compListH.addSingleLineComment(comment);
-    compListC.addNewLine();
-    compListC.addSingleLineComment(comment);
+  private void addCompositeEncodingFunctions(CompositeContext compCtxt) throws IOException
+  {
+    if (generateTransportMalbinary || generateTransportMalsplitbinary)
+    {
+    	addCompositeMalbinaryEncodingFunctions(compCtxt);
+    }
+  }
+  
+  private void addCompositeMalbinaryEncodingFunctions(CompositeContext compCtxt) throws IOException
+  {
+  	CFileWriter compositeH = compCtxt.compositeH;
+  	CFileWriter compositeC = compCtxt.compositeC;
+  	
+  	String comment = "encoding functions related to transport " + transportMalbinary;
+    compositeH.addNewLine();
+    compositeH.addSingleLineComment(comment);
+    compositeC.addNewLine();
+    compositeC.addSingleLineComment(comment);
     
-    // <area>_[<service>_]<composite>_list_t *<area>_[<service>_]<composite>_list_new(unsigned int element_count);
-    compListH.openFunctionPrototype(mapCompListType + " *", compCtxt.mapCompNameL + "_list_new", 1);
-    compListH.addFunctionParameter("unsigned int", "element_count", true);
-    compListH.closeFunctionPrototype();
+    // the table driven codec describes the fields in static descriptors
+    if (compCtxt.areaContext.tableDriven)
+    {
+    	addCompositeTableDescriptor(compCtxt);
+    }
     
-    // <area>_[<service>_]<composite>_list_t *<area>_[<service>_]<composite>_list_new(unsigned int element_count) { 
-    //		<area>_[<service>_]<composite>_list_t *self = (<area>_[<service>_]<composite>_list_t *) calloc(1, sizeof(<area>_[<service>_]<composite>_list_t));
-    //		if (!self) return NULL;
-    //		self->element_count = element_count;
-    //		self->content = (<area>_[<service>_]<composite>_t **) calloc(element_count, sizeof(<area>_[<service>_]<composite>_t *));
-    //		if (!self->content && (element_count > 0)) {
-    //			free(self);
-    //			return NULL;
-    //		}
-    //		return self;
+    String selfType = compCtxt.mapCompNameL + "_t *";
+    String funcName = compCtxt.mapCompNameL + "_add_encoding_length_" + transportMalbinary;
+  	// int <area>_[<service>_]<composite>_add_encoding_length_<format>(
+  	//	<area>_[<service>_]<composite>_t * self,
+  	//	mal_encoder_t * encoder,
+  	//	void *cursor);
+    compositeH.openFunctionPrototype("int", funcName, 3);
+    compositeH.addFunctionParameter(selfType, "self", false);
+    compositeH.addFunctionParameter("mal_encoder_t *", "encoder", false);
+    compositeH.addFunctionParameter("void *", "cursor", true);
+    compositeH.closeFunctionPrototype();
+    // int <area>_[<service>_]<composite>_add_encoding_length_malbinary(
+    //	<area>_[<service>_]<composite>_t *self,
+    //	mal_encoder_t *encoder,
+    //	void *cursor) {
+    //		int rc = 0;
+    //	handle all fields
+    //		return rc;
     // }
-    compListC.openFunction(mapCompListType + " *", compCtxt.mapCompNameL + "_list_new", 1);
-    compListC.addFunctionParameter("unsigned int", "element_count", true);
-    compListC.openFunctionBody();
-    compListC.addStatement(mapCompListType + " *self = (" + mapCompListType + " *) calloc(1, sizeof(" + mapCompListType + "));");
-    compListC.addStatement("if (!self)", 1);
-    compListC.addStatement("return NULL;", -1);
-    compListC.addStatement("self->element_count = element_count;");
-    compListC.addStatement("self->content = (" + compCtxt.mapCompNameL + "_t **) calloc(element_count, sizeof(" + compCtxt.mapCompNameL + "_t *));");
-    compListC.addStatement("if (!self->content && (element_count > 0))");
-    compListC.openBlock();
-    compListC.addStatement("free(self);");
-    compListC.addStatement("return NULL;");
-    compListC.closeBlock();
-    compListC.addStatement("return self;");
-    compListC.closeFunctionBody();
-
-    // declare the destructor prototype in the .h file and define it in the .c file
-    comment = "destructor, free the list, its content and its elements";
-    compListH.addNewLine();
-    compListH.addSingleLineComment(comment);
-    compListC.addNewLine();
-    compListC.addSingleLineComment(comment);
-    
-    // void <area>_[<service>_]<composite>_list_destroy(<area>_[<service>_]<composite>_list_t **self_p);
-    compListH.openFunctionPrototype("void", compCtxt.mapCompNameL + "_list_destroy", 1);
-    compListH.addFunctionParameter(mapCompListType + " **", "self_p", true);
-    compListH.closeFunctionPrototype();
+    compositeC.openFunction("int", funcName, 3);
+    compositeC.addFunctionParameter(selfType, "self", false);
+    compositeC.addFunctionParameter("mal_encoder_t *", "encoder", false);
+    compositeC.addFunctionParameter("void *", "cursor", true);
+    compositeC.openFunctionBody();
+    if (compCtxt.areaContext.tableDriven)
+    {
+    	addTableCodecCall(compCtxt, "add_encoding_length", "encoder");
+    }
+    else
+    {
+    	compositeC.addStatement("int rc = 0;");
+    	compositeC.addStatements(compCtxt.encodingCode.lengthW);
+    	compositeC.addStatement("return rc;");
+    }
+    compositeC.closeFunctionBody();
 
-    // void <area>_[<service>_]<composite>_list_destroy(<area>_[<service>_]<composite>_list_t **self_p) {
-    //	if ((*self_p)->element_count > 0) {
-    //		for (int i = 0; i < (*self_p)->element_count; i++) {
-    //			if ((*self_p)->content[i] != NULL)
-    //				<area>_[<service>_]<composite>_destroy(&(*self_p)->content[i]);
-    //		}
-    //		free((*self_p)->content);
-    //	}
-    //	free (*self_p);
-    //	(*self_p) = NULL;
-    // }
-    compListC.openFunction("void", compCtxt.mapCompNameL + "_list_destroy", 1);
-    compListC.addFunctionParameter(mapCompListType + " **", "self_p", true);
-    compListC.openFunctionBody();
-    compListC.addStatement("if (self_p && *self_p)");
-    compListC.openBlock();
-    compListC.addStatement("for (int i = 0; i < (*self_p)->element_count; i++)");
-    compListC.openBlock();
-    compListC.addStatement("if ((*self_p)->content[i] != NULL)", 1);
-    compListC.addStatement(compCtxt.mapCompNameL + "_destroy(&(*self_p)->content[i]);", -1);
-    compListC.closeBlock();
-    compListC.addStatement("free((*self_p)->content);");
-    compListC.closeBlock();
-    compListC.addStatement("free (*self_p);");
-    compListC.addStatement("(*self_p) = NULL;");
-    compListC.closeFunctionBody();
-    
-    // declare the accessors prototypes in the .h file and define them in the .c file
-    comment = "fields accessors for composite list " + compCtxt.mapCompNameL + "_list";
-    compListH.addNewLine();
-    compListH.addSingleLineComment(comment);
-    compListC.addNewLine();
-    compListC.addSingleLineComment(comment);
-    
-    // unsigned int <area>_[<service>_]<composite>_list_get_element_count(<area>_[<service>_]<composite>_list_t *self);
-    compListH.openFunctionPrototype("unsigned int", compCtxt.mapCompNameL + "_list_get_element_count", 1);
-    compListH.addFunctionParameter(mapCompListType + " *", "self", true);
-    compListH.closeFunctionPrototype();
-    // <area>_[<service>_]<composite>_t **<area>_[<service>_]<composite>_list_get_content(<area>_[<service>_]<composite>_list_t *self);
-    compListH.openFunctionPrototype(compCtxt.mapCompNameL + "_t *" + BRACKETS, compCtxt.mapCompNameL + "_list_get_content", 1);
-    compListH.addFunctionParameter(mapCompListType + " *", "self", true);
-    compListH.closeFunctionPrototype();
-    
-    // unsigned int <area>_[<service>_]<composite>_list_get_element_count(<area>_[<service>_]<composite>_list_t *self) {
-    //	return self->element_count;
-    // }
-    compListC.openFunction("unsigned int", compCtxt.mapCompNameL + "_list_get_element_count", 1);
-    compListC.addFunctionParameter(mapCompListType + " *", "self", true);
-    compListC.openFunctionBody();
-    compListC.addStatement("return self->element_count;");
-    compListC.closeFunctionBody();
-    // <area>_[<service>_]<composite>_t **<area>_[<service>_]<composite>_list_get_content(
-    //		<area>_[<service>_]<composite>_list_t *self) {
-    //	return self->content;
+    funcName = compCtxt.mapCompNameL + "_encode_" + transportMalbinary;
+  	// int <area>_[<service>_]<composite>_encode_<format>(
+  	//	<area>_[<service>_]<composite>_t * self,
+  	//	mal_encoder_t * encoder,
+  	//	void * cursor);
+    compositeH.openFunctionPrototype("int", funcName, 3);
+    compositeH.addFunctionParameter(selfType, "self", false);
+    compositeH.addFunctionParameter("mal_encoder_t *", "encoder", false);
+    compositeH.addFunctionParameter("void *", "cursor", true);
+    compositeH.closeFunctionPrototype();
+    // int <area>_[<service>_]<composite>_encode_malbinary(
+    //	<area>_[<service>_]<composite>_t *self,
+    //	mal_encoder_t *encoder,
+    //	void * cursor) {
+    //		int rc = 0;
+    //		[bool presence_flag;]
+    //	handle all fields
+    //		return rc;
     // }
-    compListC.openFunction(compCtxt.mapCompNameL + "_t *" + BRACKETS, compCtxt.mapCompNameL + "_list_get_content", 1);
-    compListC.addFunctionParameter(mapCompListType + " *", "self", true);
-    compListC.openFunctionBody();
-    compListC.addStatement("return self->content;");
-    compListC.closeFunctionBody();
-
-    // declare the prototypes of the encoding functions in the .h file
-    // and define them in the .c file
-    if (generateTransportMalbinary || generateTransportMalsplitbinary)
+    openStatsMeasuredFunction(compositeC, compCtxt.areaContext, funcName, 3);
+    compositeC.addFunctionParameter(selfType, "self", false);
+    compositeC.addFunctionParameter("mal_encoder_t *", "encoder", false);
+    compositeC.addFunctionParameter("void *", "cursor", true);
+    compositeC.openFunctionBody();
+    if (compCtxt.areaContext.tableDriven)
     {
-    	addCompListEncodingFunctions(compListH, compListC, compCtxt);
+    	addTableCodecCall(compCtxt, "encode", "encoder");
     }
-
-    // add a test function
-    addCompositeListTestFunction(compListH, compListC, compCtxt);
-    
-    // write the closing statements in the global files
-    compListH.closeC();
-    compListH.closeDefine();
-    
-    // finalize the structure specific files
-    compListH.flush();
-    compListH.close();
-    compListC.flush();
-    compListC.close();
-    
-    // include the file in the main <area>.h
-    // assumes that the file folder is the main folder for the area
-    compCtxt.areaContext.structureIncludes.addInclude(compCtxt.mapCompNameL + "_list.h");
-  }
-  
-  private void processCompFields(CompositeContext compCtxt) throws IOException
-  {
-  	// generate code in memory for some constructs of the <composite>.c file
-  	// so that the algorithm is shared for all constructs
-
-  	String comment;
-  	CompositeHWriter compositeH = compCtxt.compositeH;
-  	CompositeCWriter compositeC = compCtxt.compositeC;
-  	
-  	// generation of the structure definition
-    StatementWriter compCStructDefW = new StatementWriter();
-    CFileWriter compCStructDef = new CFileWriter(compCStructDefW);
-    // open the structure definition
-    // struct _<area>_[<service>_]<composite>_t {
-    compCStructDef.openStruct("_" + compCtxt.mapCompNameL + "_t");
-    
-    // generation of the accessors
-    StatementWriter compCStructAccessW = new StatementWriter();
-    CFileWriter compCStructAccess = new CFileWriter(compCStructAccessW);
-    
-    // find the parent type, if not base Composite type
-    TypeReference parentType = null;
-    if ((null != compCtxt.composite.getExtends()) && (!StdStrings.COMPOSITE.equals(compCtxt.composite.getExtends().getType().getName())))
+    else
     {
-      parentType = compCtxt.composite.getExtends().getType();
+    	compositeC.addStatement("int rc = 0;");
+    	if (compCtxt.holdsOptionalField)
+    	{
+    		compositeC.addVariableDeclare("bool", "presence_flag", null);
+    	}
+    	compositeC.addStatements(compCtxt.encodingCode.encodeW);
+    	compositeC.addStatement("return rc;");
     }
-    
-    // build the list of the component fields, including the inherited ones
-    // these functions call the createCompositeElementsDetails function which has not been adapted to the C generation
-    List<CompositeField> compElements = createCompositeElementsList(null, compCtxt.composite);
-    List<CompositeField> superCompElements = new LinkedList<CompositeField>();
-    createCompositeSuperElementsList(null, parentType, superCompElements);
-    List<List<CompositeField>> allCompElements = new ArrayList<List<CompositeField>>(2);
-    allCompElements.add(superCompElements);
-    allCompElements.add(compElements);
+    compositeC.closeFunctionBody();
+    addStatsWrapperFunction(compositeC, compCtxt.areaContext, funcName, selfType, "encoder");
 
-    comment = "fields accessors for composite " + compCtxt.mapCompNameL;
-    compositeH.addNewLine();
-    compositeH.addSingleLineComment(comment);
-    
-    for (List<CompositeField> lst : allCompElements)
+    funcName = compCtxt.mapCompNameL + "_decode_" + transportMalbinary;
+  	// int <area>_[<service>_]<composite>_decode_<format>(
+  	//	<area>_[<service>_]<composite>_t * self,
+  	//	mal_decoder_t * decoder,
+  	//	void * cursor);
+    compositeH.openFunctionPrototype("int", funcName, 3);
+    compositeH.addFunctionParameter(selfType, "self", false);
+    compositeH.addFunctionParameter("mal_decoder_t *", "decoder", false);
+    compositeH.addFunctionParameter("void *", "cursor", true);
+    compositeH.closeFunctionPrototype();
+    // int <area>_[<service>_]<composite>_decode_malbinary(
+    //	<area>_[<service>_]<composite>_t *self,
+    //	mal_decoder_t *decoder,
+    //	void * cursor) {
+    //		int rc = 0;
+    //		[bool presence_flag;]
+    //		[int enumerated_value;]
+    //	handle all fields
+    //		return rc;
+    // }
+    openStatsMeasuredFunction(compositeC, compCtxt.areaContext, funcName, 3);
+    compositeC.addFunctionParameter(selfType, "self", false);
+    compositeC.addFunctionParameter("mal_decoder_t *", "decoder", false);
+    compositeC.addFunctionParameter("void *", "cursor", true);
+    compositeC.openFunctionBody();
+    if (compCtxt.areaContext.tableDriven)
     {
-    	if (!lst.isEmpty())
+    	addTableCodecCall(compCtxt, "decode", "decoder");
+    }
+    else
+    {
+    	compositeC.addStatement("int rc = 0;");
+    	if (compCtxt.holdsOptionalField)
     	{
-    		for (CompositeField element : lst)
-    		{
-    			// keep the field area name for future include
-    			compCtxt.areaContext.reqAreas.add(element.getTypeReference().getArea());
-    			
-    			// sets generation flags in a first step, filling in the CompositeFieldDetails structure
-    			CompositeFieldDetails cfDetails = new CompositeFieldDetails();
-    			cfDetails.fieldName = element.getFieldName().toLowerCase();
-    			cfDetails.type = element.getTypeReference();
-    	  	// in the code below we cannot use element.getTypeName which should be set in createCompositeElementsDetails
-    	  	// according to the GeneratorLang framework
-
-  	    	if (element.isCanBeNull())
-  	    	{
-  	    		compCtxt.holdsOptionalField = true;
-  	    	}
-  	    	
-    	  	// a composite field may be of the following types: attribute, attribute list, enumeration, enumeration list, composite, composite list
-    	  	// the type must be concrete except for a possible abstract attribute
-    	  	
-    	  	if (isAbstract(cfDetails.type))
-    	  	{
-    	  		// the only allowed abstract type is Attribute
-    	  		if (! StdStrings.MAL.equals(cfDetails.type.getArea()) ||
-    	  				! StdStrings.ATTRIBUTE.equals(cfDetails.type.getName()))
-    	  		{
-    	  			throw new IllegalStateException("abstract type " + cfDetails.type.getName() + " is not Attribute as a composite field");
-    	  		}
-    	  		cfDetails.isAbstractAttribute = true;
-    	    	if (element.isCanBeNull())
-    	    	{
-    	    		cfDetails.isPresentField = true;
-    	    	}
-						cfDetails.isDestroyable = true;
-    	  	}
-    	  	else
-    	  	{
-  	  	    cfDetails.qfTypeNameL = getTypeFQN(cfDetails.type);
-
-  	  			if (cfDetails.type.isList())
-  	  			{
-  	  				cfDetails.isList = true;
-  						cfDetails.isDestroyable = true;
-  	  				//	<qualified type>_list_t * <field>;
-  	  				cfDetails.fieldType = cfDetails.qfTypeNameL + "_list_t *";
-  	  			}
-  	  			else if (isAttributeType(cfDetails.type))
-    	  		{
-  	  				cfDetails.isAttribute = true;
-  	  				// fieldType is also <qfTypeNameL>_t, with an optional *
-  	  				cfDetails.fieldType = getAttributeDetails(cfDetails.type).getTargetType();
-	  					if (cfDetails.fieldType.endsWith("*"))
-	  					{
-	  						cfDetails.isDestroyable = true;
-	  					}
-	  					else if (element.isCanBeNull())
-	  					{
-  	  					// map type is not a pointer, declare the is_present field
-	  						cfDetails.isPresentField = true;
-  	  				}
-    	  		}
-  	  			else if (isEnum(cfDetails.type))
-  	  			{
-  	  				compCtxt.holdsEnumField = true;
-  	  				cfDetails.isEnumeration = true;
-  	  				//	<qualified field type>_t <field>;
-  	  				cfDetails.fieldType = cfDetails.qfTypeNameL + "_t";
-  	  				if (element.isCanBeNull()) {
-  	  					cfDetails.isPresentField = true;
-  	  				}
-  	  			}
-  	  			else if (isComposite(cfDetails.type))
-  	  			{
-  	  				cfDetails.isComposite = true;
-  						cfDetails.isDestroyable = true;
-  	  				//	<qualified field type>_t <field>;
-  	  				cfDetails.fieldType = cfDetails.qfTypeNameL + "_t *";
-  	  			}
-  	  			else
-  	  			{
-  	  				throw new IllegalArgumentException("unexpected type " + cfDetails.type.toString() + " for composite field " + element.getFieldName());
-    	  		}
-    	  	}
-
-    	  	// generate code in a second step
-
-    	  	// generate variables definition and accessors
-  	  		if (cfDetails.isPresentField)
-  	  		{
-  	  			// add present field definition
-  					//	[bool <field>_is_present;]
-  	    		compCStructDef.addStructField("bool", fieldPrefix + cfDetails.fieldName + "_is_present");
-  	    		
-  	    		// add present field accessors
-  	    		addCompFieldPresentAccessors(compositeH, compCStructAccess, compCtxt.mapCompNameL, cfDetails.fieldName);
-  	  		}
-  	  		
-  	  		if (cfDetails.isAbstractAttribute)
-  	  		{
-    	    	// add specific fields definition
-    	  		//	unsigned char <field>_attribute_tag;
-    	  		//	union mal_attribute_t <field>;
-  	    		compCStructDef.addStructField("unsigned char", fieldPrefix + cfDetails.fieldName + "_attribute_tag");
-  	    		compCStructDef.addStructField("union mal_attribute_t", fieldPrefix + cfDetails.fieldName);
+    		compositeC.addVariableDeclare("bool", "presence_flag", null);
+    	}
+    	if (compCtxt.holdsEnumField)
+    	{
+    		compositeC.addVariableDeclare("int", "enumerated_value", null);
+    	}
+    	compositeC.addStatements(compCtxt.encodingCode.decodeW);
+    	compositeC.addStatement("return rc;");
+    }
+    compositeC.closeFunctionBody();
+    addStatsWrapperFunction(compositeC, compCtxt.areaContext, funcName, selfType, "decoder");
 
-  	    		// add field accessors
-  	    		addAttributeFieldAccessors(compositeH, compCStructAccess, compCtxt.mapCompNameL, cfDetails.fieldName);
-  	  		}
-  	  		else
-  	  		{
-    	  		// add the field definition
-  	    		compCStructDef.addStructField(cfDetails.fieldType, fieldPrefix + cfDetails.fieldName);
+    funcName = compCtxt.mapCompNameL + "_decode_into_" + transportMalbinary;
+    // decode in an existing object, reusing its composite and list fields
+  	// int <area>_[<service>_]<composite>_decode_into_<format>(
+  	//	<area>_[<service>_]<composite>_t * self,
+  	//	mal_decoder_t * decoder,
+  	//	void * cursor);
+    compositeH.openFunctionPrototype("int", funcName, 3);
+    compositeH.addFunctionParameter(selfType, "self", false);
+    compositeH.addFunctionParameter("mal_decoder_t *", "decoder", false);
+    compositeH.addFunctionParameter("void *", "cursor", true);
+    compositeH.closeFunctionPrototype();
+    // int <area>_[<service>_]<composite>_decode_into_malbinary(
+    //	<area>_[<service>_]<composite>_t *self,
+    //	mal_decoder_t *decoder,
+    //	void * cursor) {
+    //		int rc = 0;
+    //		[bool presence_flag;]
+    //		[int enumerated_value;]
+    //	handle all fields, releasing the previous values
+    //		return rc;
+    // }
+    openStatsMeasuredFunction(compositeC, compCtxt.areaContext, funcName, 3);
+    compositeC.addFunctionParameter(selfType, "self", false);
+    compositeC.addFunctionParameter("mal_decoder_t *", "decoder", false);
+    compositeC.addFunctionParameter("void *", "cursor", true);
+    compositeC.openFunctionBody();
+    compositeC.addStatement("int rc = 0;");
+    if (compCtxt.holdsOptionalField)
+    {
+    	compositeC.addVariableDeclare("bool", "presence_flag", null);
+    }
+    if (compCtxt.holdsEnumField)
+    {
+    	compositeC.addVariableDeclare("int", "enumerated_value", null);
+    }
+    compositeC.addStatements(compCtxt.encodingCode.decodeIntoW);
+    compositeC.addStatement("return rc;");
+    compositeC.closeFunctionBody();
+    addStatsWrapperFunction(compositeC, compCtxt.areaContext, funcName, selfType, "decoder");
 
-  	    		// add field accessors
-  	    		addCompFieldAccessors(compositeH, compCStructAccess, compCtxt.mapCompNameL, cfDetails.fieldType, cfDetails.fieldName);
-  	  		}
+    funcName = compCtxt.mapCompNameL + "_skip_" + transportMalbinary;
+    // advance the cursor past an encoded composite without building it
+  	// int <area>_[<service>_]<composite>_skip_<format>(
+  	//	mal_decoder_t * decoder,
+  	//	void * cursor);
+    compositeH.openFunctionPrototype("int", funcName, 2);
+    compositeH.addFunctionParameter("mal_decoder_t *", "decoder", false);
+    compositeH.addFunctionParameter("void *", "cursor", true);
+    compositeH.closeFunctionPrototype();
+    // int <area>_[<service>_]<composite>_skip_malbinary(
+    //	mal_decoder_t *decoder,
+    //	void * cursor) {
+    //		int rc = 0;
+    //		[bool presence_flag;]
+    //		[int enumerated_value;]
+    //	skip all fields
+    //		return rc;
+    // }
+    openStatsMeasuredFunction(compositeC, compCtxt.areaContext, funcName, 2);
+    compositeC.addFunctionParameter("mal_decoder_t *", "decoder", false);
+    compositeC.addFunctionParameter("void *", "cursor", true);
+    compositeC.openFunctionBody();
+    compositeC.addStatement("int rc = 0;");
+    if (compCtxt.holdsOptionalField)
+    {
+    	compositeC.addVariableDeclare("bool", "presence_flag", null);
+    }
+    if (compCtxt.holdsEnumField)
+    {
+    	compositeC.addVariableDeclare("int", "enumerated_value", null);
+    }
+    compositeC.addStatements(compCtxt.encodingCode.skipW);
+    compositeC.addStatement("return rc;");
+    compositeC.closeFunctionBody();
+    addStatsWrapperFunction(compositeC, compCtxt.areaContext, funcName, null, "decoder");
 
-	    		// provision encoding code
-  	  		if (generateTransportMalbinary || generateTransportMalsplitbinary)
-  	  		{
-  	  			addCompFieldMalbinaryEncoding(compCtxt, element, cfDetails);
-  	  		}
-  	  		
-  	  		// provision destructor code
-  	  		if (cfDetails.isDestroyable)
-  	  		{
-  	  			addCompFieldDestroy(compCtxt, element, cfDetails);
-  	  		}
-    		}
-    	}
+    if (deltaEncoding)
+    {
+    	addCompositeMalbinaryDeltaFunctions(compCtxt);
     }
+  }
 
-    // close the structure definition
-    // };
-    compCStructDef.closeStruct();
-    
-    // write the structure definition in the <composite>.c file
-    comment = "structure definition for composite " + compCtxt.mapCompNameL;
-    compositeC.addNewLine();
-    compositeC.addSingleLineComment(comment);
-    compositeC.addStatements(compCStructDefW);
+  /**
+   * Add the descriptor of a composite field for the table driven codec.
+   * Composite and list fields are handled through the operations of their type.
+   */
+  private void addCompFieldTableDescriptor(CompositeContext compCtxt, CompositeField element, CompositeFieldDetails cfDetails) throws IOException
+  {
+  	CFileWriter code = compCtxt.tableCode;
+  	String structName = "struct _" + compCtxt.mapCompNameL + "_t";
+  	String member = fieldPrefix + cfDetails.fieldName;
+  	StringBuilder buf = new StringBuilder();
+  	// { .kind = MO_FIELD_<KIND>, <kind specific members>, .nullable = <nullable>,
+  	//	.offset = offsetof(struct _<composite>_t, <f_><field>), ... },
+  	buf.append("{ .kind = ");
+  	if (cfDetails.isAbstractAttribute)
+  	{
+  		buf.append("MO_FIELD_ABSTRACT_ATTRIBUTE");
+  		buf.append(", .tag_offset = offsetof(").append(structName).append(", ").append(member).append("_attribute_tag)");
+  	}
+  	else if (cfDetails.isAttribute)
+  	{
+  		buf.append("MO_FIELD_ATTRIBUTE");
+  		buf.append(", .attribute_tag = MAL_").append(cfDetails.type.getName().toUpperCase()).append("_ATTRIBUTE_TAG");
+  		buf.append(", .value_size = sizeof(((").append(structName).append(" *) 0)->").append(member).append(")");
+  		if (cfDetails.fieldType.endsWith("*"))
+  		{
+  			buf.append(", .is_pointer = true");
+  		}
+  	}
+  	else if (cfDetails.isEnumeration)
+  	{
+  		buf.append("MO_FIELD_ENUMERATION");
+  		buf.append(", .enum_size = MO_ENUM_").append(getEnumTypeMBSize(cfDetails.type).getCgenPrefix().toUpperCase());
+  		// the enumerated value is accessed as an int
+  		compCtxt.tableChecksCode.addStatement("_Static_assert(sizeof(((" + structName + " *) 0)->" + member + ") == sizeof(int), \"" +
+  				"enumeration field " + member + " is not int sized\");");
+  	}
+  	else if (cfDetails.isComposite || cfDetails.isList)
+  	{
+  		String opsType = cfDetails.qfTypeNameL + (cfDetails.isList ? "_list" : "");
+  		buf.append(cfDetails.isList ? "MO_FIELD_LIST" : "MO_FIELD_COMPOSITE");
+  		buf.append(", .is_pointer = true");
+  		buf.append(", .ops = &").append(getTableOpsName(compCtxt.areaContext, opsType));
+  		addTableTypeOps(compCtxt.areaContext, cfDetails, opsType);
+  	}
+  	else
+  	{
+  		throw new IllegalStateException("unexpected case generating table descriptor for composite field " + element.getTypeReference().toString() + ":" + cfDetails.fieldName);
+  	}
+  	if (element.isCanBeNull())
+  	{
+  		buf.append(", .nullable = true");
+  		if (cfDetails.isPresentField)
+  		{
+  			buf.append(", .has_presence_field = true");
+  			buf.append(", .presence_offset = offsetof(").append(structName).append(", ").append(member).append("_is_present)");
+  		}
+  	}
+  	buf.append(", .offset = offsetof(").append(structName).append(", ").append(member).append(") },");
+  	code.addStatement(buf.toString());
+  	compCtxt.tableFieldCount ++;
+  }
 
-    // write the structure field accessors in the <composite>.c file
-    comment = "fields accessors for composite " + compCtxt.mapCompNameL;
-    compositeC.addNewLine();
-    compositeC.addSingleLineComment(comment);
-    compositeC.addStatements(compCStructAccessW);
+  /**
+   * Name of the operations of a composite or list type used as a field by the table driven codec of an area.
+   */
+  private static String getTableOpsName(AreaContext areaContext, String opsType)
+  {
+  	return areaContext.areaNameL + "_table_" + opsType + "_ops";
   }
 
-  private void addCompFieldPresentAccessors(
-  		CFileWriter compositeH, CFileWriter compositeC,
-  		String mapCompNameL, String fieldName) throws IOException
+  /**
+   * Define the operations of a composite or list type used as a field by the table driven codec,
+   * once per type and area in the <area>.c file, and declared in the <area>_fwd.h file.
+   * The encoding functions are called through functions of the exact operations type,
+   * the decoding allocates the value as the unrolled code does.
+   */
+  private void addTableTypeOps(AreaContext areaContext, CompositeFieldDetails cfDetails, String opsType) throws IOException
   {
-  	//	bool <area>_[<service>_]<composite>_<field>_is_present(
-  	//		<area>_[<service>_]<composite>_t *self);
-  	compositeH.openFunctionPrototype("bool", mapCompNameL + "_" + fieldName + "_is_present", 1);
-  	compositeH.addFunctionParameter(mapCompNameL + "_t *", "self", true);
-  	compositeH.closeFunctionPrototype();
+  	if (! areaContext.tableOpsTypes.add(opsType))
+  	{
+  		return;
+  	}
+  	CFileWriter code = areaContext.tableOpsCode;
+  	String prefix = areaContext.areaNameL + "_table_" + opsType;
+  	// static int <area>_table_<type>_<function>(void *self, mal_encoder_t *encoder, void *cursor) {
+  	//	return <type>_<function>_malbinary((<type>_t *) self, encoder, cursor);
+  	// }
+  	for (String function : new String[] { "add_encoding_length", "encode" })
+  	{
+  		code.addNewLine();
+  		code.openFunction("static int", prefix + "_" + function, 3);
+  		code.addFunctionParameter("void *", "self", false);
+  		code.addFunctionParameter("mal_encoder_t *", "encoder", false);
+  		code.addFunctionParameter("void *", "cursor", true);
+  		code.openFunctionBody();
+  		code.addStatement("return " + opsType + "_" + function + "_" + transportMalbinary + "((" + opsType + "_t *) self, encoder, cursor);");
+  		code.closeFunctionBody();
+  	}
+  	// static int <area>_table_<type>_new_decode(void **self_p, mal_decoder_t *decoder, void *cursor) {
+  	//	int rc = 0;
+  	// allocate and decode *self_p
+  	//	return rc;
+  	// }
+  	code.addNewLine();
+  	code.openFunction("static int", prefix + "_new_decode", 3);
+  	code.addFunctionParameter("void **", "self_p", false);
+  	code.addFunctionParameter("mal_decoder_t *", "decoder", false);
+  	code.addFunctionParameter("void *", "cursor", true);
+  	code.openFunctionBody();
+  	code.addStatement("int rc = 0;");
+  	if (cfDetails.isList)
+  	{
+  		addMalbinaryEncodingDecodeList(code, "*self_p", cfDetails.qfTypeNameL, true, isGeneratedType(cfDetails.type));
+  	}
+  	else
+  	{
+  		addMalbinaryEncodingDecodeComposite(code, "*self_p", cfDetails.qfTypeNameL, true);
+  	}
+  	code.addStatement("return rc;");
+  	code.closeFunctionBody();
+  	// const mo_type_ops_t <area>_table_<type>_ops = {
+  	//	<area>_table_<type>_add_encoding_length,
+  	//	<area>_table_<type>_encode,
+  	//	<area>_table_<type>_new_decode
+  	// };
+  	code.addStatement("const mo_type_ops_t " + getTableOpsName(areaContext, opsType) + " = {", 1);
+  	code.addStatement(prefix + "_add_encoding_length,");
+  	code.addStatement(prefix + "_encode,");
+  	code.addStatement(prefix + "_new_decode");
+  	code.addStatement("};", -1, true);
+  }
 
-  	//	void <area>_[<service>_]<composite>_<field>_set_present(
-  	//		<area>_[<service>_]<composite>_t *self, bool is_present);
-  	compositeH.openFunctionPrototype("void", mapCompNameL + "_" + fieldName + "_set_present", 2);
-  	compositeH.addFunctionParameter(mapCompNameL + "_t *", "self", false);
-  	compositeH.addFunctionParameter("bool", "is_present", true);
-  	compositeH.closeFunctionPrototype();
-        
-  	//	bool <area>_[<service>_]<composite>_<field>_is_present(
-  	//		<area>_[<service>_]<composite>_t *self) {
-  	//			return self-><f_><field>_is_present;
-  	//	}
-  	compositeC.openFunction("bool", mapCompNameL + "_" + fieldName + "_is_present", 1);
-  	compositeC.addFunctionParameter(mapCompNameL + "_t *", "self", true);
-  	compositeC.openFunctionBody();
-  	compositeC.addStatement("return self->" + fieldPrefix + fieldName + "_is_present;");
-  	compositeC.closeFunctionBody();
+  /**
+   * Define the static descriptor of a composite for the table driven codec, in the <composite>.c file.
+   */
+  private void addCompositeTableDescriptor(CompositeContext compCtxt) throws IOException
+  {
+  	CFileWriter compositeC = compCtxt.compositeC;
+  	compositeC.addStatements(compCtxt.tableChecksW);
+  	compositeC.addNewLine();
+  	// static const mo_field_descriptor_t <composite>_table_fields[] = {
+  	//	<field descriptors>
+  	// };
+  	// static const mo_type_descriptor_t <composite>_table_descriptor = {
+  	//	"<composite>", <field count>, <composite>_table_fields
+  	// };
+  	if (compCtxt.tableFieldCount > 0)
+  	{
+  		compositeC.addStatement("static const mo_field_descriptor_t " + compCtxt.mapCompNameL + "_table_fields[] = {", 1);
+  		compositeC.addStatements(compCtxt.tableW);
+  		compositeC.addStatement("};", -1, true);
+  	}
+  	compositeC.addStatement("static const mo_type_descriptor_t " + compCtxt.mapCompNameL + "_table_descriptor = {", 1);
+  	compositeC.addStatement("\"" + compCtxt.mapCompNameL + "\", " + compCtxt.tableFieldCount + ", " +
+  			(compCtxt.tableFieldCount > 0 ? compCtxt.mapCompNameL + "_table_fields" : "NULL"));
+  	compositeC.addStatement("};", -1, true);
+  	compositeC.addNewLine();
+  }
 
-  	//	void <area>_[<service>_]<composite>_<field>_set_present(
-  	//		<area>_[<service>_]<composite>_t *self, bool is_present) {
-  	//			self-><f_><field>_is_present = is_present;
-  	//	}
-  	compositeC.openFunction("void", mapCompNameL + "_" + fieldName + "_set_present", 2);
-  	compositeC.addFunctionParameter(mapCompNameL + "_t *", "self", false);
-  	compositeC.addFunctionParameter("bool", "is_present", true);
-  	compositeC.openFunctionBody();
-  	compositeC.addStatement("self->" + fieldPrefix + fieldName + "_is_present = is_present;");
-  	compositeC.closeFunctionBody();
+  /**
+   * Call the table driven codec function of the area from a composite encoding function.
+   */
+  private void addTableCodecCall(CompositeContext compCtxt, String function, String xcoder) throws IOException
+  {
+  	//	return <area>_table_<function>(&<composite>_table_descriptor, self, <xcoder>, cursor);
+  	compCtxt.compositeC.addStatement("return " + compCtxt.areaContext.areaNameL + "_table_" + function +
+  			"(&" + compCtxt.mapCompNameL + "_table_descriptor, self, " + xcoder + ", cursor);");
   }
-  
-  private void addAttributeFieldAccessors(CFileWriter compositeH, CFileWriter compositeC, String mapCompNameL, String fieldName) throws IOException
+
+  /**
+   * Declare the table driven codec types, shared by all the generated areas, and the codec functions
+   * of the area, in the <area>_fwd.h file.
+   */
+  private void addTableCodecDeclarations(AreaContext areaContext, CFileWriter code) throws IOException
   {
-		// unsigned char <area>_[<service>_]<composite>_<field>_get_attribute_tag(<area>_[<service>_]<composite>_t * self);
-		compositeH.openFunctionPrototype("unsigned char", mapCompNameL + "_" + fieldName + "_get_attribute_tag", 1);
-		compositeH.addFunctionParameter(mapCompNameL + "_t *", "self", true);
-		compositeH.closeFunctionPrototype();
-		// void <area>_[<service>_]<composite>_<field>_set_attribute_tag(<area>_[<service>_]<composite>_t * self, unsigned char attribute_tag);
-		compositeH.openFunctionPrototype("void", mapCompNameL + "_" + fieldName + "_set_attribute_tag", 2);
-		compositeH.addFunctionParameter(mapCompNameL + "_t *", "self", false);
-		compositeH.addFunctionParameter("unsigned char", "attribute_tag", true);
-		compositeH.closeFunctionPrototype();
-		
-		// unsigned char <area>_[<service>_]<composite>_<field>_get_attribute_tag(
-		//	<area>_[<service>_]<composite>_t *self) {
-		//		return self-><f_><field>_attribute_tag;
-		//	}
-  	compositeC.openFunction("unsigned char", mapCompNameL + "_" + fieldName + "_get_attribute_tag", 1);
-  	compositeC.addFunctionParameter(mapCompNameL + "_t *", "self", true);
-  	compositeC.openFunctionBody();
-  	compositeC.addStatement("return self->" + fieldPrefix + fieldName + "_attribute_tag;");
-  	compositeC.closeFunctionBody();
+  	code.addNewLine();
+  	code.addSingleLineComment("table driven codec, the descriptors types are shared by all the generated areas");
+  	code.addStatement("#ifndef MO_TABLE_CODEC_DEFINED");
+  	code.addDefine("MO_TABLE_CODEC_DEFINED", "");
+  	code.addStatement("#include <stddef.h>");
+  	code.openTypedefEnum(null);
+  	code.addTypedefEnumElement("MO_FIELD_ATTRIBUTE", null, false);
+  	code.addTypedefEnumElement("MO_FIELD_ABSTRACT_ATTRIBUTE", null, false);
+  	code.addTypedefEnumElement("MO_FIELD_ENUMERATION", null, false);
+  	code.addTypedefEnumElement("MO_FIELD_COMPOSITE", null, false);
+  	code.addTypedefEnumElement("MO_FIELD_LIST", null, true);
+  	code.closeTypedefEnum("mo_field_kind_t");
+  	code.openTypedefEnum(null);
+  	code.addTypedefEnumElement("MO_ENUM_SMALL", null, false);
+  	code.addTypedefEnumElement("MO_ENUM_MEDIUM", null, false);
+  	code.addTypedefEnumElement("MO_ENUM_LARGE", null, true);
+  	code.closeTypedefEnum("mo_enum_size_t");
+  	// operations of the composite and list types used as fields
+  	code.addStatement("typedef struct mo_type_ops_t {", 1);
+  	code.addStatement("int (*add_encoding_length)(void *self, mal_encoder_t *encoder, void *cursor);");
+  	code.addStatement("int (*encode)(void *self, mal_encoder_t *encoder, void *cursor);");
+  	code.addStatement("int (*new_decode)(void **self_p, mal_decoder_t *decoder, void *cursor);");
+  	code.addStatement("} mo_type_ops_t;", -1, true);
+  	// a presence field is only declared for the nullable fields which are not pointers
+  	code.addStatement("typedef struct mo_field_descriptor_t {", 1);
+  	code.addStatement("unsigned char kind;");
+  	code.addStatement("unsigned char attribute_tag;");
+  	code.addStatement("unsigned char enum_size;");
+  	code.addStatement("bool nullable;");
+  	code.addStatement("bool is_pointer;");
+  	code.addStatement("bool has_presence_field;");
+  	code.addStatement("unsigned short value_size;");
+  	code.addStatement("size_t offset;");
+  	code.addStatement("size_t presence_offset;");
+  	code.addStatement("size_t tag_offset;");
+  	code.addStatement("const mo_type_ops_t *ops;");
+  	code.addStatement("} mo_field_descriptor_t;", -1, true);
+  	code.addStatement("typedef struct mo_type_descriptor_t {", 1);
+  	code.addStatement("const char *name;");
+  	code.addStatement("unsigned int field_count;");
+  	code.addStatement("const mo_field_descriptor_t *fields;");
+  	code.addStatement("} mo_type_descriptor_t;", -1, true);
+  	code.addStatement("#endif");
+  	code.addNewLine();
+  	// operations of the types used as fields by the area composites, defined in the <area>.c file
+  	// extern const mo_type_ops_t <area>_table_<type>_ops;
+  	for (String opsType : areaContext.tableOpsTypes)
+  	{
+  		code.addStatement("extern const mo_type_ops_t " + getTableOpsName(areaContext, opsType) + ";");
+  	}
+  	// int <area>_table_add_encoding_length(const mo_type_descriptor_t *type, void *self, mal_encoder_t *encoder, void *cursor);
+  	// int <area>_table_encode(const mo_type_descriptor_t *type, void *self, mal_encoder_t *encoder, void *cursor);
+  	// int <area>_table_decode(const mo_type_descriptor_t *type, void *self, mal_decoder_t *decoder, void *cursor);
+  	String[][] xcoders = { { "add_encoding_length", "mal_encoder_t *", "encoder" }, { "encode", "mal_encoder_t *", "encoder" }, { "decode", "mal_decoder_t *", "decoder" } };
+  	for (String[] xcoder : xcoders)
+  	{
+  		code.openFunctionPrototype("int", areaContext.areaNameL + "_table_" + xcoder[0], 4);
+  		code.addFunctionParameter("const mo_type_descriptor_t *", "type", false);
+  		code.addFunctionParameter("void *", "self", false);
+  		code.addFunctionParameter(xcoder[1], xcoder[2], false);
+  		code.addFunctionParameter("void *", "cursor", true);
+  		code.closeFunctionPrototype();
+  	}
+  }
 
-		// void <area>_[<service>_]<composite>_<field>_set_attribute_tag(
-		//	<area>_[<service>_]<composite>_t *self, 
-		//	unsigned char attribute_tag) {
-		//		self-><f_><field>_attribute_tag = attribute_tag;
-		//	}
-  	compositeC.openFunction("void", mapCompNameL + "_" + fieldName + "_set_attribute_tag", 2);
-  	compositeC.addFunctionParameter(mapCompNameL + "_t *", "self", false);
-  	compositeC.addFunctionParameter("unsigned char", "attribute_tag", true);
-  	compositeC.openFunctionBody();
-  	compositeC.addStatement("self->" + fieldPrefix + fieldName + "_attribute_tag = attribute_tag;");
-  	compositeC.closeFunctionBody();
-  	
-  	addCompFieldAccessors(compositeH, compositeC, mapCompNameL, "union mal_attribute_t", fieldName);
+  /**
+   * Add the switch on the malbinary enumeration size of a field descriptor.
+   * 
+   * @param code	writer of the switch
+   * @param call	call of the encoding function, with a %s placeholder for the enumeration size
+   */
+  private void addTableEnumSizeSwitch(CFileWriter code, String call) throws IOException
+  {
+  	code.addStatement("switch (field->enum_size)");
+  	code.openBlock();
+  	for (MalbinaryEnumSize enumSize : MalbinaryEnumSize.values())
+  	{
+  		code.addStatement("case MO_ENUM_" + enumSize.getCgenPrefix().toUpperCase() + ":", 1);
+  		code.addStatement(String.format(call, enumSize.getCgenPrefix()));
+  		code.addStatement("break;", -1);
+  	}
+  	code.closeBlock();
   }
-  
-  private void addCompFieldAccessors(CFileWriter compositeH, CFileWriter compositeC, String mapCompNameL, String fieldType, String fieldName) throws IOException
+
+  /**
+   * Define the table driven codec functions of the area in the <area>.c file.
+   * The functions interpret the field descriptors of a composite, following the same encoding
+   * rules as the unrolled functions. The concrete attributes are copied through a union mal_attribute_t
+   * so that the generic MAL attribute functions apply.
+   */
+  private void addTableCodecFunctions(AreaContext areaContext) throws IOException
   {
-  	//	<field type> <area>_[<service>_]<composite>_get_<field>(
-  	//		<area>_[<service>_]<composite>_t *self);
-  	compositeH.openFunctionPrototype(fieldType, mapCompNameL + "_get_" + fieldName, 1);
-  	compositeH.addFunctionParameter(mapCompNameL + "_t *", "self", true);
-  	compositeH.closeFunctionPrototype();
+  	CFileWriter areaC = areaContext.areaC;
+  	String areaNameL = areaContext.areaNameL;
+  	areaC.addNewLine();
+  	areaC.addSingleLineComment("table driven codec");
+  	areaC.addStatements(areaContext.tableOpsW);
+  	areaC.addNewLine();
 
-  	//	void <area>_[<service>_]<composite>_set_<field>(
-  	//		<area>_[<service>_]<composite>_t *self, <field type> <f_><field>);
-  	compositeH.openFunctionPrototype("void", mapCompNameL + "_set_" + fieldName, 2);
-  	compositeH.addFunctionParameter(mapCompNameL + "_t *", "self", false);
-  	compositeH.addFunctionParameter(fieldType, fieldPrefix + fieldName, true);
-  	compositeH.closeFunctionPrototype();
-  		
-  	//	<field type> <area>_[<service>_]<composite>_get_<field>(
-  	//		<area>_[<service>_]<composite>_t *self) {
-  	//		return self-><f_><field>;
-  	//	}
-  	compositeC.openFunction(fieldType, mapCompNameL + "_get_" + fieldName, 1);
-  	compositeC.addFunctionParameter(mapCompNameL + "_t *", "self", true);
-  	compositeC.openFunctionBody();
-  	compositeC.addStatement("return self->" + fieldPrefix + fieldName + ";");
-  	compositeC.closeFunctionBody();
+  	// static bool <area>_table_is_present(const mo_field_descriptor_t *field, const char *base) {
+  	//	if (field->has_presence_field)
+  	//		return *(const bool *) (base + field->presence_offset);
+  	//	if (field->is_pointer)
+  	//		return (*(void * const *) (base + field->offset) != NULL);
+  	//	return true;
+  	// }
+  	areaC.openFunction("static bool", areaNameL + "_table_is_present", 2);
+  	areaC.addFunctionParameter("const mo_field_descriptor_t *", "field", false);
+  	areaC.addFunctionParameter("const char *", "base", true);
+  	areaC.openFunctionBody();
+  	areaC.addStatement("if (field->has_presence_field)", 1);
+  	areaC.addStatement("return *(const bool *) (base + field->presence_offset);", -1);
+  	areaC.addStatement("if (field->is_pointer)", 1);
+  	areaC.addStatement("return (*(void * const *) (base + field->offset) != NULL);", -1);
+  	areaC.addStatement("return true;");
+  	areaC.closeFunctionBody();
 
-  	//	void <area>_[<service>_]<composite>_set_<field>(
-  	//		<area>_[<service>_]<composite>_t *self, <field type> <f_><field>) {
-  	//		self-><f_><field> = <f_><field>;
-  	//	}
-  	compositeC.openFunction("void", mapCompNameL + "_set_" + fieldName, 2);
-  	compositeC.addFunctionParameter(mapCompNameL + "_t *", "self", false);
-  	compositeC.addFunctionParameter(fieldType, fieldPrefix + fieldName, true);
-  	compositeC.openFunctionBody();
-  	compositeC.addStatement("self->" + fieldPrefix + fieldName + " = " + fieldPrefix + fieldName + ";");
-  	compositeC.closeFunctionBody();
+  	// int <area>_table_add_encoding_length(const mo_type_descriptor_t *type, void *self, mal_encoder_t *encoder, void *cursor) {
+  	//	for each field:
+  	//		if nullable, add the presence flag length and skip the absent field
+  	//		add the field value length according to its kind
+  	// }
+  	areaC.addNewLine();
+  	areaC.openFunction("int", areaNameL + "_table_add_encoding_length", 4);
+  	areaC.addFunctionParameter("const mo_type_descriptor_t *", "type", false);
+  	areaC.addFunctionParameter("void *", "self", false);
+  	areaC.addFunctionParameter("mal_encoder_t *", "encoder", false);
+  	areaC.addFunctionParameter("void *", "cursor", true);
+  	areaC.openFunctionBody();
+  	areaC.addStatement("int rc = 0;");
+  	areaC.addStatement("const char *base = (const char *) self;");
+  	areaC.addStatement("for (unsigned int i = 0; i < type->field_count; i++)");
+  	areaC.openBlock();
+  	areaC.addStatement("const mo_field_descriptor_t *field = &type->fields[i];");
+  	areaC.addStatement("if (field->nullable)");
+  	areaC.openBlock();
+  	areaC.addStatement("bool presence_flag = " + areaNameL + "_table_is_present(field, base);");
+  	addMalbinaryEncodingLengthPresenceFlag(areaC, "presence_flag");
+  	areaC.addStatement("if (! presence_flag)", 1);
+  	areaC.addStatement("continue;", -1);
+  	areaC.closeBlock();
+  	areaC.addStatement("switch (field->kind)");
+  	areaC.openBlock();
+  	areaC.addStatement("case MO_FIELD_ATTRIBUTE:");
+  	areaC.openBlock();
+  	areaC.addStatement("union mal_attribute_t value;");
+  	areaC.addStatement("memcpy(&value, base + field->offset, field->value_size);");
+  	areaC.addStatement("rc = mal_encoder_add_attribute_encoding_length(encoder, field->attribute_tag, value, cursor);");
+  	areaC.addStatement("break;");
+  	areaC.closeBlock();
+  	areaC.addStatement("case MO_FIELD_ABSTRACT_ATTRIBUTE:");
+  	areaC.openBlock();
+  	areaC.addStatement("unsigned char attribute_tag = *(const unsigned char *) (base + field->tag_offset);");
+  	addMalbinaryEncodingLengthAbstractAttribute(areaC, "attribute_tag", "*(const union mal_attribute_t *) (base + field->offset)");
+  	areaC.addStatement("break;");
+  	areaC.closeBlock();
+  	areaC.addStatement("case MO_FIELD_ENUMERATION:", 1);
+  	addTableEnumSizeSwitch(areaC, "rc = mal_encoder_add_%s_enum_encoding_length(encoder, *(const int *) (base + field->offset), cursor);");
+  	areaC.addStatement("break;", -1);
+  	areaC.addStatement("case MO_FIELD_COMPOSITE:");
+  	areaC.addStatement("case MO_FIELD_LIST:", 1);
+  	areaC.addStatement("rc = field->ops->add_encoding_length(*(void * const *) (base + field->offset), encoder, cursor);");
+  	areaC.addStatement("break;", -1);
+  	areaC.closeBlock();
+  	areaC.addStatement("if (rc < 0)", 1);
+  	areaC.addStatement("return rc;", -1);
+  	areaC.closeBlock();
+  	areaC.addStatement("return rc;");
+  	areaC.closeFunctionBody();
+
+  	// int <area>_table_encode(const mo_type_descriptor_t *type, void *self, mal_encoder_t *encoder, void *cursor) {
+  	//	for each field:
+  	//		if nullable, encode the presence flag and skip the absent field
+  	//		encode the field value according to its kind
+  	// }
+  	areaC.addNewLine();
+  	areaC.openFunction("int", areaNameL + "_table_encode", 4);
+  	areaC.addFunctionParameter("const mo_type_descriptor_t *", "type", false);
+  	areaC.addFunctionParameter("void *", "self", false);
+  	areaC.addFunctionParameter("mal_encoder_t *", "encoder", false);
+  	areaC.addFunctionParameter("void *", "cursor", true);
+  	areaC.openFunctionBody();
+  	areaC.addStatement("int rc = 0;");
+  	areaC.addStatement("const char *base = (const char *) self;");
+  	areaC.addStatement("for (unsigned int i = 0; i < type->field_count; i++)");
+  	areaC.openBlock();
+  	areaC.addStatement("const mo_field_descriptor_t *field = &type->fields[i];");
+  	areaC.addStatement("if (field->nullable)");
+  	areaC.openBlock();
+  	areaC.addStatement("bool presence_flag = " + areaNameL + "_table_is_present(field, base);");
+  	addMalbinaryEncodingEncodePresenceFlag(areaC, "presence_flag");
+  	areaC.addStatement("if (! presence_flag)", 1);
+  	areaC.addStatement("continue;", -1);
+  	areaC.closeBlock();
+  	areaC.addStatement("switch (field->kind)");
+  	areaC.openBlock();
+  	areaC.addStatement("case MO_FIELD_ATTRIBUTE:");
+  	areaC.openBlock();
+  	areaC.addStatement("union mal_attribute_t value;");
+  	areaC.addStatement("memcpy(&value, base + field->offset, field->value_size);");
+  	areaC.addStatement("rc = mal_encoder_encode_attribute(encoder, cursor, field->attribute_tag, value);");
+  	areaC.addStatement("break;");
+  	areaC.closeBlock();
+  	areaC.addStatement("case MO_FIELD_ABSTRACT_ATTRIBUTE:");
+  	areaC.openBlock();
+  	areaC.addStatement("unsigned char attribute_tag = *(const unsigned char *) (base + field->tag_offset);");
+  	addMalbinaryEncodingEncodeAbstractAttribute(areaC, "attribute_tag", "*(const union mal_attribute_t *) (base + field->offset)");
+  	areaC.addStatement("break;");
+  	areaC.closeBlock();
+  	areaC.addStatement("case MO_FIELD_ENUMERATION:", 1);
+  	addTableEnumSizeSwitch(areaC, "rc = mal_encoder_encode_%s_enum(encoder, cursor, *(const int *) (base + field->offset));");
+  	areaC.addStatement("break;", -1);
+  	areaC.addStatement("case MO_FIELD_COMPOSITE:");
+  	areaC.addStatement("case MO_FIELD_LIST:", 1);
+  	areaC.addStatement("rc = field->ops->encode(*(void * const *) (base + field->offset), encoder, cursor);");
+  	areaC.addStatement("break;", -1);
+  	areaC.closeBlock();
+  	areaC.addStatement("if (rc < 0)", 1);
+  	areaC.addStatement("return rc;", -1);
+  	areaC.closeBlock();
+  	areaC.addStatement("return rc;");
+  	areaC.closeFunctionBody();
+
+  	// int <area>_table_decode(const mo_type_descriptor_t *type, void *self, mal_decoder_t *decoder, void *cursor) {
+  	//	for each field:
+  	//		if nullable, decode the presence flag, set the presence field or the NULL pointer, and skip the absent field
+  	//		decode the field value according to its kind
+  	// }
+  	areaC.addNewLine();
+  	areaC.openFunction("int", areaNameL + "_table_decode", 4);
+  	areaC.addFunctionParameter("const mo_type_descriptor_t *", "type", false);
+  	areaC.addFunctionParameter("void *", "self", false);
+  	areaC.addFunctionParameter("mal_decoder_t *", "decoder", false);
+  	areaC.addFunctionParameter("void *", "cursor", true);
+  	areaC.openFunctionBody();
+  	areaC.addStatement("int rc = 0;");
+  	areaC.addStatement("char *base = (char *) self;");
+  	areaC.addStatement("for (unsigned int i = 0; i < type->field_count; i++)");
+  	areaC.openBlock();
+  	areaC.addStatement("const mo_field_descriptor_t *field = &type->fields[i];");
+  	areaC.addStatement("if (field->nullable)");
+  	areaC.openBlock();
+  	areaC.addStatement("bool presence_flag;");
+  	addMalbinaryEncodingDecodePresenceFlag(areaC, "presence_flag");
+  	areaC.addStatement("if (field->has_presence_field)", 1);
+  	areaC.addStatement("*(bool *) (base + field->presence_offset) = presence_flag;", -1);
+  	areaC.addStatement("if (! presence_flag)");
+  	areaC.openBlock();
+  	areaC.addStatement("if (field->is_pointer)", 1);
+  	areaC.addStatement("*(void **) (base + field->offset) = NULL;", -1);
+  	areaC.addStatement("continue;");
+  	areaC.closeBlock();
+  	areaC.closeBlock();
+  	areaC.addStatement("switch (field->kind)");
+  	areaC.openBlock();
+  	areaC.addStatement("case MO_FIELD_ATTRIBUTE:");
+  	areaC.openBlock();
+  	areaC.addStatement("union mal_attribute_t value;");
+  	areaC.addStatement("rc = mal_decoder_decode_attribute(decoder, cursor, field->attribute_tag, &value);");
+  	areaC.addStatement("if (rc == 0)", 1);
+  	areaC.addStatement("memcpy(base + field->offset, &value, field->value_size);", -1);
+  	areaC.addStatement("break;");
+  	areaC.closeBlock();
+  	areaC.addStatement("case MO_FIELD_ABSTRACT_ATTRIBUTE:");
+  	areaC.openBlock();
+  	areaC.addStatement("unsigned char *attribute_tag = (unsigned char *) (base + field->tag_offset);");
+  	addMalbinaryEncodingDecodeAbstractAttribute(areaC, "*attribute_tag", "*(union mal_attribute_t *) (base + field->offset)");
+  	areaC.addStatement("break;");
+  	areaC.closeBlock();
+  	areaC.addStatement("case MO_FIELD_ENUMERATION:", 1);
+  	addTableEnumSizeSwitch(areaC, "rc = mal_decoder_decode_%s_enum(decoder, cursor, (int *) (base + field->offset));");
+  	areaC.addStatement("break;", -1);
+  	areaC.addStatement("case MO_FIELD_COMPOSITE:");
+  	areaC.addStatement("case MO_FIELD_LIST:", 1);
+  	areaC.addStatement("rc = field->ops->new_decode((void **) (base + field->offset), decoder, cursor);");
+  	areaC.addStatement("break;", -1);
+  	areaC.closeBlock();
+  	areaC.addStatement("if (rc < 0)", 1);
+  	areaC.addStatement("return rc;", -1);
+  	areaC.closeBlock();
+  	areaC.addStatement("return rc;");
+  	areaC.closeFunctionBody();
   }
 
-  private void addCompositeEncodingFunctions(CompositeContext compCtxt) throws IOException
-  {
-    if (generateTransportMalbinary || generateTransportMalsplitbinary)
-    {
-    	addCompositeMalbinaryEncodingFunctions(compCtxt);
-    }
-  }
-  
-  private void addCompositeMalbinaryEncodingFunctions(CompositeContext compCtxt) throws IOException
+  /**
+   * Generate the delta encoding functions of a composite.
+   * The encoding holds a change bitmap, with a bit per field in the full encoding order,
+   * followed by the full encoding of the changed fields only.
+   * A composite without field only gets the delta_equals function, used by the composites holding it.
+   */
+  private void addCompositeMalbinaryDeltaFunctions(CompositeContext compCtxt) throws IOException
   {
   	CFileWriter compositeH = compCtxt.compositeH;
   	CFileWriter compositeC = compCtxt.compositeC;
-  	
-  	String comment = "encoding functions related to transport " + transportMalbinary;
+    String selfType = compCtxt.mapCompNameL + "_t *";
+    int bitmapSize = (compCtxt.deltaFieldCount + 7) / 8;
+    String equalsFuncName = compCtxt.mapCompNameL + "_delta_equals";
+
     compositeH.addNewLine();
-    compositeH.addSingleLineComment(comment);
+    compositeH.addSingleLineComment("delta encoding, only the fields changed since the previous value are encoded");
+    compositeH.addSingleLineComment("all the fields are encoded if previous is NULL");
+    compositeH.addSingleLineComment("list and abstract attribute fields are always encoded when present, they are not compared");
+
+  	// bool <area>_[<service>_]<composite>_delta_equals(
+  	//	<area>_[<service>_]<composite>_t *self,
+  	//	<area>_[<service>_]<composite>_t *previous);
+    compositeH.addSingleLineComment("true if the delta encoding of self from previous holds no field");
+    compositeH.openFunctionPrototype("bool", equalsFuncName, 2);
+    compositeH.addFunctionParameter(selfType, "self", false);
+    compositeH.addFunctionParameter(selfType, "previous", true);
+    compositeH.closeFunctionPrototype();
+    if (compCtxt.deltaFieldCount == 0)
+    {
+    	// bool <area>_[<service>_]<composite>_delta_equals(...) {
+    	//		return true;
+    	// }
+    	compositeC.addNewLine();
+    	compositeC.openFunction("bool", equalsFuncName, 2);
+    	compositeC.addFunctionParameter(selfType, "self", false);
+    	compositeC.addFunctionParameter(selfType, "previous", true);
+    	compositeC.openFunctionBody();
+    	compositeC.addStatement("return true;");
+    	compositeC.closeFunctionBody();
+    	return;
+    }
+
+    String changesFuncName = compCtxt.mapCompNameL + "_get_delta_changes";
+    // static void <area>_[<service>_]<composite>_get_delta_changes(
+    //	<area>_[<service>_]<composite>_t *self,
+    //	<area>_[<service>_]<composite>_t *previous,
+    //	mal_uoctet_t *changes) {
+    //		if (previous == NULL) {
+    //			memset(changes, 0xff, <bitmap size>);
+    //			return;
+    //		}
+    //		memset(changes, 0, <bitmap size>);
+    //	set the bit of the changed fields
+    // }
     compositeC.addNewLine();
-    compositeC.addSingleLineComment(comment);
-    
-    String selfType = compCtxt.mapCompNameL + "_t *";
-    String funcName = compCtxt.mapCompNameL + "_add_encoding_length_" + transportMalbinary;
-  	// int <area>_[<service>_]<composite>_add_encoding_length_<format>(
-  	//	<area>_[<service>_]<composite>_t * self,
-  	//	mal_encoder_t * encoder,
+    compositeC.openFunction("static void", changesFuncName, 3);
+    compositeC.addFunctionParameter(selfType, "self", false);
+    compositeC.addFunctionParameter(selfType, "previous", false);
+    compositeC.addFunctionParameter("mal_uoctet_t *", "changes", true);
+    compositeC.openFunctionBody();
+    compositeC.addStatement("if (previous == NULL)");
+    compositeC.openBlock();
+    compositeC.addStatement("memset(changes, 0xff, " + bitmapSize + ");");
+    compositeC.addStatement("return;");
+    compositeC.closeBlock();
+    compositeC.addStatement("memset(changes, 0, " + bitmapSize + ");");
+    compositeC.addStatements(compCtxt.encodingCode.deltaChangesW);
+    compositeC.closeFunctionBody();
+
+    // bool <area>_[<service>_]<composite>_delta_equals(...) {
+    //		mal_uoctet_t changes[<bitmap size>];
+    //		<area>_[<service>_]<composite>_get_delta_changes(self, previous, changes);
+    //		for (int i = 0; i < <bitmap size>; i++) {
+    //			if (changes[i] != 0) return false;
+    //		}
+    //		return true;
+    // }
+    compositeC.addNewLine();
+    compositeC.openFunction("bool", equalsFuncName, 2);
+    compositeC.addFunctionParameter(selfType, "self", false);
+    compositeC.addFunctionParameter(selfType, "previous", true);
+    compositeC.openFunctionBody();
+    compositeC.addStatement("mal_uoctet_t changes[" + bitmapSize + "];");
+    compositeC.addStatement(changesFuncName + "(self, previous, changes);");
+    compositeC.addStatement("for (int i = 0; i < " + bitmapSize + "; i++)");
+    compositeC.openBlock();
+    compositeC.addStatement("if (changes[i] != 0)", 1);
+    compositeC.addStatement("return false;", -1);
+    compositeC.closeBlock();
+    compositeC.addStatement("return true;");
+    compositeC.closeFunctionBody();
+
+    String funcName = compCtxt.mapCompNameL + "_add_delta_encoding_length_" + transportMalbinary;
+  	// int <area>_[<service>_]<composite>_add_delta_encoding_length_<format>(
+  	//	<area>_[<service>_]<composite>_t *self,
+  	//	<area>_[<service>_]<composite>_t *previous,
+  	//	mal_encoder_t *encoder,
   	//	void *cursor);
-    compositeH.openFunctionPrototype("int", funcName, 3);
+    compositeH.openFunctionPrototype("int", funcName, 4);
     compositeH.addFunctionParameter(selfType, "self", false);
+    compositeH.addFunctionParameter(selfType, "previous", false);
     compositeH.addFunctionParameter("mal_encoder_t *", "encoder", false);
     compositeH.addFunctionParameter("void *", "cursor", true);
     compositeH.closeFunctionPrototype();
-    // int <area>_[<service>_]<composite>_add_encoding_length_malbinary(
-    //	<area>_[<service>_]<composite>_t *self,
-    //	mal_encoder_t *encoder,
-    //	void *cursor) {
+    // int <area>_[<service>_]<composite>_add_delta_encoding_length_malbinary(...) {
     //		int rc = 0;
-    //	handle all fields
+    //		mal_uoctet_t changes[<bitmap size>];
+    //		<area>_[<service>_]<composite>_get_delta_changes(self, previous, changes);
+    //		for (int i = 0; i < <bitmap size>; i++) {
+    //			rc = mal_encoder_add_uoctet_encoding_length(encoder, changes[i], cursor);
+    //			if (rc < 0) return rc;
+    //		}
+    //	handle the changed fields
     //		return rc;
     // }
-    compositeC.openFunction("int", funcName, 3);
+    compositeC.addNewLine();
+    compositeC.openFunction("int", funcName, 4);
     compositeC.addFunctionParameter(selfType, "self", false);
+    compositeC.addFunctionParameter(selfType, "previous", false);
     compositeC.addFunctionParameter("mal_encoder_t *", "encoder", false);
     compositeC.addFunctionParameter("void *", "cursor", true);
     compositeC.openFunctionBody();
     compositeC.addStatement("int rc = 0;");
-    compositeC.addStatements(compCtxt.encodingCode.lengthW);
+    compositeC.addStatement("mal_uoctet_t changes[" + bitmapSize + "];");
+    compositeC.addStatement(changesFuncName + "(self, previous, changes);");
+    compositeC.addStatement("for (int i = 0; i < " + bitmapSize + "; i++)");
+    compositeC.openBlock();
+    addMalbinaryEncodingLengthAttribute(compositeC, "changes[i]", "uoctet");
+    compositeC.closeBlock();
+    compositeC.addStatements(compCtxt.encodingCode.deltaLengthW);
     compositeC.addStatement("return rc;");
     compositeC.closeFunctionBody();
 
-    funcName = compCtxt.mapCompNameL + "_encode_" + transportMalbinary;
-  	// int <area>_[<service>_]<composite>_encode_<format>(
-  	//	<area>_[<service>_]<composite>_t * self,
-  	//	mal_encoder_t * encoder,
-  	//	void * cursor);
-    compositeH.openFunctionPrototype("int", funcName, 3);
+    funcName = compCtxt.mapCompNameL + "_encode_delta_" + transportMalbinary;
+  	// int <area>_[<service>_]<composite>_encode_delta_<format>(
+  	//	<area>_[<service>_]<composite>_t *self,
+  	//	<area>_[<service>_]<composite>_t *previous,
+  	//	mal_encoder_t *encoder,
+  	//	void *cursor);
+    compositeH.openFunctionPrototype("int", funcName, 4);
     compositeH.addFunctionParameter(selfType, "self", false);
+    compositeH.addFunctionParameter(selfType, "previous", false);
     compositeH.addFunctionParameter("mal_encoder_t *", "encoder", false);
     compositeH.addFunctionParameter("void *", "cursor", true);
     compositeH.closeFunctionPrototype();
-    // int <area>_[<service>_]<composite>_encode_malbinary(
-    //	<area>_[<service>_]<composite>_t *self,
-    //	mal_encoder_t *encoder,
-    //	void * cursor) {
+    // int <area>_[<service>_]<composite>_encode_delta_malbinary(...) {
     //		int rc = 0;
     //		[bool presence_flag;]
-    //	handle all fields
+    //		mal_uoctet_t changes[<bitmap size>];
+    //		<area>_[<service>_]<composite>_get_delta_changes(self, previous, changes);
+    //		for (int i = 0; i < <bitmap size>; i++) {
+    //			rc = mal_encoder_encode_uoctet(encoder, cursor, changes[i]);
+    //			if (rc < 0) return rc;
+    //		}
+    //	handle the changed fields
     //		return rc;
     // }
-    compositeC.openFunction("int", funcName, 3);
+    compositeC.addNewLine();
+    openTracedFunction(compositeC, compCtxt.areaContext, funcName, 4);
     compositeC.addFunctionParameter(selfType, "self", false);
+    compositeC.addFunctionParameter(selfType, "previous", false);
     compositeC.addFunctionParameter("mal_encoder_t *", "encoder", false);
     compositeC.addFunctionParameter("void *", "cursor", true);
     compositeC.openFunctionBody();
@@ -1687,31 +4121,43 @@ public class GeneratorC extends GeneratorBase
     {
     	compositeC.addVariableDeclare("bool", "presence_flag", null);
     }
-    compositeC.addStatements(compCtxt.encodingCode.encodeW);
+    compositeC.addStatement("mal_uoctet_t changes[" + bitmapSize + "];");
+    compositeC.addStatement(changesFuncName + "(self, previous, changes);");
+    compositeC.addStatement("for (int i = 0; i < " + bitmapSize + "; i++)");
+    compositeC.openBlock();
+    addMalbinaryEncodingEncodeAttribute(compositeC, "changes[i]", "uoctet");
+    compositeC.closeBlock();
+    compositeC.addStatements(compCtxt.encodingCode.deltaEncodeW);
     compositeC.addStatement("return rc;");
     compositeC.closeFunctionBody();
-
-    funcName = compCtxt.mapCompNameL + "_decode_" + transportMalbinary;
-  	// int <area>_[<service>_]<composite>_decode_<format>(
-  	//	<area>_[<service>_]<composite>_t * self,
-  	//	mal_decoder_t * decoder,
-  	//	void * cursor);
+    String[][] params = { { selfType, "self" }, { selfType, "previous" }, { "mal_encoder_t *", "encoder" }, { "void *", "cursor" } };
+    addTraceWrapperFunction(compositeC, compCtxt.areaContext, funcName, getTraceProbeArgs("encode_delta", funcName), params, "encoder");
+
+    funcName = compCtxt.mapCompNameL + "_decode_delta_apply_" + transportMalbinary;
+    // update self, holding the previous value, with the changed fields
+  	// int <area>_[<service>_]<composite>_decode_delta_apply_<format>(
+  	//	<area>_[<service>_]<composite>_t *self,
+  	//	mal_decoder_t *decoder,
+  	//	void *cursor);
     compositeH.openFunctionPrototype("int", funcName, 3);
     compositeH.addFunctionParameter(selfType, "self", false);
     compositeH.addFunctionParameter("mal_decoder_t *", "decoder", false);
     compositeH.addFunctionParameter("void *", "cursor", true);
     compositeH.closeFunctionPrototype();
-    // int <area>_[<service>_]<composite>_decode_malbinary(
-    //	<area>_[<service>_]<composite>_t *self,
-    //	mal_decoder_t *decoder,
-    //	void * cursor) {
+    // int <area>_[<service>_]<composite>_decode_delta_apply_malbinary(...) {
     //		int rc = 0;
     //		[bool presence_flag;]
     //		[int enumerated_value;]
-    //	handle all fields
+    //		mal_uoctet_t changes[<bitmap size>];
+    //		for (int i = 0; i < <bitmap size>; i++) {
+    //			rc = mal_decoder_decode_uoctet(decoder, cursor, &changes[i]);
+    //			if (rc < 0) return rc;
+    //		}
+    //	decode the changed fields, releasing the previous values
     //		return rc;
     // }
-    compositeC.openFunction("int", funcName, 3);
+    compositeC.addNewLine();
+    openTracedFunction(compositeC, compCtxt.areaContext, funcName, 3);
     compositeC.addFunctionParameter(selfType, "self", false);
     compositeC.addFunctionParameter("mal_decoder_t *", "decoder", false);
     compositeC.addFunctionParameter("void *", "cursor", true);
@@ -1725,41 +4171,96 @@ public class GeneratorC extends GeneratorBase
     {
     	compositeC.addVariableDeclare("int", "enumerated_value", null);
     }
-    compositeC.addStatements(compCtxt.encodingCode.decodeW);
+    compositeC.addStatement("mal_uoctet_t changes[" + bitmapSize + "];");
+    compositeC.addStatement("for (int i = 0; i < " + bitmapSize + "; i++)");
+    compositeC.openBlock();
+    addMalbinaryEncodingDecodeAttribute(compositeC, "changes[i]", "uoctet");
+    compositeC.closeBlock();
+    compositeC.addStatements(compCtxt.encodingCode.deltaApplyW);
     compositeC.addStatement("return rc;");
     compositeC.closeFunctionBody();
+    params = new String[][] { { selfType, "self" }, { "mal_decoder_t *", "decoder" }, { "void *", "cursor" } };
+    addTraceWrapperFunction(compositeC, compCtxt.areaContext, funcName, getTraceProbeArgs("decode_delta", funcName), params, "decoder");
   }
 
-  private MalbinaryEnumSize getEnumTypeMBSize(TypeReference type, EnumerationType enumType) throws IOException
+  private static MalbinaryEnumSize getEnumMBSize(int enumSize)
   {
-  	GeneratorBase.TypeKey enumKey = new GeneratorBase.TypeKey(type);
-    MalbinaryEnumSize enumMBSize = enumTypesMBSize.get(enumKey);
-    if (enumMBSize != null)
-    {
-    	return enumMBSize;
-    }
-    // find the size and keep it in the table
-    if (enumType == null)
-    {
-    	enumType = getEnum(type);
-    	if (enumType == null)
-    	{
-    		throw new IllegalArgumentException("unknown enumeration type " + type.toString());
-    	}
-    }
-		int enumSize = enumType.getItem().size();
-		enumMBSize = MalbinaryEnumSize.MB_LARGE;
   	if (enumSize <= 256)
-  		enumMBSize = MalbinaryEnumSize.MB_SMALL;
-  	else if (enumSize <= 65536)
-  		enumMBSize = MalbinaryEnumSize.MB_MEDIUM;
-  	enumTypesMBSize.put(enumKey, enumMBSize);
-		return enumMBSize;
+  		return MalbinaryEnumSize.MB_SMALL;
+  	if (enumSize <= 65536)
+  		return MalbinaryEnumSize.MB_MEDIUM;
+  	return MalbinaryEnumSize.MB_LARGE;
   }
 
   private MalbinaryEnumSize getEnumTypeMBSize(TypeReference type) throws IOException
   {
-		return getEnumTypeMBSize(type, null);
+  	MalbinaryEnumSize enumMBSize = getTypeDetails(type).enumMBSize;
+  	if (enumMBSize == null)
+  	{
+  		throw new IllegalArgumentException("unknown enumeration type " + type.toString());
+  	}
+		return enumMBSize;
+  }
+
+  /**
+   * Build the type index from the types loaded by the specifications preprocessing.
+   * The index is not modified afterwards, the code generation only reads it.
+   */
+  private void buildTypeIndex()
+  {
+  	Map<TypeKey, TypeDetails> index = new TreeMap<TypeKey, TypeDetails>();
+  	Set<TypeKey> keys = new TreeSet<TypeKey>(allTypesMap.keySet());
+  	keys.addAll(attributeTypesMap.keySet());
+  	for (TypeKey key : keys)
+  	{
+  		index.put(key, newTypeDetails(key.getTypeReference(false)));
+  	}
+  	typeIndex = Collections.unmodifiableMap(index);
+  }
+
+  /**
+   * Resolve a type from the type index.
+   * A type unknown from the index, which should not happen, is resolved without being added.
+   */
+  private TypeDetails getTypeDetails(TypeReference type)
+  {
+  	TypeDetails details = typeIndex.get(new TypeKey(type));
+  	if (details == null)
+  	{
+  		details = newTypeDetails(type);
+  	}
+  	return details;
+  }
+
+  private TypeDetails newTypeDetails(TypeReference type)
+  {
+  	String qfTypeNameL = getTypeFQN(type);
+  	String cType = null;
+  	MalbinaryEnumSize enumMBSize = null;
+  	int enumItemCount = 0;
+  	boolean isAttribute = isAttributeType(type);
+  	boolean isEnumeration = isEnum(type);
+  	boolean isComposite = isComposite(type);
+  	if (isAttribute)
+  	{
+  		cType = getAttributeDetails(type).getTargetType();
+  	}
+  	else if (isEnumeration)
+  	{
+  		cType = qfTypeNameL + "_t";
+  		EnumerationType enumType = getEnum(type);
+  		if (enumType == null)
+  		{
+  			throw new IllegalArgumentException("unknown enumeration type " + type.toString());
+  		}
+  		enumItemCount = enumType.getItem().size();
+  		enumMBSize = getEnumMBSize(enumItemCount);
+  	}
+  	else if (isComposite)
+  	{
+  		cType = qfTypeNameL + "_t *";
+  	}
+  	return new TypeDetails(isAbstract(type), isAttribute, isComposite, isEnumeration, qfTypeNameL, cType, enumMBSize, enumItemCount);
   }
 
   protected String getTypeFQN(TypeReference ptype) {
@@ -1779,20 +4280,21 @@ public class GeneratorC extends GeneratorBase
   }
 
   protected ParameterDetails getParameterDetails(TypeReference ptype) {
+	  TypeDetails typeDetails = getTypeDetails(ptype);
 	  ParameterDetails paramDetails = new ParameterDetails();
 	  paramDetails.isError = /* FIXME */ false;
-	  paramDetails.isAttribute = isAttributeType(ptype);
-	  paramDetails.isAbstract = isAbstract(ptype);
-	  paramDetails.isComposite = isComposite(ptype);
+	  paramDetails.isAttribute = typeDetails.isAttribute;
+	  paramDetails.isAbstract = typeDetails.isAbstract;
+	  paramDetails.isComposite = typeDetails.isComposite;
 	  paramDetails.isList = ptype.isList();
 	  paramDetails.isAbstractAttribute = false;
-	  paramDetails.isEnumeration = isEnum(ptype);
+	  paramDetails.isEnumeration = typeDetails.isEnumeration;
 	  paramDetails.isPolymorph = /* FIXME */ false;
 	  paramDetails.isPresenceFlag = false;
 	  paramDetails.isPubSub = /* FIXME */ false;
-	  paramDetails.qfTypeNameL = getTypeFQN(ptype);
+	  paramDetails.qfTypeNameL = typeDetails.qfTypeNameL;
 	  paramDetails.type = ptype;
-	  if (isAbstract(ptype))
+	  if (typeDetails.isAbstract)
 	  {
 		  paramDetails.isAbstract = true;
 		  // check for abstract Attribute type
@@ -1806,30 +4308,30 @@ public class GeneratorC extends GeneratorBase
 			  paramDetails.isPresenceFlag = true;
 		  }
 	  }
-	  if (isAttributeType(ptype))
+	  if (typeDetails.isAttribute)
 	  {
 		  paramDetails.isAttribute = true;
 		  // fieldType is also <qfTypeNameL>_t, with an optional *
-		  paramDetails.paramType = getAttributeDetails(ptype).getTargetType();
+		  paramDetails.paramType = typeDetails.cType;
 		  // if map type is not a pointer, declare the is_present field
 		  if (! paramDetails.paramType.endsWith("*"))
 		  {
 			  paramDetails.isPresenceFlag = true;
 		  }
 	  }
-	  else if (isEnum(ptype))
+	  else if (typeDetails.isEnumeration)
 	  {
 		  // compCtxt.holdsEnumField = true;
 		  paramDetails.isEnumeration = true;
 		  //	<qualified type>_t <field>;
-		  paramDetails.paramType = paramDetails.qfTypeNameL + "_t";
+		  paramDetails.paramType = typeDetails.cType;
 		  paramDetails.isPresenceFlag = true;
 	  }
-	  else if (isComposite(ptype))
+	  else if (typeDetails.isComposite)
 	  {
 		  paramDetails.isComposite = true;
 		  //	<qualified field type>_t <field>;
-		  paramDetails.paramType = paramDetails.qfTypeNameL + "_t *";
+		  paramDetails.paramType = typeDetails.cType;
 	  }
 	  return paramDetails;
   }
@@ -1839,12 +4341,25 @@ public class GeneratorC extends GeneratorBase
   	addCompFieldMalbinaryEncodingLength(compCtxt, element, cfDetails);
   	addCompFieldMalbinaryEncodingEncode(compCtxt, element, cfDetails);
   	addCompFieldMalbinaryEncodingDecode(compCtxt, element, cfDetails);
+  	addCompFieldMalbinaryEncodingDecodeInto(compCtxt, element, cfDetails);
+  	addCompFieldMalbinaryEncodingSkip(compCtxt, element, cfDetails);
+  	if (deltaEncoding)
+  	{
+  		addCompFieldMalbinaryEncodingDelta(compCtxt, element, cfDetails);
+  	}
+  	if (compCtxt.areaContext.tableDriven)
+  	{
+  		addCompFieldTableDescriptor(compCtxt, element, cfDetails);
+  	}
   }
 
   private void addCompFieldMalbinaryEncodingLength(CompositeContext compCtxt, CompositeField element, CompositeFieldDetails cfDetails) throws IOException
   {
-		CFileWriter codeLength = compCtxt.encodingCode.codeLength;
-		
+  	addCompFieldMalbinaryEncodingLength(compCtxt.encodingCode.codeLength, element, cfDetails);
+  }
+
+  private void addCompFieldMalbinaryEncodingLength(CFileWriter codeLength, CompositeField element, CompositeFieldDetails cfDetails) throws IOException
+  {
   	if (element.isCanBeNull())
   	{
   		String isPresent;
@@ -1897,53 +4412,173 @@ public class GeneratorC extends GeneratorBase
 			//	}
   		codeLength.closeBlock();
   	}
-  	
+  	
+  }
+
+  private void addCompFieldMalbinaryEncodingEncode(CompositeContext compCtxt, CompositeField element, CompositeFieldDetails cfDetails) throws IOException
+  {
+  	addCompFieldMalbinaryEncodingEncode(compCtxt.encodingCode.codeEncode, element, cfDetails);
+  }
+
+  private void addCompFieldMalbinaryEncodingEncode(CFileWriter codeEncode, CompositeField element, CompositeFieldDetails cfDetails) throws IOException
+  {
+  	if (element.isCanBeNull())
+  	{
+			if (cfDetails.isPresentField)
+			{
+				//	presence_flag = <f_><field>_is_present
+				codeEncode.addStatement("presence_flag = self->" + fieldPrefix + cfDetails.fieldName + "_is_present;");
+			}
+			else
+			{
+				//	presence_flag = (<f_><field> != NULL);
+				codeEncode.addStatement("presence_flag = (self->" + fieldPrefix + cfDetails.fieldName + " != NULL);");
+			}
+  		addMalbinaryEncodingEncodePresenceFlag(codeEncode, "presence_flag");
+			
+			//	if (presence_flag) {
+			codeEncode.addStatement("if (presence_flag)");
+			codeEncode.openBlock();
+  	}
+  	
+  	if (cfDetails.isAbstractAttribute)
+  	{
+  		String varName = "self->" + fieldPrefix + cfDetails.fieldName;
+  		addMalbinaryEncodingEncodeAbstractAttribute(codeEncode, varName + "_attribute_tag", varName);
+  	}
+  	else if (cfDetails.isAttribute)
+  	{
+  		addMalbinaryEncodingEncodeAttribute(codeEncode, "self->" + fieldPrefix + cfDetails.fieldName, cfDetails.type.getName().toLowerCase());
+  	}
+  	else if (cfDetails.isComposite)
+  	{
+  		addMalbinaryEncodingEncodeComposite(codeEncode, "self->" + fieldPrefix + cfDetails.fieldName, cfDetails.qfTypeNameL);
+  	}
+  	else if (cfDetails.isList)
+  	{
+  		addMalbinaryEncodingEncodeList(codeEncode, "self->" + fieldPrefix + cfDetails.fieldName, cfDetails.qfTypeNameL);
+  	}
+  	else if (cfDetails.isEnumeration)
+  	{
+  		MalbinaryEnumSize enumMBSize = getEnumTypeMBSize(cfDetails.type);
+  		addMalbinaryEncodingEncodeEnumeration(codeEncode, "self->" + fieldPrefix + cfDetails.fieldName, enumMBSize);
+  	}
+  	else
+  	{
+  		throw new IllegalStateException("unexpected case generating encoding functions for composite field " + element.getTypeReference().toString() + ":" + cfDetails.fieldName);
+  	}
+
+  	if (element.isCanBeNull())
+  	{
+			//	}
+  		codeEncode.closeBlock();
+  	}
+  	
+  }
+
+  private void addCompFieldMalbinaryEncodingDecode(CompositeContext compCtxt, CompositeField element, CompositeFieldDetails cfDetails) throws IOException
+  {
+		CFileWriter codeDecode = compCtxt.encodingCode.codeDecode;
+		
+  	if (element.isCanBeNull())
+  	{
+  		addMalbinaryEncodingDecodePresenceFlag(codeDecode, "presence_flag");
+  		//	if (presence_flag) {
+  		codeDecode.addStatement("if (presence_flag)");
+			codeDecode.openBlock();
+  	}
+  	
+  	if (cfDetails.isAbstractAttribute)
+  	{
+  		String varName = "self->" + fieldPrefix + cfDetails.fieldName;
+  		addMalbinaryEncodingDecodeAbstractAttribute(codeDecode, varName + "_attribute_tag", varName);
+  	}
+  	else if (cfDetails.isAttribute)
+  	{
+  		addMalbinaryEncodingDecodeAttribute(codeDecode, "self->" + fieldPrefix + cfDetails.fieldName, cfDetails.type.getName().toLowerCase());
+  	}
+  	else if (cfDetails.isComposite)
+  	{
+  		addMalbinaryEncodingDecodeComposite(codeDecode, "self->" + fieldPrefix + cfDetails.fieldName, cfDetails.qfTypeNameL, false);
+  	}
+  	else if (cfDetails.isList)
+  	{
+  		addMalbinaryEncodingDecodeList(codeDecode, "self->" + fieldPrefix + cfDetails.fieldName, cfDetails.qfTypeNameL, false, isGeneratedType(cfDetails.type));
+  	}
+  	else if (cfDetails.isEnumeration)
+  	{
+  		MalbinaryEnumSize enumMBSize = getEnumTypeMBSize(cfDetails.type);
+  		addMalbinaryEncodingDecodeEnumeration(codeDecode, "self->" + fieldPrefix + cfDetails.fieldName, cfDetails.qfTypeNameL, enumMBSize);
+  	}
+  	else
+  	{
+  		throw new IllegalStateException("unexpected case generating encoding functions for composite field " + element.getTypeReference().toString() + ":" + cfDetails.fieldName);
+  	}
+
+  	if (element.isCanBeNull())
+  	{
+			//	}
+  		codeDecode.closeBlock();
+
+			if (cfDetails.isPresentField)
+			{
+				//	self-><f_><field>_is_present = presence_flag;
+				codeDecode.addStatement("self->" + fieldPrefix + cfDetails.fieldName + "_is_present = presence_flag;");
+			}
+			else
+			{
+				//	else {
+			  //		<element> = NULL;
+				//	}
+				codeDecode.addStatement("else");
+				codeDecode.openBlock();
+				codeDecode.addStatement("self->" + fieldPrefix + cfDetails.fieldName + " = NULL;");
+	  		codeDecode.closeBlock();
+			}
+  	}
   }
 
-  private void addCompFieldMalbinaryEncodingEncode(CompositeContext compCtxt, CompositeField element, CompositeFieldDetails cfDetails) throws IOException
+  /**
+   * Generate the code skipping an encoded composite field.
+   * Values of generated types are skipped without allocation, other values are decoded and released.
+   */
+  private void addCompFieldMalbinaryEncodingSkip(CompositeContext compCtxt, CompositeField element, CompositeFieldDetails cfDetails) throws IOException
   {
-		CFileWriter codeEncode = compCtxt.encodingCode.codeEncode;
+		CFileWriter codeSkip = compCtxt.encodingCode.codeSkip;
 		
   	if (element.isCanBeNull())
   	{
-			if (cfDetails.isPresentField)
-			{
-				//	presence_flag = <f_><field>_is_present
-				codeEncode.addStatement("presence_flag = self->" + fieldPrefix + cfDetails.fieldName + "_is_present;");
-			}
-			else
-			{
-				//	presence_flag = (<f_><field> != NULL);
-				codeEncode.addStatement("presence_flag = (self->" + fieldPrefix + cfDetails.fieldName + " != NULL);");
-			}
-  		addMalbinaryEncodingEncodePresenceFlag(codeEncode, "presence_flag");
-			
-			//	if (presence_flag) {
-			codeEncode.addStatement("if (presence_flag)");
-			codeEncode.openBlock();
+  		addMalbinaryEncodingDecodePresenceFlag(codeSkip, "presence_flag");
+  		//	if (presence_flag) {
+  		codeSkip.addStatement("if (presence_flag)");
+  		codeSkip.openBlock();
   	}
   	
   	if (cfDetails.isAbstractAttribute)
   	{
-  		String varName = "self->" + fieldPrefix + cfDetails.fieldName;
-  		addMalbinaryEncodingEncodeAbstractAttribute(codeEncode, varName + "_attribute_tag", varName);
+  		addMalbinaryEncodingSkipAbstractAttribute(codeSkip);
   	}
   	else if (cfDetails.isAttribute)
   	{
-  		addMalbinaryEncodingEncodeAttribute(codeEncode, "self->" + fieldPrefix + cfDetails.fieldName, cfDetails.type.getName().toLowerCase());
+  		addMalbinaryEncodingSkipAttribute(codeSkip, cfDetails.fieldType, cfDetails.qfTypeNameL, cfDetails.type.getName().toLowerCase(), cfDetails.isDestroyable);
   	}
   	else if (cfDetails.isComposite)
   	{
-  		addMalbinaryEncodingEncodeComposite(codeEncode, "self->" + fieldPrefix + cfDetails.fieldName, cfDetails.qfTypeNameL);
+  		addMalbinaryEncodingSkipComposite(codeSkip, cfDetails.qfTypeNameL, false, isGeneratedType(cfDetails.type));
   	}
   	else if (cfDetails.isList)
   	{
-  		addMalbinaryEncodingEncodeList(codeEncode, "self->" + fieldPrefix + cfDetails.fieldName, cfDetails.qfTypeNameL);
+  		addMalbinaryEncodingSkipComposite(codeSkip, cfDetails.qfTypeNameL, true, isGeneratedType(cfDetails.type));
   	}
   	else if (cfDetails.isEnumeration)
   	{
+  		// assumes a local enumerated_value variable has been declared
+  		//	rc = mal_decoder_decode_[small|medium|large]_enum(decoder, cursor, &enumerated_value);
+  		//	if (rc < 0) return rc;
   		MalbinaryEnumSize enumMBSize = getEnumTypeMBSize(cfDetails.type);
-  		addMalbinaryEncodingEncodeEnumeration(codeEncode, "self->" + fieldPrefix + cfDetails.fieldName, enumMBSize);
+  		codeSkip.addStatement("rc = mal_decoder_decode_" + enumMBSize.getCgenPrefix() + "_enum(decoder, cursor, &enumerated_value);");
+  		codeSkip.addStatement("if (rc < 0)", 1);
+  		codeSkip.addStatement("return rc;", -1);
   	}
   	else
   	{
@@ -1953,14 +4588,22 @@ public class GeneratorC extends GeneratorBase
   	if (element.isCanBeNull())
   	{
 			//	}
-  		codeEncode.closeBlock();
+  		codeSkip.closeBlock();
   	}
-  	
   }
 
-  private void addCompFieldMalbinaryEncodingDecode(CompositeContext compCtxt, CompositeField element, CompositeFieldDetails cfDetails) throws IOException
+  /**
+   * Generate the decoding code of a composite field into an existing object.
+   * The previous value of the field is released, or reused when it is a generated composite or list.
+   */
+  private void addCompFieldMalbinaryEncodingDecodeInto(CompositeContext compCtxt, CompositeField element, CompositeFieldDetails cfDetails) throws IOException
   {
-		CFileWriter codeDecode = compCtxt.encodingCode.codeDecode;
+  	addCompFieldMalbinaryEncodingDecodeInto(compCtxt.encodingCode.codeDecodeInto, element, cfDetails);
+  }
+
+  private void addCompFieldMalbinaryEncodingDecodeInto(CFileWriter codeDecode, CompositeField element, CompositeFieldDetails cfDetails) throws IOException
+  {
+		String varName = "self->" + fieldPrefix + cfDetails.fieldName;
 		
   	if (element.isCanBeNull())
   	{
@@ -1972,25 +4615,80 @@ public class GeneratorC extends GeneratorBase
   	
   	if (cfDetails.isAbstractAttribute)
   	{
-  		String varName = "self->" + fieldPrefix + cfDetails.fieldName;
+  		//	[if (<f_><field>_is_present)]
+  		//		mal_attribute_destroy(&<f_><field>, <f_><field>_attribute_tag);
+  		if (cfDetails.isPresentField)
+  		{
+  			codeDecode.addStatement("if (" + varName + "_is_present)", 1);
+  			codeDecode.addStatement("mal_attribute_destroy(&" + varName + ", " + varName + "_attribute_tag);", -1);
+  		}
+  		else
+  		{
+  			codeDecode.addStatement("mal_attribute_destroy(&" + varName + ", " + varName + "_attribute_tag);");
+  		}
   		addMalbinaryEncodingDecodeAbstractAttribute(codeDecode, varName + "_attribute_tag", varName);
   	}
   	else if (cfDetails.isAttribute)
   	{
-  		addMalbinaryEncodingDecodeAttribute(codeDecode, "self->" + fieldPrefix + cfDetails.fieldName, cfDetails.type.getName().toLowerCase());
-  	}
-  	else if (cfDetails.isComposite)
-  	{
-  		addMalbinaryEncodingDecodeComposite(codeDecode, "self->" + fieldPrefix + cfDetails.fieldName, cfDetails.qfTypeNameL, false);
+  		if (cfDetails.isDestroyable)
+  		{
+  			//	if (<f_><field> != NULL)
+  			//		mal_<attribute>_destroy(&<f_><field>);
+  			codeDecode.addStatement("if (" + varName + " != NULL)", 1);
+  			codeDecode.addStatement(cfDetails.qfTypeNameL + "_destroy(&" + varName + ");", -1);
+  		}
+  		addMalbinaryEncodingDecodeAttribute(codeDecode, varName, cfDetails.type.getName().toLowerCase());
   	}
-  	else if (cfDetails.isList)
+  	else if (cfDetails.isComposite || cfDetails.isList)
   	{
-  		addMalbinaryEncodingDecodeList(codeDecode, "self->" + fieldPrefix + cfDetails.fieldName, cfDetails.qfTypeNameL, false);
+  		String typeName = cfDetails.isList ? cfDetails.qfTypeNameL + "_list" : cfDetails.qfTypeNameL;
+  		if (isGeneratedType(cfDetails.type) && cfDetails.isList)
+  		{
+  			// a missing list is allocated for the decoded size
+  			//	if (<f_><field> == NULL)
+  			//		rc = <qftype>_list_new_decode_malbinary(&<f_><field>, decoder, cursor);
+  			//	else
+  			//		rc = <qftype>_list_decode_into_malbinary(<f_><field>, decoder, cursor);
+  			//	if (rc < 0) return rc;
+  			codeDecode.addStatement("if (" + varName + " == NULL)", 1);
+  			codeDecode.addStatement("rc = " + typeName + "_new_decode_" + transportMalbinary + "(&" + varName + ", decoder, cursor);", -1);
+  			codeDecode.addStatement("else", 1);
+  			codeDecode.addStatement("rc = " + typeName + "_decode_into_" + transportMalbinary + "(" + varName + ", decoder, cursor);", -1);
+  			codeDecode.addStatement("if (rc < 0)", 1);
+  			codeDecode.addStatement("return rc;", -1);
+  		}
+  		else if (isGeneratedType(cfDetails.type))
+  		{
+  			//	if (<f_><field> == NULL) {
+  			//		<f_><field> = <qftype>_new();
+  			//		if (<f_><field> == NULL) return -1;
+  			//	}
+  			//	rc = <qftype>_decode_into_malbinary(<f_><field>, decoder, cursor);
+  			//	if (rc < 0) return rc;
+  			codeDecode.addStatement("if (" + varName + " == NULL)");
+  			codeDecode.openBlock();
+  			codeDecode.addStatement(varName + " = " + typeName + "_new();");
+  			codeDecode.addStatement("if (" + varName + " == NULL) return -1;");
+  			codeDecode.closeBlock();
+  			codeDecode.addStatement("rc = " + typeName + "_decode_into_" + transportMalbinary + "(" + varName + ", decoder, cursor);");
+  			codeDecode.addStatement("if (rc < 0)", 1);
+  			codeDecode.addStatement("return rc;", -1);
+  		}
+  		else
+  		{
+  			// MAL types do not provide the decode_into function
+  			codeDecode.addStatement("if (" + varName + " != NULL)", 1);
+  			codeDecode.addStatement(typeName + "_destroy(&" + varName + ");", -1);
+  			if (cfDetails.isList)
+  				addMalbinaryEncodingDecodeList(codeDecode, varName, cfDetails.qfTypeNameL, false, false);
+  			else
+  				addMalbinaryEncodingDecodeComposite(codeDecode, varName, cfDetails.qfTypeNameL, false);
+  		}
   	}
   	else if (cfDetails.isEnumeration)
   	{
   		MalbinaryEnumSize enumMBSize = getEnumTypeMBSize(cfDetails.type);
-  		addMalbinaryEncodingDecodeEnumeration(codeDecode, "self->" + fieldPrefix + cfDetails.fieldName, cfDetails.qfTypeNameL, enumMBSize);
+  		addMalbinaryEncodingDecodeEnumeration(codeDecode, varName, cfDetails.qfTypeNameL, enumMBSize);
   	}
   	else
   	{
@@ -2001,26 +4699,126 @@ public class GeneratorC extends GeneratorBase
   	{
 			//	}
   		codeDecode.closeBlock();
+  		
+  		if (cfDetails.isAbstractAttribute)
+  		{
+				//	else if (<f_><field>_is_present)
+  			//		mal_attribute_destroy(&<f_><field>, <f_><field>_attribute_tag);
+  			codeDecode.addStatement("else if (" + varName + "_is_present)", 1);
+  			codeDecode.addStatement("mal_attribute_destroy(&" + varName + ", " + varName + "_attribute_tag);", -1);
+  		}
+  		else if (! cfDetails.isPresentField)
+  		{
+				//	else if (<f_><field> != NULL)
+  			//		<qftype>_[list_]destroy(&<f_><field>);
+  			codeDecode.addStatement("else if (" + varName + " != NULL)", 1);
+  			codeDecode.addStatement(cfDetails.qfTypeNameL + (cfDetails.isList ? "_list" : "") + "_destroy(&" + varName + ");", -1);
+  		}
 
 			if (cfDetails.isPresentField)
 			{
 				//	self-><f_><field>_is_present = presence_flag;
-				codeDecode.addStatement("self->" + fieldPrefix + cfDetails.fieldName + "_is_present = presence_flag;");
-			}
-			else
-			{
-				//	else {
-			  //		<element> = NULL;
-				//	}
-				codeDecode.addStatement("else");
-				codeDecode.openBlock();
-				codeDecode.addStatement("self->" + fieldPrefix + cfDetails.fieldName + " = NULL;");
-	  		codeDecode.closeBlock();
+				codeDecode.addStatement(varName + "_is_present = presence_flag;");
 			}
   	}
   }
+  
+  /**
+   * Generate the delta encoding code of a composite field.
+   * The field is given a bit in the change bitmap, and is encoded as in the full encoding when the bit is set.
+   * Values held by pointer are compared by content for the strings and blobs, and through the delta_equals
+   * function of their type for the composites. List and abstract attribute values are considered changed
+   * when present.
+   */
+  private void addCompFieldMalbinaryEncodingDelta(CompositeContext compCtxt, CompositeField element, CompositeFieldDetails cfDetails) throws IOException
+  {
+  	final EncodingCode encodingCode = compCtxt.encodingCode;
+  	final int index = compCtxt.deltaFieldCount++;
+  	final String changed = "(changes[" + (index / 8) + "] & 0x" + Integer.toHexString(1 << (index % 8)) + ")";
+  	final String field = fieldPrefix + cfDetails.fieldName;
+  	final String cur = "self->" + field;
+  	final String prev = "previous->" + field;
+
+  	//	if (<field changed>)
+  	//		changes[<index / 8>] |= 0x<1 << (index % 8)>;
+  	String test;
+  	if (cfDetails.isAbstractAttribute)
+  	{
+  		test = cfDetails.isPresentField ? "(" + cur + "_is_present || " + prev + "_is_present)" : "true";
+  	}
+  	else if (cfDetails.isPresentField)
+  	{
+  		test = "(" + cur + "_is_present != " + prev + "_is_present || (" + cur + "_is_present && " + cur + " != " + prev + "))";
+  	}
+  	else if (cfDetails.isAttribute && ! cfDetails.isDestroyable)
+  	{
+  		test = "(" + cur + " != " + prev + ")";
+  	}
+  	else if (cfDetails.isEnumeration)
+  	{
+  		test = "(" + cur + " != " + prev + ")";
+  	}
+  	else if (cfDetails.isAttribute && "mal_blob_t *".equals(cfDetails.fieldType))
+  	{
+  		test = "((" + cur + " == NULL) != (" + prev + " == NULL) || (" + cur + " != NULL && " +
+  				"(mal_blob_get_length(" + cur + ") != mal_blob_get_length(" + prev + ") || " +
+  				"memcmp(mal_blob_get_content(" + cur + "), mal_blob_get_content(" + prev + "), mal_blob_get_length(" + cur + ")) != 0)))";
+  	}
+  	else if (cfDetails.isAttribute)
+  	{
+  		// string, identifier and uri are character strings
+  		test = "((" + cur + " == NULL) != (" + prev + " == NULL) || (" + cur + " != NULL && strcmp(" + cur + ", " + prev + ") != 0))";
+  	}
+  	else if (cfDetails.isComposite && ! cfDetails.isList && isGeneratedType(cfDetails.type))
+  	{
+  		test = "((" + cur + " == NULL) != (" + prev + " == NULL) || (" + cur + " != NULL && ! " +
+  				cfDetails.qfTypeNameL + "_delta_equals(" + cur + ", " + prev + ")))";
+  	}
+  	else
+  	{
+  		test = "(" + cur + " != NULL || " + prev + " != NULL)";
+  	}
+  	if ("true".equals(test))
+  	{
+  		encodingCode.codeDeltaChanges.addStatement("changes[" + (index / 8) + "] |= 0x" + Integer.toHexString(1 << (index % 8)) + ";");
+  	}
+  	else
+  	{
+  		encodingCode.codeDeltaChanges.addStatement("if " + test, 1);
+  		encodingCode.codeDeltaChanges.addStatement("changes[" + (index / 8) + "] |= 0x" + Integer.toHexString(1 << (index % 8)) + ";", -1);
+  	}
+
+  	//	if (<field changed>) {
+  	//		<full encoding code of the field>
+  	//	}
+  	encodingCode.codeDeltaLength.addStatement("if " + changed);
+  	encodingCode.codeDeltaLength.openBlock();
+  	addCompFieldMalbinaryEncodingLength(encodingCode.codeDeltaLength, element, cfDetails);
+  	encodingCode.codeDeltaLength.closeBlock();
+
+  	encodingCode.codeDeltaEncode.addStatement("if " + changed);
+  	encodingCode.codeDeltaEncode.openBlock();
+  	addCompFieldMalbinaryEncodingEncode(encodingCode.codeDeltaEncode, element, cfDetails);
+  	encodingCode.codeDeltaEncode.closeBlock();
+
+  	//	if (<field changed>) {
+  	//		<decoding code of the field into the existing object>
+  	//	}
+  	encodingCode.codeDeltaApply.addStatement("if " + changed);
+  	encodingCode.codeDeltaApply.openBlock();
+  	addCompFieldMalbinaryEncodingDecodeInto(encodingCode.codeDeltaApply, element, cfDetails);
+  	encodingCode.codeDeltaApply.closeBlock();
+  }
+
+  /**
+   * Check if the code for a type is generated by this generator, rather than provided by the MAL library.
+   */
+  private boolean isGeneratedType(TypeReference type)
+  {
+  	return ! StdStrings.MAL.equals(type.getArea());
+  }
 
-	private void addEnumListEncodingFunctions(CFileWriter enumListH, CFileWriter enumListC, String mapEnumNameL, MalbinaryEnumSize mbSize) throws IOException
+	private void addEnumListEncodingFunctions(AreaContext areaContext, CFileWriter enumListH, CFileWriter enumListC, String mapEnumNameL, MalbinaryEnumSize mbSize) throws IOException
 	{
 		String comment = "encoding functions related to transport " + transportMalbinary;
 		enumListH.addNewLine();
@@ -2103,7 +4901,7 @@ public class GeneratorC extends GeneratorBase
 		//		}
 	  //		return rc;
 		//	}
-		enumListC.openFunction("int", mapEnumNameL + "_list_encode_" + transportMalbinary, 3);
+		openStatsMeasuredFunction(enumListC, areaContext, mapEnumNameL + "_list_encode_" + transportMalbinary, 3);
 		enumListC.addFunctionParameter(mapEnumNameL + "_list_t *", "self", false);
 		enumListC.addFunctionParameter("mal_encoder_t *", "encoder", false);
 		enumListC.addFunctionParameter("void *", "cursor", true);
@@ -2124,6 +4922,7 @@ public class GeneratorC extends GeneratorBase
 		enumListC.closeBlock();
 		enumListC.addStatement("return rc;");
 		enumListC.closeFunctionBody();
+		addStatsWrapperFunction(enumListC, areaContext, mapEnumNameL + "_list_encode_" + transportMalbinary, mapEnumNameL + "_list_t *", "encoder");
 
 		// int <area>_[<service>_]<enumeration>_list_decode_<format>(
 	  //	<area>_[<service>_]<enumeration>_t *self, 
@@ -2140,8 +4939,14 @@ public class GeneratorC extends GeneratorBase
 	  //		unsigned int list_size;
 	  //		rc = mal_decoder_decode_list_size(decoder, cursor, &list_size);
 		//		if (rc < 0) return rc;
+		// the arrays of a reused list are released, the decoded content replaces them
+		//		[if (self->content != self->inline_content) {]
+		//			free(self->presence_flags);
+		//			free(self->content);
+		//		[}]
 		//		if (list_size == 0) {
 		//				self->element_count = 0;
+		//				self->capacity = 0;
 		//				self->presence_flags = NULL;
 		//				self->content = NULL;
 		//				return 0;
@@ -2161,15 +4966,203 @@ public class GeneratorC extends GeneratorBase
 		// decode the presence flag
 		//			self->presence_flags[i] = presence_flag;
 		//			if (presence_flag) {
-		// decode the enumerated value
+		// decode the enumerated value
+		//			}
+    //			self->content[i] = (<area>_[<service>_]<enumeration>_t) element;
+		//		}
+		//		return rc;
+		//	}
+		// NOTE: we could probably get rid of some intermediate local variables
+		openStatsMeasuredFunction(enumListC, areaContext, mapEnumNameL + "_list_decode_" + transportMalbinary, 3);
+		enumListC.addFunctionParameter(mapEnumNameL + "_list_t *", "self", false);
+		enumListC.addFunctionParameter("mal_decoder_t *", "decoder", false);
+		enumListC.addFunctionParameter("void *", "cursor", true);
+		enumListC.openFunctionBody();
+		enumListC.addStatement("int rc = 0;");
+		enumListC.addStatement("unsigned int list_size;");
+		enumListC.addStatement("rc = mal_decoder_decode_list_size(decoder, cursor, &list_size);");
+		enumListC.addStatement("if (rc < 0)", 1);
+		enumListC.addStatement("return rc;", -1);
+		if (singleAllocationLists)
+		{
+			enumListC.addStatement("if (self->content != self->inline_content)");
+			enumListC.openBlock();
+		}
+		enumListC.addStatement("free(self->presence_flags);");
+		enumListC.addStatement("free(self->content);");
+		if (singleAllocationLists)
+		{
+			enumListC.closeBlock();
+		}
+		enumListC.addStatement("if (list_size == 0)");
+		enumListC.openBlock();
+		enumListC.addStatement("self->element_count = 0;");
+		enumListC.addStatement("self->capacity = 0;");
+		enumListC.addStatement("self->presence_flags = NULL;");
+		enumListC.addStatement("self->content = NULL;");
+		enumListC.addStatement("return 0;");
+		enumListC.closeBlock();
+		enumListC.addStatement("self->presence_flags = (bool *) calloc(list_size, sizeof(bool));");
+		enumListC.addStatement("if (self->presence_flags == NULL)", 1);
+		enumListC.addStatement("return -1;", -1);
+		enumListC.addStatement("self->content = (" + mapEnumNameL + "_t " + BRACKETS + ") calloc(list_size, sizeof(" + mapEnumNameL + "_t));");
+		enumListC.addStatement("if (self->content == NULL)");
+		enumListC.openBlock();
+		enumListC.addStatement("free(self->presence_flags);");
+		enumListC.addStatement("self->presence_flags = NULL;");
+		enumListC.addStatement("return -1;");
+		enumListC.closeBlock();
+		enumListC.addStatement("self->element_count = list_size;");
+		enumListC.addStatement("self->capacity = list_size;");
+		enumListC.addStatement("for (int i = 0; i < list_size; i++)");
+		enumListC.openBlock();
+		enumListC.addStatement("bool presence_flag;");
+		enumListC.addStatement("int enumerated_value;");
+		addMalbinaryEncodingDecodePresenceFlag(enumListC, "presence_flag");
+		enumListC.addStatement("self->presence_flags[i] = presence_flag;");
+		enumListC.addStatement("if (presence_flag)");
+		enumListC.openBlock();
+		addMalbinaryEncodingDecodeEnumeration(enumListC, "self->content[i]", mapEnumNameL, mbSize);
+		enumListC.closeBlock();
+		enumListC.closeBlock();
+		enumListC.addStatement("return rc;");
+		enumListC.closeFunctionBody();
+		addStatsWrapperFunction(enumListC, areaContext, mapEnumNameL + "_list_decode_" + transportMalbinary, mapEnumNameL + "_list_t *", "decoder");
+
+		// decode in an existing list, reusing its content
+		// int <area>_[<service>_]<enumeration>_list_decode_into_<format>(
+	  //	<area>_[<service>_]<enumeration>_t *self, 
+	  //	mal_decoder_t *decoder, void * cursor);
+		enumListH.openFunctionPrototype("int", mapEnumNameL + "_list_decode_into_" + transportMalbinary, 3);
+		enumListH.addFunctionParameter(mapEnumNameL + "_list_t *", "self", false);
+		enumListH.addFunctionParameter("mal_decoder_t *", "decoder", false);
+		enumListH.addFunctionParameter("void *", "cursor", true);
+		enumListH.closeFunctionPrototype();
+		// int <area>_[<service>_]<enumeration>_list_decode_into_malbinary(
+	  //	<area>_[<service>_]<enumeration>_list_t *self,
+	  //	mal_decoder_t *decoder, void * cursor) {
+	  //		int rc = 0;
+	  //		unsigned int list_size;
+	  //		rc = mal_decoder_decode_list_size(decoder, cursor, &list_size);
+		//		if (rc < 0) return rc;
+		//		if (list_size > self->capacity) {
+		//			rc = <area>_[<service>_]<enumeration>_list_reserve(self, list_size);
+		//			if (rc < 0) return rc;
+		//		}
+		//		self->element_count = list_size;
+		// decode the elements as in the decode function
+		//		return rc;
+		//	}
+		openStatsMeasuredFunction(enumListC, areaContext, mapEnumNameL + "_list_decode_into_" + transportMalbinary, 3);
+		enumListC.addFunctionParameter(mapEnumNameL + "_list_t *", "self", false);
+		enumListC.addFunctionParameter("mal_decoder_t *", "decoder", false);
+		enumListC.addFunctionParameter("void *", "cursor", true);
+		enumListC.openFunctionBody();
+		enumListC.addStatement("int rc = 0;");
+		enumListC.addStatement("unsigned int list_size;");
+		enumListC.addStatement("rc = mal_decoder_decode_list_size(decoder, cursor, &list_size);");
+		enumListC.addStatement("if (rc < 0)", 1);
+		enumListC.addStatement("return rc;", -1);
+		enumListC.addStatement("if (list_size > self->capacity)");
+		enumListC.openBlock();
+		enumListC.addStatement("rc = " + mapEnumNameL + "_list_reserve(self, list_size);");
+		enumListC.addStatement("if (rc < 0)", 1);
+		enumListC.addStatement("return rc;", -1);
+		enumListC.closeBlock();
+		enumListC.addStatement("self->element_count = list_size;");
+		enumListC.addStatement("for (int i = 0; i < list_size; i++)");
+		enumListC.openBlock();
+		enumListC.addStatement("bool presence_flag;");
+		enumListC.addStatement("int enumerated_value;");
+		addMalbinaryEncodingDecodePresenceFlag(enumListC, "presence_flag");
+		enumListC.addStatement("self->presence_flags[i] = presence_flag;");
+		enumListC.addStatement("if (presence_flag)");
+		enumListC.openBlock();
+		addMalbinaryEncodingDecodeEnumeration(enumListC, "self->content[i]", mapEnumNameL, mbSize);
+		enumListC.closeBlock();
+		enumListC.closeBlock();
+		enumListC.addStatement("return rc;");
+		enumListC.closeFunctionBody();
+		addStatsWrapperFunction(enumListC, areaContext, mapEnumNameL + "_list_decode_into_" + transportMalbinary, mapEnumNameL + "_list_t *", "decoder");
+
+		// allocate the list for the decoded size and decode its content
+		// the list is returned in *self_p even on a decoding error so that it can be destroyed
+		// int <area>_[<service>_]<enumeration>_list_new_decode_<format>(
+		//	<area>_[<service>_]<enumeration>_list_t **self_p,
+		//	mal_decoder_t *decoder, void * cursor);
+		enumListH.openFunctionPrototype("int", mapEnumNameL + "_list_new_decode_" + transportMalbinary, 3);
+		enumListH.addFunctionParameter(mapEnumNameL + "_list_t **", "self_p", false);
+		enumListH.addFunctionParameter("mal_decoder_t *", "decoder", false);
+		enumListH.addFunctionParameter("void *", "cursor", true);
+		enumListH.closeFunctionPrototype();
+		// int <area>_[<service>_]<enumeration>_list_new_decode_malbinary(
+		//	<area>_[<service>_]<enumeration>_list_t **self_p,
+		//	mal_decoder_t *decoder, void * cursor) {
+		//		int rc = 0;
+		//		unsigned int list_size;
+		//		rc = mal_decoder_decode_list_size(decoder, cursor, &list_size);
+		//		if (rc < 0) return rc;
+		//		<area>_[<service>_]<enumeration>_list_t *self = <area>_[<service>_]<enumeration>_list_new(list_size);
+		//		if (self == NULL) return -1;
+		//		*self_p = self;
+		// decode the elements as in the decode function
+		//		return rc;
+		//	}
+		openStatsMeasuredFunction(enumListC, areaContext, mapEnumNameL + "_list_new_decode_" + transportMalbinary, 3);
+		enumListC.addFunctionParameter(mapEnumNameL + "_list_t **", "self_p", false);
+		enumListC.addFunctionParameter("mal_decoder_t *", "decoder", false);
+		enumListC.addFunctionParameter("void *", "cursor", true);
+		enumListC.openFunctionBody();
+		enumListC.addStatement("int rc = 0;");
+		enumListC.addStatement("unsigned int list_size;");
+		enumListC.addStatement("rc = mal_decoder_decode_list_size(decoder, cursor, &list_size);");
+		enumListC.addStatement("if (rc < 0)", 1);
+		enumListC.addStatement("return rc;", -1);
+		enumListC.addStatement(mapEnumNameL + "_list_t *self = " + mapEnumNameL + "_list_new(list_size);");
+		enumListC.addStatement("if (self == NULL)", 1);
+		enumListC.addStatement("return -1;", -1);
+		enumListC.addStatement("*self_p = self;");
+		enumListC.addStatement("for (int i = 0; i < list_size; i++)");
+		enumListC.openBlock();
+		enumListC.addStatement("bool presence_flag;");
+		enumListC.addStatement("int enumerated_value;");
+		addMalbinaryEncodingDecodePresenceFlag(enumListC, "presence_flag");
+		enumListC.addStatement("self->presence_flags[i] = presence_flag;");
+		enumListC.addStatement("if (presence_flag)");
+		enumListC.openBlock();
+		addMalbinaryEncodingDecodeEnumeration(enumListC, "self->content[i]", mapEnumNameL, mbSize);
+		enumListC.closeBlock();
+		enumListC.closeBlock();
+		enumListC.addStatement("return rc;");
+		enumListC.closeFunctionBody();
+		addStatsWrapperFunction(enumListC, areaContext, mapEnumNameL + "_list_new_decode_" + transportMalbinary, mapEnumNameL + "_list_t **", "decoder");
+
+		// advance the cursor past an encoded list without building it
+		// int <area>_[<service>_]<enumeration>_list_skip_<format>(
+		//	mal_decoder_t *decoder, void * cursor);
+		enumListH.openFunctionPrototype("int", mapEnumNameL + "_list_skip_" + transportMalbinary, 2);
+		enumListH.addFunctionParameter("mal_decoder_t *", "decoder", false);
+		enumListH.addFunctionParameter("void *", "cursor", true);
+		enumListH.closeFunctionPrototype();
+		// int <area>_[<service>_]<enumeration>_list_skip_malbinary(
+		//	mal_decoder_t *decoder, void * cursor) {
+		//		int rc = 0;
+		//		unsigned int list_size;
+		//		rc = mal_decoder_decode_list_size(decoder, cursor, &list_size);
+		//		if (rc < 0) return rc;
+		//		for (int i = 0; i < list_size; i++) {
+		//			bool presence_flag;
+		//			int enumerated_value;
+		//			rc = mal_decoder_decode_presence_flag(decoder, cursor, &presence_flag);
+		//			if (rc < 0) return rc;
+		//			if (presence_flag) {
+		//				rc = mal_decoder_decode_[small|medium|large]_enum(decoder, cursor, &enumerated_value);
+		//				if (rc < 0) return rc;
 		//			}
-    //			self->content[i] = (<area>_[<service>_]<enumeration>_t) element;
 		//		}
 		//		return rc;
 		//	}
-		// NOTE: we could probably get rid of some intermediate local variables
-		enumListC.openFunction("int", mapEnumNameL + "_list_decode_" + transportMalbinary, 3);
-		enumListC.addFunctionParameter(mapEnumNameL + "_list_t *", "self", false);
+		openStatsMeasuredFunction(enumListC, areaContext, mapEnumNameL + "_list_skip_" + transportMalbinary, 2);
 		enumListC.addFunctionParameter("mal_decoder_t *", "decoder", false);
 		enumListC.addFunctionParameter("void *", "cursor", true);
 		enumListC.openFunctionBody();
@@ -2178,40 +5171,395 @@ public class GeneratorC extends GeneratorBase
 		enumListC.addStatement("rc = mal_decoder_decode_list_size(decoder, cursor, &list_size);");
 		enumListC.addStatement("if (rc < 0)", 1);
 		enumListC.addStatement("return rc;", -1);
-		enumListC.addStatement("if (list_size == 0)");
-		enumListC.openBlock();
-		enumListC.addStatement("self->element_count = 0;");
-		enumListC.addStatement("self->presence_flags = NULL;");
-		enumListC.addStatement("self->content = NULL;");
-		enumListC.addStatement("return 0;");
-		enumListC.closeBlock();
-		enumListC.addStatement("self->presence_flags = (bool *) calloc(list_size, sizeof(bool));");
-		enumListC.addStatement("if (self->presence_flags == NULL)", 1);
-		enumListC.addStatement("return -1;", -1);
-		enumListC.addStatement("self->content = (" + mapEnumNameL + "_t " + BRACKETS + ") calloc(list_size, sizeof(" + mapEnumNameL + "_t));");
-		enumListC.addStatement("if (self->content == NULL)");
-		enumListC.openBlock();
-		enumListC.addStatement("free(self->presence_flags);");
-		enumListC.addStatement("self->presence_flags = NULL;");
-		enumListC.addStatement("return -1;");
-		enumListC.closeBlock();
-		enumListC.addStatement("self->element_count = list_size;");
 		enumListC.addStatement("for (int i = 0; i < list_size; i++)");
 		enumListC.openBlock();
 		enumListC.addStatement("bool presence_flag;");
 		enumListC.addStatement("int enumerated_value;");
 		addMalbinaryEncodingDecodePresenceFlag(enumListC, "presence_flag");
-		enumListC.addStatement("self->presence_flags[i] = presence_flag;");
 		enumListC.addStatement("if (presence_flag)");
 		enumListC.openBlock();
-		addMalbinaryEncodingDecodeEnumeration(enumListC, "self->content[i]", mapEnumNameL, mbSize);
+		enumListC.addStatement("rc = mal_decoder_decode_" + mbSize.getCgenPrefix() + "_enum(decoder, cursor, &enumerated_value);");
+		enumListC.addStatement("if (rc < 0)", 1);
+		enumListC.addStatement("return rc;", -1);
 		enumListC.closeBlock();
 		enumListC.closeBlock();
 		enumListC.addStatement("return rc;");
 		enumListC.closeFunctionBody();
+		addStatsWrapperFunction(enumListC, areaContext, mapEnumNameL + "_list_skip_" + transportMalbinary, null, "decoder");
+	}
+
+	private void addEnumListGrowthFunctions(CFileWriter enumListH, CFileWriter enumListC, String mapEnumNameL) throws IOException
+	{
+		String comment = "capacity management functions for enumeration list " + mapEnumNameL + "_list";
+		enumListH.addNewLine();
+		enumListH.addSingleLineComment(comment);
+		enumListC.addNewLine();
+		enumListC.addSingleLineComment(comment);
+
+		// unsigned int <area>_[<service>_]<enumeration>_list_get_capacity(<area>_[<service>_]<enumeration>_list_t *self);
+		enumListH.openFunctionPrototype("unsigned int", mapEnumNameL + "_list_get_capacity", 1);
+		enumListH.addFunctionParameter(mapEnumNameL + "_list_t *", "self", true);
+		enumListH.closeFunctionPrototype();
+		// int <area>_[<service>_]<enumeration>_list_reserve(<area>_[<service>_]<enumeration>_list_t *self, unsigned int capacity);
+		enumListH.openFunctionPrototype("int", mapEnumNameL + "_list_reserve", 2);
+		enumListH.addFunctionParameter(mapEnumNameL + "_list_t *", "self", false);
+		enumListH.addFunctionParameter("unsigned int", "capacity", true);
+		enumListH.closeFunctionPrototype();
+		// int <area>_[<service>_]<enumeration>_list_append(<area>_[<service>_]<enumeration>_list_t *self,
+		//	bool presence_flag, <area>_[<service>_]<enumeration>_t element);
+		enumListH.openFunctionPrototype("int", mapEnumNameL + "_list_append", 3);
+		enumListH.addFunctionParameter(mapEnumNameL + "_list_t *", "self", false);
+		enumListH.addFunctionParameter("bool", "presence_flag", false);
+		enumListH.addFunctionParameter(mapEnumNameL + "_t", "element", true);
+		enumListH.closeFunctionPrototype();
+		// int <area>_[<service>_]<enumeration>_list_shrink_to_fit(<area>_[<service>_]<enumeration>_list_t *self);
+		enumListH.openFunctionPrototype("int", mapEnumNameL + "_list_shrink_to_fit", 1);
+		enumListH.addFunctionParameter(mapEnumNameL + "_list_t *", "self", true);
+		enumListH.closeFunctionPrototype();
+
+		// unsigned int <area>_[<service>_]<enumeration>_list_get_capacity(<area>_[<service>_]<enumeration>_list_t *self) {
+		//	return self->capacity;
+		// }
+		enumListC.openFunction("unsigned int", mapEnumNameL + "_list_get_capacity", 1);
+		enumListC.addFunctionParameter(mapEnumNameL + "_list_t *", "self", true);
+		enumListC.openFunctionBody();
+		enumListC.addStatement("return self->capacity;");
+		enumListC.closeFunctionBody();
+
+		// int <area>_[<service>_]<enumeration>_list_reserve(<area>_[<service>_]<enumeration>_list_t *self, unsigned int capacity) {
+		//	if (capacity <= self->capacity) return 0;
+		//	bool *presence_flags = (bool *) realloc(self->presence_flags, capacity * sizeof(bool));
+		//	if (presence_flags == NULL) return -1;
+		//	self->presence_flags = presence_flags;
+		//	<area>_[<service>_]<enumeration>_t *content = (<area>_[<service>_]<enumeration>_t *) realloc(
+		//		self->content, capacity * sizeof(<area>_[<service>_]<enumeration>_t));
+		//	if (content == NULL) return -1;
+		//	self->content = content;
+		//	for (int i = self->capacity; i < capacity; i++)
+		//		self->presence_flags[i] = false;
+		//	self->capacity = capacity;
+		//	return 0;
+		// }
+		// a failure leaves the list unchanged, a larger presence flags array is harmless
+		// with the single allocation option the inline arrays are first moved to separate blocks:
+		//	if (self->content == self->inline_content) {
+		//		bool *presence_flags = (bool *) malloc(capacity * sizeof(bool));
+		//		if (presence_flags == NULL) return -1;
+		//		<area>_[<service>_]<enumeration>_t *content = (<area>_[<service>_]<enumeration>_t *) malloc(
+		//			capacity * sizeof(<area>_[<service>_]<enumeration>_t));
+		//		if (content == NULL) {
+		//			free(presence_flags);
+		//			return -1;
+		//		}
+		//		memcpy(presence_flags, self->presence_flags, self->capacity * sizeof(bool));
+		//		memcpy(content, self->content, self->capacity * sizeof(<area>_[<service>_]<enumeration>_t));
+		//		self->presence_flags = presence_flags;
+		//		self->content = content;
+		//	} else {
+		//		<realloc the arrays>
+		//	}
+		enumListC.openFunction("int", mapEnumNameL + "_list_reserve", 2);
+		enumListC.addFunctionParameter(mapEnumNameL + "_list_t *", "self", false);
+		enumListC.addFunctionParameter("unsigned int", "capacity", true);
+		enumListC.openFunctionBody();
+		enumListC.addStatement("if (capacity <= self->capacity)", 1);
+		enumListC.addStatement("return 0;", -1);
+		if (singleAllocationLists)
+		{
+			enumListC.addStatement("if (self->content == self->inline_content)");
+			enumListC.openBlock();
+			enumListC.addStatement("bool " + BRACKETS + "presence_flags = (bool " + BRACKETS + ") malloc(capacity * sizeof(bool));");
+			enumListC.addStatement("if (presence_flags == NULL)", 1);
+			enumListC.addStatement("return -1;", -1);
+			enumListC.addStatement(mapEnumNameL + "_t " + BRACKETS + "content = (" + mapEnumNameL + "_t " + BRACKETS + ") malloc(capacity * sizeof(" + mapEnumNameL + "_t));");
+			enumListC.addStatement("if (content == NULL)");
+			enumListC.openBlock();
+			enumListC.addStatement("free(presence_flags);");
+			enumListC.addStatement("return -1;");
+			enumListC.closeBlock();
+			enumListC.addStatement("memcpy(presence_flags, self->presence_flags, self->capacity * sizeof(bool));");
+			enumListC.addStatement("memcpy(content, self->content, self->capacity * sizeof(" + mapEnumNameL + "_t));");
+			enumListC.addStatement("self->presence_flags = presence_flags;");
+			enumListC.addStatement("self->content = content;");
+			enumListC.closeBlock();
+			enumListC.addStatement("else");
+			enumListC.openBlock();
+		}
+		enumListC.addStatement("bool " + BRACKETS + "presence_flags = (bool " + BRACKETS + ") realloc(self->presence_flags, capacity * sizeof(bool));");
+		enumListC.addStatement("if (presence_flags == NULL)", 1);
+		enumListC.addStatement("return -1;", -1);
+		enumListC.addStatement("self->presence_flags = presence_flags;");
+		enumListC.addStatement(mapEnumNameL + "_t " + BRACKETS + "content = (" + mapEnumNameL + "_t " + BRACKETS + ") realloc(self->content, capacity * sizeof(" + mapEnumNameL + "_t));");
+		enumListC.addStatement("if (content == NULL)", 1);
+		enumListC.addStatement("return -1;", -1);
+		enumListC.addStatement("self->content = content;");
+		if (singleAllocationLists)
+		{
+			enumListC.closeBlock();
+		}
+		enumListC.addStatement("for (int i = self->capacity; i < capacity; i++)", 1);
+		enumListC.addStatement("self->presence_flags[i] = false;", -1);
+		enumListC.addStatement("self->capacity = capacity;");
+		enumListC.addStatement("return 0;");
+		enumListC.closeFunctionBody();
+
+		// int <area>_[<service>_]<enumeration>_list_append(<area>_[<service>_]<enumeration>_list_t *self,
+		//	bool presence_flag, <area>_[<service>_]<enumeration>_t element) {
+		//	if (self->element_count == self->capacity) {
+		//		unsigned int capacity = (self->capacity < 4) ? 4 : 2 * self->capacity;
+		//		if (capacity <= self->capacity) return -1;
+		//		int rc = <area>_[<service>_]<enumeration>_list_reserve(self, capacity);
+		//		if (rc < 0) return rc;
+		//	}
+		//	self->presence_flags[self->element_count] = presence_flag;
+		//	self->content[self->element_count] = element;
+		//	self->element_count++;
+		//	return 0;
+		// }
+		// the capacity grows geometrically so that a sequence of appends is amortized in constant time
+		enumListC.openFunction("int", mapEnumNameL + "_list_append", 3);
+		enumListC.addFunctionParameter(mapEnumNameL + "_list_t *", "self", false);
+		enumListC.addFunctionParameter("bool", "presence_flag", false);
+		enumListC.addFunctionParameter(mapEnumNameL + "_t", "element", true);
+		enumListC.openFunctionBody();
+		enumListC.addStatement("if (self->element_count == self->capacity)");
+		enumListC.openBlock();
+		enumListC.addStatement("unsigned int capacity = (self->capacity < " + LIST_MIN_CAPACITY + ") ? " + LIST_MIN_CAPACITY + " : 2 * self->capacity;");
+		enumListC.addStatement("if (capacity <= self->capacity)", 1);
+		enumListC.addStatement("return -1;", -1);
+		enumListC.addStatement("int rc = " + mapEnumNameL + "_list_reserve(self, capacity);");
+		enumListC.addStatement("if (rc < 0)", 1);
+		enumListC.addStatement("return rc;", -1);
+		enumListC.closeBlock();
+		enumListC.addStatement("self->presence_flags[self->element_count] = presence_flag;");
+		enumListC.addStatement("self->content[self->element_count] = element;");
+		enumListC.addStatement("self->element_count++;");
+		enumListC.addStatement("return 0;");
+		enumListC.closeFunctionBody();
+
+		// int <area>_[<service>_]<enumeration>_list_shrink_to_fit(<area>_[<service>_]<enumeration>_list_t *self) {
+		//	if (self->capacity == self->element_count) return 0;
+		//	if (self->element_count == 0) {
+		//		free(self->presence_flags);
+		//		self->presence_flags = NULL;
+		//		free(self->content);
+		//		self->content = NULL;
+		//		self->capacity = 0;
+		//		return 0;
+		//	}
+		//	bool *presence_flags = (bool *) realloc(self->presence_flags, self->element_count * sizeof(bool));
+		//	if (presence_flags == NULL) return -1;
+		//	self->presence_flags = presence_flags;
+		//	<area>_[<service>_]<enumeration>_t *content = (<area>_[<service>_]<enumeration>_t *) realloc(
+		//		self->content, self->element_count * sizeof(<area>_[<service>_]<enumeration>_t));
+		//	if (content == NULL) return -1;
+		//	self->content = content;
+		//	self->capacity = self->element_count;
+		//	return 0;
+		// }
+		// with the single allocation option the inline arrays cannot be shrunk:
+		//	if (self->content == self->inline_content) return 0;
+		enumListC.openFunction("int", mapEnumNameL + "_list_shrink_to_fit", 1);
+		enumListC.addFunctionParameter(mapEnumNameL + "_list_t *", "self", true);
+		enumListC.openFunctionBody();
+		enumListC.addStatement("if (self->capacity == self->element_count)", 1);
+		enumListC.addStatement("return 0;", -1);
+		if (singleAllocationLists)
+		{
+			enumListC.addStatement("if (self->content == self->inline_content)", 1);
+			enumListC.addStatement("return 0;", -1);
+		}
+		enumListC.addStatement("if (self->element_count == 0)");
+		enumListC.openBlock();
+		enumListC.addStatement("free(self->presence_flags);");
+		enumListC.addStatement("self->presence_flags = NULL;");
+		enumListC.addStatement("free(self->content);");
+		enumListC.addStatement("self->content = NULL;");
+		enumListC.addStatement("self->capacity = 0;");
+		enumListC.addStatement("return 0;");
+		enumListC.closeBlock();
+		enumListC.addStatement("bool " + BRACKETS + "presence_flags = (bool " + BRACKETS + ") realloc(self->presence_flags, self->element_count * sizeof(bool));");
+		enumListC.addStatement("if (presence_flags == NULL)", 1);
+		enumListC.addStatement("return -1;", -1);
+		enumListC.addStatement("self->presence_flags = presence_flags;");
+		enumListC.addStatement(mapEnumNameL + "_t " + BRACKETS + "content = (" + mapEnumNameL + "_t " + BRACKETS + ") realloc(self->content, self->element_count * sizeof(" + mapEnumNameL + "_t));");
+		enumListC.addStatement("if (content == NULL)", 1);
+		enumListC.addStatement("return -1;", -1);
+		enumListC.addStatement("self->content = content;");
+		enumListC.addStatement("self->capacity = self->element_count;");
+		enumListC.addStatement("return 0;");
+		enumListC.closeFunctionBody();
+	}
+
+	private void addCompListGrowthFunctions(CFileWriter compListH, CFileWriter compListC, String mapCompNameL) throws IOException
+	{
+		String mapCompListType = mapCompNameL + "_list_t";
+		String comment = "capacity management functions for composite list " + mapCompNameL + "_list";
+		compListH.addNewLine();
+		compListH.addSingleLineComment(comment);
+		compListC.addNewLine();
+		compListC.addSingleLineComment(comment);
+
+		// unsigned int <area>_[<service>_]<composite>_list_get_capacity(<area>_[<service>_]<composite>_list_t *self);
+		compListH.openFunctionPrototype("unsigned int", mapCompNameL + "_list_get_capacity", 1);
+		compListH.addFunctionParameter(mapCompListType + " *", "self", true);
+		compListH.closeFunctionPrototype();
+		// int <area>_[<service>_]<composite>_list_reserve(<area>_[<service>_]<composite>_list_t *self, unsigned int capacity);
+		compListH.openFunctionPrototype("int", mapCompNameL + "_list_reserve", 2);
+		compListH.addFunctionParameter(mapCompListType + " *", "self", false);
+		compListH.addFunctionParameter("unsigned int", "capacity", true);
+		compListH.closeFunctionPrototype();
+		// the list takes ownership of the element, which may be NULL for an absent element
+		// int <area>_[<service>_]<composite>_list_append(<area>_[<service>_]<composite>_list_t *self,
+		//	<area>_[<service>_]<composite>_t *element);
+		compListH.openFunctionPrototype("int", mapCompNameL + "_list_append", 2);
+		compListH.addFunctionParameter(mapCompListType + " *", "self", false);
+		compListH.addFunctionParameter(mapCompNameL + "_t *", "element", true);
+		compListH.closeFunctionPrototype();
+		// int <area>_[<service>_]<composite>_list_shrink_to_fit(<area>_[<service>_]<composite>_list_t *self);
+		compListH.openFunctionPrototype("int", mapCompNameL + "_list_shrink_to_fit", 1);
+		compListH.addFunctionParameter(mapCompListType + " *", "self", true);
+		compListH.closeFunctionPrototype();
+
+		// unsigned int <area>_[<service>_]<composite>_list_get_capacity(<area>_[<service>_]<composite>_list_t *self) {
+		//	return self->capacity;
+		// }
+		compListC.openFunction("unsigned int", mapCompNameL + "_list_get_capacity", 1);
+		compListC.addFunctionParameter(mapCompListType + " *", "self", true);
+		compListC.openFunctionBody();
+		compListC.addStatement("return self->capacity;");
+		compListC.closeFunctionBody();
+
+		// int <area>_[<service>_]<composite>_list_reserve(<area>_[<service>_]<composite>_list_t *self, unsigned int capacity) {
+		//	if (capacity <= self->capacity) return 0;
+		//	<area>_[<service>_]<composite>_t **content = (<area>_[<service>_]<composite>_t **) realloc(
+		//		self->content, capacity * sizeof(<area>_[<service>_]<composite>_t *));
+		//	if (content == NULL) return -1;
+		//	for (int i = self->capacity; i < capacity; i++)
+		//		content[i] = NULL;
+		//	self->content = content;
+		//	self->capacity = capacity;
+		//	return 0;
+		// }
+		// with the single allocation option the inline content is first moved to a separate block:
+		//	<area>_[<service>_]<composite>_t **content;
+		//	if (self->content == self->inline_content) {
+		//		content = (<area>_[<service>_]<composite>_t **) malloc(capacity * sizeof(<area>_[<service>_]<composite>_t *));
+		//		if (content == NULL) return -1;
+		//		memcpy(content, self->content, self->capacity * sizeof(<area>_[<service>_]<composite>_t *));
+		//	} else {
+		//		content = (<area>_[<service>_]<composite>_t **) realloc(
+		//			self->content, capacity * sizeof(<area>_[<service>_]<composite>_t *));
+		//		if (content == NULL) return -1;
+		//	}
+		compListC.openFunction("int", mapCompNameL + "_list_reserve", 2);
+		compListC.addFunctionParameter(mapCompListType + " *", "self", false);
+		compListC.addFunctionParameter("unsigned int", "capacity", true);
+		compListC.openFunctionBody();
+		compListC.addStatement("if (capacity <= self->capacity)", 1);
+		compListC.addStatement("return 0;", -1);
+		if (singleAllocationLists)
+		{
+			compListC.addStatement(mapCompNameL + "_t *" + BRACKETS + "content;");
+			compListC.addStatement("if (self->content == self->inline_content)");
+			compListC.openBlock();
+			compListC.addStatement("content = (" + mapCompNameL + "_t *" + BRACKETS + ") malloc(capacity * sizeof(" + mapCompNameL + "_t *));");
+			compListC.addStatement("if (content == NULL)", 1);
+			compListC.addStatement("return -1;", -1);
+			compListC.addStatement("memcpy(content, self->content, self->capacity * sizeof(" + mapCompNameL + "_t *));");
+			compListC.closeBlock();
+			compListC.addStatement("else");
+			compListC.openBlock();
+			compListC.addStatement("content = (" + mapCompNameL + "_t *" + BRACKETS + ") realloc(self->content, capacity * sizeof(" + mapCompNameL + "_t *));");
+			compListC.addStatement("if (content == NULL)", 1);
+			compListC.addStatement("return -1;", -1);
+			compListC.closeBlock();
+		}
+		else
+		{
+			compListC.addStatement(mapCompNameL + "_t *" + BRACKETS + "content = (" + mapCompNameL + "_t *" + BRACKETS + ") realloc(self->content, capacity * sizeof(" + mapCompNameL + "_t *));");
+			compListC.addStatement("if (content == NULL)", 1);
+			compListC.addStatement("return -1;", -1);
+		}
+		compListC.addStatement("for (int i = self->capacity; i < capacity; i++)", 1);
+		compListC.addStatement("content[i] = NULL;", -1);
+		compListC.addStatement("self->content = content;");
+		compListC.addStatement("self->capacity = capacity;");
+		compListC.addStatement("return 0;");
+		compListC.closeFunctionBody();
+
+		// int <area>_[<service>_]<composite>_list_append(<area>_[<service>_]<composite>_list_t *self,
+		//	<area>_[<service>_]<composite>_t *element) {
+		//	if (self->element_count == self->capacity) {
+		//		unsigned int capacity = (self->capacity < 4) ? 4 : 2 * self->capacity;
+		//		if (capacity <= self->capacity) return -1;
+		//		int rc = <area>_[<service>_]<composite>_list_reserve(self, capacity);
+		//		if (rc < 0) return rc;
+		//	}
+		//	self->content[self->element_count++] = element;
+		//	return 0;
+		// }
+		compListC.openFunction("int", mapCompNameL + "_list_append", 2);
+		compListC.addFunctionParameter(mapCompListType + " *", "self", false);
+		compListC.addFunctionParameter(mapCompNameL + "_t *", "element", true);
+		compListC.openFunctionBody();
+		compListC.addStatement("if (self->element_count == self->capacity)");
+		compListC.openBlock();
+		compListC.addStatement("unsigned int capacity = (self->capacity < " + LIST_MIN_CAPACITY + ") ? " + LIST_MIN_CAPACITY + " : 2 * self->capacity;");
+		compListC.addStatement("if (capacity <= self->capacity)", 1);
+		compListC.addStatement("return -1;", -1);
+		compListC.addStatement("int rc = " + mapCompNameL + "_list_reserve(self, capacity);");
+		compListC.addStatement("if (rc < 0)", 1);
+		compListC.addStatement("return rc;", -1);
+		compListC.closeBlock();
+		compListC.addStatement("self->content[self->element_count++] = element;");
+		compListC.addStatement("return 0;");
+		compListC.closeFunctionBody();
+
+		// int <area>_[<service>_]<composite>_list_shrink_to_fit(<area>_[<service>_]<composite>_list_t *self) {
+		//	if (self->capacity == self->element_count) return 0;
+		//	if (self->element_count == 0) {
+		//		free(self->content);
+		//		self->content = NULL;
+		//		self->capacity = 0;
+		//		return 0;
+		//	}
+		//	<area>_[<service>_]<composite>_t **content = (<area>_[<service>_]<composite>_t **) realloc(
+		//		self->content, self->element_count * sizeof(<area>_[<service>_]<composite>_t *));
+		//	if (content == NULL) return -1;
+		//	self->content = content;
+		//	self->capacity = self->element_count;
+		//	return 0;
+		// }
+		// with the single allocation option the inline content cannot be shrunk:
+		//	if (self->content == self->inline_content) return 0;
+		compListC.openFunction("int", mapCompNameL + "_list_shrink_to_fit", 1);
+		compListC.addFunctionParameter(mapCompListType + " *", "self", true);
+		compListC.openFunctionBody();
+		compListC.addStatement("if (self->capacity == self->element_count)", 1);
+		compListC.addStatement("return 0;", -1);
+		if (singleAllocationLists)
+		{
+			compListC.addStatement("if (self->content == self->inline_content)", 1);
+			compListC.addStatement("return 0;", -1);
+		}
+		compListC.addStatement("if (self->element_count == 0)");
+		compListC.openBlock();
+		compListC.addStatement("free(self->content);");
+		compListC.addStatement("self->content = NULL;");
+		compListC.addStatement("self->capacity = 0;");
+		compListC.addStatement("return 0;");
+		compListC.closeBlock();
+		compListC.addStatement(mapCompNameL + "_t *" + BRACKETS + "content = (" + mapCompNameL + "_t *" + BRACKETS + ") realloc(self->content, self->element_count * sizeof(" + mapCompNameL + "_t *));");
+		compListC.addStatement("if (content == NULL)", 1);
+		compListC.addStatement("return -1;", -1);
+		compListC.addStatement("self->content = content;");
+		compListC.addStatement("self->capacity = self->element_count;");
+		compListC.addStatement("return 0;");
+		compListC.closeFunctionBody();
 	}
 
-	private void addCompListEncodingFunctions(CFileWriter compListH, CFileWriter compListC, CompositeContext compCtxt) throws IOException
+	private void addCompListEncodingFunctions(AreaContext areaContext, CFileWriter compListH, CFileWriter compListC, String mapCompNameL) throws IOException
 	{
 		String comment = "encoding functions related to transport " + transportMalbinary;
 		compListH.addNewLine();
@@ -2222,8 +5570,8 @@ public class GeneratorC extends GeneratorBase
 		//	int <area>_[<service>_]<composite>_list_add_encoding_length_<format>(
 		//		<area>_[<service>_]<composite>_list_t *self,
 		//		mal_encoder_t *encoder, void *cursor);
-		compListH.openFunctionPrototype("int", compCtxt.mapCompNameL + "_list_add_encoding_length_" + transportMalbinary, 3);
-		compListH.addFunctionParameter(compCtxt.mapCompNameL + "_list_t *", "self", false);
+		compListH.openFunctionPrototype("int", mapCompNameL + "_list_add_encoding_length_" + transportMalbinary, 3);
+		compListH.addFunctionParameter(mapCompNameL + "_list_t *", "self", false);
 		compListH.addFunctionParameter("mal_encoder_t *", "encoder", false);
 		compListH.addFunctionParameter("void *", "cursor", true);
 		compListH.closeFunctionPrototype();
@@ -2249,8 +5597,8 @@ public class GeneratorC extends GeneratorBase
 		//		}
 		//		return rc;
 		//	}
-		compListC.openFunction("int", compCtxt.mapCompNameL + "_list_add_encoding_length_" + transportMalbinary, 3);
-		compListC.addFunctionParameter(compCtxt.mapCompNameL + "_list_t *", "self", false);
+		compListC.openFunction("int", mapCompNameL + "_list_add_encoding_length_" + transportMalbinary, 3);
+		compListC.addFunctionParameter(mapCompNameL + "_list_t *", "self", false);
 		compListC.addFunctionParameter("mal_encoder_t *", "encoder", false);
 		compListC.addFunctionParameter("void *", "cursor", true);
 		compListC.openFunctionBody();
@@ -2261,14 +5609,14 @@ public class GeneratorC extends GeneratorBase
 		compListC.addStatement("return rc;", -1);
 		compListC.addStatement("for (int i = 0; i < list_size; i++)");
 		compListC.openBlock();
-		compListC.addStatement(compCtxt.mapCompNameL + "_t * list_element = self->content[i];");
+		compListC.addStatement(mapCompNameL + "_t * list_element = self->content[i];");
 		compListC.addStatement("bool presence_flag = (list_element != NULL);");
 		compListC.addStatement("rc = mal_encoder_add_presence_flag_encoding_length(encoder, presence_flag, cursor);");
 		compListC.addStatement("if (rc < 0)", 1);
 		compListC.addStatement("return rc;", -1);
 		compListC.addStatement("if (presence_flag)");
 		compListC.openBlock();
-		addMalbinaryEncodingLengthComposite(compListC, "list_element", compCtxt.mapCompNameL);	
+		addMalbinaryEncodingLengthComposite(compListC, "list_element", mapCompNameL);	
 		compListC.closeBlock();
 		compListC.closeBlock();
 		compListC.addStatement("return rc;");
@@ -2277,8 +5625,8 @@ public class GeneratorC extends GeneratorBase
 		//	int <area>_[<service>_]<composite>_list_encode_<format>(
 		//		<area>_[<service>_]<composite>_list_t *self, 
 		//		mal_encoder_t *encoder, void * cursor);
-		compListH.openFunctionPrototype("int", compCtxt.mapCompNameL + "_list_encode_" + transportMalbinary, 3);
-		compListH.addFunctionParameter(compCtxt.mapCompNameL + "_list_t *", "self", false);
+		compListH.openFunctionPrototype("int", mapCompNameL + "_list_encode_" + transportMalbinary, 3);
+		compListH.addFunctionParameter(mapCompNameL + "_list_t *", "self", false);
 		compListH.addFunctionParameter("mal_encoder_t *", "encoder", false);
 		compListH.addFunctionParameter("void *", "cursor", true);
 		compListH.closeFunctionPrototype();
@@ -2297,8 +5645,8 @@ public class GeneratorC extends GeneratorBase
 		//		}
 		//		return rc;
 		//	}
-		compListC.openFunction("int", compCtxt.mapCompNameL + "_list_encode_" + transportMalbinary, 3);
-		compListC.addFunctionParameter(compCtxt.mapCompNameL + "_list_t *", "self", false);
+		openStatsMeasuredFunction(compListC, areaContext, mapCompNameL + "_list_encode_" + transportMalbinary, 3);
+		compListC.addFunctionParameter(mapCompNameL + "_list_t *", "self", false);
 		compListC.addFunctionParameter("mal_encoder_t *", "encoder", false);
 		compListC.addFunctionParameter("void *", "cursor", true);
 		compListC.openFunctionBody();
@@ -2307,25 +5655,26 @@ public class GeneratorC extends GeneratorBase
 		compListC.addStatement("rc = mal_encoder_encode_list_size(encoder, cursor, list_size);");
 		compListC.addStatement("if (rc < 0)", 1);
 		compListC.addStatement("return rc;", -1);
-		compListC.addStatement(compCtxt.mapCompNameL + "_t *" + BRACKETS + " content = self->content;");
+		compListC.addStatement(mapCompNameL + "_t *" + BRACKETS + " content = self->content;");
 		compListC.addStatement("for (int i = 0; i < list_size; i++)");
 		compListC.openBlock();
-		compListC.addStatement(compCtxt.mapCompNameL + "_t *list_element = content[i];");
+		compListC.addStatement(mapCompNameL + "_t *list_element = content[i];");
 		compListC.addStatement("bool presence_flag = (list_element != NULL);");
 		addMalbinaryEncodingEncodePresenceFlag(compListC, "presence_flag");
 		compListC.addStatement("if (presence_flag)");
 		compListC.openBlock();
-		addMalbinaryEncodingEncodeComposite(compListC, "list_element", compCtxt.mapCompNameL);
+		addMalbinaryEncodingEncodeComposite(compListC, "list_element", mapCompNameL);
 		compListC.closeBlock();
 		compListC.closeBlock();
 		compListC.addStatement("return rc;");
 		compListC.closeFunctionBody();
+		addStatsWrapperFunction(compListC, areaContext, mapCompNameL + "_list_encode_" + transportMalbinary, mapCompNameL + "_list_t *", "encoder");
 
 		//	int <area>_[<service>_]<composite>_list_decode_<format>(
 		//		<area>_[<service>_]<composite>_t *self, 
 		//		mal_decoder_t *decoder, void * cursor);
-		compListH.openFunctionPrototype("int", compCtxt.mapCompNameL + "_list_decode_" + transportMalbinary, 3);
-		compListH.addFunctionParameter(compCtxt.mapCompNameL + "_list_t *", "self", false);
+		compListH.openFunctionPrototype("int", mapCompNameL + "_list_decode_" + transportMalbinary, 3);
+		compListH.addFunctionParameter(mapCompNameL + "_list_t *", "self", false);
 		compListH.addFunctionParameter("mal_decoder_t *", "decoder", false);
 		compListH.addFunctionParameter("void *", "cursor", true);
 		compListH.closeFunctionPrototype();
@@ -2337,8 +5686,13 @@ public class GeneratorC extends GeneratorBase
 		//		unsigned int list_size;
 		//		rc = mal_decoder_decode_list_size(decoder, cursor, &list_size);
 		//		if (rc < 0) return rc;
+		// the elements and the content array of a reused list are released, the decoded content replaces them
+		//		<area>_[<service>_]<composite>_list_clear(self);
+		//		[if (self->content != self->inline_content)]
+		//			free(self->content);
 		//		if (list_size == 0) {
 		//			self->element_count = 0;
+		//			self->capacity = 0;
 		//			self->content = NULL;
 		//			return 0;
 		//		}
@@ -2346,14 +5700,15 @@ public class GeneratorC extends GeneratorBase
 		//			list_size, sizeof(<area>_[<service>_]<composite>_t *));
 		//		if (self->content == NULL) return -1;
 		//		self->element_count = list_size;
+		//		self->capacity = list_size;
 		//		for (int i = 0; i < list_size; i++) {
 		// Decodage d'un Composite optionnel : voir section 11.3.1.
 		// Decodage dans la structure: self->content[i]
 		//		}
 		//		return rc;
 		//	}
-			compListC.openFunction("int", compCtxt.mapCompNameL + "_list_decode_" + transportMalbinary, 3);
-			compListC.addFunctionParameter(compCtxt.mapCompNameL + "_list_t *", "self", false);
+			openStatsMeasuredFunction(compListC, areaContext, mapCompNameL + "_list_decode_" + transportMalbinary, 3);
+			compListC.addFunctionParameter(mapCompNameL + "_list_t *", "self", false);
 			compListC.addFunctionParameter("mal_decoder_t *", "decoder", false);
 			compListC.addFunctionParameter("void *", "cursor", true);
 			compListC.openFunctionBody();
@@ -2362,37 +5717,281 @@ public class GeneratorC extends GeneratorBase
 			compListC.addStatement("rc = mal_decoder_decode_list_size(decoder, cursor, &list_size);");
 			compListC.addStatement("if (rc < 0)", 1);
 			compListC.addStatement("return rc;", -1);
+			compListC.addStatement(mapCompNameL + "_list_clear(self);");
+			if (singleAllocationLists)
+			{
+				compListC.addStatement("if (self->content != self->inline_content)", 1);
+				compListC.addStatement("free(self->content);", -1);
+			}
+			else
+			{
+				compListC.addStatement("free(self->content);");
+			}
 			compListC.addStatement("if (list_size == 0)");
 			compListC.openBlock();
 			compListC.addStatement("self->element_count = 0;");
+			compListC.addStatement("self->capacity = 0;");
 			compListC.addStatement("self->content = NULL;");
 			compListC.addStatement("return 0;");
 			compListC.closeBlock();
-			compListC.addStatement("self->content = (" + compCtxt.mapCompNameL + "_t *" + BRACKETS + ") calloc(list_size, sizeof(" + compCtxt.mapCompNameL + "_t *));");
+			compListC.addStatement("self->content = (" + mapCompNameL + "_t *" + BRACKETS + ") calloc(list_size, sizeof(" + mapCompNameL + "_t *));");
 			compListC.addStatement("if (self->content == NULL)", 1);
 			compListC.addStatement("return -1;", -1);
 			compListC.addStatement("self->element_count = list_size;");
+			compListC.addStatement("self->capacity = list_size;");
+			compListC.addStatement("for (int i = 0; i < list_size; i++)");
+			compListC.openBlock();
+			compListC.addStatement("bool presence_flag;");
+			addMalbinaryEncodingDecodePresenceFlag(compListC, "presence_flag");
+			compListC.addStatement("if (presence_flag)");
+			compListC.openBlock();
+			addMalbinaryEncodingDecodeComposite(compListC, "self->content[i]", mapCompNameL, false);
+			compListC.closeBlock();
+			compListC.closeBlock();
+			compListC.addStatement("return rc;");
+			compListC.closeFunctionBody();
+			addStatsWrapperFunction(compListC, areaContext, mapCompNameL + "_list_decode_" + transportMalbinary, mapCompNameL + "_list_t *", "decoder");
+
+		// decode in an existing list, reusing its content and elements
+		//	int <area>_[<service>_]<composite>_list_decode_into_<format>(
+		//		<area>_[<service>_]<composite>_t *self, 
+		//		mal_decoder_t *decoder, void * cursor);
+		compListH.openFunctionPrototype("int", mapCompNameL + "_list_decode_into_" + transportMalbinary, 3);
+		compListH.addFunctionParameter(mapCompNameL + "_list_t *", "self", false);
+		compListH.addFunctionParameter("mal_decoder_t *", "decoder", false);
+		compListH.addFunctionParameter("void *", "cursor", true);
+		compListH.closeFunctionPrototype();
+
+		//	int <area>_[<service>_]<composite>_list_decode_into_malbinary(
+		//		<area>_[<service>_]<composite>_list_t *self,
+		//		mal_decoder_t *decoder, void * cursor) {
+		//		int rc = 0;
+		//		unsigned int list_size;
+		//		rc = mal_decoder_decode_list_size(decoder, cursor, &list_size);
+		//		if (rc < 0) return rc;
+		//		if (list_size > self->capacity) {
+		//			rc = <area>_[<service>_]<composite>_list_reserve(self, list_size);
+		//			if (rc < 0) return rc;
+		//		} else {
+		//			for (int i = list_size; i < self->element_count; i++) {
+		//				if (self->content[i] != NULL)
+		//					<area>_[<service>_]<composite>_destroy(&self->content[i]);
+		//			}
+		//		}
+		//		self->element_count = list_size;
+		//		for (int i = 0; i < list_size; i++) {
+		//			bool presence_flag;
+		//			rc = mal_decoder_decode_presence_flag(decoder, cursor, &presence_flag);
+		//			if (rc < 0) return rc;
+		//			if (presence_flag) {
+		//				if (self->content[i] == NULL) {
+		//					self->content[i] = <area>_[<service>_]<composite>_new();
+		//					if (self->content[i] == NULL) return -1;
+		//				}
+		//				rc = <area>_[<service>_]<composite>_decode_into_malbinary(self->content[i], decoder, cursor);
+		//				if (rc < 0) return rc;
+		//			} else if (self->content[i] != NULL) {
+		//				<area>_[<service>_]<composite>_destroy(&self->content[i]);
+		//			}
+		//		}
+		//		return rc;
+		//	}
+			openStatsMeasuredFunction(compListC, areaContext, mapCompNameL + "_list_decode_into_" + transportMalbinary, 3);
+			compListC.addFunctionParameter(mapCompNameL + "_list_t *", "self", false);
+			compListC.addFunctionParameter("mal_decoder_t *", "decoder", false);
+			compListC.addFunctionParameter("void *", "cursor", true);
+			compListC.openFunctionBody();
+			compListC.addStatement("int rc = 0;");
+			compListC.addStatement("unsigned int list_size;");
+			compListC.addStatement("rc = mal_decoder_decode_list_size(decoder, cursor, &list_size);");
+			compListC.addStatement("if (rc < 0)", 1);
+			compListC.addStatement("return rc;", -1);
+			compListC.addStatement("if (list_size > self->capacity)");
+			compListC.openBlock();
+			compListC.addStatement("rc = " + mapCompNameL + "_list_reserve(self, list_size);");
+			compListC.addStatement("if (rc < 0)", 1);
+			compListC.addStatement("return rc;", -1);
+			compListC.closeBlock();
+			compListC.addStatement("else");
+			compListC.openBlock();
+			compListC.addStatement("for (int i = list_size; i < self->element_count; i++)");
+			compListC.openBlock();
+			compListC.addStatement("if (self->content[i] != NULL)", 1);
+			compListC.addStatement(mapCompNameL + "_destroy(&self->content[i]);", -1);
+			compListC.closeBlock();
+			compListC.closeBlock();
+			compListC.addStatement("self->element_count = list_size;");
+			compListC.addStatement("for (int i = 0; i < list_size; i++)");
+			compListC.openBlock();
+			compListC.addStatement("bool presence_flag;");
+			addMalbinaryEncodingDecodePresenceFlag(compListC, "presence_flag");
+			compListC.addStatement("if (presence_flag)");
+			compListC.openBlock();
+			compListC.addStatement("if (self->content[i] == NULL)");
+			compListC.openBlock();
+			compListC.addStatement("self->content[i] = " + mapCompNameL + "_new();");
+			compListC.addStatement("if (self->content[i] == NULL) return -1;");
+			compListC.closeBlock();
+			compListC.addStatement("rc = " + mapCompNameL + "_decode_into_" + transportMalbinary + "(self->content[i], decoder, cursor);");
+			compListC.addStatement("if (rc < 0)", 1);
+			compListC.addStatement("return rc;", -1);
+			compListC.closeBlock();
+			compListC.addStatement("else if (self->content[i] != NULL)", 1);
+			compListC.addStatement(mapCompNameL + "_destroy(&self->content[i]);", -1);
+			compListC.closeBlock();
+			compListC.addStatement("return rc;");
+			compListC.closeFunctionBody();
+			addStatsWrapperFunction(compListC, areaContext, mapCompNameL + "_list_decode_into_" + transportMalbinary, mapCompNameL + "_list_t *", "decoder");
+
+		// allocate the list for the decoded size and decode its content
+		// the list is returned in *self_p even on a decoding error so that it can be destroyed
+		//	int <area>_[<service>_]<composite>_list_new_decode_<format>(
+		//		<area>_[<service>_]<composite>_list_t **self_p,
+		//		mal_decoder_t *decoder, void * cursor);
+		compListH.openFunctionPrototype("int", mapCompNameL + "_list_new_decode_" + transportMalbinary, 3);
+		compListH.addFunctionParameter(mapCompNameL + "_list_t **", "self_p", false);
+		compListH.addFunctionParameter("mal_decoder_t *", "decoder", false);
+		compListH.addFunctionParameter("void *", "cursor", true);
+		compListH.closeFunctionPrototype();
+
+		//	int <area>_[<service>_]<composite>_list_new_decode_malbinary(
+		//		<area>_[<service>_]<composite>_list_t **self_p,
+		//		mal_decoder_t *decoder, void * cursor) {
+		//		int rc = 0;
+		//		unsigned int list_size;
+		//		rc = mal_decoder_decode_list_size(decoder, cursor, &list_size);
+		//		if (rc < 0) return rc;
+		//		<area>_[<service>_]<composite>_list_t *self = <area>_[<service>_]<composite>_list_new(list_size);
+		//		if (self == NULL) return -1;
+		//		*self_p = self;
+		// decode the elements as in the decode function
+		//		return rc;
+		//	}
+			openStatsMeasuredFunction(compListC, areaContext, mapCompNameL + "_list_new_decode_" + transportMalbinary, 3);
+			compListC.addFunctionParameter(mapCompNameL + "_list_t **", "self_p", false);
+			compListC.addFunctionParameter("mal_decoder_t *", "decoder", false);
+			compListC.addFunctionParameter("void *", "cursor", true);
+			compListC.openFunctionBody();
+			compListC.addStatement("int rc = 0;");
+			compListC.addStatement("unsigned int list_size;");
+			compListC.addStatement("rc = mal_decoder_decode_list_size(decoder, cursor, &list_size);");
+			compListC.addStatement("if (rc < 0)", 1);
+			compListC.addStatement("return rc;", -1);
+			compListC.addStatement(mapCompNameL + "_list_t *self = " + mapCompNameL + "_list_new(list_size);");
+			compListC.addStatement("if (self == NULL)", 1);
+			compListC.addStatement("return -1;", -1);
+			compListC.addStatement("*self_p = self;");
+			compListC.addStatement("for (int i = 0; i < list_size; i++)");
+			compListC.openBlock();
+			compListC.addStatement("bool presence_flag;");
+			addMalbinaryEncodingDecodePresenceFlag(compListC, "presence_flag");
+			compListC.addStatement("if (presence_flag)");
+			compListC.openBlock();
+			addMalbinaryEncodingDecodeComposite(compListC, "self->content[i]", mapCompNameL, false);
+			compListC.closeBlock();
+			compListC.closeBlock();
+			compListC.addStatement("return rc;");
+			compListC.closeFunctionBody();
+			addStatsWrapperFunction(compListC, areaContext, mapCompNameL + "_list_new_decode_" + transportMalbinary, mapCompNameL + "_list_t **", "decoder");
+
+		// advance the cursor past an encoded list without building it
+		//	int <area>_[<service>_]<composite>_list_skip_<format>(
+		//		mal_decoder_t *decoder, void * cursor);
+		compListH.openFunctionPrototype("int", mapCompNameL + "_list_skip_" + transportMalbinary, 2);
+		compListH.addFunctionParameter("mal_decoder_t *", "decoder", false);
+		compListH.addFunctionParameter("void *", "cursor", true);
+		compListH.closeFunctionPrototype();
+
+		//	int <area>_[<service>_]<composite>_list_skip_malbinary(
+		//		mal_decoder_t *decoder, void * cursor) {
+		//		int rc = 0;
+		//		unsigned int list_size;
+		//		rc = mal_decoder_decode_list_size(decoder, cursor, &list_size);
+		//		if (rc < 0) return rc;
+		//		for (int i = 0; i < list_size; i++) {
+		//			bool presence_flag;
+		//			rc = mal_decoder_decode_presence_flag(decoder, cursor, &presence_flag);
+		//			if (rc < 0) return rc;
+		//			if (presence_flag) {
+		//				rc = <area>_[<service>_]<composite>_skip_malbinary(decoder, cursor);
+		//				if (rc < 0) return rc;
+		//			}
+		//		}
+		//		return rc;
+		//	}
+			openStatsMeasuredFunction(compListC, areaContext, mapCompNameL + "_list_skip_" + transportMalbinary, 2);
+			compListC.addFunctionParameter("mal_decoder_t *", "decoder", false);
+			compListC.addFunctionParameter("void *", "cursor", true);
+			compListC.openFunctionBody();
+			compListC.addStatement("int rc = 0;");
+			compListC.addStatement("unsigned int list_size;");
+			compListC.addStatement("rc = mal_decoder_decode_list_size(decoder, cursor, &list_size);");
+			compListC.addStatement("if (rc < 0)", 1);
+			compListC.addStatement("return rc;", -1);
 			compListC.addStatement("for (int i = 0; i < list_size; i++)");
 			compListC.openBlock();
 			compListC.addStatement("bool presence_flag;");
 			addMalbinaryEncodingDecodePresenceFlag(compListC, "presence_flag");
 			compListC.addStatement("if (presence_flag)");
 			compListC.openBlock();
-			addMalbinaryEncodingDecodeComposite(compListC, "self->content[i]", compCtxt.mapCompNameL, false);
+			addMalbinaryEncodingSkipComposite(compListC, mapCompNameL, false, true);
 			compListC.closeBlock();
 			compListC.closeBlock();
 			compListC.addStatement("return rc;");
 			compListC.closeFunctionBody();
+			addStatsWrapperFunction(compListC, areaContext, mapCompNameL + "_list_skip_" + transportMalbinary, null, "decoder");
 	}
 	
+  /**
+   * Add the error check following a statement setting rc.
+   */
+  private void addRcCheck(CFileWriter code, String... cleanup) throws IOException
+  {
+  	//	if (rc < 0) return rc;
+  	// or, releasing the resources held by the caller
+  	//	if (rc < 0) {
+  	//		<cleanup>
+  	//		return rc;
+  	//	}
+  	if (cleanup.length == 0)
+  	{
+  		code.addStatement("if (rc < 0)", 1);
+  		code.addStatement("return rc;", -1);
+  		return;
+  	}
+  	code.addStatement("if (rc < 0)");
+  	code.openBlock();
+  	for (String statement : cleanup)
+  	{
+  		code.addStatement(statement);
+  	}
+  	code.addStatement("return rc;");
+  	code.closeBlock();
+  }
+
+  /**
+   * Add a statement setting rc from a template, followed by the error check.
+   */
+  private void addCheckedStatement(CFileWriter code, StatementTemplate template, String... args) throws IOException
+  {
+  	code.addStatement(template, args);
+  	addRcCheck(code);
+  }
+
+  /**
+   * Address of a variable, a dereferenced pointer *<p> gives back <p>.
+   */
+  private static String getAddress(String varName)
+  {
+  	return (varName.charAt(0) == '*') ? varName.substring(1) : "&" + varName;
+  }
+
   private void addMalbinaryEncodingLengthPresenceFlag(CFileWriter codeLength, String varName) throws IOException
   {
   	// use the generic function
   	// rc = mal_encoder_add_presence_flag_encoding_length(encoder, <value>, cursor);
 	  //	if (rc < 0) return rc;
-		codeLength.addStatement("rc = mal_encoder_add_presence_flag_encoding_length(encoder, " + varName + ", cursor);");
-		codeLength.addStatement("if (rc < 0)", 1);
-		codeLength.addStatement("return rc;", -1);
+		addCheckedStatement(codeLength, PRESENCE_FLAG_LENGTH, varName);
   }
 
   private void addMalbinaryEncodingEncodePresenceFlag(CFileWriter codeEncode, String varName) throws IOException
@@ -2400,9 +5999,7 @@ public class GeneratorC extends GeneratorBase
   	// use the generic function
 		//	rc = mal_encoder_encode_presence_flag(encoder, cursor, <presence_flag>);
 	  //	if (rc < 0) return rc;
-		codeEncode.addStatement("rc = mal_encoder_encode_presence_flag(encoder, cursor, " + varName + ");");
-		codeEncode.addStatement("if (rc < 0)", 1);
-		codeEncode.addStatement("return rc;", -1);
+		addCheckedStatement(codeEncode, PRESENCE_FLAG_ENCODE, varName);
   }
 
   private void addMalbinaryEncodingDecodePresenceFlag(CFileWriter codeDecode, String varName) throws IOException
@@ -2410,20 +6007,7 @@ public class GeneratorC extends GeneratorBase
   	// use the generic function
 		//	rc = mal_decoder_decode_presence_flag(decoder, cursor, &<presence_flag>);
 	  //	if (rc < 0) return rc;
-  	StringBuilder buf = new StringBuilder();
-  	buf.append("rc = mal_decoder_decode_presence_flag(decoder, cursor, ");
-		if (varName.charAt(0) == '*')
-		{
-			buf.append(varName.substring(1));
-		}
-		else
-		{
-			buf.append("&").append(varName);
-		}
-		buf.append(");");
-		codeDecode.addStatement(buf.toString());
-		codeDecode.addStatement("if (rc < 0)", 1);
-		codeDecode.addStatement("return rc;", -1);
+		addCheckedStatement(codeDecode, PRESENCE_FLAG_DECODE, getAddress(varName));
   }
 
   private void addMalbinaryEncodingLengthShortForm(CFileWriter codeLength, String shortForm) throws IOException
@@ -2431,18 +6015,14 @@ public class GeneratorC extends GeneratorBase
   	// use the generic function
   	// rc = mal_encoder_add_short_form_encoding_length(encoder, <value>, cursor);
 	  //	if (rc < 0) return rc;
-		codeLength.addStatement("rc = mal_encoder_add_short_form_encoding_length(encoder, " + shortForm + ", cursor);");
-		codeLength.addStatement("if (rc < 0)", 1);
-		codeLength.addStatement("return rc;", -1);
+		addCheckedStatement(codeLength, SHORT_FORM_LENGTH, shortForm);
   }
 
   private void addMalbinaryEncodingEncodeShortForm(CFileWriter codeEncode, String shortForm) throws IOException
   {
 		//	rc = mal_encoder_encode_short_form(encoder, cursor, <AREA>_[<SERVICE>_]<TYPE>_SHORT_FORM);
 	  //	if (rc < 0) return rc;
-		codeEncode.addStatement("rc = mal_encoder_encode_short_form(encoder, cursor, " + shortForm + ");");
-		codeEncode.addStatement("if (rc < 0)", 1);
-		codeEncode.addStatement("return rc;", -1);
+		addCheckedStatement(codeEncode, SHORT_FORM_ENCODE, shortForm);
   }
 
   private void addMalbinaryEncodingLengthAbstractAttribute(CFileWriter codeLength, String tagName, String varName) throws IOException
@@ -2451,12 +6031,8 @@ public class GeneratorC extends GeneratorBase
 		//		if (rc < 0) return rc;
 		//		rc = mal_encoder_add_attribute_encoding_length(encoder, <attribute_tag>, <element>, cursor);
 		//		if (rc < 0) return rc;
-		codeLength.addStatement("rc = mal_encoder_add_attribute_tag_encoding_length(encoder, " + tagName + ", cursor);");
-		codeLength.addStatement("if (rc < 0)", 1);
-		codeLength.addStatement("return rc;", -1);
-		codeLength.addStatement("rc = mal_encoder_add_attribute_encoding_length(encoder, " + tagName + ", " + varName + ", cursor);");
-		codeLength.addStatement("if (rc < 0)", 1);
-		codeLength.addStatement("return rc;", -1);
+		addCheckedStatement(codeLength, ATTRIBUTE_TAG_LENGTH, tagName);
+		addCheckedStatement(codeLength, ABSTRACT_ATTRIBUTE_LENGTH, tagName, varName);
   }
 
   private void addMalbinaryEncodingEncodeAbstractAttribute(CFileWriter codeEncode, String tagName, String varName) throws IOException
@@ -2465,12 +6041,8 @@ public class GeneratorC extends GeneratorBase
 		//		if (rc < 0) return rc;
   	//		rc = mal_encoder_encode_attribute(encoder, cursor, <attribute_tag>, <element>);
 		//		if (rc < 0) return rc;
-		codeEncode.addStatement("rc = mal_encoder_encode_attribute_tag(encoder, cursor, " + tagName + ");");
-		codeEncode.addStatement("if (rc < 0)", 1);
-		codeEncode.addStatement("return rc;", -1);
-		codeEncode.addStatement("rc = mal_encoder_encode_attribute(encoder, cursor, " + tagName + ", " + varName + ");");
-		codeEncode.addStatement("if (rc < 0)", 1);
-		codeEncode.addStatement("return rc;", -1);
+		addCheckedStatement(codeEncode, ATTRIBUTE_TAG_ENCODE, tagName);
+		addCheckedStatement(codeEncode, ABSTRACT_ATTRIBUTE_ENCODE, tagName, varName);
   }
 
   private void addMalbinaryEncodingDecodeAbstractAttribute(CFileWriter codeDecode, String tagName, String varName) throws IOException
@@ -2484,87 +6056,112 @@ public class GeneratorC extends GeneratorBase
   	//		...
   	//		}
   	//		if (rc < 0) return rc;
-	  StringBuilder buf = new StringBuilder();
-	  buf.append("rc = mal_decoder_decode_attribute_tag(decoder, cursor, ");
-	  if (tagName.charAt(0) == '*')
-	  {
-		  buf.append(tagName.substring(1));
-	  }
-	  else
-	  {
-		  buf.append("&").append(tagName);
-	  }
-	  buf.append(");");
-	  codeDecode.addStatement(buf.toString());
-	  codeDecode.addStatement("if (rc < 0)", 1);
-	  codeDecode.addStatement("return rc;", -1);
-	  if (varName.charAt(0) == '*')
-	  {
-		  varName = varName.substring(1);
-	  }
-	  else
-	  {
-		  varName = "&" + varName;
-	  }
-	  codeDecode.addStatement("rc = mal_decoder_decode_attribute(decoder, cursor, " + tagName + ", " + varName + ");");
-	  codeDecode.addStatement("if (rc < 0)", 1);
-	  codeDecode.addStatement("return rc;", -1);
+	  addCheckedStatement(codeDecode, ATTRIBUTE_TAG_DECODE, getAddress(tagName));
+	  addCheckedStatement(codeDecode, ABSTRACT_ATTRIBUTE_DECODE, tagName, getAddress(varName));
+  }
+
+  private void addMalbinaryEncodingSkipAbstractAttribute(CFileWriter codeSkip) throws IOException
+  {
+  	// the MAL decoder has no skip function, the attribute is decoded and released
+  	//	{
+  	//		unsigned char attribute_tag;
+  	//		union mal_attribute_t attribute;
+  	//		rc = mal_decoder_decode_attribute_tag(decoder, cursor, &attribute_tag);
+  	//		if (rc < 0) return rc;
+  	//		rc = mal_decoder_decode_attribute(decoder, cursor, attribute_tag, &attribute);
+  	//		if (rc < 0) return rc;
+  	//		mal_attribute_destroy(&attribute, attribute_tag);
+  	//	}
+  	codeSkip.openBlock();
+  	codeSkip.addStatement("unsigned char attribute_tag;");
+  	codeSkip.addStatement("union mal_attribute_t attribute;");
+  	addMalbinaryEncodingDecodeAbstractAttribute(codeSkip, "attribute_tag", "attribute");
+  	codeSkip.addStatement("mal_attribute_destroy(&attribute, attribute_tag);");
+  	codeSkip.closeBlock();
+  }
+
+  private void addMalbinaryEncodingSkipAttribute(CFileWriter codeSkip, String attType, String qfTypeNameL, String varType, boolean isDestroyable) throws IOException
+  {
+  	// the MAL decoder has no skip function, the attribute is decoded in a local variable
+  	// which is released if the attribute is allocated
+  	//	{
+  	//		<attribute type> value[ = NULL];
+  	//		rc = mal_decoder_decode_<attribute>(decoder, cursor, &value);
+  	//		if (rc < 0) return rc;
+  	//		[mal_<attribute>_destroy(&value);]
+  	//	}
+  	codeSkip.openBlock();
+  	codeSkip.addStatement(attType + " value" + (isDestroyable ? " = NULL;" : ";"));
+  	addMalbinaryEncodingDecodeAttribute(codeSkip, "value", varType);
+  	if (isDestroyable)
+  	{
+  		codeSkip.addStatement("if (value != NULL)", 1);
+  		codeSkip.addStatement(qfTypeNameL + "_destroy(&value);", -1);
+  	}
+  	codeSkip.closeBlock();
+  }
+
+  private void addMalbinaryEncodingSkipComposite(CFileWriter codeSkip, String qfTypeNameL, boolean isList, boolean isGenerated) throws IOException
+  {
+  	String typeName = isList ? qfTypeNameL + "_list" : qfTypeNameL;
+  	if (isGenerated)
+  	{
+  		//	rc = <area>_[<service>_]<type>[_list]_skip_malbinary(decoder, cursor);
+  		//	if (rc < 0) return rc;
+  		addCheckedStatement(codeSkip, SKIP, typeName);
+  		return;
+  	}
+  	// MAL types do not provide the skip function, the value is decoded and released
+  	//	{
+  	//		<type>[_list]_t *value = <type>[_list]_new([0]);
+  	//		if (value == NULL) return -1;
+  	//		rc = <type>[_list]_decode_malbinary(value, decoder, cursor);
+  	//		<type>[_list]_destroy(&value);
+  	//		if (rc < 0) return rc;
+  	//	}
+  	codeSkip.openBlock();
+  	codeSkip.addStatement(typeName + "_t *value = " + typeName + (isList ? "_new(0);" : "_new();"));
+  	codeSkip.addStatement("if (value == NULL)", 1);
+  	codeSkip.addStatement("return -1;", -1);
+  	codeSkip.addStatement(COMPOSITE_DECODE, typeName, "value");
+  	codeSkip.addStatement(typeName + "_destroy(&value);");
+  	addRcCheck(codeSkip);
+  	codeSkip.closeBlock();
   }
 
   private void addMalbinaryEncodingLengthAttribute(CFileWriter codeLength, String varName, String varType) throws IOException
   {
   	//		rc = mal_encoder_add_<attribute>_encoding_length(encoder, <element>, cursor);
   	//		if (rc < 0) return rc;
-  	codeLength.addStatement("rc = mal_encoder_add_" + varType + "_encoding_length(encoder, " + varName + ", cursor);");
-  	codeLength.addStatement("if (rc < 0)", 1);
-  	codeLength.addStatement("return rc;", -1);
+  	addCheckedStatement(codeLength, ATTRIBUTE_LENGTH, varType, varName);
   }
 
   private void addMalbinaryEncodingEncodeAttribute(CFileWriter codeEncode, String varName, String varType) throws IOException
   {
   	//		rc = mal_encoder_encode_<attribute>(encoder, cursor, <element>);
   	//		if (rc < 0) return rc;
-		codeEncode.addStatement("rc = mal_encoder_encode_" + varType + "(encoder, cursor, " + varName + ");");
-		codeEncode.addStatement("if (rc < 0)", 1);
-		codeEncode.addStatement("return rc;", -1);
+		addCheckedStatement(codeEncode, ATTRIBUTE_ENCODE, varType, varName);
   }
 
   private void addMalbinaryEncodingDecodeAttribute(CFileWriter codeDecode, String varName, String varType) throws IOException
   {
   	//		rc = mal_decoder_decode_<attribute>(decoder, cursor, &<element>);
   	//		if (rc < 0) return rc;
-  	StringBuilder buf = new StringBuilder();
-  	buf.append("rc = mal_decoder_decode_").append(varType).append("(decoder, cursor, ");
-		if (varName.charAt(0) == '*')
-		{
-			buf.append(varName.substring(1));
-		}
-		else
-		{
-			buf.append("&").append(varName);
-		}
-		buf.append(");");
-		codeDecode.addStatement(buf.toString());
-		codeDecode.addStatement("if (rc < 0)", 1);
-		codeDecode.addStatement("return rc;", -1);
+		addCheckedStatement(codeDecode, ATTRIBUTE_DECODE, varType, getAddress(varName));
   }
 
   private void addMalbinaryEncodingLengthComposite(CFileWriter codeLength, String varName, String varType) throws IOException
   {
 		//		rc = <area>_[<service>_]<composite>_add_encoding_length_malbinary(<element>, encoder, cursor);
 		//		if (rc < 0) return rc;
-		codeLength.addStatement("rc = " + varType + "_add_encoding_length_" + transportMalbinary + "(" + varName + ", encoder, cursor);");
-		codeLength.addStatement("if (rc < 0)", 1);
-		codeLength.addStatement("return rc;", -1);
+		addCheckedStatement(codeLength, COMPOSITE_LENGTH, varType, varName);
   }
 
   private void addMalbinaryEncodingEncodeComposite(CFileWriter codeEncode, String varName, String varType) throws IOException
   {
   	//		rc = <area>_[<service>_]<composite>_encode_malbinary(<element>, encoder, cursor);
 		//		if (rc < 0) return rc;
-		codeEncode.addStatement("rc = " + varType + "_encode_" + transportMalbinary + "(" + varName + ", encoder, cursor);");
-		codeEncode.addStatement("if (rc < 0)", 1);
-		codeEncode.addStatement("return rc;", -1);
+		addCheckedStatement(codeEncode, COMPOSITE_ENCODE, varType, varName);
   }
 
   private void addMalbinaryEncodingDecodeComposite(CFileWriter codeDecode, String varName, String varType, boolean doCast) throws IOException
@@ -2573,66 +6170,55 @@ public class GeneratorC extends GeneratorBase
   	//		if (<element> == NULL) return -1;
   	//		rc = <area>_[<service>_]<composite>_decode_malbinary(<element>, decoder, cursor);
     //		if (rc < 0) return rc;
-  	codeDecode.addStatement(varName + " = " + varType + "_new();");
-  	codeDecode.addStatement("if (" + varName + " == NULL) return -1;");
-  	if (doCast)
-  		codeDecode.addStatement("rc = " + varType + "_decode_" + transportMalbinary + "((" + varType + "_t *)" + varName + ", decoder, cursor);");
-  	else
-  		codeDecode.addStatement("rc = " + varType + "_decode_" + transportMalbinary + "(" + varName + ", decoder, cursor);");
-  	codeDecode.addStatement("if (rc < 0)", 1);
-  	codeDecode.addStatement("return rc;", -1);
+  	codeDecode.addStatement(COMPOSITE_NEW, varName, varType);
+  	codeDecode.addStatement(NULL_CHECK, varName);
+  	addCheckedStatement(codeDecode, doCast ? COMPOSITE_DECODE_CAST : COMPOSITE_DECODE, varType, varName);
   }
 
   private void addMalbinaryEncodingLengthList(CFileWriter codeLength, String varName, String varType) throws IOException
   {
 		//		rc = <area>_[<service>_]<type>_list_add_encoding_length_malbinary(<element>, encoder, cursor);
 		//		if (rc < 0) return rc;
-		codeLength.addStatement("rc = " + varType + "_list_add_encoding_length_" + transportMalbinary + "(" + varName + ", encoder, cursor);");
-		codeLength.addStatement("if (rc < 0)", 1);
-		codeLength.addStatement("return rc;", -1);
+		addCheckedStatement(codeLength, LIST_LENGTH, varType, varName);
   }
 
   private void addMalbinaryEncodingEncodeList(CFileWriter codeEncode, String varName, String varType) throws IOException
   {
   	//		rc = <area>_[<service>_]<type>_list_encode_malbinary(<element>, encoder, cursor);
 		//		if (rc < 0) return rc;
-  	codeEncode.addStatement("rc = " + varType + "_list_encode_" + transportMalbinary + "(" + varName + ", encoder, cursor);");
-  	codeEncode.addStatement("if (rc < 0)", 1);
-  	codeEncode.addStatement("return rc;", -1);
+  	addCheckedStatement(codeEncode, LIST_ENCODE, varType, varName);
   }
 
-  private void addMalbinaryEncodingDecodeList(CFileWriter codeDecode, String varName, String varType, boolean doCast) throws IOException
+  private void addMalbinaryEncodingDecodeList(CFileWriter codeDecode, String varName, String varType, boolean doCast, boolean isGenerated) throws IOException
   {
+  	if (isGenerated)
+  	{
+  		// generated lists are allocated for the decoded size
+  		//		rc = <area>_[<service>_]<type>_list_new_decode_malbinary(&<element>, decoder, cursor);
+  		//		if (rc < 0) return rc;
+  		addCheckedStatement(codeDecode, doCast ? LIST_NEW_DECODE_CAST : LIST_NEW_DECODE, varType, varName);
+  		return;
+  	}
   	//		<element> = <area>_[<service>_]<type>_list_new(0);
   	//		if (<element> == NULL) return -1;
   	//		rc = <area>_[<service>_]<type>_list_decode_malbinary(<element>, decoder, cursor);
-  	codeDecode.addStatement(varName + " = " + varType + "_list_new(0);");
-  	codeDecode.addStatement("if (" + varName + " == NULL) return -1;");
-  	if (doCast) {
-  		codeDecode.addStatement("rc = " + varType + "_list_decode_" + transportMalbinary + "((" + varType + "_list_t *)" + varName + ", decoder, cursor);");
-  	} else {
-  		codeDecode.addStatement("rc = " + varType + "_list_decode_" + transportMalbinary + "(" + varName + ", decoder, cursor);");
-  	}
-  	codeDecode.addStatement("if (rc < 0)", 1);
-  	codeDecode.addStatement("return rc;", -1);
+  	codeDecode.addStatement(LIST_NEW, varName, varType);
+  	codeDecode.addStatement(NULL_CHECK, varName);
+  	addCheckedStatement(codeDecode, doCast ? LIST_DECODE_CAST : LIST_DECODE, varType, varName);
   }
 
   private void addMalbinaryEncodingLengthEnumeration(CFileWriter codeLength, String varName, MalbinaryEnumSize enumMBSize) throws IOException
   {
   	//		rc = mal_encoder_add_[small|medium|large]_enum_encoding_length(encoder, <element>, cursor);
   	//		if (rc < 0) return rc;
-  	codeLength.addStatement("rc = mal_encoder_add_" + enumMBSize.getCgenPrefix() + "_enum_encoding_length(encoder, " + varName + ", cursor);");
-  	codeLength.addStatement("if (rc < 0)", 1);
-  	codeLength.addStatement("return rc;", -1);
+  	addCheckedStatement(codeLength, ENUM_LENGTH, enumMBSize.getCgenPrefix(), varName);
   }
 
   private void addMalbinaryEncodingEncodeEnumeration(CFileWriter codeEncode, String varName, MalbinaryEnumSize enumMBSize) throws IOException
   {
   	//		rc = mal_encoder_encode_[small|medium|large]_enum(encoder, cursor, <element>);
 		//		if (rc < 0) return rc;
-		codeEncode.addStatement("rc = mal_encoder_encode_" + enumMBSize.getCgenPrefix() + "_enum(encoder, cursor, " + varName + ");");
-		codeEncode.addStatement("if (rc < 0)", 1);
-		codeEncode.addStatement("return rc;", -1);
+		addCheckedStatement(codeEncode, ENUM_ENCODE, enumMBSize.getCgenPrefix(), varName);
   }
 
   private void addMalbinaryEncodingDecodeEnumeration(CFileWriter codeDecode, String varName, String varType, MalbinaryEnumSize enumMBSize) throws IOException
@@ -2641,10 +6227,8 @@ public class GeneratorC extends GeneratorBase
   	//		rc = mal_decoder_decode_[small|medium|large]_enum(decoder, cursor, &enumerated_value);
 		//		if (rc < 0) return rc;
   	//		<element> = (<area>_[<service>_]<enum>_t) enumerated_value;
-  	codeDecode.addStatement("rc = mal_decoder_decode_" + enumMBSize.getCgenPrefix() + "_enum(decoder, cursor, &enumerated_value);");
-  	codeDecode.addStatement("if (rc < 0)", 1);
-  	codeDecode.addStatement("return rc;", -1);
-  	codeDecode.addStatement(varName + " = (" + varType + "_t) enumerated_value;");
+  	addCheckedStatement(codeDecode, ENUM_DECODE, enumMBSize.getCgenPrefix());
+  	codeDecode.addStatement(ENUM_ASSIGN, varName, varType);
   }
 
   private void addCompositeConstructor(CompositeContext compCtxt) throws IOException
@@ -2708,6 +6292,39 @@ public class GeneratorC extends GeneratorBase
   	compositeC.closeFunctionBody();
   }
   
+  private void addCompositeClearFunction(CompositeContext compCtxt) throws IOException
+  {
+  	CFileWriter compositeH = compCtxt.compositeH;
+  	CFileWriter compositeC = compCtxt.compositeC;
+  	
+  	String comment = "reset function, release the fields and keep the object for reuse";
+  	compositeH.addNewLine();
+  	compositeH.addSingleLineComment(comment);
+  	compositeC.addNewLine();
+  	compositeC.addSingleLineComment(comment);
+  	
+  	// void <area>_[<service>_]<composite>_clear(<area>_[<service>_]<composite>_t *self);
+  	compositeH.openFunctionPrototype("void", compCtxt.mapCompNameL + "_clear", 1);
+  	compositeH.addFunctionParameter(compCtxt.mapCompNameL + "_t *", "self", true);
+  	compositeH.closeFunctionPrototype();
+  	
+  	// void <area>_[<service>_]<composite>_clear(<area>_[<service>_]<composite>_t *self) {
+  	//	<area>_[<service>_]<composite>_t **self_p = &self;
+  	// destroy the relevant fields
+  	//	memset(self, 0, sizeof(<area>_[<service>_]<composite>_t));
+  	// }
+  	compositeC.openFunction("void", compCtxt.mapCompNameL + "_clear", 1);
+  	compositeC.addFunctionParameter(compCtxt.mapCompNameL + "_t *", "self", true);
+  	compositeC.openFunctionBody();
+  	if (! compCtxt.destroyCodeW.getStatements().isEmpty())
+  	{
+  		compositeC.addStatement(compCtxt.mapCompNameL + "_t **self_p = &self;");
+  		compositeC.addStatements(compCtxt.destroyCodeW);
+  	}
+  	compositeC.addStatement("memset(self, 0, sizeof(" + compCtxt.mapCompNameL + "_t));");
+  	compositeC.closeFunctionBody();
+  }
+  
   private void addCompFieldDestroy(CompositeContext compCtxt, CompositeField element, CompositeFieldDetails cfDetails) throws IOException
   {
   	CFileWriter destroyCode = compCtxt.destroyCode;
@@ -2743,32 +6360,565 @@ public class GeneratorC extends GeneratorBase
 			destroyCode.closeBlock();
 		}
   }
-  
-  private void addAreaTestFunction(AreaContext areaContext) throws IOException
+  
+  private void addAreaTestFunction(AreaContext areaContext) throws IOException
+  {
+    String comment = "test function";
+    areaContext.areaH.addNewLine();
+    areaContext.areaH.addSingleLineComment(comment);
+    areaContext.areaC.addNewLine();
+    areaContext.areaC.addSingleLineComment(comment);
+    // int <area>_test(bool verbose);
+    areaContext.areaH.openFunctionPrototype("int", areaContext.areaNameL + "_test", 1);
+    areaContext.areaH.addFunctionParameter("bool", "verbose", true);
+    areaContext.areaH.closeFunctionPrototype();
+    // int <area>_test(bool verbose) {
+    //	printf(" * <area>: ");
+    //	if (verbose)
+    //		printf("\n");
+    //	[int rc;]
+    //	check the enumerations lookups
+    //	printf("OK\n");
+    //	return 0;
+    // }
+    areaContext.areaC.openFunctionPrototype("int", areaContext.areaNameL + "_test", 1);
+    areaContext.areaC.addFunctionParameter("bool", "verbose", true);
+    areaContext.areaC.openFunctionBody();
+    areaContext.areaC.addStatement("printf(\" * " + areaContext.areaNameL + ": \");");
+    areaContext.areaC.addStatement("if (verbose)", 1);
+    areaContext.areaC.addStatement("printf(\"\\n\");", -1);
+    // the enumerations lookups are checked if the area defines enumerations
+    if (areaContext.enumHashDefined)
+    {
+    	areaContext.areaC.addStatement("int rc;");
+    	areaContext.areaC.addStatements(areaContext.testW);
+    }
+    areaContext.areaC.addStatement("printf(\"OK\\n\");");
+    areaContext.areaC.addStatement("return 0;");
+    areaContext.areaC.closeFunctionBody();
+  }
+
+  /**
+   * Generate the checks of the numeric value and name lookups of an enumeration in the <area>_test function.
+   */
+  private void addEnumTestCode(AreaContext areaContext, String mapEnumNameL, int enumSize) throws IOException
+  {
+  	CFileWriter testCode = areaContext.testCode;
+  	//	for (int i = 0; i < <enum size>; i++) {
+  	//		<area>_[<service>_]<enumeration>_t value;
+  	//		rc = <area>_[<service>_]<enumeration>_from_numeric_value(<AREA>_[<SERVICE>_]<ENUMERATION>_NUMERIC_VALUES[i], &value);
+  	//		if (rc != 0 || value != (<area>_[<service>_]<enumeration>_t) i) {
+  	//			printf("FAILED: <area>_[<service>_]<enumeration> numeric value lookup\n");
+  	//			return -1;
+  	//		}
+  	//		rc = <area>_[<service>_]<enumeration>_from_string(<area>_[<service>_]<enumeration>_to_string((<area>_[<service>_]<enumeration>_t) i), &value);
+  	//		if (rc != 0 || value != (<area>_[<service>_]<enumeration>_t) i) {
+  	//			printf("FAILED: <area>_[<service>_]<enumeration> string lookup\n");
+  	//			return -1;
+  	//		}
+  	//	}
+  	testCode.addStatement("for (int i = 0; i < " + enumSize + "; i++)");
+  	testCode.openBlock();
+  	testCode.addStatement(mapEnumNameL + "_t value;");
+  	testCode.addStatement("rc = " + mapEnumNameL + "_from_numeric_value(" + mapEnumNameL.toUpperCase() + "_NUMERIC_VALUES[i], &value);");
+  	testCode.addStatement("if (rc != 0 || value != (" + mapEnumNameL + "_t) i)");
+  	testCode.openBlock();
+  	testCode.addStatement("printf(\"FAILED: " + mapEnumNameL + " numeric value lookup\\n\");");
+  	testCode.addStatement("return -1;");
+  	testCode.closeBlock();
+  	testCode.addStatement("rc = " + mapEnumNameL + "_from_string(" + mapEnumNameL + "_to_string((" + mapEnumNameL + "_t) i), &value);");
+  	testCode.addStatement("if (rc != 0 || value != (" + mapEnumNameL + "_t) i)");
+  	testCode.openBlock();
+  	testCode.addStatement("printf(\"FAILED: " + mapEnumNameL + " string lookup\\n\");");
+  	testCode.addStatement("return -1;");
+  	testCode.closeBlock();
+  	testCode.closeBlock();
+  }
+
+  /**
+   * Generate the code setting a random value to a composite field in the random instance function.
+   * The optional fields are randomly left absent, the nesting of composite and list fields is limited by the depth parameter.
+   */
+  private void addCompFieldRandom(CompositeContext compCtxt, CompositeField element, CompositeFieldDetails cfDetails) throws IOException
+  {
+  	CFileWriter code = compCtxt.randomCode;
+  	String varName = "self->" + fieldPrefix + cfDetails.fieldName;
+
+  	if (element.isCanBeNull())
+  	{
+  		// the optional composite and list fields are absent when the depth is exhausted
+  		//	if ([depth > 0 && ]mo_random_present(rng)) {
+  		//		[<f_><field>_is_present = true;]
+  		if (cfDetails.isComposite || cfDetails.isList)
+  		{
+  			code.addStatement("if (depth > 0 && mo_random_present(rng))");
+  		}
+  		else
+  		{
+  			code.addStatement("if (mo_random_present(rng))");
+  		}
+  		code.openBlock();
+  		if (cfDetails.isPresentField)
+  		{
+  			code.addStatement(varName + "_is_present = true;");
+  		}
+  	}
+
+  	if (cfDetails.isAbstractAttribute)
+  	{
+  		// the actual attribute type is always Integer
+  		//	<f_><field>_attribute_tag = MAL_INTEGER_ATTRIBUTE_TAG;
+  		//	<f_><field>.integer_value = (mal_integer_t) mo_random_next(rng);
+  		code.addStatement(varName + "_attribute_tag = MAL_INTEGER_ATTRIBUTE_TAG;");
+  		code.addStatement(varName + ".integer_value = (mal_integer_t) mo_random_next(rng);");
+  	}
+  	else if (cfDetails.isList)
+  	{
+  		addRandomList(code, varName, cfDetails.type, "depth - 1");
+  	}
+  	else
+  	{
+  		addRandomValue(code, varName, cfDetails.type, "depth - 1");
+  	}
+
+  	if (element.isCanBeNull())
+  	{
+  		code.closeBlock();
+  	}
+  }
+
+  /**
+   * Generate the code setting a random value of a non list type to a variable.
+   * The composite types not generated, defined in the MAL area, are left with their default values.
+   */
+  private void addRandomValue(CFileWriter code, String varName, TypeReference type, String depth) throws IOException
+  {
+  	TypeDetails typeDetails = getTypeDetails(type);
+  	String qfTypeNameL = typeDetails.qfTypeNameL;
+  	if (typeDetails.isAttribute)
+  	{
+  		String attrName = type.getName().toLowerCase();
+  		String targetType = typeDetails.cType;
+  		if (StdStrings.BOOLEAN.equalsIgnoreCase(attrName))
+  		{
+  			//	<var> = (mo_random_next(rng) & 1);
+  			code.addStatement(varName + " = (mo_random_next(rng) & 1);");
+  		}
+  		else if (StdStrings.BLOB.equalsIgnoreCase(attrName))
+  		{
+  			//	<var> = mal_blob_new(mo_random_size(rng, rng->string_distribution, rng->max_string_length));
+  			code.addStatement(varName + " = mal_blob_new(mo_random_size(rng, rng->string_distribution, rng->max_string_length));");
+  		}
+  		else if (targetType.endsWith("*"))
+  		{
+  			// character string types
+  			//	{
+  			//		char *chars = mo_random_string(rng);
+  			//		<var> = mal_<attribute>_new(chars);
+  			//		free(chars);
+  			//	}
+  			code.openBlock();
+  			code.addStatement("char *chars = mo_random_string(rng);");
+  			code.addStatement(varName + " = " + qfTypeNameL + "_new(chars);");
+  			code.addStatement("free(chars);");
+  			code.closeBlock();
+  		}
+  		else
+  		{
+  			//	<var> = (<attribute type>) mo_random_next(rng);
+  			code.addStatement(varName + " = (" + targetType.trim() + ") mo_random_next(rng);");
+  		}
+  	}
+  	else if (typeDetails.isEnumeration)
+  	{
+  		//	<var> = (<qftype>_t) (mo_random_next(rng) % <enum size>);
+  		code.addStatement(varName + " = (" + qfTypeNameL + "_t) (mo_random_next(rng) % " + typeDetails.enumItemCount + ");");
+  	}
+  	else if (isGeneratedType(type))
+  	{
+  		//	<var> = <qftype>_random(rng, <depth>, max_list);
+  		code.addStatement(varName + " = " + qfTypeNameL + "_random(rng, " + depth + ", max_list);");
+  	}
+  	else
+  	{
+  		//	<var> = <qftype>_new();
+  		code.addStatement(varName + " = " + qfTypeNameL + "_new();");
+  	}
+  }
+
+  /**
+   * Check if the random value code of a type, generated by addRandomValue or addRandomList,
+   * refers to the depth and max_list variables.
+   */
+  private boolean isRandomValueBounded(TypeReference type)
+  {
+  	if (type.isList())
+  	{
+  		if (isGeneratedType(type))
+  		{
+  			return true;
+  		}
+  		TypeReference elementType = new TypeReference();
+  		elementType.setArea(type.getArea());
+  		elementType.setService(type.getService());
+  		elementType.setName(type.getName());
+  		return isAttributeType(elementType);
+  	}
+  	TypeDetails typeDetails = getTypeDetails(type);
+  	return !typeDetails.isAttribute && !typeDetails.isEnumeration && isGeneratedType(type);
+  }
+
+  /**
+   * Generate the code setting a random list to a variable.
+   * The generated list types provide their own random instance function.
+   * The lists of MAL attributes are filled in with random elements, the lists of MAL composites are left empty.
+   */
+  private void addRandomList(CFileWriter code, String varName, TypeReference listType, String depth) throws IOException
+  {
+  	String qfTypeNameL = getTypeDetails(listType).qfTypeNameL;
+  	if (isGeneratedType(listType))
+  	{
+  		//	<var> = <qftype>_list_random(rng, <depth>, max_list);
+  		code.addStatement(varName + " = " + qfTypeNameL + "_list_random(rng, " + depth + ", max_list);");
+  		return;
+  	}
+  	TypeReference elementType = new TypeReference();
+  	elementType.setArea(listType.getArea());
+  	elementType.setService(listType.getService());
+  	elementType.setName(listType.getName());
+  	if (! isAttributeType(elementType))
+  	{
+  		//	<var> = <qftype>_list_new(0);
+  		code.addStatement(varName + " = " + qfTypeNameL + "_list_new(0);");
+  		return;
+  	}
+  	String targetType = getAttributeDetails(elementType).getTargetType().trim();
+  	boolean isPointer = targetType.endsWith("*");
+  	//	{
+  	//		unsigned int count = (<depth> >= 0 ? mo_random_size(rng, rng->list_distribution, max_list) : 0);
+  	//		<var> = mal_<attribute>_list_new(count);
+  	//		[bool *presence_flags = mal_<attribute>_list_get_presence_flags(<var>);]
+  	//		mal_<attribute>_t *[*]content = mal_<attribute>_list_get_content(<var>);
+  	//		for (unsigned int i = 0; i < count; i++) {
+  	//			[presence_flags[i] = mo_random_present(rng);]
+  	//			content[i] = <random value>;
+  	//		}
+  	//	}
+  	code.openBlock();
+  	code.addStatement("unsigned int count = (" + depth + " >= 0 ? mo_random_size(rng, rng->list_distribution, max_list) : 0);");
+  	code.addStatement(varName + " = " + qfTypeNameL + "_list_new(count);");
+  	if (! isPointer)
+  	{
+  		code.addStatement("bool *presence_flags = " + qfTypeNameL + "_list_get_presence_flags(" + varName + ");");
+  	}
+  	code.addStatement(targetType + (isPointer ? "*" : " *") + "content = " + qfTypeNameL + "_list_get_content(" + varName + ");");
+  	code.addStatement("for (unsigned int i = 0; i < count; i++)");
+  	code.openBlock();
+  	if (! isPointer)
+  	{
+  		code.addStatement("presence_flags[i] = mo_random_present(rng);");
+  	}
+  	addRandomValue(code, "content[i]", elementType, depth);
+  	code.closeBlock();
+  	code.closeBlock();
+  }
+
+  /**
+   * Generate the static function checking the malbinary round trip of an instance, called by a test function.
+   * The instance is encoded, decoded, and the decoded copy must encode to the same bytes. The two encoding
+   * buffers are initialized with different values, so that identical contents also prove that the length
+   * pass matches the bytes actually written.
+   */
+  private void addTestMalbinaryFunction(CFileWriter code, String typeName, boolean isList) throws IOException
+  {
+  	// static int <type>_test_malbinary(<type>_t *self, mal_encoder_t *encoder, mal_decoder_t *decoder) {
+  	//	void *cursor = mal_encoder_new_cursor(encoder);
+  	//	int rc = <type>_add_encoding_length_malbinary(self, encoder, cursor);
+  	//	if (rc < 0) {
+  	//		printf("FAILED: encoding length\n");
+  	//		mal_encoder_cursor_destroy(encoder, cursor);
+  	//		return -1;
+  	//	}
+  	//	unsigned int length = mal_encoder_cursor_get_length(encoder, cursor);
+  	//	char *bytes = (char *) malloc(length + 1);
+  	//	char *copy_bytes = (char *) malloc(length + 1);
+  	//	<type>_t *copy = <type>_new();
+  	// or for a list:
+  	//	<type>_t *copy = NULL;
+  	String funcName = typeName + "_test_" + transportMalbinary;
+  	code.addNewLine();
+  	code.openFunction("static int", funcName, 3);
+  	code.addFunctionParameter(typeName + "_t *", "self", false);
+  	code.addFunctionParameter("mal_encoder_t *", "encoder", false);
+  	code.addFunctionParameter("mal_decoder_t *", "decoder", true);
+  	code.openFunctionBody();
+  	code.addStatement("void *cursor = mal_encoder_new_cursor(encoder);");
+  	code.addStatement("int rc = " + typeName + "_add_encoding_length_" + transportMalbinary + "(self, encoder, cursor);");
+  	code.addStatement("if (rc < 0)");
+  	code.openBlock();
+  	code.addStatement("printf(\"FAILED: encoding length\\n\");");
+  	code.addStatement("mal_encoder_cursor_destroy(encoder, cursor);");
+  	code.addStatement("return -1;");
+  	code.closeBlock();
+  	code.addStatement("unsigned int length = mal_encoder_cursor_get_length(encoder, cursor);");
+  	code.addSingleLineComment("the buffers hold at least one byte, an instance may have an empty encoding");
+  	code.addStatement("char *bytes = (char *) malloc(length + 1);");
+  	code.addStatement("char *copy_bytes = (char *) malloc(length + 1);");
+  	if (isList)
+  	{
+  		code.addStatement(typeName + "_t *copy = NULL;");
+  		code.addStatement("if (!bytes || !copy_bytes)");
+  	}
+  	else
+  	{
+  		code.addStatement(typeName + "_t *copy = " + typeName + "_new();");
+  		code.addStatement("if (!bytes || !copy_bytes || !copy)");
+  	}
+  	code.openBlock();
+  	code.addStatement("printf(\"FAILED: allocation\\n\");");
+  	code.addStatement("rc = -1;");
+  	code.closeBlock();
+
+  	//	if (rc == 0) {
+  	//		memset(bytes, 0, length);
+  	//		mal_encoder_cursor_init(encoder, cursor, bytes, length, 0);
+  	//		rc = <type>_encode_malbinary(self, encoder, cursor);
+  	//		if (rc < 0)
+  	//			printf("FAILED: encoding\n");
+  	//		else
+  	//			mal_encoder_cursor_assert(encoder, cursor);
+  	//	}
+  	code.addStatement("if (rc == 0)");
+  	code.openBlock();
+  	code.addStatement("memset(bytes, 0, length);");
+  	code.addStatement("mal_encoder_cursor_init(encoder, cursor, bytes, length, 0);");
+  	code.addStatement("rc = " + typeName + "_encode_" + transportMalbinary + "(self, encoder, cursor);");
+  	code.addStatement("if (rc < 0)", 1);
+  	code.addStatement("printf(\"FAILED: encoding\\n\");", -1);
+  	code.addStatement("else", 1);
+  	code.addStatement("mal_encoder_cursor_assert(encoder, cursor);", -1);
+  	code.closeBlock();
+
+  	//	if (rc == 0) {
+  	//		void *decoder_cursor = mal_decoder_new_cursor(decoder, bytes, length, 0);
+  	//		rc = <type>_decode_malbinary(copy, decoder, decoder_cursor);
+  	// or for a list:
+  	//		rc = <type>_new_decode_malbinary(&copy, decoder, decoder_cursor);
+  	//		mal_decoder_cursor_destroy(decoder, decoder_cursor);
+  	//		if (rc < 0)
+  	//			printf("FAILED: decoding\n");
+  	//	}
+  	code.addStatement("if (rc == 0)");
+  	code.openBlock();
+  	code.addStatement("void *decoder_cursor = mal_decoder_new_cursor(decoder, bytes, length, 0);");
+  	if (isList)
+  	{
+  		code.addStatement("rc = " + typeName + "_new_decode_" + transportMalbinary + "(&copy, decoder, decoder_cursor);");
+  	}
+  	else
+  	{
+  		code.addStatement("rc = " + typeName + "_decode_" + transportMalbinary + "(copy, decoder, decoder_cursor);");
+  	}
+  	code.addStatement("mal_decoder_cursor_destroy(decoder, decoder_cursor);");
+  	code.addStatement("if (rc < 0)", 1);
+  	code.addStatement("printf(\"FAILED: decoding\\n\");", -1);
+  	code.closeBlock();
+
+  	// the decoded copy must have the same encoding length
+  	//	if (rc == 0) {
+  	//		mal_encoder_cursor_destroy(encoder, cursor);
+  	//		cursor = mal_encoder_new_cursor(encoder);
+  	//		rc = <type>_add_encoding_length_malbinary(copy, encoder, cursor);
+  	//		if (rc < 0) {
+  	//			printf("FAILED: copy encoding length\n");
+  	//		} else if (mal_encoder_cursor_get_length(encoder, cursor) != length) {
+  	//			printf("FAILED: copy encoding length %u, expected %u\n", mal_encoder_cursor_get_length(encoder, cursor), length);
+  	//			rc = -1;
+  	//		}
+  	//	}
+  	code.addStatement("if (rc == 0)");
+  	code.openBlock();
+  	code.addStatement("mal_encoder_cursor_destroy(encoder, cursor);");
+  	code.addStatement("cursor = mal_encoder_new_cursor(encoder);");
+  	code.addStatement("rc = " + typeName + "_add_encoding_length_" + transportMalbinary + "(copy, encoder, cursor);");
+  	code.addStatement("if (rc < 0)");
+  	code.openBlock();
+  	code.addStatement("printf(\"FAILED: copy encoding length\\n\");");
+  	code.closeBlock();
+  	code.addStatement("else if (mal_encoder_cursor_get_length(encoder, cursor) != length)");
+  	code.openBlock();
+  	code.addStatement("printf(\"FAILED: copy encoding length %u, expected %u\\n\", mal_encoder_cursor_get_length(encoder, cursor), length);");
+  	code.addStatement("rc = -1;");
+  	code.closeBlock();
+  	code.closeBlock();
+
+  	// the decoded copy must encode to the same bytes, in a buffer initialized with a different value
+  	//	if (rc == 0) {
+  	//		memset(copy_bytes, 0xff, length);
+  	//		mal_encoder_cursor_init(encoder, cursor, copy_bytes, length, 0);
+  	//		rc = <type>_encode_malbinary(copy, encoder, cursor);
+  	//		if (rc < 0)
+  	//			printf("FAILED: copy encoding\n");
+  	//		else
+  	//			mal_encoder_cursor_assert(encoder, cursor);
+  	//	}
+  	//	if (rc == 0 && memcmp(bytes, copy_bytes, length) != 0) {
+  	//		printf("FAILED: copy encoding differs\n");
+  	//		rc = -1;
+  	//	}
+  	code.addStatement("if (rc == 0)");
+  	code.openBlock();
+  	code.addStatement("memset(copy_bytes, 0xff, length);");
+  	code.addStatement("mal_encoder_cursor_init(encoder, cursor, copy_bytes, length, 0);");
+  	code.addStatement("rc = " + typeName + "_encode_" + transportMalbinary + "(copy, encoder, cursor);");
+  	code.addStatement("if (rc < 0)", 1);
+  	code.addStatement("printf(\"FAILED: copy encoding\\n\");", -1);
+  	code.addStatement("else", 1);
+  	code.addStatement("mal_encoder_cursor_assert(encoder, cursor);", -1);
+  	code.closeBlock();
+  	code.addSingleLineComment("a byte left unwritten by the encoding functions differs in the two buffers");
+  	code.addStatement("if (rc == 0 && memcmp(bytes, copy_bytes, length) != 0)");
+  	code.openBlock();
+  	code.addStatement("printf(\"FAILED: copy encoding differs\\n\");");
+  	code.addStatement("rc = -1;");
+  	code.closeBlock();
+
+  	//	mal_encoder_cursor_destroy(encoder, cursor);
+  	//	free(bytes);
+  	//	free(copy_bytes);
+  	//	if (copy)
+  	//		<type>_destroy(&copy);
+  	//	return rc;
+  	// }
+  	code.addStatement("mal_encoder_cursor_destroy(encoder, cursor);");
+  	code.addStatement("free(bytes);");
+  	code.addStatement("free(copy_bytes);");
+  	code.addStatement("if (copy)", 1);
+  	code.addStatement(typeName + "_destroy(&copy);", -1);
+  	code.addStatement("return (rc < 0 ? -1 : 0);");
+  	code.closeFunctionBody();
+  }
+
+  /**
+   * Generate the body of a test function, checking random instances of a type.
+   * The instances are checked with a malbinary round trip when the malbinary transport is generated,
+   * otherwise they are only created and destroyed. The function returns -1 on the first failed check.
+   */
+  private void addTestFunctionBody(CFileWriter code, String typeName, String label) throws IOException
+  {
+  	//	printf(" * <label>: ");
+  	//	if (verbose)
+  	//		printf("\n");
+  	//	int rc = 0;
+  	//	mo_random_t rng;
+  	//	mo_random_init(&rng, 1);
+  	//	[mal_encoder_t *encoder = malbinary_encoder_new(false);]
+  	//	[mal_decoder_t *decoder = malbinary_decoder_new(false);]
+  	//	for (int i = 0; rc == 0 && i < 16; i++) {
+  	//		<type>_t *self = <type>_random(&rng, 2, 4);
+  	//		if (!self) {
+  	//			printf("FAILED: random instance\n");
+  	//			rc = -1;
+  	//		} else {
+  	//			[rc = <type>_test_malbinary(self, encoder, decoder);]
+  	//			<type>_destroy(&self);
+  	//		}
+  	//	}
+  	//	[mal_encoder_destroy(&encoder);]
+  	//	[mal_decoder_destroy(&decoder);]
+  	//	if (rc == 0)
+  	//		printf("OK\n");
+  	//	return rc;
+  	code.addStatement("printf(\" * " + label + ": \");");
+  	code.addStatement("if (verbose)", 1);
+  	code.addStatement("printf(\"\\n\");", -1);
+  	code.addStatement("int rc = 0;");
+  	code.addStatement("mo_random_t rng;");
+  	code.addStatement("mo_random_init(&rng, 1);");
+  	if (generateTransportMalbinary)
+  	{
+  		code.addStatement("mal_encoder_t *encoder = malbinary_encoder_new(false);");
+  		code.addStatement("mal_decoder_t *decoder = malbinary_decoder_new(false);");
+  	}
+  	code.addStatement("for (int i = 0; rc == 0 && i < 16; i++)");
+  	code.openBlock();
+  	code.addStatement(typeName + "_t *self = " + typeName + "_random(&rng, 2, 4);");
+  	code.addStatement("if (!self)");
+  	code.openBlock();
+  	code.addStatement("printf(\"FAILED: random instance\\n\");");
+  	code.addStatement("rc = -1;");
+  	code.closeBlock();
+  	code.addStatement("else");
+  	code.openBlock();
+  	if (generateTransportMalbinary)
+  	{
+  		code.addStatement("rc = " + typeName + "_test_" + transportMalbinary + "(self, encoder, decoder);");
+  	}
+  	code.addStatement(typeName + "_destroy(&self);");
+  	code.closeBlock();
+  	code.closeBlock();
+  	if (generateTransportMalbinary)
+  	{
+  		code.addStatement("mal_encoder_destroy(&encoder);");
+  		code.addStatement("mal_decoder_destroy(&decoder);");
+  	}
+  	code.addStatement("if (rc == 0)", 1);
+  	code.addStatement("printf(\"OK\\n\");", -1);
+  	code.addStatement("return rc;");
+  }
+
+  /**
+   * Declare the prototype of a random instance function.
+   */
+  private void addRandomFunctionPrototype(CFileWriter code, String typeName) throws IOException
+  {
+    // <type>_t *<type>_random(mo_random_t *rng, int depth, unsigned int max_list);
+    code.openFunctionPrototype(typeName + "_t *", typeName + "_random", 3);
+    code.addFunctionParameter("mo_random_t *", "rng", false);
+    code.addFunctionParameter("int", "depth", false);
+    code.addFunctionParameter("unsigned int", "max_list", true);
+    code.closeFunctionPrototype();
+  }
+
+  /**
+   * Open the definition of a random instance function.
+   */
+  private void openRandomFunction(CFileWriter code, String typeName) throws IOException
+  {
+    // <type>_t *<type>_random(mo_random_t *rng, int depth, unsigned int max_list) {
+    code.openFunction(typeName + "_t *", typeName + "_random", 3);
+    code.addFunctionParameter("mo_random_t *", "rng", false);
+    code.addFunctionParameter("int", "depth", false);
+    code.addFunctionParameter("unsigned int", "max_list", true);
+    code.openFunctionBody();
+  }
+
+  private void addCompositeRandomFunction(CompositeContext compCtxt) throws IOException
   {
-    String comment = "test function";
-    areaContext.areaH.addNewLine();
-    areaContext.areaH.addSingleLineComment(comment);
-    areaContext.areaC.addNewLine();
-    areaContext.areaC.addSingleLineComment(comment);
-    // void <area>_test(bool verbose);
-    areaContext.areaH.openFunctionPrototype("void", areaContext.areaNameL + "_test", 1);
-    areaContext.areaH.addFunctionParameter("bool", "verbose", true);
-    areaContext.areaH.closeFunctionPrototype();
-    // void <area>_test(bool verbose) {
-    //	printf(" * <area>: ");
-    //	if (verbose)
-    //		printf("\n");
-    //	printf("OK\n");
+  	CFileWriter compositeH = compCtxt.compositeH;
+  	CFileWriter compositeC = compCtxt.compositeC;
+    String comment = "random instance, the optional fields are present with the rng presence probability";
+    compositeH.addNewLine();
+    compositeH.addSingleLineComment(comment);
+    compositeH.addSingleLineComment("depth limits the nesting of the composite and list fields, max_list the size of the list fields");
+    compositeC.addNewLine();
+    compositeC.addSingleLineComment(comment);
+    addRandomFunctionPrototype(compositeH, compCtxt.mapCompNameL);
+
+    // <area>_[<service>_]<composite>_t *<area>_[<service>_]<composite>_random(mo_random_t *rng, int depth, unsigned int max_list) {
+    //	<area>_[<service>_]<composite>_t *self = <area>_[<service>_]<composite>_new();
+    //	if (!self)
+    //		return NULL;
+    //	set a random value to all fields
+    //	return self;
     // }
-    areaContext.areaC.openFunctionPrototype("void", areaContext.areaNameL + "_test", 1);
-    areaContext.areaC.addFunctionParameter("bool", "verbose", true);
-    areaContext.areaC.openFunctionBody();
-    areaContext.areaC.addStatement("printf(\" * " + areaContext.areaNameL + ": \");");
-    areaContext.areaC.addStatement("if (verbose)", 1);
-    areaContext.areaC.addStatement("printf(\"\\n\");", -1);
-    areaContext.areaC.addStatement("printf(\"OK\\n\");", -1);
-    areaContext.areaC.closeFunctionBody();
+    openRandomFunction(compositeC, compCtxt.mapCompNameL);
+    compositeC.addStatement(compCtxt.mapCompNameL + "_t *self = " + compCtxt.mapCompNameL + "_new();");
+    compositeC.addStatement("if (!self)", 1);
+    compositeC.addStatement("return NULL;", -1);
+    compositeC.addStatements(compCtxt.randomW);
+    compositeC.addStatement("return self;");
+    compositeC.closeFunctionBody();
   }
 
   private void addCompositeTestFunction(CompositeContext compCtxt) throws IOException
@@ -2780,17 +6930,19 @@ public class GeneratorC extends GeneratorBase
     compositeH.addSingleLineComment(comment);
     compositeC.addNewLine();
     compositeC.addSingleLineComment(comment);
-    // void <area>_[<service>_]<composite>_test(bool verbose);
-    compositeH.openFunctionPrototype("void", compCtxt.mapCompNameL + "_test", 1);
+    // int <area>_[<service>_]<composite>_test(bool verbose);
+    compositeH.openFunctionPrototype("int", compCtxt.mapCompNameL + "_test", 1);
     compositeH.addFunctionParameter("bool", "verbose", true);
     compositeH.closeFunctionPrototype();
-    // void <area>_[<service>_]<composite>_test(bool verbose) {
-    //	printf(" * <area>:[<service>:]<composite>: ");
-    //	if (verbose)
-    //		printf("\n");
-    //	printf("OK\n");
+
+    if (generateTransportMalbinary)
+    {
+    	addTestMalbinaryFunction(compositeC, compCtxt.mapCompNameL, false);
+    }
+    // int <area>_[<service>_]<composite>_test(bool verbose) {
+    //	check random instances
     // }
-    compositeC.openFunctionPrototype("void", compCtxt.mapCompNameL + "_test", 1);
+    compositeC.openFunctionPrototype("int", compCtxt.mapCompNameL + "_test", 1);
     compositeC.addFunctionParameter("bool", "verbose", true);
     compositeC.openFunctionBody();
     StringBuilder buf = new StringBuilder();
@@ -2800,13 +6952,44 @@ public class GeneratorC extends GeneratorBase
     	buf.append(":").append(compCtxt.serviceContext.summary.getService().getName());
     }
     buf.append(":").append(compCtxt.composite.getName());
-    compositeC.addStatement("printf(\" * " + buf.toString() + ": \");");
-    compositeC.addStatement("if (verbose)", 1);
-    compositeC.addStatement("printf(\"\\n\");", -1);
-    compositeC.addStatement("printf(\"OK\\n\");", -1);
+    addTestFunctionBody(compositeC, compCtxt.mapCompNameL, buf.toString());
     compositeC.closeFunctionBody();
   }
 
+  private void addEnumListRandomFunction(CFileWriter enumListH, CFileWriter enumListC, String mapEnumNameL, int enumSize) throws IOException
+  {
+    String comment = "random instance, the list is empty if depth is negative";
+    enumListH.addNewLine();
+    enumListH.addSingleLineComment(comment);
+    enumListC.addNewLine();
+    enumListC.addSingleLineComment(comment);
+    addRandomFunctionPrototype(enumListH, mapEnumNameL + "_list");
+
+    // <area>_[<service>_]<enumeration>_list_t *<area>_[<service>_]<enumeration>_list_random(mo_random_t *rng, int depth, unsigned int max_list) {
+    //	unsigned int count = (depth >= 0 ? mo_random_size(rng, rng->list_distribution, max_list) : 0);
+    //	<area>_[<service>_]<enumeration>_list_t *self = <area>_[<service>_]<enumeration>_list_new(count);
+    //	if (!self)
+    //		return NULL;
+    //	for (unsigned int i = 0; i < count; i++) {
+    //		self->presence_flags[i] = mo_random_present(rng);
+    //		self->content[i] = (<area>_[<service>_]<enumeration>_t) (mo_random_next(rng) % <enum size>);
+    //	}
+    //	return self;
+    // }
+    openRandomFunction(enumListC, mapEnumNameL + "_list");
+    enumListC.addStatement("unsigned int count = (depth >= 0 ? mo_random_size(rng, rng->list_distribution, max_list) : 0);");
+    enumListC.addStatement(mapEnumNameL + "_list_t *self = " + mapEnumNameL + "_list_new(count);");
+    enumListC.addStatement("if (!self)", 1);
+    enumListC.addStatement("return NULL;", -1);
+    enumListC.addStatement("for (unsigned int i = 0; i < count; i++)");
+    enumListC.openBlock();
+    enumListC.addStatement("self->presence_flags[i] = mo_random_present(rng);");
+    enumListC.addStatement("self->content[i] = (" + mapEnumNameL + "_t) (mo_random_next(rng) % " + enumSize + ");");
+    enumListC.closeBlock();
+    enumListC.addStatement("return self;");
+    enumListC.closeFunctionBody();
+  }
+
   private void addEnumListTestFunction(CFileWriter enumListH, CFileWriter enumListC, String mapEnumNameL) throws IOException
   {
     String comment = "test function";
@@ -2814,26 +6997,60 @@ public class GeneratorC extends GeneratorBase
     enumListH.addSingleLineComment(comment);
     enumListC.addNewLine();
     enumListC.addSingleLineComment(comment);
-    // void <area>_[<service>_]<enumeration>_list_test(bool verbose);
-    enumListH.openFunctionPrototype("void", mapEnumNameL + "_list_test", 1);
+    // int <area>_[<service>_]<enumeration>_list_test(bool verbose);
+    enumListH.openFunctionPrototype("int", mapEnumNameL + "_list_test", 1);
     enumListH.addFunctionParameter("bool", "verbose", true);
     enumListH.closeFunctionPrototype();
-    // void <area>_[<service>_]<enumeration>_list_test(bool verbose) {
-    //	printf(" * list of <area>_[<service>_]<enumeration>: ");
-    //	if (verbose)
-    //		printf("\n");
-    //	printf("OK\n");
+
+    if (generateTransportMalbinary)
+    {
+    	addTestMalbinaryFunction(enumListC, mapEnumNameL + "_list", true);
+    }
+    // int <area>_[<service>_]<enumeration>_list_test(bool verbose) {
+    //	check random instances
     // }
-    enumListC.openFunction("void", mapEnumNameL + "_list_test", 1);
+    enumListC.openFunction("int", mapEnumNameL + "_list_test", 1);
     enumListC.addFunctionParameter("bool", "verbose", true);
     enumListC.openFunctionBody();
-    enumListC.addStatement("printf(\" * list of " + mapEnumNameL + ": \");");
-    enumListC.addStatement("if (verbose)", 1);
-    enumListC.addStatement("printf(\"\\n\");", -1);
-    enumListC.addStatement("printf(\"OK\\n\");", -1);
+    addTestFunctionBody(enumListC, mapEnumNameL + "_list", "list of " + mapEnumNameL);
     enumListC.closeFunctionBody();
   }
 
+  private void addCompositeListRandomFunction(CFileWriter compListH, CFileWriter compListC, CompositeContext compCtxt) throws IOException
+  {
+    String comment = "random instance, the list is empty if depth is negative";
+    String mapCompListType = compCtxt.mapCompNameL + "_list_t";
+    compListH.addNewLine();
+    compListH.addSingleLineComment(comment);
+    compListC.addNewLine();
+    compListC.addSingleLineComment(comment);
+    addRandomFunctionPrototype(compListH, compCtxt.mapCompNameL + "_list");
+
+    // <area>_[<service>_]<composite>_list_t *<area>_[<service>_]<composite>_list_random(mo_random_t *rng, int depth, unsigned int max_list) {
+    //	unsigned int count = (depth >= 0 ? mo_random_size(rng, rng->list_distribution, max_list) : 0);
+    //	<area>_[<service>_]<composite>_list_t *self = <area>_[<service>_]<composite>_list_new(count);
+    //	if (!self)
+    //		return NULL;
+    //	for (unsigned int i = 0; i < count; i++) {
+    //		if (mo_random_present(rng))
+    //			self->content[i] = <area>_[<service>_]<composite>_random(rng, depth - 1, max_list);
+    //	}
+    //	return self;
+    // }
+    openRandomFunction(compListC, compCtxt.mapCompNameL + "_list");
+    compListC.addStatement("unsigned int count = (depth >= 0 ? mo_random_size(rng, rng->list_distribution, max_list) : 0);");
+    compListC.addStatement(mapCompListType + " *self = " + compCtxt.mapCompNameL + "_list_new(count);");
+    compListC.addStatement("if (!self)", 1);
+    compListC.addStatement("return NULL;", -1);
+    compListC.addStatement("for (unsigned int i = 0; i < count; i++)");
+    compListC.openBlock();
+    compListC.addStatement("if (mo_random_present(rng))", 1);
+    compListC.addStatement("self->content[i] = " + compCtxt.mapCompNameL + "_random(rng, depth - 1, max_list);", -1);
+    compListC.closeBlock();
+    compListC.addStatement("return self;");
+    compListC.closeFunctionBody();
+  }
+
   private void addCompositeListTestFunction(CFileWriter compListH, CFileWriter compListC, CompositeContext compCtxt) throws IOException
   {
     String comment = "test function";
@@ -2841,31 +7058,517 @@ public class GeneratorC extends GeneratorBase
     compListH.addSingleLineComment(comment);
     compListC.addNewLine();
     compListC.addSingleLineComment(comment);
-    // void <area>_[<service>_]<composite>_list_test(bool verbose);
-    compListH.openFunctionPrototype("void", compCtxt.mapCompNameL + "_list_test", 1);
+    // int <area>_[<service>_]<composite>_list_test(bool verbose);
+    compListH.openFunctionPrototype("int", compCtxt.mapCompNameL + "_list_test", 1);
     compListH.addFunctionParameter("bool", "verbose", true);
     compListH.closeFunctionPrototype();
-    // void <area>_[<service>_]<composite>_list_test(bool verbose) {
-    //	printf(" * list of <area>_[<service>_]<composite>: ");
-    //	if (verbose)
-    //		printf("\n");
-    //	printf("OK\n");
+
+    if (generateTransportMalbinary)
+    {
+    	addTestMalbinaryFunction(compListC, compCtxt.mapCompNameL + "_list", true);
+    }
+    // int <area>_[<service>_]<composite>_list_test(bool verbose) {
+    //	check random instances
     // }
-    compListC.openFunction("void", compCtxt.mapCompNameL + "_list_test", 1);
+    compListC.openFunction("int", compCtxt.mapCompNameL + "_list_test", 1);
     compListC.addFunctionParameter("bool", "verbose", true);
     compListC.openFunctionBody();
-    compListC.addStatement("printf(\" * list of " + compCtxt.mapCompNameL + ": \");");
-    compListC.addStatement("if (verbose)", 1);
-    compListC.addStatement("printf(\"\\n\");", -1);
-    compListC.addStatement("printf(\"OK\\n\");", -1);
+    addTestFunctionBody(compListC, compCtxt.mapCompNameL + "_list", "list of " + compCtxt.mapCompNameL);
     compListC.closeFunctionBody();
   }
 
+  /**
+   * Add a composite or list type to the <area>_bench.c file.
+   * The type functions are wrapped in adapters with generic signatures, referenced by the types table.
+   */
+  private void addBenchType(AreaContext areaContext, String typeName, boolean isList) throws IOException
+  {
+  	CFileWriter code = areaContext.benchCode;
+  	// static void *<type>_bench_random(mo_random_t *rng) {
+  	//	return <type>_random(rng, 2, 4);
+  	// }
+  	code.addNewLine();
+  	code.openFunction("static void *", typeName + "_bench_random", 1);
+  	code.addFunctionParameter("mo_random_t *", "rng", true);
+  	code.openFunctionBody();
+  	code.addStatement("return " + typeName + "_random(rng, 2, 4);");
+  	code.closeFunctionBody();
+  	// static int <type>_bench_length(void *self, mal_encoder_t *encoder, void *cursor) {
+  	//	return <type>_add_encoding_length_malbinary((<type>_t *) self, encoder, cursor);
+  	// }
+  	openBenchEncodingAdapter(code, typeName + "_bench_length", "self");
+  	code.addStatement("return " + typeName + "_add_encoding_length_" + transportMalbinary + "((" + typeName + "_t *) self, encoder, cursor);");
+  	code.closeFunctionBody();
+  	// static int <type>_bench_encode(void *self, mal_encoder_t *encoder, void *cursor) {
+  	//	return <type>_encode_malbinary((<type>_t *) self, encoder, cursor);
+  	// }
+  	openBenchEncodingAdapter(code, typeName + "_bench_encode", "self");
+  	code.addStatement("return " + typeName + "_encode_" + transportMalbinary + "((" + typeName + "_t *) self, encoder, cursor);");
+  	code.closeFunctionBody();
+  	// static int <type>_bench_decode(void **self_p, mal_decoder_t *decoder, void *cursor) {
+  	//	<type>_t *self = <type>_new();
+  	//	*self_p = self;
+  	//	return <type>_decode_malbinary(self, decoder, cursor);
+  	// }
+  	// or for a list:
+  	//	<type>_t *self = NULL;
+  	//	int rc = <type>_new_decode_malbinary(&self, decoder, cursor);
+  	//	*self_p = self;
+  	//	return rc;
+  	openBenchDecodingAdapter(code, typeName + "_bench_decode", "self_p");
+  	if (isList)
+  	{
+  		code.addStatement(typeName + "_t *self = NULL;");
+  		code.addStatement("int rc = " + typeName + "_new_decode_" + transportMalbinary + "(&self, decoder, cursor);");
+  		code.addStatement("*self_p = self;");
+  		code.addStatement("return rc;");
+  	}
+  	else
+  	{
+  		code.addStatement(typeName + "_t *self = " + typeName + "_new();");
+  		code.addStatement("*self_p = self;");
+  		code.addStatement("return " + typeName + "_decode_" + transportMalbinary + "(self, decoder, cursor);");
+  	}
+  	code.closeFunctionBody();
+  	// static void <type>_bench_destroy(void **self_p) {
+  	//	<type>_t *self = (<type>_t *) *self_p;
+  	//	if (self != NULL)
+  	//		<type>_destroy(&self);
+  	//	*self_p = NULL;
+  	// }
+  	code.addNewLine();
+  	code.openFunction("static void", typeName + "_bench_destroy", 1);
+  	code.addFunctionParameter("void **", "self_p", true);
+  	code.openFunctionBody();
+  	code.addStatement(typeName + "_t *self = (" + typeName + "_t *) *self_p;");
+  	code.addStatement("if (self != NULL)", 1);
+  	code.addStatement(typeName + "_destroy(&self);", -1);
+  	code.addStatement("*self_p = NULL;");
+  	code.closeFunctionBody();
+
+  	addBenchTableEntry(areaContext, typeName);
+  }
+
+  /**
+   * Add the body of an operation stage to the <area>_bench.c file.
+   * The stages with a parameter of an abstract type other than Attribute are not benchmarked.
+   */
+  private void addBenchOpStage(OpStageContext opStageCtxt) throws IOException
+  {
+  	AreaContext areaContext = opStageCtxt.opContext.serviceContext.areaContext;
+  	for (ParameterDetails paramDetails : opStageCtxt.paramDetailsList)
+  	{
+  		if (paramDetails.isAbstract && (paramDetails.isList || !paramDetails.isAbstractAttribute))
+  		{
+  			getLog().info("No benchmark for operation stage " + opStageCtxt.qfOpStageNameL + " with an abstract parameter");
+  			return;
+  		}
+  	}
+  	CFileWriter code = areaContext.benchCode;
+  	String stageName = opStageCtxt.qfOpStageNameL;
+  	String bodyType = stageName + "_body_t";
+
+  	// static void *<qfop>_<stage>_bench_random(mo_random_t *rng) {
+  	//	[int depth = 2;]
+  	//	[unsigned int max_list = 4;]
+  	//	<qfop>_<stage>_body_t *body = (<qfop>_<stage>_body_t *) calloc(1, sizeof(<qfop>_<stage>_body_t));
+  	//	if (!body)
+  	//		return NULL;
+  	//	set a random value to all parameters
+  	//	return body;
+  	// }
+  	code.addNewLine();
+  	code.openFunction("static void *", stageName + "_bench_random", 1);
+  	code.addFunctionParameter("mo_random_t *", "rng", true);
+  	code.openFunctionBody();
+  	// the bounds are only declared for the composite and list parameters
+  	boolean bounded = false;
+  	for (ParameterDetails paramDetails : opStageCtxt.paramDetailsList)
+  	{
+  		if (!paramDetails.isAbstractAttribute && isRandomValueBounded(paramDetails.type))
+  		{
+  			bounded = true;
+  		}
+  	}
+  	if (bounded)
+  	{
+  		code.addStatement("int depth = 2;");
+  		code.addStatement("unsigned int max_list = 4;");
+  	}
+  	code.addStatement(bodyType + " *body = (" + bodyType + " *) calloc(1, sizeof(" + bodyType + "));");
+  	code.addStatement("if (!body)", 1);
+  	code.addStatement("return NULL;", -1);
+  	for (ParameterDetails paramDetails : opStageCtxt.paramDetailsList)
+  	{
+  		String member = "body->" + getInteractionBodyMemberName(paramDetails);
+  		if (paramDetails.isAbstractAttribute)
+  		{
+  			code.addStatement(member + "_is_present = true;");
+  			code.addStatement(member + "_attribute_tag = MAL_INTEGER_ATTRIBUTE_TAG;");
+  			code.addStatement(member + ".integer_value = (mal_integer_t) mo_random_next(rng);");
+  			continue;
+  		}
+  		if (paramDetails.isPresenceFlag)
+  		{
+  			code.addStatement(member + "_is_present = true;");
+  		}
+  		if (paramDetails.type.isList())
+  		{
+  			addRandomList(code, member, paramDetails.type, "depth - 1");
+  		}
+  		else
+  		{
+  			addRandomValue(code, member, paramDetails.type, "depth - 1");
+  		}
+  	}
+  	code.addStatement("return body;");
+  	code.closeFunctionBody();
+
+  	// static int <qfop>_<stage>_bench_length(void *body, mal_encoder_t *encoder, void *cursor) {
+  	//	return <qfop>_<stage>_add_body_encoding_length(encoder, (<qfop>_<stage>_body_t *) body, cursor);
+  	// }
+  	openBenchEncodingAdapter(code, stageName + "_bench_length", "body");
+  	code.addStatement("return " + stageName + "_add_body_encoding_length(encoder, (" + bodyType + " *) body, cursor);");
+  	code.closeFunctionBody();
+  	// static int <qfop>_<stage>_bench_encode(void *body, mal_encoder_t *encoder, void *cursor) {
+  	//	return <qfop>_<stage>_encode_body(cursor, encoder, (<qfop>_<stage>_body_t *) body);
+  	// }
+  	openBenchEncodingAdapter(code, stageName + "_bench_encode", "body");
+  	code.addStatement("return " + stageName + "_encode_body(cursor, encoder, (" + bodyType + " *) body);");
+  	code.closeFunctionBody();
+  	// static int <qfop>_<stage>_bench_decode(void **body_p, mal_decoder_t *decoder, void *cursor) {
+  	//	<qfop>_<stage>_body_t *body = (<qfop>_<stage>_body_t *) calloc(1, sizeof(<qfop>_<stage>_body_t));
+  	//	*body_p = body;
+  	//	return <qfop>_<stage>_decode_body(cursor, decoder, body);
+  	// }
+  	openBenchDecodingAdapter(code, stageName + "_bench_decode", "body_p");
+  	code.addStatement(bodyType + " *body = (" + bodyType + " *) calloc(1, sizeof(" + bodyType + "));");
+  	code.addStatement("*body_p = body;");
+  	code.addStatement("return " + stageName + "_decode_body(cursor, decoder, body);");
+  	code.closeFunctionBody();
+  	// static void <qfop>_<stage>_bench_destroy(void **body_p) {
+  	//	<qfop>_<stage>_body_destroy((<qfop>_<stage>_body_t *) *body_p);
+  	//	free(*body_p);
+  	//	*body_p = NULL;
+  	// }
+  	code.addNewLine();
+  	code.openFunction("static void", stageName + "_bench_destroy", 1);
+  	code.addFunctionParameter("void **", "body_p", true);
+  	code.openFunctionBody();
+  	code.addStatement(stageName + "_body_destroy((" + bodyType + " *) *body_p);");
+  	code.addStatement("free(*body_p);");
+  	code.addStatement("*body_p = NULL;");
+  	code.closeFunctionBody();
+
+  	addBenchTableEntry(areaContext, stageName);
+  }
+
+  private void openBenchEncodingAdapter(CFileWriter code, String funcName, String selfName) throws IOException
+  {
+  	code.addNewLine();
+  	code.openFunction("static int", funcName, 3);
+  	code.addFunctionParameter("void *", selfName, false);
+  	code.addFunctionParameter("mal_encoder_t *", "encoder", false);
+  	code.addFunctionParameter("void *", "cursor", true);
+  	code.openFunctionBody();
+  }
+
+  private void openBenchDecodingAdapter(CFileWriter code, String funcName, String selfName) throws IOException
+  {
+  	code.addNewLine();
+  	code.openFunction("static int", funcName, 3);
+  	code.addFunctionParameter("void **", selfName, false);
+  	code.addFunctionParameter("mal_decoder_t *", "decoder", false);
+  	code.addFunctionParameter("void *", "cursor", true);
+  	code.openFunctionBody();
+  }
+
+  private void addBenchTableEntry(AreaContext areaContext, String name) throws IOException
+  {
+  	//	{ "<name>", <name>_bench_random, <name>_bench_length, <name>_bench_encode, <name>_bench_decode, <name>_bench_destroy },
+  	areaContext.benchTable.addStatement("{ \"" + name + "\", " +
+  			name + "_bench_random, " +
+  			name + "_bench_length, " +
+  			name + "_bench_encode, " +
+  			name + "_bench_decode, " +
+  			name + "_bench_destroy },");
+  	areaContext.benchTypeCount++;
+  }
+
+  /**
+   * Generate the <area>_bench.c benchmark driver, next to the project.xml file.
+   * The driver measures the length, encode, decode and destroy throughput of all the composites, lists
+   * and operation stage bodies of the area, on a pool of random values.
+   * The allocations are counted when the driver is linked with the wrapped allocation functions,
+   * -Wl,--wrap=malloc,--wrap=calloc,--wrap=realloc, as in the generated CMakeLists.txt file.
+   * The link time wrapping only applies to the objects linked in the driver, the allocations made
+   * inside the shared MAL libraries are not counted, as stated in the driver output.
+   * The driver arguments are the number of rounds on the pool and an optional type name filter.
+   */
+  private void generateAreaBenchmark(AreaContext areaContext) throws IOException
+  {
+  	if (areaContext.benchTypeCount == 0)
+  	{
+  		return;
+  	}
+  	AreaCWriter benchC = new AreaCWriter(areaContext.areaFolder, areaContext.areaNameL + "_bench");
+  	benchC.addSingleLineComment("throughput benchmark driver for area " + areaContext.area.getName());
+  	benchC.addSingleLineComment("usage: " + areaContext.areaNameL + "_bench [<rounds> [<type name filter>]]");
+  	benchC.addInclude(areaContext.areaNameL + ".h");
+  	benchC.addInclude(areaContext.areaNameL + "_random.h");
+  	benchC.addStatement("#include <time.h>");
+  	benchC.addNewLine();
+  	benchC.addDefine("BENCH_POOL_SIZE", "64");
+  	benchC.addNewLine();
+
+  	// typedef struct {
+  	//	const char *name;
+  	//	void *(*random)(mo_random_t *rng);
+  	//	int (*length)(void *self, mal_encoder_t *encoder, void *cursor);
+  	//	int (*encode)(void *self, mal_encoder_t *encoder, void *cursor);
+  	//	int (*decode)(void **self_p, mal_decoder_t *decoder, void *cursor);
+  	//	void (*destroy)(void **self_p);
+  	// } bench_type_t;
+  	benchC.addStatement("typedef struct");
+  	benchC.openBlock();
+  	benchC.addStatement("const char *name;");
+  	benchC.addStatement("void *(*random)(mo_random_t *rng);");
+  	benchC.addStatement("int (*length)(void *self, mal_encoder_t *encoder, void *cursor);");
+  	benchC.addStatement("int (*encode)(void *self, mal_encoder_t *encoder, void *cursor);");
+  	benchC.addStatement("int (*decode)(void **self_p, mal_decoder_t *decoder, void *cursor);");
+  	benchC.addStatement("void (*destroy)(void **self_p);");
+  	benchC.addStatement("} bench_type_t;", -1, true);
+
+  	// allocations counting, through the wrapped allocation functions
+  	// static unsigned long bench_allocations = 0;
+  	// void *__real_malloc(size_t size);
+  	// void *__wrap_malloc(size_t size) {
+  	//	bench_allocations++;
+  	//	return __real_malloc(size);
+  	// }
+  	// same for calloc and realloc
+  	benchC.addNewLine();
+  	benchC.addSingleLineComment("allocations counting, through the allocation functions wrapped at link time");
+  	benchC.addSingleLineComment("the calls from the shared MAL libraries are not wrapped and not counted");
+  	benchC.addStatement("static unsigned long bench_allocations = 0;");
+  	String[][] allocFunctions = new String[][] {
+  		{ "malloc", "size_t size", "size" },
+  		{ "calloc", "size_t nmemb, size_t size", "nmemb, size" },
+  		{ "realloc", "void *ptr, size_t size", "ptr, size" } };
+  	for (String[] allocFunction : allocFunctions)
+  	{
+  		benchC.addStatement("void *__real_" + allocFunction[0] + "(" + allocFunction[1] + ");");
+  	}
+  	for (String[] allocFunction : allocFunctions)
+  	{
+  		benchC.addNewLine();
+  		benchC.addStatement("void *__wrap_" + allocFunction[0] + "(" + allocFunction[1] + ")");
+  		benchC.openBlock();
+  		benchC.addStatement("bench_allocations++;");
+  		benchC.addStatement("return __real_" + allocFunction[0] + "(" + allocFunction[2] + ");");
+  		benchC.closeBlock();
+  	}
+
+  	// static double bench_now(void) {
+  	//	struct timespec ts;
+  	//	clock_gettime(CLOCK_MONOTONIC, &ts);
+  	//	return ts.tv_sec * 1e9 + ts.tv_nsec;
+  	// }
+  	benchC.addNewLine();
+  	benchC.openFunction("static double", "bench_now", 0);
+  	benchC.openFunctionBody();
+  	benchC.addStatement("struct timespec ts;");
+  	benchC.addStatement("clock_gettime(CLOCK_MONOTONIC, &ts);");
+  	benchC.addStatement("return ts.tv_sec * 1e9 + ts.tv_nsec;");
+  	benchC.closeFunctionBody();
+
+  	// static void bench_report(const char *name, const char *step, unsigned long ops,
+  	//		double ns, unsigned long bytes, unsigned long allocations, unsigned long failures) {
+  	//	printf(...);
+  	// }
+  	benchC.addNewLine();
+  	benchC.openFunction("static void", "bench_report", 7);
+  	benchC.addFunctionParameter("const char *", "name", false);
+  	benchC.addFunctionParameter("const char *", "step", false);
+  	benchC.addFunctionParameter("unsigned long", "ops", false);
+  	benchC.addFunctionParameter("double", "ns", false);
+  	benchC.addFunctionParameter("unsigned long", "bytes", false);
+  	benchC.addFunctionParameter("unsigned long", "allocations", false);
+  	benchC.addFunctionParameter("unsigned long", "failures", true);
+  	benchC.openFunctionBody();
+  	benchC.addStatement("printf(\"%-56s %-8s %12.0f ops/s %10.1f ns/op %14.0f bytes/s %8.2f allocs/op%s\\n\",");
+  	benchC.addStatement("name, step, ops * 1e9 / ns, ns / ops, bytes * 1e9 / ns, (double) allocations / ops,", 2, true);
+  	benchC.addStatement("failures > 0 ? \" FAILURES\" : \"\");", -2);
+  	benchC.closeFunctionBody();
+
+  	addBenchRunFunction(benchC);
+
+  	// type adapters and types table
+  	benchC.addStatements(areaContext.benchW);
+  	benchC.addNewLine();
+  	benchC.addStatement("static bench_type_t bench_types[] =");
+  	benchC.addStatement("{", 1);
+  	benchC.addStatements(areaContext.benchTableW);
+  	benchC.addStatement("};", -1, true);
+
+  	// int main(int argc, char *argv[]) {
+  	//	unsigned int rounds = (argc > 1 ? (unsigned int) atoi(argv[1]) : 1000);
+  	//	const char *filter = (argc > 2 ? argv[2] : NULL);
+  	//	mal_encoder_t *encoder = malbinary_encoder_new(false);
+  	//	mal_decoder_t *decoder = malbinary_decoder_new(false);
+  	//	printf("allocs/op: allocations of the generated code, ...\n");
+  	//	for (unsigned int i = 0; i < <type count>; i++) {
+  	//		if (filter == NULL || strstr(bench_types[i].name, filter) != NULL)
+  	//			bench_run(&bench_types[i], rounds, encoder, decoder);
+  	//	}
+  	//	mal_encoder_destroy(&encoder);
+  	//	mal_decoder_destroy(&decoder);
+  	//	return 0;
+  	// }
+  	benchC.addNewLine();
+  	benchC.openFunction("int", "main", 2);
+  	benchC.addFunctionParameter("int", "argc", false);
+  	benchC.addFunctionParameter("char *", "argv[]", true);
+  	benchC.openFunctionBody();
+  	benchC.addStatement("unsigned int rounds = (argc > 1 ? (unsigned int) atoi(argv[1]) : 1000);");
+  	benchC.addStatement("const char *filter = (argc > 2 ? argv[2] : NULL);");
+  	benchC.addStatement("mal_encoder_t *encoder = malbinary_encoder_new(false);");
+  	benchC.addStatement("mal_decoder_t *decoder = malbinary_decoder_new(false);");
+  	benchC.addStatement("printf(\"allocs/op: allocations of the generated code, the allocations inside the shared MAL libraries are not counted\\n\");");
+  	benchC.addStatement("for (unsigned int i = 0; i < " + areaContext.benchTypeCount + "; i++)");
+  	benchC.openBlock();
+  	benchC.addStatement("if (filter == NULL || strstr(bench_types[i].name, filter) != NULL)", 1);
+  	benchC.addStatement("bench_run(&bench_types[i], rounds, encoder, decoder);", -1);
+  	benchC.closeBlock();
+  	benchC.addStatement("mal_encoder_destroy(&encoder);");
+  	benchC.addStatement("mal_decoder_destroy(&decoder);");
+  	benchC.addStatement("return 0;");
+  	benchC.closeFunctionBody();
+
+  	benchC.flush();
+  	benchC.close();
+  	zbenchAreas.add(areaContext.areaNameL);
+  }
+
+  /**
+   * Generate the bench_run function of a benchmark driver, measuring a type on a pool of random values.
+   * The decode step includes the creation of the decoder cursor and of the decoded value.
+   */
+  private void addBenchRunFunction(CFileWriter benchC) throws IOException
+  {
+  	// static void bench_run(bench_type_t *type, unsigned int rounds, mal_encoder_t *encoder, mal_decoder_t *decoder) {
+  	benchC.addNewLine();
+  	benchC.openFunction("static void", "bench_run", 4);
+  	benchC.addFunctionParameter("bench_type_t *", "type", false);
+  	benchC.addFunctionParameter("unsigned int", "rounds", false);
+  	benchC.addFunctionParameter("mal_encoder_t *", "encoder", false);
+  	benchC.addFunctionParameter("mal_decoder_t *", "decoder", true);
+  	benchC.openFunctionBody();
+  	benchC.addStatement("void *values[BENCH_POOL_SIZE];");
+  	benchC.addStatement("void *copies[BENCH_POOL_SIZE];");
+  	benchC.addStatement("char *bytes[BENCH_POOL_SIZE];");
+  	benchC.addStatement("unsigned int lengths[BENCH_POOL_SIZE];");
+  	benchC.addStatement("unsigned long pool_bytes = 0;");
+  	benchC.addStatement("unsigned long ops = (unsigned long) rounds * BENCH_POOL_SIZE;");
+  	benchC.addStatement("mo_random_t rng;");
+  	benchC.addStatement("mo_random_init(&rng, 1);");
+  	benchC.addStatement("void *cursor = mal_encoder_new_cursor(encoder);");
+
+  	// build the pool of random values and their encoding buffers
+  	benchC.addSingleLineComment("random values and their encoding");
+  	benchC.addStatement("for (int i = 0; i < BENCH_POOL_SIZE; i++)");
+  	benchC.openBlock();
+  	benchC.addStatement("values[i] = type->random(&rng);");
+  	benchC.addStatement("mal_encoder_cursor_init(encoder, cursor, NULL, 0, 0);");
+  	benchC.addStatement("int rc = type->length(values[i], encoder, cursor);");
+  	benchC.addStatement("lengths[i] = mal_encoder_cursor_get_length(encoder, cursor);");
+  	benchC.addStatement("bytes[i] = (char *) malloc(lengths[i]);");
+  	benchC.addStatement("mal_encoder_cursor_init(encoder, cursor, bytes[i], lengths[i], 0);");
+  	benchC.addStatement("if (rc < 0 || type->encode(values[i], encoder, cursor) < 0)");
+  	benchC.openBlock();
+  	benchC.addStatement("printf(\"%s: encoding error\\n\", type->name);");
+  	benchC.addStatement("exit(1);");
+  	benchC.closeBlock();
+  	benchC.addStatement("pool_bytes += lengths[i];");
+  	benchC.closeBlock();
+
+  	benchC.addStatement("unsigned long failures = 0;");
+  	benchC.addStatement("unsigned long allocations = bench_allocations;");
+  	benchC.addStatement("double start = bench_now();");
+
+  	// length step
+  	benchC.addStatement("for (unsigned int r = 0; r < rounds; r++)");
+  	benchC.openBlock();
+  	benchC.addStatement("for (int i = 0; i < BENCH_POOL_SIZE; i++)");
+  	benchC.openBlock();
+  	benchC.addStatement("mal_encoder_cursor_init(encoder, cursor, NULL, 0, 0);");
+  	benchC.addStatement("failures += (type->length(values[i], encoder, cursor) < 0);");
+  	benchC.closeBlock();
+  	benchC.closeBlock();
+  	benchC.addStatement("bench_report(type->name, \"length\", ops, bench_now() - start, pool_bytes * rounds, bench_allocations - allocations, failures);");
+
+  	// encode step
+  	benchC.addStatement("failures = 0;");
+  	benchC.addStatement("allocations = bench_allocations;");
+  	benchC.addStatement("start = bench_now();");
+  	benchC.addStatement("for (unsigned int r = 0; r < rounds; r++)");
+  	benchC.openBlock();
+  	benchC.addStatement("for (int i = 0; i < BENCH_POOL_SIZE; i++)");
+  	benchC.openBlock();
+  	benchC.addStatement("mal_encoder_cursor_init(encoder, cursor, bytes[i], lengths[i], 0);");
+  	benchC.addStatement("failures += (type->encode(values[i], encoder, cursor) < 0);");
+  	benchC.closeBlock();
+  	benchC.closeBlock();
+  	benchC.addStatement("bench_report(type->name, \"encode\", ops, bench_now() - start, pool_bytes * rounds, bench_allocations - allocations, failures);");
+
+  	// decode and destroy steps, alternated on the pool
+  	benchC.addStatement("failures = 0;");
+  	benchC.addStatement("double decode_ns = 0;");
+  	benchC.addStatement("double destroy_ns = 0;");
+  	benchC.addStatement("unsigned long decode_allocations = 0;");
+  	benchC.addStatement("unsigned long destroy_allocations = 0;");
+  	benchC.addStatement("for (unsigned int r = 0; r < rounds; r++)");
+  	benchC.openBlock();
+  	benchC.addStatement("allocations = bench_allocations;");
+  	benchC.addStatement("start = bench_now();");
+  	benchC.addStatement("for (int i = 0; i < BENCH_POOL_SIZE; i++)");
+  	benchC.openBlock();
+  	benchC.addStatement("void *decoder_cursor = mal_decoder_new_cursor(decoder, bytes[i], lengths[i], 0);");
+  	benchC.addStatement("failures += (type->decode(&copies[i], decoder, decoder_cursor) < 0);");
+  	benchC.addStatement("mal_decoder_cursor_destroy(decoder, decoder_cursor);");
+  	benchC.closeBlock();
+  	benchC.addStatement("decode_ns += bench_now() - start;");
+  	benchC.addStatement("decode_allocations += bench_allocations - allocations;");
+  	benchC.addStatement("allocations = bench_allocations;");
+  	benchC.addStatement("start = bench_now();");
+  	benchC.addStatement("for (int i = 0; i < BENCH_POOL_SIZE; i++)", 1);
+  	benchC.addStatement("type->destroy(&copies[i]);", -1);
+  	benchC.addStatement("destroy_ns += bench_now() - start;");
+  	benchC.addStatement("destroy_allocations += bench_allocations - allocations;");
+  	benchC.closeBlock();
+  	benchC.addStatement("bench_report(type->name, \"decode\", ops, decode_ns, pool_bytes * rounds, decode_allocations, failures);");
+  	benchC.addStatement("bench_report(type->name, \"destroy\", ops, destroy_ns, pool_bytes * rounds, destroy_allocations, 0);");
+
+  	// release the pool
+  	benchC.addStatement("for (int i = 0; i < BENCH_POOL_SIZE; i++)");
+  	benchC.openBlock();
+  	benchC.addStatement("type->destroy(&values[i]);");
+  	benchC.addStatement("free(bytes[i]);");
+  	benchC.closeBlock();
+  	benchC.addStatement("mal_encoder_cursor_destroy(encoder, cursor);");
+  	benchC.closeFunctionBody();
+  }
+
   private void addInitInteractionFunction(OperationContext opContext, String opStage, List<TypeInfo> parameters) throws IOException
   {
   	OpStageContext opStageCtxt = new OpStageContext(opContext, opStage, true, parameters);
   	addInteractionFunction(opStageCtxt);
   	addInteractionGenericFunction(opStageCtxt);
+  	addInteractionTypedFunction(opStageCtxt);
+  	if (sendContexts)
+  	{
+  		addInteractionSendContext(opStageCtxt);
+  	}
   }
 
   private void addResultInteractionFunctions(OperationContext opContext, String opStage, List<TypeInfo> parameters) throws IOException
@@ -2873,6 +7576,11 @@ public class GeneratorC extends GeneratorBase
   	OpStageContext opStageCtxt = new OpStageContext(opContext, opStage, false, parameters);
   	addInteractionFunction(opStageCtxt);
   	addInteractionGenericFunction(opStageCtxt);
+  	addInteractionTypedFunction(opStageCtxt);
+  	if (sendContexts)
+  	{
+  		addInteractionSendContext(opStageCtxt);
+  	}
   }
   
   private void addInteractionFunction(OpStageContext opStageCtxt) throws IOException
@@ -2881,7 +7589,6 @@ public class GeneratorC extends GeneratorBase
   	CFileWriter areaH = opStageCtxt.opContext.serviceContext.areaContext.areaHContent;
   	CFileWriter areaC = opStageCtxt.opContext.serviceContext.areaContext.areaC;
   	areaC.addNewLine();
-  	StringBuilder buf;
   	
   	// int <area>_<service>_<operation>_<first stage>(mal_endpoint_t *endpoint, mal_message_t *message, 
 		// init -> mal_uri_t *provider_uri
@@ -2906,8 +7613,9 @@ public class GeneratorC extends GeneratorBase
   	// result -> mal_message_t *result_message, bool is_error_message
   	// ) {
     //	int rc = 0;
-  	//	mal_message_init([init|result]_message, <AREA>_AREA_NUMBER, <AREA>_AREA_VERSION, <AREA>_<SERVICE>_SERVICE_NUMBER,
-    //		<AREA>_<SERVICE>_<OPERATION>_OPERATION_NUMBER, MAL_INTERACTIONTYPE_<IP>, MAL_IP_STAGE_<STAGE>);
+  	//	static const <area>_message_header_t header = { <AREA>_AREA_NUMBER, <AREA>_AREA_VERSION, <AREA>_<SERVICE>_SERVICE_NUMBER,
+    //		<AREA>_<SERVICE>_<OPERATION>_OPERATION_NUMBER, MAL_INTERACTIONTYPE_<IP>, MAL_IP_STAGE_<STAGE> };
+  	//	<area>_message_init_from_header([init|result]_message, &header);
   	// init ->		rc = mal_endpoint_init_operation(endpoint, init_message, true);
   	// result ->	rc = mal_endpoint_return_operation(endpoint, init_message, result_message, is_error_message);
     //	return rc;
@@ -2926,38 +7634,31 @@ public class GeneratorC extends GeneratorBase
   	}
   	areaC.openFunctionBody();
   	areaC.addStatement("int rc = 0;");
-  	String areaNameU = opStageCtxt.opContext.serviceContext.areaContext.areaNameL.toUpperCase();
-  	String serviceNameU = opStageCtxt.opContext.serviceContext.serviceNameL.toUpperCase();
-    buf = new StringBuilder();
-    buf.append("mal_message_init(" + (opStageCtxt.isInit ? "init" : "result") + "_message, ");
-    buf.append(areaNameU).append("_AREA_NUMBER, ");
-    buf.append(areaNameU).append("_AREA_VERSION, ");
-    buf.append(areaNameU).append("_").append(serviceNameU).append("_SERVICE_NUMBER, ");
-    buf.append(opStageCtxt.opContext.qfOpNameL.toUpperCase()).append("_OPERATION_NUMBER, ");
-    buf.append("MAL_INTERACTIONTYPE_");
+  	addStageStatsStart(opStageCtxt, areaC);
+  	addStageTraceStart(opStageCtxt, areaC, "init_message");
+    String interactionType;
     switch (opStageCtxt.opContext.operation.getPattern())
     {
     case SEND_OP:
-    	buf.append("SEND");
+    	interactionType = "SEND";
     	break;
     case SUBMIT_OP:
-    	buf.append("SUBMIT");
+    	interactionType = "SUBMIT";
     	break;
     case REQUEST_OP:
-    	buf.append("REQUEST");
+    	interactionType = "REQUEST";
     	break;
     case INVOKE_OP:
-    	buf.append("INVOKE");
+    	interactionType = "INVOKE";
     	break;
     case PROGRESS_OP:
-    	buf.append("PROGRESS");
+    	interactionType = "PROGRESS";
     	break;
     	default:
     		throw new IllegalStateException("unexpected IP for operation " + opStageCtxt.opContext.qfOpNameL);
     }
-    buf.append(", MAL_IP_STAGE_").append(opStageCtxt.opStage.toUpperCase());
-    buf.append(");");
-    areaC.addStatement(buf.toString());
+    addMessageInitFromHeader(opStageCtxt, (opStageCtxt.isInit ? "init" : "result") + "_message", interactionType, opStageCtxt.opStage.toUpperCase());
+    addStageTraceBeforeSend(opStageCtxt, areaC, "init_message");
     if (opStageCtxt.isInit)
     {
     	areaC.addStatement("rc = mal_endpoint_init_operation(endpoint, init_message, provider_uri, true);");
@@ -2966,6 +7667,8 @@ public class GeneratorC extends GeneratorBase
     {
     	areaC.addStatement("rc = mal_endpoint_return_operation(endpoint, init_message, result_message, is_error_message);");
     }
+    addStageStatsRecord(opStageCtxt, areaC);
+    addStageTraceEnd(opStageCtxt, areaC);
     areaC.addStatement("return rc;");
   	areaC.closeFunctionBody();
   	
@@ -2990,7 +7693,7 @@ public class GeneratorC extends GeneratorBase
     		{
     			paramDetails.isLast = true;
     		}
-    		if (isAbstract(paramType))
+    		if (getTypeDetails(paramType).isAbstract)
     		{
     			paramDetails.isAbstract = true;
     			// check for abstract Attribute type
@@ -3028,9 +7731,287 @@ public class GeneratorC extends GeneratorBase
     			}
     		}
     	
+    		opStageCtxt.paramDetailsList.add(paramDetails);
     		paramIndex ++;
     	}
     }
+    addInteractionBodyFunctions(opStageCtxt);
+  }
+
+  /**
+   * Generate the <stage>_body_t structure holding all the parameters of an operation stage,
+   * and the functions decoding, encoding and releasing all of them in a single call.
+   */
+  private void addInteractionBodyFunctions(OpStageContext opStageCtxt) throws IOException
+  {
+  	List<ParameterDetails> paramDetailsList = opStageCtxt.paramDetailsList;
+  	if (paramDetailsList.isEmpty())
+  	{
+  		return;
+  	}
+  	CFileWriter areaH = opStageCtxt.opContext.serviceContext.areaContext.areaHContent;
+  	CFileWriter areaC = opStageCtxt.opContext.serviceContext.areaContext.areaC;
+  	String bodyType = opStageCtxt.qfOpStageNameL + "_body_t";
+
+  	// typedef struct _<qfop>_<stage>_body_t <qfop>_<stage>_body_t;
+  	// struct _<qfop>_<stage>_body_t {
+  	//	[bool <f_><param>_is_present;]
+  	//	[unsigned char <f_><param>_attribute_tag;]
+  	//	<param type> <f_><param>;
+  	// };
+  	areaH.addNewLine();
+  	areaH.addTypedefStruct("_" + bodyType, bodyType);
+  	areaH.openStruct("_" + bodyType);
+  	for (ParameterDetails paramDetails : paramDetailsList)
+  	{
+  		String member = getInteractionBodyMemberName(paramDetails);
+  		if (paramDetails.isAbstractAttribute && !paramDetails.isList)
+  		{
+  			areaH.addStructField("bool", member + "_is_present");
+  			areaH.addStructField("unsigned char", member + "_attribute_tag");
+  			areaH.addStructField("union mal_attribute_t", member);
+  		}
+  		else if (paramDetails.isAbstract)
+  		{
+  			areaH.addStructField("mal_element_holder_t", member);
+  		}
+  		else
+  		{
+  			if (paramDetails.isPresenceFlag)
+  			{
+  				areaH.addStructField("bool", member + "_is_present");
+  			}
+  			areaH.addStructField(paramDetails.paramType, member);
+  		}
+  	}
+  	areaH.closeStruct();
+
+  	// int <qfop>_<stage>_add_body_encoding_length(
+  	//	mal_encoder_t *encoder, <qfop>_<stage>_body_t *body, void *cursor);
+  	String funcName = opStageCtxt.qfOpStageNameL + "_add_body_encoding_length";
+  	areaH.openFunctionPrototype("int", funcName, 3);
+  	areaH.addFunctionParameter("mal_encoder_t *", "encoder", false);
+  	areaH.addFunctionParameter(bodyType + " *", "body", false);
+  	areaH.addFunctionParameter("void *", "cursor", true);
+  	areaH.closeFunctionPrototype();
+
+  	// int <qfop>_<stage>_add_body_encoding_length(
+  	//	mal_encoder_t *encoder, <qfop>_<stage>_body_t *body, void *cursor) {
+  	//	int rc = 0;
+  	//	rc = <qfop>_<stage>_add_encoding_length_<index>(encoder, <body fields>, cursor);
+  	//	if (rc < 0)
+  	//		return rc;
+  	//	...
+  	//	return rc;
+  	// }
+  	areaC.addNewLine();
+  	areaC.openFunction("int", funcName, 3);
+  	areaC.addFunctionParameter("mal_encoder_t *", "encoder", false);
+  	areaC.addFunctionParameter(bodyType + " *", "body", false);
+  	areaC.addFunctionParameter("void *", "cursor", true);
+  	areaC.openFunctionBody();
+  	areaC.addStatement("int rc = 0;");
+  	for (ParameterDetails paramDetails : paramDetailsList)
+  	{
+  		String encodeFuncNameL = getInteractionParamEncodingFunctionName(opStageCtxt, paramDetails, "_add_encoding_length");
+  		areaC.addStatement("rc = " + encodeFuncNameL + "(encoder, " + getInteractionParamEncodingArgs(paramDetails, getInteractionBodyMemberRef(paramDetails)) + ", cursor);");
+  		areaC.addStatement("if (rc < 0)", 1);
+  		areaC.addStatement("return rc;", -1);
+  	}
+  	areaC.addStatement("return rc;");
+  	areaC.closeFunctionBody();
+
+  	// int <qfop>_<stage>_encode_body(
+  	//	void *cursor, mal_encoder_t *encoder, <qfop>_<stage>_body_t *body);
+  	funcName = opStageCtxt.qfOpStageNameL + "_encode_body";
+  	areaH.openFunctionPrototype("int", funcName, 3);
+  	areaH.addFunctionParameter("void *", "cursor", false);
+  	areaH.addFunctionParameter("mal_encoder_t *", "encoder", false);
+  	areaH.addFunctionParameter(bodyType + " *", "body", true);
+  	areaH.closeFunctionPrototype();
+
+  	// int <qfop>_<stage>_encode_body(
+  	//	void *cursor, mal_encoder_t *encoder, <qfop>_<stage>_body_t *body) {
+  	//	int rc = 0;
+  	//	rc = <qfop>_<stage>_encode_<index>(cursor, encoder, <body fields>);
+  	//	if (rc < 0)
+  	//		return rc;
+  	//	...
+  	//	return rc;
+  	// }
+  	areaC.addNewLine();
+  	openTracedFunction(areaC, opStageCtxt.opContext.serviceContext.areaContext, funcName, 3);
+  	areaC.addFunctionParameter("void *", "cursor", false);
+  	areaC.addFunctionParameter("mal_encoder_t *", "encoder", false);
+  	areaC.addFunctionParameter(bodyType + " *", "body", true);
+  	areaC.openFunctionBody();
+  	areaC.addStatement("int rc = 0;");
+  	for (ParameterDetails paramDetails : paramDetailsList)
+  	{
+  		String encodeFuncNameL = getInteractionParamEncodingFunctionName(opStageCtxt, paramDetails, "_encode");
+  		areaC.addStatement("rc = " + encodeFuncNameL + "(cursor, encoder, " + getInteractionParamEncodingArgs(paramDetails, getInteractionBodyMemberRef(paramDetails)) + ");");
+  		areaC.addStatement("if (rc < 0)", 1);
+  		areaC.addStatement("return rc;", -1);
+  	}
+  	areaC.addStatement("return rc;");
+  	areaC.closeFunctionBody();
+  	addTraceWrapperFunction(opStageCtxt, funcName, "encode_body", "mal_encoder_t *", "encoder", bodyType);
+
+  	// int <qfop>_<stage>_decode_body(
+  	//	void *cursor, mal_decoder_t *decoder, <qfop>_<stage>_body_t *body);
+  	funcName = opStageCtxt.qfOpStageNameL + "_decode_body";
+  	areaH.openFunctionPrototype("int", funcName, 3);
+  	areaH.addFunctionParameter("void *", "cursor", false);
+  	areaH.addFunctionParameter("mal_decoder_t *", "decoder", false);
+  	areaH.addFunctionParameter(bodyType + " *", "body", true);
+  	areaH.closeFunctionPrototype();
+
+  	// the body is expected to be empty, either zeroed or released by <qfop>_<stage>_body_destroy
+  	// int <qfop>_<stage>_decode_body(
+  	//	void *cursor, mal_decoder_t *decoder, <qfop>_<stage>_body_t *body) {
+  	//	int rc = 0;
+  	//	rc = <qfop>_<stage>_decode_<index>(cursor, decoder, <body fields addresses>);
+  	//	if (rc < 0) {
+  	//		<qfop>_<stage>_body_destroy(body);
+  	//		return rc;
+  	//	}
+  	//	...
+  	//	return rc;
+  	// }
+  	areaC.addNewLine();
+  	openTracedFunction(areaC, opStageCtxt.opContext.serviceContext.areaContext, funcName, 3);
+  	areaC.addFunctionParameter("void *", "cursor", false);
+  	areaC.addFunctionParameter("mal_decoder_t *", "decoder", false);
+  	areaC.addFunctionParameter(bodyType + " *", "body", true);
+  	areaC.openFunctionBody();
+  	areaC.addStatement("int rc = 0;");
+  	for (ParameterDetails paramDetails : paramDetailsList)
+  	{
+  		String member = "&body->" + getInteractionBodyMemberName(paramDetails);
+  		String args;
+  		if (paramDetails.isAbstractAttribute && !paramDetails.isList)
+  		{
+  			args = member + "_is_present, " + member + "_attribute_tag, " + member;
+  		}
+  		else if (paramDetails.isPresenceFlag && !paramDetails.isAbstract)
+  		{
+  			args = member + "_is_present, " + member;
+  		}
+  		else
+  		{
+  			args = member;
+  		}
+  		areaC.addStatement("rc = " + opStageCtxt.qfOpStageNameL + "_decode_" + paramDetails.paramIndex + "(cursor, decoder, " + args + ");");
+  		areaC.addStatement("if (rc < 0)");
+  		areaC.openBlock();
+  		areaC.addStatement(opStageCtxt.qfOpStageNameL + "_body_destroy(body);");
+  		areaC.addStatement("return rc;");
+  		areaC.closeBlock();
+  	}
+  	areaC.addStatement("return rc;");
+  	areaC.closeFunctionBody();
+  	addTraceWrapperFunction(opStageCtxt, funcName, "decode_body", "mal_decoder_t *", "decoder", bodyType);
+
+  	// void <qfop>_<stage>_body_destroy(<qfop>_<stage>_body_t *body);
+  	funcName = opStageCtxt.qfOpStageNameL + "_body_destroy";
+  	areaH.openFunctionPrototype("void", funcName, 1);
+  	areaH.addFunctionParameter(bodyType + " *", "body", true);
+  	areaH.closeFunctionPrototype();
+
+  	// releases the parameters held by the body, which is left zeroed and may be reused
+  	// void <qfop>_<stage>_body_destroy(<qfop>_<stage>_body_t *body) {
+  	//	if (body == NULL)
+  	//		return;
+  	//	if (body-><f_><param> != NULL)
+  	//		<param type>_destroy(&body-><f_><param>);
+  	//	<area>_destroy_mal_element(&body-><f_><abstract param>);
+  	//	...
+  	//	memset(body, 0, sizeof(<qfop>_<stage>_body_t));
+  	// }
+  	areaC.addNewLine();
+  	areaC.openFunction("void", funcName, 1);
+  	areaC.addFunctionParameter(bodyType + " *", "body", true);
+  	areaC.openFunctionBody();
+  	areaC.addStatement("if (body == NULL)", 1);
+  	areaC.addStatement("return;", -1);
+  	for (ParameterDetails paramDetails : paramDetailsList)
+  	{
+  		String member = "body->" + getInteractionBodyMemberName(paramDetails);
+  		if (paramDetails.isAbstractAttribute && !paramDetails.isList)
+  		{
+  			areaC.addStatement("if (" + member + "_is_present)", 1);
+  			areaC.addStatement("mal_attribute_destroy(&" + member + ", " + member + "_attribute_tag);", -1);
+  		}
+  		else if (paramDetails.isAbstract)
+  		{
+  			// the holder is held by value, its destroy function checks the presence flag
+  			areaC.addStatement(opStageCtxt.opContext.serviceContext.areaContext.areaNameL + "_destroy_mal_element(&" + member + ");");
+  		}
+  		else if (paramDetails.isList)
+  		{
+  			areaC.addStatement("if (" + member + " != NULL)", 1);
+  			areaC.addStatement(paramDetails.qfTypeNameL + "_list_destroy(&" + member + ");", -1);
+  		}
+  		else if (paramDetails.isComposite || (paramDetails.isAttribute && !paramDetails.isPresenceFlag))
+  		{
+  			areaC.addStatement("if (" + member + " != NULL)", 1);
+  			areaC.addStatement(paramDetails.qfTypeNameL + "_destroy(&" + member + ");", -1);
+  		}
+  		// enumerations and attributes held by value have nothing to release
+  	}
+  	areaC.addStatement("memset(body, 0, sizeof(" + bodyType + "));");
+  	areaC.closeFunctionBody();
+
+  	if (generateBenchmarks)
+  	{
+  		addBenchOpStage(opStageCtxt);
+  	}
+  }
+
+  /**
+   * Name of the field holding a parameter in the <stage>_body_t structure.
+   */
+  private String getInteractionBodyMemberName(ParameterDetails paramDetails)
+  {
+  	if (paramDetails.paramName == null)
+  	{
+  		return fieldPrefix + paramDetails.paramIndex;
+  	}
+  	return fieldPrefix + paramDetails.paramName.toLowerCase();
+  }
+
+  /**
+   * Expression designating a parameter in the body variable, as expected by
+   * its encoding functions: abstract parameters are held by value in the body
+   * and passed by address.
+   */
+  private String getInteractionBodyMemberRef(ParameterDetails paramDetails)
+  {
+  	String member = "body->" + getInteractionBodyMemberName(paramDetails);
+  	if (paramDetails.isAbstract && !(paramDetails.isAbstractAttribute && !paramDetails.isList))
+  	{
+  		return "&" + member;
+  	}
+  	return member;
+  }
+
+  /**
+   * Arguments passing a parameter held in the varName variable (with its optional
+   * _is_present and _attribute_tag companions) to its encoding functions.
+   * An abstract parameter is expected as a mal_element_holder_t pointer.
+   */
+  private String getInteractionParamEncodingArgs(ParameterDetails paramDetails, String varName)
+  {
+  	String member = varName;
+		if (paramDetails.isAbstractAttribute && !paramDetails.isList)
+		{
+			return member + "_is_present, " + member + "_attribute_tag, " + member;
+		}
+		if (paramDetails.isPresenceFlag && !paramDetails.isAbstract)
+		{
+			return member + "_is_present, " + member;
+		}
+		return member;
   }
 
   /**
@@ -3159,6 +8140,390 @@ public class GeneratorC extends GeneratorBase
 	  areaC.closeFunctionBody();
   }
 
+  /**
+   * Generate "_full_typed" function to allow operation initialisation from single call,
+   * the parameters being passed with their concrete C type rather than in a mal_element_holder_t.
+   * Only the abstract parameters keep the mal_element_holder_t type.
+   */
+  private void addInteractionTypedFunction(OpStageContext opStageCtxt) throws IOException
+  {
+	  // declare the function in the <area>.h file and define it in the <area>.c file
+	  final AreaContext areaContext = opStageCtxt.opContext.serviceContext.areaContext;
+	  CFileWriter areaH = areaContext.areaHContent;
+	  CFileWriter areaC = areaContext.areaC;
+	  areaC.addNewLine();
+
+	  final String functionName = opStageCtxt.qfOpStageNameL + "_full_typed";
+	  final List<ParameterDetails> paramDetailsList = opStageCtxt.paramDetailsList;
+
+	  List<String[]> params = new ArrayList<String[]>();
+	  params.add(new String[]{ "mal_encoder_t *", "encoder" });
+	  params.add(new String[]{ "mal_endpoint_t *", "endpoint" });
+	  if (opStageCtxt.isInit)
+	  {
+		  params.add(new String[]{ "mal_uri_t *", "provider_uri" });
+	  }
+	  else
+	  {
+		  params.add(new String[]{ "mal_message_t *", "result_message" });
+		  params.add(new String[]{ "bool", "is_error_message" });
+	  }
+	  // for creating message
+	  params.add(new String[]{ "mal_blob_t *", "authentication_id" });
+	  params.add(new String[]{ "mal_qoslevel_t ", "qoslevel" });
+	  params.add(new String[]{ "mal_uinteger_t ", "priority" });
+	  params.add(new String[]{ "mal_identifier_list_t *", "domain" });
+	  params.add(new String[]{ "mal_identifier_t *", "network_zone" });
+	  params.add(new String[]{ "mal_sessiontype_t ", "session" });
+	  params.add(new String[]{ "mal_identifier_t *", "session_name" });
+	  // Effective parameters
+	  addInteractionTypedParameters(params, paramDetailsList);
+	  final int size = params.size();
+
+	  // int <area>_<service>_<operation>_<stage>_full_typed(mal_encoder_t *encoder, mal_endpoint_t *endpoint,
+	  // init -> mal_uri_t *provider_uri
+	  // result-> mal_message_t *result_message, bool is_error_message
+	  // <message header fields>, <typed parameters>);
+	  areaH.openFunctionPrototype("int", functionName, size);
+	  areaH.addFunctionParameters(params.toArray(new String[size][]));
+	  areaH.closeFunctionPrototype();
+
+	  // int <area>_<service>_<operation>_<stage>_full_typed(mal_encoder_t *encoder, mal_endpoint_t *endpoint,
+	  // init -> mal_uri_t *provider_uri
+	  // result-> mal_message_t *result_message, bool is_error_message
+	  // <message header fields>, <typed parameters>) {
+	  //	int rc = 0;
+	  //	void *cursor = mal_encoder_new_cursor(encoder);
+	  //	if (cursor == NULL)
+	  //		return -1;
+	  //	rc = <qfop>_<stage>_add_encoding_length_<index>(encoder, [arg<index>_is_present, ]arg<index>, cursor);
+	  //	if (rc < 0) {
+	  //		mal_encoder_cursor_destroy(encoder, cursor);
+	  //		return rc;
+	  //	}
+	  //	mal_message_t *message = mal_message_new(...);
+	  //	if (message == NULL) {
+	  //		mal_encoder_cursor_destroy(encoder, cursor);
+	  //		return -1;
+	  //	}
+	  //	mal_encoder_cursor_init(...);
+	  //	rc = <qfop>_<stage>_encode_<index>(cursor, encoder, [arg<index>_is_present, ]arg<index>);
+	  //	if (rc < 0) {
+	  //		mal_encoder_cursor_destroy(encoder, cursor);
+	  //		mal_message_destroy(&message, mal_endpoint_get_mal_ctx(endpoint));
+	  //		return rc;
+	  //	}
+	  //	mal_encoder_cursor_assert(encoder, cursor);
+	  //	mal_encoder_cursor_destroy(encoder, cursor);
+	  //	rc = <qfop>_<stage>(endpoint, message, ...);
+	  //	return rc;
+	  // }
+	  areaC.openFunction("int", functionName, size);
+	  areaC.addFunctionParameters(params.toArray(new String[size][]));
+	  areaC.openFunctionBody();
+
+	  areaC.addStatement("int rc = 0;");
+
+	  areaC.addStatement("void *cursor = mal_encoder_new_cursor(encoder);");
+	  areaC.addStatement("if (cursor == NULL)", 1);
+	  areaC.addStatement("return -1;", -1);
+
+	  final String cursorDestroy = "mal_encoder_cursor_destroy(encoder, cursor);";
+	  areaC.addSingleLineComment("Length");
+	  addInteractionTypedEncodingLength(areaC, opStageCtxt, "encoder", "cursor", cursorDestroy);
+
+	  areaC.addStatement("mal_message_t *message = mal_message_new(authentication_id, "
+			  + "qoslevel, priority, domain, "
+			  + "network_zone, session, session_name, "
+			  + "mal_encoder_cursor_get_length(encoder, cursor));");
+	  areaC.addStatement("if (message == NULL)");
+	  areaC.openBlock();
+	  areaC.addStatement(cursorDestroy);
+	  areaC.addStatement("return -1;");
+	  areaC.closeBlock();
+
+	  areaC.addStatement("mal_encoder_cursor_init("
+			  + "encoder, cursor, "
+			  + "mal_message_get_body(message), "
+			  + "mal_encoder_cursor_get_length(encoder, cursor), "
+			  + "mal_message_get_body_offset(message));");
+
+	  areaC.addSingleLineComment("Encoding");
+	  addInteractionTypedEncodingEncode(areaC, opStageCtxt, "encoder", "cursor",
+			  cursorDestroy, "mal_message_destroy(&message, mal_endpoint_get_mal_ctx(endpoint));");
+
+	  areaC.addSingleLineComment("Clean");
+	  areaC.addStatement("mal_encoder_cursor_destroy(encoder, cursor);");
+
+	  if (opStageCtxt.isInit)
+	  {
+		  areaC.addStatement("rc = " + opStageCtxt.qfOpStageNameL + "(endpoint, message, provider_uri);");
+	  }
+	  else
+	  {
+		  areaC.addStatement("rc = " + opStageCtxt.qfOpStageNameL + "(endpoint, message, result_message, is_error_message);");
+	  }
+
+	  areaC.addStatement("return rc;");
+	  areaC.closeFunctionBody();
+  }
+
+  /**
+   * Add the typed parameters of an operation stage to a function parameters list.
+   */
+  private void addInteractionTypedParameters(List<String[]> params, List<ParameterDetails> paramDetailsList)
+  {
+	  //	[bool arg<index>_is_present,]
+	  //	[unsigned char arg<index>_attribute_tag,]
+	  //	<param type> arg<index>
+	  for (ParameterDetails paramDetails : paramDetailsList)
+	  {
+		  final String argName = "arg" + paramDetails.paramIndex;
+		  if (paramDetails.isAbstractAttribute && !paramDetails.isList)
+		  {
+			  params.add(new String[]{ "bool", argName + "_is_present" });
+			  params.add(new String[]{ "unsigned char", argName + "_attribute_tag" });
+			  params.add(new String[]{ "union mal_attribute_t", argName });
+		  }
+		  else if (paramDetails.isAbstract)
+		  {
+			  params.add(new String[]{ "mal_element_holder_t *", argName });
+		  }
+		  else
+		  {
+			  if (paramDetails.isPresenceFlag)
+			  {
+				  params.add(new String[]{ "bool", argName + "_is_present" });
+			  }
+			  params.add(new String[]{ paramDetails.paramType, argName });
+		  }
+	  }
+  }
+
+  /**
+   * Add the encoding length computation of the typed parameters of an operation stage.
+   * The cleanup statements release the resources held by the function on error.
+   */
+  private void addInteractionTypedEncodingLength(CFileWriter code, OpStageContext opStageCtxt, String encoder, String cursor, String... cleanup) throws IOException
+  {
+	  //	rc = <qfop>_<stage>_add_encoding_length_<index>(<encoder>, [arg<index>_is_present, ]arg<index>, <cursor>);
+	  //	if (rc < 0) {
+	  //		<cleanup>
+	  //		return rc;
+	  //	}
+	  for (ParameterDetails paramDetails : opStageCtxt.paramDetailsList)
+	  {
+		  String encodeFuncNameL = getInteractionParamEncodingFunctionName(opStageCtxt, paramDetails, "_add_encoding_length");
+		  code.addStatement("rc = " + encodeFuncNameL + "(" + encoder + ", " + getInteractionParamEncodingArgs(paramDetails, "arg" + paramDetails.paramIndex) + ", " + cursor + ");");
+		  addRcCheck(code, cleanup);
+	  }
+  }
+
+  /**
+   * Add the encoding of the typed parameters of an operation stage.
+   * The cleanup statements release the resources held by the function on error.
+   */
+  private void addInteractionTypedEncodingEncode(CFileWriter code, OpStageContext opStageCtxt, String encoder, String cursor, String... cleanup) throws IOException
+  {
+	  //	rc = <qfop>_<stage>_encode_<index>(<cursor>, <encoder>, [arg<index>_is_present, ]arg<index>);
+	  //	if (rc < 0) {
+	  //		<cleanup>
+	  //		return rc;
+	  //	}
+	  //	mal_encoder_cursor_assert(<encoder>, <cursor>);
+	  for (ParameterDetails paramDetails : opStageCtxt.paramDetailsList)
+	  {
+		  String encodeFuncNameL = getInteractionParamEncodingFunctionName(opStageCtxt, paramDetails, "_encode");
+		  code.addStatement("rc = " + encodeFuncNameL + "(" + cursor + ", " + encoder + ", " + getInteractionParamEncodingArgs(paramDetails, "arg" + paramDetails.paramIndex) + ");");
+		  addRcCheck(code, cleanup);
+		  code.addStatement("mal_encoder_cursor_assert(" + encoder + ", " + cursor + ");");
+	  }
+  }
+
+  /**
+   * Generate a reusable send context for an operation stage.
+   * The context creates the encoder cursor once and keeps the message header fields,
+   * so that repeated sends only allocate the message itself.
+   * The header fields are borrowed, they must outlive the context.
+   */
+  private void addInteractionSendContext(OpStageContext opStageCtxt) throws IOException
+  {
+	  final AreaContext areaContext = opStageCtxt.opContext.serviceContext.areaContext;
+	  CFileWriter areaH = areaContext.areaHContent;
+	  CFileWriter areaC = areaContext.areaC;
+	  final String ctxType = opStageCtxt.qfOpStageNameL + "_send_ctx_t";
+	  final String[][] headerFields = MESSAGE_HEADER_PARAMS;
+
+	  // typedef struct _<qfop>_<stage>_send_ctx_t <qfop>_<stage>_send_ctx_t;
+	  areaH.addNewLine();
+	  areaH.addTypedefStruct("_" + ctxType, ctxType);
+
+	  // struct _<qfop>_<stage>_send_ctx_t {
+	  //	mal_encoder_t *encoder;
+	  //	mal_endpoint_t *endpoint;
+	  //	void *cursor;
+	  //	<header fields>
+	  // };
+	  areaC.addNewLine();
+	  areaC.openStruct("_" + ctxType);
+	  areaC.addStructField("mal_encoder_t *", "encoder");
+	  areaC.addStructField("mal_endpoint_t *", "endpoint");
+	  areaC.addStructField("void *", "cursor");
+	  for (String[] field : headerFields)
+	  {
+		  areaC.addStructField(field[0].trim(), field[1]);
+	  }
+	  areaC.closeStruct();
+
+	  // <qfop>_<stage>_send_ctx_t *<qfop>_<stage>_send_ctx_new(
+	  //	mal_encoder_t *encoder, mal_endpoint_t *endpoint, <header fields>);
+	  String funcName = opStageCtxt.qfOpStageNameL + "_send_ctx_new";
+	  List<String[]> params = new ArrayList<String[]>();
+	  params.add(new String[]{ "mal_encoder_t *", "encoder" });
+	  params.add(new String[]{ "mal_endpoint_t *", "endpoint" });
+	  params.addAll(Arrays.asList(headerFields));
+	  int size = params.size();
+	  areaH.openFunctionPrototype(ctxType + " *", funcName, size);
+	  areaH.addFunctionParameters(params.toArray(new String[size][]));
+	  areaH.closeFunctionPrototype();
+
+	  // <qfop>_<stage>_send_ctx_t *<qfop>_<stage>_send_ctx_new(
+	  //	mal_encoder_t *encoder, mal_endpoint_t *endpoint, <header fields>) {
+	  //	<qfop>_<stage>_send_ctx_t *self = (<qfop>_<stage>_send_ctx_t *) calloc(1, sizeof(<qfop>_<stage>_send_ctx_t));
+	  //	if (!self)
+	  //		return NULL;
+	  //	self->cursor = mal_encoder_new_cursor(encoder);
+	  //	if (!self->cursor) {
+	  //		free(self);
+	  //		return NULL;
+	  //	}
+	  //	self->encoder = encoder;
+	  //	self->endpoint = endpoint;
+	  //	self-><header field> = <header field>;
+	  //	return self;
+	  // }
+	  areaC.addNewLine();
+	  areaC.openFunction(ctxType + " *", funcName, size);
+	  areaC.addFunctionParameters(params.toArray(new String[size][]));
+	  areaC.openFunctionBody();
+	  areaC.addStatement(ctxType + " *self = (" + ctxType + " *) calloc(1, sizeof(" + ctxType + "));");
+	  areaC.addStatement("if (!self)", 1);
+	  areaC.addStatement("return NULL;", -1);
+	  areaC.addStatement("self->cursor = mal_encoder_new_cursor(encoder);");
+	  areaC.addStatement("if (!self->cursor)");
+	  areaC.openBlock();
+	  areaC.addStatement("free(self);");
+	  areaC.addStatement("return NULL;");
+	  areaC.closeBlock();
+	  areaC.addStatement("self->encoder = encoder;");
+	  areaC.addStatement("self->endpoint = endpoint;");
+	  for (String[] field : headerFields)
+	  {
+		  areaC.addStatement("self->" + field[1] + " = " + field[1] + ";");
+	  }
+	  areaC.addStatement("return self;");
+	  areaC.closeFunctionBody();
+
+	  // void <qfop>_<stage>_send_ctx_destroy(<qfop>_<stage>_send_ctx_t **self_p);
+	  funcName = opStageCtxt.qfOpStageNameL + "_send_ctx_destroy";
+	  areaH.openFunctionPrototype("void", funcName, 1);
+	  areaH.addFunctionParameter(ctxType + " **", "self_p", true);
+	  areaH.closeFunctionPrototype();
+
+	  // void <qfop>_<stage>_send_ctx_destroy(<qfop>_<stage>_send_ctx_t **self_p) {
+	  //	if (self_p && *self_p) {
+	  //		mal_encoder_cursor_destroy((*self_p)->encoder, (*self_p)->cursor);
+	  //		free(*self_p);
+	  //		*self_p = NULL;
+	  //	}
+	  // }
+	  areaC.addNewLine();
+	  areaC.openFunction("void", funcName, 1);
+	  areaC.addFunctionParameter(ctxType + " **", "self_p", true);
+	  areaC.openFunctionBody();
+	  areaC.addStatement("if (self_p && *self_p)");
+	  areaC.openBlock();
+	  areaC.addStatement("mal_encoder_cursor_destroy((*self_p)->encoder, (*self_p)->cursor);");
+	  areaC.addStatement("free(*self_p);");
+	  areaC.addStatement("*self_p = NULL;");
+	  areaC.closeBlock();
+	  areaC.closeFunctionBody();
+
+	  // int <qfop>_<stage>_send(<qfop>_<stage>_send_ctx_t *self,
+	  // init -> mal_uri_t *provider_uri
+	  // result -> mal_message_t *result_message, bool is_error_message
+	  // <typed parameters>);
+	  funcName = opStageCtxt.qfOpStageNameL + "_send";
+	  params = new ArrayList<String[]>();
+	  params.add(new String[]{ ctxType + " *", "self" });
+	  if (opStageCtxt.isInit)
+	  {
+		  params.add(new String[]{ "mal_uri_t *", "provider_uri" });
+	  }
+	  else
+	  {
+		  params.add(new String[]{ "mal_message_t *", "result_message" });
+		  params.add(new String[]{ "bool", "is_error_message" });
+	  }
+	  addInteractionTypedParameters(params, opStageCtxt.paramDetailsList);
+	  size = params.size();
+	  areaH.openFunctionPrototype("int", funcName, size);
+	  areaH.addFunctionParameters(params.toArray(new String[size][]));
+	  areaH.closeFunctionPrototype();
+
+	  // int <qfop>_<stage>_send(<qfop>_<stage>_send_ctx_t *self, ...) {
+	  //	int rc = 0;
+	  //	mal_encoder_cursor_init(self->encoder, self->cursor, NULL, 0, 0);
+	  //	<encoding length of the parameters>
+	  //	mal_message_t *message = mal_message_new(self->authentication_id, ..., mal_encoder_cursor_get_length(self->encoder, self->cursor));
+	  //	if (message == NULL)
+	  //		return -1;
+	  //	mal_encoder_cursor_init(self->encoder, self->cursor, mal_message_get_body(message), ...);
+	  //	<encoding of the parameters, releasing the message on error>
+	  //	rc = <qfop>_<stage>(self->endpoint, message, ...);
+	  //	return rc;
+	  // }
+	  areaC.addNewLine();
+	  areaC.openFunction("int", funcName, size);
+	  areaC.addFunctionParameters(params.toArray(new String[size][]));
+	  areaC.openFunctionBody();
+	  areaC.addStatement("int rc = 0;");
+	  areaC.addSingleLineComment("reset the cached cursor");
+	  areaC.addStatement("mal_encoder_cursor_init(self->encoder, self->cursor, NULL, 0, 0);");
+
+	  areaC.addSingleLineComment("Length");
+	  addInteractionTypedEncodingLength(areaC, opStageCtxt, "self->encoder", "self->cursor");
+
+	  areaC.addStatement("mal_message_t *message = mal_message_new(self->authentication_id, "
+			  + "self->qoslevel, self->priority, self->domain, "
+			  + "self->network_zone, self->session, self->session_name, "
+			  + "mal_encoder_cursor_get_length(self->encoder, self->cursor));");
+	  areaC.addStatement("if (message == NULL)", 1);
+	  areaC.addStatement("return -1;", -1);
+
+	  areaC.addStatement("mal_encoder_cursor_init("
+			  + "self->encoder, self->cursor, "
+			  + "mal_message_get_body(message), "
+			  + "mal_encoder_cursor_get_length(self->encoder, self->cursor), "
+			  + "mal_message_get_body_offset(message));");
+
+	  areaC.addSingleLineComment("Encoding");
+	  // the cursor belongs to the context and is reset by the next send
+	  addInteractionTypedEncodingEncode(areaC, opStageCtxt, "self->encoder", "self->cursor",
+			  "mal_message_destroy(&message, mal_endpoint_get_mal_ctx(self->endpoint));");
+
+	  if (opStageCtxt.isInit)
+	  {
+		  areaC.addStatement("rc = " + opStageCtxt.qfOpStageNameL + "(self->endpoint, message, provider_uri);");
+	  }
+	  else
+	  {
+		  areaC.addStatement("rc = " + opStageCtxt.qfOpStageNameL + "(self->endpoint, message, result_message, is_error_message);");
+	  }
+	  areaC.addStatement("return rc;");
+	  areaC.closeFunctionBody();
+  }
+
   /**
    * Generate "_full" function to allow register/deregister from single call.
    */
@@ -3276,7 +8641,8 @@ public class GeneratorC extends GeneratorBase
    * paramType refers to a concrete type.
    */
   private void fillInteractionParamDetails(ParameterDetails paramDetails, TypeReference paramType) throws IOException {
-		paramDetails.qfTypeNameL = getTypeFQN(paramType);
+		TypeDetails typeDetails = getTypeDetails(paramType);
+		paramDetails.qfTypeNameL = typeDetails.qfTypeNameL;
 		
 		if (paramType.isList())
 		{
@@ -3284,30 +8650,30 @@ public class GeneratorC extends GeneratorBase
 			//	<qualified type>_list_t * <field>;
 			paramDetails.paramType = paramDetails.qfTypeNameL + "_list_t *";
 		}
-		else if (isAttributeType(paramType))
+		else if (typeDetails.isAttribute)
 		{
 			paramDetails.isAttribute = true;
 			// fieldType is also <qfTypeNameL>_t, with an optional *
-			paramDetails.paramType = getAttributeDetails(paramType).getTargetType();
+			paramDetails.paramType = typeDetails.cType;
 			// if map type is not a pointer, declare the is_present field
 			if (! paramDetails.paramType.endsWith("*"))
 			{
 				paramDetails.isPresenceFlag = true;
 			}
 		}
-		else if (isEnum(paramType))
+		else if (typeDetails.isEnumeration)
 		{
 			// compCtxt.holdsEnumField = true;
 			paramDetails.isEnumeration = true;
 			//	<qualified type>_t <field>;
-			paramDetails.paramType = paramDetails.qfTypeNameL + "_t";
+			paramDetails.paramType = typeDetails.cType;
 			paramDetails.isPresenceFlag = true;
 		}
-		else if (isComposite(paramType))
+		else if (typeDetails.isComposite)
 		{
 			paramDetails.isComposite = true;
 			//	<qualified field type>_t <field>;
-			paramDetails.paramType = paramDetails.qfTypeNameL + "_t *";
+			paramDetails.paramType = typeDetails.cType;
 		}
 		else
 		{
@@ -3373,7 +8739,7 @@ public class GeneratorC extends GeneratorBase
 		paramDetails.isError = true;
 		paramDetails.paramName = null;
 		paramDetails.paramIndex = -1;
-		if (isAbstract(errorType))
+		if (getTypeDetails(errorType).isAbstract)
 		{
 			paramDetails.isAbstract = true;
 			// check for abstract Attribute type
@@ -4454,7 +9820,7 @@ public class GeneratorC extends GeneratorBase
     	}
     	else if (paramDetails.isList)
     	{
-    		addMalbinaryEncodingDecodeList(areaC, "*element_res", paramDetails.qfTypeNameL, false);
+    		addMalbinaryEncodingDecodeList(areaC, "*element_res", paramDetails.qfTypeNameL, false, isGeneratedType(paramDetails.type));
     	}
     	else if (paramDetails.isEnumeration)
     	{
@@ -4572,6 +9938,7 @@ public class GeneratorC extends GeneratorBase
     
   private void addGenericParamXcodingFunctions(AreaContext areaContext) throws IOException
   {
+  	addDestroyElementFunction(areaContext);
   	if (generateTransportMalbinary)
   	{
   		addMalbinaryEncodingLengthElementFunction(areaContext);
@@ -4585,9 +9952,7 @@ public class GeneratorC extends GeneratorBase
 	  //        rc = <area>_malbinary_add_mal_element_encoding_length(element, encoder, cursor);
 	  //        if (rc < 0)
 	  //          return rc;
-	  code.addStatement("rc = " + areaContext.areaNameL + "_" + transportMalbinary + "_add_mal_element_encoding_length(encoder, " + varName + ", cursor);");
-	  code.addStatement("if (rc < 0)", 1);
-	  code.addStatement("return rc;", -1);
+	  addCheckedStatement(code, ELEMENT_LENGTH, areaContext.areaNameL, varName);
   }
 
   private void addMalbinaryEncodingLengthElementFunction(AreaContext areaContext) throws IOException
@@ -4633,23 +9998,23 @@ public class GeneratorC extends GeneratorBase
 			}
 			// [else] if (element_holder->short_form == <AREA>_[<SERVICE>_]<TYPE>_SHORT_FORM) {
 			TypeReference ptype = key.getTypeReference(false);
-			String qfTypeNameL = getTypeFQN(ptype);
-			String qfTypeNameU = qfTypeNameL.toUpperCase();
+			TypeDetails typeDetails = typeIndex.get(key);
+			String qfTypeNameL = typeDetails.qfTypeNameL;
 
-			areaContext.areaC.addStatement((first ? "" : "else ") + "if (element_holder->short_form == " + qfTypeNameU + "_SHORT_FORM)");
+			areaContext.areaC.addStatement((first ? "" : "else ") + "if (element_holder->short_form == " + typeDetails.shortForm + ")");
 			areaContext.areaC.openBlock();
-			if (isAttributeType(ptype))
+			if (typeDetails.isAttribute)
 			{
 				String varType = ptype.getName().toLowerCase();
 				addMalbinaryEncodingLengthAttribute(areaContext.areaC, "element_holder->value." + varType + "_value", varType);
 			}
-			else if (isComposite(ptype))
+			else if (typeDetails.isComposite)
 			{
 				addMalbinaryEncodingLengthComposite(areaContext.areaC, "element_holder->value.composite_value", qfTypeNameL);
 			}
-			else if (isEnum(ptype))
+			else if (typeDetails.isEnumeration)
 			{
-				MalbinaryEnumSize enumMBSize = getEnumTypeMBSize(ptype);
+				MalbinaryEnumSize enumMBSize = typeDetails.enumMBSize;
 				addMalbinaryEncodingLengthEnumeration(areaContext.areaC, "element_holder->value.enumerated_value", enumMBSize);
 			}
 			else
@@ -4662,7 +10027,7 @@ public class GeneratorC extends GeneratorBase
 			// else if (element_holder->short_form == <AREA>_[<SERVICE>_]<TYPE>_LIST_SHORT_FORM) {
 			// 	<length element>
 			// }
-			areaContext.areaC.addStatement((first ? "" : "else ") + "if (element_holder->short_form == " + qfTypeNameU + "_LIST_SHORT_FORM)");
+			areaContext.areaC.addStatement((first ? "" : "else ") + "if (element_holder->short_form == " + typeDetails.listShortForm + ")");
 			areaContext.areaC.openBlock();
 			addMalbinaryEncodingLengthList(areaContext.areaC, "element_holder->value.list_value", qfTypeNameL);
 			areaContext.areaC.closeBlock();
@@ -4683,9 +10048,7 @@ public class GeneratorC extends GeneratorBase
 	  //        rc = <area>_malbinary_encode_mal_element(encoder, cursor, element);
 	  //        if (rc < 0)
 	  //          return rc;
-	  code.addStatement("rc = " + areaContext.areaNameL + "_" + transportMalbinary + "_encode_mal_element(encoder, cursor, " + varName + ");");
-	  code.addStatement("if (rc < 0)", 1);
-	  code.addStatement("return rc;", -1);
+	  addCheckedStatement(code, ELEMENT_ENCODE, areaContext.areaNameL, varName);
   }
 
   private void addMalbinaryEncodingEncodeElementFunction(AreaContext areaContext) throws IOException
@@ -4730,23 +10093,23 @@ public class GeneratorC extends GeneratorBase
 			}
 			// [else] if (element_holder->short_form == <AREA>_[<SERVICE>_]<TYPE>_SHORT_FORM) {
 			TypeReference ptype = key.getTypeReference(false);
-			String qfTypeNameL = getTypeFQN(ptype);
-			String qfTypeNameU = qfTypeNameL.toUpperCase();
+			TypeDetails typeDetails = typeIndex.get(key);
+			String qfTypeNameL = typeDetails.qfTypeNameL;
 
-			areaContext.areaC.addStatement((first ? "" : "else ") + "if (element_holder->short_form == " + qfTypeNameU + "_SHORT_FORM)");
+			areaContext.areaC.addStatement((first ? "" : "else ") + "if (element_holder->short_form == " + typeDetails.shortForm + ")");
 			areaContext.areaC.openBlock();
-			if (isAttributeType(ptype))
+			if (typeDetails.isAttribute)
 			{
 				String varType = ptype.getName().toLowerCase();
 				addMalbinaryEncodingEncodeAttribute(areaContext.areaC, "element_holder->value." + varType + "_value", varType);
 			}
-			else if (isComposite(ptype))
+			else if (typeDetails.isComposite)
 			{
 				addMalbinaryEncodingEncodeComposite(areaContext.areaC, "element_holder->value.composite_value", qfTypeNameL);
 			}
-			else if (isEnum(ptype))
+			else if (typeDetails.isEnumeration)
 			{
-				MalbinaryEnumSize enumMBSize = getEnumTypeMBSize(ptype);
+				MalbinaryEnumSize enumMBSize = typeDetails.enumMBSize;
 				addMalbinaryEncodingEncodeEnumeration(areaContext.areaC, "element_holder->value.enumerated_value", enumMBSize);
 			}
 			else
@@ -4759,7 +10122,7 @@ public class GeneratorC extends GeneratorBase
 			// else if (element_holder->short_form == <AREA>_[<SERVICE>_]<TYPE>_LIST_SHORT_FORM) {
 			// 	<encode element>
 			// }
-			areaContext.areaC.addStatement((first ? "" : "else ") + "if (element_holder->short_form == " + qfTypeNameU + "_LIST_SHORT_FORM)");
+			areaContext.areaC.addStatement((first ? "" : "else ") + "if (element_holder->short_form == " + typeDetails.listShortForm + ")");
 			areaContext.areaC.openBlock();
 			addMalbinaryEncodingEncodeList(areaContext.areaC, "element_holder->value.list_value", qfTypeNameL);
 			areaContext.areaC.closeBlock();
@@ -4780,9 +10143,7 @@ public class GeneratorC extends GeneratorBase
 	  //        rc = <area>_malbinary_decode_mal_element(decoder, cursor, element);
 	  //        if (rc < 0)
 	  //          return rc;
-	  code.addStatement("rc = " + areaContext.areaNameL + "_" + transportMalbinary + "_decode_mal_element(decoder, cursor, "+ varName + ");");
-	  code.addStatement("if (rc < 0)", 1);
-	  code.addStatement("return rc;", -1);
+	  addCheckedStatement(code, ELEMENT_DECODE, areaContext.areaNameL, varName);
   }
 
   private void addMalbinaryEncodingDecodeElementFunction(AreaContext areaContext) throws IOException
@@ -4828,23 +10189,23 @@ public class GeneratorC extends GeneratorBase
 			}
 			// [else] if (element_holder->short_form == <AREA>_[<SERVICE>_]<TYPE>_SHORT_FORM) {
 			TypeReference ptype = key.getTypeReference(false);
-			String qfTypeNameL = getTypeFQN(ptype);
-			String qfTypeNameU = qfTypeNameL.toUpperCase();
+			TypeDetails typeDetails = typeIndex.get(key);
+			String qfTypeNameL = typeDetails.qfTypeNameL;
 
-			areaContext.areaC.addStatement((first ? "" : "else ") + "if (element_holder->short_form == " + qfTypeNameU + "_SHORT_FORM)");
+			areaContext.areaC.addStatement((first ? "" : "else ") + "if (element_holder->short_form == " + typeDetails.shortForm + ")");
 			areaContext.areaC.openBlock();
-			if (isAttributeType(ptype))
+			if (typeDetails.isAttribute)
 			{
 				String varType = ptype.getName().toLowerCase();
 				addMalbinaryEncodingDecodeAttribute(areaContext.areaC, "element_holder->value." + varType + "_value", varType);
 			}
-			else if (isComposite(ptype))
+			else if (typeDetails.isComposite)
 			{
 				addMalbinaryEncodingDecodeComposite(areaContext.areaC, "element_holder->value.composite_value", qfTypeNameL, true);
 			}
-			else if (isEnum(ptype))
+			else if (typeDetails.isEnumeration)
 			{
-				MalbinaryEnumSize enumMBSize = getEnumTypeMBSize(ptype);
+				MalbinaryEnumSize enumMBSize = typeDetails.enumMBSize;
 				addMalbinaryEncodingDecodeEnumeration(areaContext.areaC, "element_holder->value.enumerated_value", qfTypeNameL, enumMBSize);
 			}
 			else
@@ -4857,9 +10218,9 @@ public class GeneratorC extends GeneratorBase
 			// else if (element_holder->short_form == <AREA>_[<SERVICE>_]<TYPE>_LIST_SHORT_FORM) {
 			// 	<decode element>
 			// }
-			areaContext.areaC.addStatement((first ? "" : "else ") + "if (element_holder->short_form == " + qfTypeNameU + "_LIST_SHORT_FORM)");
+			areaContext.areaC.addStatement((first ? "" : "else ") + "if (element_holder->short_form == " + typeDetails.listShortForm + ")");
 			areaContext.areaC.openBlock();
-			addMalbinaryEncodingDecodeList(areaContext.areaC, "element_holder->value.list_value", qfTypeNameL, true);
+			addMalbinaryEncodingDecodeList(areaContext.areaC, "element_holder->value.list_value", qfTypeNameL, true, isGeneratedType(ptype));
 			areaContext.areaC.closeBlock();
 			
 			areaContext.reqAreas.add(ptype.getArea());
@@ -4873,6 +10234,145 @@ public class GeneratorC extends GeneratorBase
 		areaContext.areaC.closeFunctionBody();
   }
 
+  /**
+   * Generate the function releasing the value held by a mal_element_holder_t.
+   * The holder itself is not freed and is reset to an absent value.
+   */
+  private void addDestroyElementFunction(AreaContext areaContext) throws IOException
+  {
+  	String funcName = areaContext.areaNameL + "_destroy_mal_element";
+		// void <area>_destroy_mal_element(mal_element_holder_t *element_holder);
+		areaContext.areaH.openFunctionPrototype("void", funcName, 1);
+		areaContext.areaH.addFunctionParameter("mal_element_holder_t *", "element_holder", true);
+		areaContext.areaH.closeFunctionPrototype();
+
+		// void <area>_destroy_mal_element(mal_element_holder_t *element_holder) {
+		//	if (element_holder == NULL || ! element_holder->presence_flag)
+		//		return;
+		areaContext.areaC.addNewLine();
+		areaContext.areaC.openFunction("void", funcName, 1);
+		areaContext.areaC.addFunctionParameter("mal_element_holder_t *", "element_holder", true);
+		areaContext.areaC.openFunctionBody();
+		areaContext.areaC.addStatement("if (element_holder == NULL || ! element_holder->presence_flag)", 1);
+		areaContext.areaC.addStatement("return;", -1);
+
+		// type specific destruction depending on the short form
+		// enumerations and attributes held by value have nothing to release
+		Set <TypeKey> keys = allTypesMap.keySet();
+		boolean first = true;
+		for (TypeKey key : keys) {
+			if (abstractTypesSet.contains(key))
+			{
+				// ignore abstract types
+				continue;
+			}
+			TypeReference ptype = key.getTypeReference(false);
+			TypeDetails typeDetails = typeIndex.get(key);
+			String qfTypeNameL = typeDetails.qfTypeNameL;
+
+			// [else ]if (element_holder->short_form == <AREA>_[<SERVICE>_]<TYPE>_SHORT_FORM)
+			//	<qftype>_destroy((<qftype>_t **) &element_holder->value.composite_value);
+			if (typeDetails.isAttribute)
+			{
+				if (typeDetails.cType.endsWith("*"))
+				{
+					areaContext.areaC.addStatement((first ? "" : "else ") + "if (element_holder->short_form == " + typeDetails.shortForm + ")", 1);
+					areaContext.areaC.addStatement(qfTypeNameL + "_destroy(&element_holder->value." + ptype.getName().toLowerCase() + "_value);", -1);
+					first = false;
+				}
+			}
+			else if (typeDetails.isComposite)
+			{
+				areaContext.areaC.addStatement((first ? "" : "else ") + "if (element_holder->short_form == " + typeDetails.shortForm + ")", 1);
+				areaContext.areaC.addStatement(qfTypeNameL + "_destroy((" + qfTypeNameL + "_t **) &element_holder->value.composite_value);", -1);
+				first = false;
+			}
+
+			// [else ]if (element_holder->short_form == <AREA>_[<SERVICE>_]<TYPE>_LIST_SHORT_FORM)
+			//	<qftype>_list_destroy((<qftype>_list_t **) &element_holder->value.list_value);
+			areaContext.areaC.addStatement((first ? "" : "else ") + "if (element_holder->short_form == " + typeDetails.listShortForm + ")", 1);
+			areaContext.areaC.addStatement(qfTypeNameL + "_list_destroy((" + qfTypeNameL + "_list_t **) &element_holder->value.list_value);", -1);
+			first = false;
+
+			areaContext.reqAreas.add(ptype.getArea());
+		}
+
+		//	element_holder->presence_flag = false;
+		// }
+		areaContext.areaC.addStatement("element_holder->presence_flag = false;");
+		areaContext.areaC.closeFunctionBody();
+  }
+
+  /**
+   * Generate the message header template type of the area and the function initializing
+   * a message from a template. The function is inline so that the constant template fields fold
+   * into the mal_message_init call.
+   */
+  private void addMessageHeaderFunction(AreaContext areaContext) throws IOException
+  {
+  	String headerType = areaContext.areaNameL + "_message_header_t";
+  	String funcName = areaContext.areaNameL + "_message_init_from_header";
+
+  	// typedef struct _<area>_message_header_t <area>_message_header_t;
+  	// struct _<area>_message_header_t {
+  	//	mal_ushort_t area_number;
+  	//	mal_uoctet_t area_version;
+  	//	mal_ushort_t service_number;
+  	//	mal_ushort_t operation_number;
+  	//	mal_interactiontype_t interaction_type;
+  	//	mal_uoctet_t interaction_stage;
+  	// };
+  	areaContext.areaH.addTypedefStruct("_" + headerType, headerType);
+  	areaContext.areaH.openStruct("_" + headerType);
+  	areaContext.areaH.addStructField("mal_ushort_t", "area_number");
+  	areaContext.areaH.addStructField("mal_uoctet_t", "area_version");
+  	areaContext.areaH.addStructField("mal_ushort_t", "service_number");
+  	areaContext.areaH.addStructField("mal_ushort_t", "operation_number");
+  	areaContext.areaH.addStructField("mal_interactiontype_t", "interaction_type");
+  	areaContext.areaH.addStructField("mal_uoctet_t", "interaction_stage");
+  	areaContext.areaH.closeStruct();
+
+  	// static inline void <area>_message_init_from_header(mal_message_t *message, const <area>_message_header_t *header) {
+  	//	mal_message_init(message, header->area_number, header->area_version, header->service_number,
+  	//		header->operation_number, header->interaction_type, header->interaction_stage);
+  	// }
+  	areaContext.areaH.addNewLine();
+  	areaContext.areaH.openFunction("static inline void", funcName, 2);
+  	areaContext.areaH.addFunctionParameter("mal_message_t *", "message", false);
+  	areaContext.areaH.addFunctionParameter("const " + headerType + " *", "header", true);
+  	areaContext.areaH.openFunctionBody();
+  	areaContext.areaH.addStatement("mal_message_init(message, header->area_number, header->area_version, header->service_number, "
+  			+ "header->operation_number, header->interaction_type, header->interaction_stage);");
+  	areaContext.areaH.closeFunctionBody();
+  }
+
+  /**
+   * Add the initialization of a message from the constant header template of an operation stage.
+   * The template is a static const variable of the stage function.
+   */
+  private void addMessageInitFromHeader(OpStageContext opStageCtxt, String messageVar, String interactionType, String ipStage) throws IOException
+  {
+  	AreaContext areaContext = opStageCtxt.opContext.serviceContext.areaContext;
+  	CFileWriter areaC = areaContext.areaC;
+  	String areaNameU = areaContext.areaNameL.toUpperCase();
+  	String serviceNameU = opStageCtxt.opContext.serviceContext.serviceNameL.toUpperCase();
+
+  	//	static const <area>_message_header_t header = { <AREA>_AREA_NUMBER, <AREA>_AREA_VERSION, <AREA>_<SERVICE>_SERVICE_NUMBER,
+  	//		<AREA>_<SERVICE>_<OPERATION>_OPERATION_NUMBER, MAL_INTERACTIONTYPE_<IP>, MAL_IP_STAGE_<STAGE> };
+  	//	<area>_message_init_from_header(<message>, &header);
+  	StringBuilder buf = new StringBuilder();
+  	buf.append("static const ").append(areaContext.areaNameL).append("_message_header_t header = { ");
+  	buf.append(areaNameU).append("_AREA_NUMBER, ");
+  	buf.append(areaNameU).append("_AREA_VERSION, ");
+  	buf.append(areaNameU).append("_").append(serviceNameU).append("_SERVICE_NUMBER, ");
+  	buf.append(opStageCtxt.opContext.qfOpNameL.toUpperCase()).append("_OPERATION_NUMBER, ");
+  	buf.append("MAL_INTERACTIONTYPE_").append(interactionType).append(", ");
+  	buf.append("MAL_IP_STAGE_").append(ipStage);
+  	buf.append(" };");
+  	areaC.addStatement(buf.toString());
+  	areaC.addStatement(areaContext.areaNameL + "_message_init_from_header(" + messageVar + ", &header);");
+  }
+
   private void addRegisterFunction(OperationContext opContext, String opStage) throws IOException
   {
   	OpStageContext opStageCtxt = new OpStageContext(opContext, opStage, true, null);
@@ -4885,7 +10385,6 @@ public class GeneratorC extends GeneratorBase
   	CFileWriter areaH = opStageCtxt.opContext.serviceContext.areaContext.areaHContent;
   	CFileWriter areaC = opStageCtxt.opContext.serviceContext.areaContext.areaC;
   	areaC.addNewLine();
-  	StringBuilder buf;
   	
 //	  int <area>_<service>_<operation>_register(
 //	  mal_endpoint_t *endpoint, mal_message_t *message, mal_uri_t *broker_uri);
@@ -4899,8 +10398,9 @@ public class GeneratorC extends GeneratorBase
 //   		  mal_endpoint_t *endpoint, mal_message_t *message, mal_uri_t *broker_uri) {
 //   		  int rc = 0;
 //   	Affectation des champs liés à l'opération :
-//   		  mal_message_init(message, <AREA>_AREA_NUMBER, <AREA>_AREA_VERSION, <AREA>_<SERVICE>_SERVICE_NUMBER,
-//   		    <AREA>_<SERVICE>_<OPERATION>_OPERATION_NUMBER, MAL_INTERACTIONTYPE_PUBSUB, MAL_IP_STAGE_PUBSUB_REGISTER);
+//   		  static const <area>_message_header_t header = { <AREA>_AREA_NUMBER, <AREA>_AREA_VERSION, <AREA>_<SERVICE>_SERVICE_NUMBER,
+//   		    <AREA>_<SERVICE>_<OPERATION>_OPERATION_NUMBER, MAL_INTERACTIONTYPE_PUBSUB, MAL_IP_STAGE_PUBSUB_REGISTER };
+//   		  <area>_message_init_from_header(message, &header);
 //   	Envoi du message :
 //   		  rc = mal_endpoint_init_operation(endpoint, message, broker_uri, true);
 //   		  return rc;
@@ -4911,27 +10411,22 @@ public class GeneratorC extends GeneratorBase
   	areaC.addFunctionParameter("mal_uri_t *", "broker_uri", true);
   	areaC.openFunctionBody();
   	areaC.addStatement("int rc = 0;");
-  	String areaNameU = opStageCtxt.opContext.serviceContext.areaContext.areaNameL.toUpperCase();
-  	String serviceNameU = opStageCtxt.opContext.serviceContext.serviceNameL.toUpperCase();
-    buf = new StringBuilder();
-    buf.append("mal_message_init(message, ");
-    buf.append(areaNameU).append("_AREA_NUMBER, ");
-    buf.append(areaNameU).append("_AREA_VERSION, ");
-    buf.append(areaNameU).append("_").append(serviceNameU).append("_SERVICE_NUMBER, ");
-    buf.append(opStageCtxt.opContext.qfOpNameL.toUpperCase()).append("_OPERATION_NUMBER, ");
-    buf.append("MAL_INTERACTIONTYPE_PUBSUB, ");
-    buf.append("MAL_IP_STAGE_PUBSUB_REGISTER");
-    buf.append(");");
-    areaC.addStatement(buf.toString());
+  	addStageStatsStart(opStageCtxt, areaC);
+  	addStageTraceStart(opStageCtxt, areaC, "message");
+    addMessageInitFromHeader(opStageCtxt, "message", "PUBSUB", "PUBSUB_REGISTER");
+    addStageTraceBeforeSend(opStageCtxt, areaC, "message");
     areaC.addStatement("rc = mal_endpoint_init_operation(endpoint, message, broker_uri, true);");
+    addStageStatsRecord(opStageCtxt, areaC);
+    addStageTraceEnd(opStageCtxt, areaC);
     areaC.addStatement("return rc;");
   	areaC.closeFunctionBody();
   }
   
-  private void generatePubSubEncodingRelatedParameters(OperationContext opContext, String opStage, List<TypeInfo> parameters) throws IOException
+  private OpStageContext generatePubSubEncodingRelatedParameters(OperationContext opContext, String opStage, List<TypeInfo> parameters) throws IOException
   {
 	  OpStageContext opStageCtxt = new OpStageContext(opContext, opStage, true, parameters);
 	  generatePubSubEncodingRelatedParameters(opStageCtxt);
+	  return opStageCtxt;
   }
   
   /*
@@ -4972,7 +10467,7 @@ public class GeneratorC extends GeneratorBase
 			  paramType.setList(true);
 			  paramDetails.isList = true;
 
-			  if (isAbstract(paramType))
+			  if (getTypeDetails(paramType).isAbstract)
 			  {
 				  paramDetails.isAbstract = true;
 				  // check for abstract Attribute type
@@ -5001,9 +10496,11 @@ public class GeneratorC extends GeneratorBase
     			}
 			  }
 
+			  opStageCtxt.paramDetailsList.add(paramDetails);
 			  paramIndex ++;
 		  }
 	  }
+	  addInteractionBodyFunctions(opStageCtxt);
   }
   
   private void addPublishRegisterFunction(OperationContext opContext, String opStage) throws IOException
@@ -5018,7 +10515,6 @@ public class GeneratorC extends GeneratorBase
 	  CFileWriter areaH = opStageCtxt.opContext.serviceContext.areaContext.areaHContent;
 	  CFileWriter areaC = opStageCtxt.opContext.serviceContext.areaContext.areaC;
 	  areaC.addNewLine();
-	  StringBuilder buf;
 
 	  // int <area>_<service>_<operation>_publish_register(
 	  // mal_endpoint_t *endpoint, mal_message_t *message, mal_uri_t *broker_uri); 
@@ -5032,8 +10528,9 @@ public class GeneratorC extends GeneratorBase
 	  //	   		  mal_endpoint_t *endpoint, mal_message_t *message, mal_uri_t *broker_uri) {
 	  //	   		  int rc = 0;
 	  //	    Affectation des champs liés à l'opération :
-	  //	   		  mal_message_init(message, <AREA>_AREA_NUMBER, <AREA>_AREA_VERSION, <AREA>_<SERVICE>_SERVICE_NUMBER,
-	  //	   		    <AREA>_<SERVICE>_<OPERATION>_OPERATION_NUMBER, MAL_INTERACTIONTYPE_PUBSUB, MAL_IP_STAGE_PUBSUB_PUBLISH_REGISTER);
+	  //	   		  static const <area>_message_header_t header = { <AREA>_AREA_NUMBER, <AREA>_AREA_VERSION, <AREA>_<SERVICE>_SERVICE_NUMBER,
+	  //	   		    <AREA>_<SERVICE>_<OPERATION>_OPERATION_NUMBER, MAL_INTERACTIONTYPE_PUBSUB, MAL_IP_STAGE_PUBSUB_PUBLISH_REGISTER };
+	  //	   		  <area>_message_init_from_header(message, &header);
 	  //	   	Envoi du message :
 	  //	   		  rc = mal_endpoint_init_operation(endpoint, message, broker_uri, true);
 	  //	   		  return rc;
@@ -5044,19 +10541,13 @@ public class GeneratorC extends GeneratorBase
 	  areaC.addFunctionParameter("mal_uri_t *", "broker_uri", true);
 	  areaC.openFunctionBody();
 	  areaC.addStatement("int rc = 0;");
-	  String areaNameU = opStageCtxt.opContext.serviceContext.areaContext.areaNameL.toUpperCase();
-	  String serviceNameU = opStageCtxt.opContext.serviceContext.serviceNameL.toUpperCase();
-	  buf = new StringBuilder();
-	  buf.append("mal_message_init(message, ");
-	  buf.append(areaNameU).append("_AREA_NUMBER, ");
-	  buf.append(areaNameU).append("_AREA_VERSION, ");
-	  buf.append(areaNameU).append("_").append(serviceNameU).append("_SERVICE_NUMBER, ");
-	  buf.append(opStageCtxt.opContext.qfOpNameL.toUpperCase()).append("_OPERATION_NUMBER, ");
-	  buf.append("MAL_INTERACTIONTYPE_PUBSUB, ");
-	  buf.append("MAL_IP_STAGE_PUBSUB_PUBLISH_REGISTER");
-	  buf.append(");");
-	  areaC.addStatement(buf.toString());
+	  addStageStatsStart(opStageCtxt, areaC);
+	  addStageTraceStart(opStageCtxt, areaC, "message");
+	  addMessageInitFromHeader(opStageCtxt, "message", "PUBSUB", "PUBSUB_PUBLISH_REGISTER");
+	  addStageTraceBeforeSend(opStageCtxt, areaC, "message");
 	  areaC.addStatement("rc = mal_endpoint_init_operation(endpoint, message, broker_uri, true);");
+	  addStageStatsRecord(opStageCtxt, areaC);
+	  addStageTraceEnd(opStageCtxt, areaC);
 	  areaC.addStatement("return rc;");
 	  areaC.closeFunctionBody();
   }
@@ -5089,8 +10580,9 @@ public class GeneratorC extends GeneratorBase
 //			  mal_uri_t *broker_uri, long initial_publish_register_tid) {
 //			  int rc = 0;
 //		Affectation des champs liés à l'opération :
-//			  mal_message_init(message, <AREA>_AREA_NUMBER, <AREA>_AREA_VERSION, <AREA>_<SERVICE>_SERVICE_NUMBER,
-//			    <AREA>_<SERVICE>_<OPERATION>_OPERATION_NUMBER, MAL_INTERACTIONTYPE_PUBSUB, MAL_IP_STAGE_PUBSUB_PUBLISH);
+//			  static const <area>_message_header_t header = { <AREA>_AREA_NUMBER, <AREA>_AREA_VERSION, <AREA>_<SERVICE>_SERVICE_NUMBER,
+//			    <AREA>_<SERVICE>_<OPERATION>_OPERATION_NUMBER, MAL_INTERACTIONTYPE_PUBSUB, MAL_IP_STAGE_PUBSUB_PUBLISH };
+//			  <area>_message_init_from_header(message, &header);
 //		Affectation du 'Transaction Id' :
 //			  mal_message_set_transaction_id(message, initial_publish_register_tid);
 //		Envoi du message :
@@ -5104,29 +10596,569 @@ public class GeneratorC extends GeneratorBase
 	  areaC.addFunctionParameter("long", "initial_publish_register_tid", true);
 	  areaC.openFunctionBody();
 	  areaC.addStatement("int rc = 0;");
-	  String areaNameU = opStageCtxt.opContext.serviceContext.areaContext.areaNameL.toUpperCase();
-	  String serviceNameU = opStageCtxt.opContext.serviceContext.serviceNameL.toUpperCase();
-	  buf = new StringBuilder();
-	  //mal_message_init
-	  buf.append("mal_message_init(message, ");
-	  buf.append(areaNameU).append("_AREA_NUMBER, ");
-	  buf.append(areaNameU).append("_AREA_VERSION, ");
-	  buf.append(areaNameU).append("_").append(serviceNameU).append("_SERVICE_NUMBER, ");
-	  buf.append(opStageCtxt.opContext.qfOpNameL.toUpperCase()).append("_OPERATION_NUMBER, ");
-	  buf.append("MAL_INTERACTIONTYPE_PUBSUB, ");
-	  buf.append("MAL_IP_STAGE_PUBSUB_PUBLISH");
-	  buf.append(");");
-	  areaC.addStatement(buf.toString());
+	  addStageStatsStart(opStageCtxt, areaC);
+	  addStageTraceStart(opStageCtxt, areaC, "message");
+	  addMessageInitFromHeader(opStageCtxt, "message", "PUBSUB", "PUBSUB_PUBLISH");
 	  //mal_message_set_transaction_id
 	  buf = new StringBuilder();
 	  buf.append("mal_message_set_transaction_id(message, initial_publish_register_tid);");
 	  areaC.addStatement(buf.toString());
+	  addStageTraceBeforeSend(opStageCtxt, areaC, "message");
 	  areaC.addStatement("rc = mal_endpoint_init_operation(endpoint, message, broker_uri, false);");
+	  addStageStatsRecord(opStageCtxt, areaC);
+	  addStageTraceEnd(opStageCtxt, areaC);
 	  areaC.addStatement("return rc;");
 	  areaC.closeFunctionBody();
   }
 
-  
+  /**
+   * Generate a publisher accumulating the updates of a PubSub operation and publishing them
+   * in a single message when a count of updates is reached or a time window has elapsed.
+   * The publisher takes the ownership of the added update headers and update values.
+   * Operations with abstract update types are not supported.
+   */
+  private void addBatchedPublisher(OpStageContext updateCtxt) throws IOException
+  {
+	  final OperationContext opContext = updateCtxt.opContext;
+	  final List<ParameterDetails> paramDetailsList = updateCtxt.paramDetailsList;
+	  for (ParameterDetails paramDetails : paramDetailsList)
+	  {
+		  if (paramDetails.isAbstract)
+		  {
+			  getLog().info("No batched publisher for operation " + opContext.qfOpNameL + ": abstract update type for parameter " + paramDetails.paramName);
+			  return;
+		  }
+	  }
+	  // details of the update values, the update parameters being lists of them
+	  List<ParameterDetails> elementDetailsList = new ArrayList<ParameterDetails>(paramDetailsList.size());
+	  for (ParameterDetails paramDetails : paramDetailsList)
+	  {
+		  ParameterDetails elementDetails = new ParameterDetails();
+		  elementDetails.paramIndex = paramDetails.paramIndex;
+		  elementDetails.paramName = paramDetails.paramName;
+		  elementDetails.type = new TypeKey(paramDetails.type).getTypeReference(false);
+		  fillInteractionParamDetails(elementDetails, elementDetails.type);
+		  elementDetailsList.add(elementDetails);
+	  }
+
+	  final AreaContext areaContext = opContext.serviceContext.areaContext;
+	  CFileWriter areaH = areaContext.areaHContent;
+	  CFileWriter areaC = areaContext.areaC;
+	  final String pubName = opContext.qfOpNameL + "_publisher";
+	  final String pubType = pubName + "_t";
+	  areaContext.reqAreas.add(StdStrings.MAL);
+
+	  // typedef struct _<qfop>_publisher_t <qfop>_publisher_t;
+	  areaH.addNewLine();
+	  areaH.addTypedefStruct("_" + pubType, pubType);
+
+	  // struct _<qfop>_publisher_t {
+	  //	mal_encoder_t *encoder;
+	  //	mal_endpoint_t *endpoint;
+	  //	mal_uri_t *broker_uri;
+	  //	long initial_publish_register_tid;
+	  //	<header fields>
+	  //	void *cursor;
+	  //	unsigned int max_updates;
+	  //	int64_t max_delay;
+	  //	unsigned int update_count;
+	  //	int64_t first_update_time;
+	  //	mal_updateheader_t **update_headers;
+	  //	[bool *<f_><param>_is_present;]
+	  //	<update type> *<f_><param>;
+	  // };
+	  areaC.addNewLine();
+	  areaC.openStruct("_" + pubType);
+	  areaC.addStructField("mal_encoder_t *", "encoder");
+	  areaC.addStructField("mal_endpoint_t *", "endpoint");
+	  areaC.addStructField("mal_uri_t *", "broker_uri");
+	  areaC.addStructField("long", "initial_publish_register_tid");
+	  for (String[] field : MESSAGE_HEADER_PARAMS)
+	  {
+		  areaC.addStructField(field[0].trim(), field[1]);
+	  }
+	  areaC.addStructField("void *", "cursor");
+	  areaC.addStructField("unsigned int", "max_updates");
+	  areaC.addStructField("int64_t", "max_delay");
+	  areaC.addStructField("unsigned int", "update_count");
+	  areaC.addStructField("int64_t", "first_update_time");
+	  areaC.addStructField("mal_updateheader_t **", "update_headers");
+	  for (ParameterDetails elementDetails : elementDetailsList)
+	  {
+		  String member = getInteractionBodyMemberName(elementDetails);
+		  if (elementDetails.isPresenceFlag)
+		  {
+			  areaC.addStructField("bool *", member + "_is_present");
+		  }
+		  areaC.addStructField(getPublisherArrayType(elementDetails), member);
+	  }
+	  areaC.closeStruct();
+
+	  // <qfop>_publisher_t *<qfop>_publisher_new(
+	  //	mal_encoder_t *encoder, mal_endpoint_t *endpoint,
+	  //	mal_uri_t *broker_uri, long initial_publish_register_tid,
+	  //	<header fields>, unsigned int max_updates, int64_t max_delay);
+	  String funcName = pubName + "_new";
+	  List<String[]> params = new ArrayList<String[]>();
+	  params.add(new String[]{ "mal_encoder_t *", "encoder" });
+	  params.add(new String[]{ "mal_endpoint_t *", "endpoint" });
+	  params.add(new String[]{ "mal_uri_t *", "broker_uri" });
+	  params.add(new String[]{ "long", "initial_publish_register_tid" });
+	  params.addAll(Arrays.asList(MESSAGE_HEADER_PARAMS));
+	  params.add(new String[]{ "unsigned int", "max_updates" });
+	  params.add(new String[]{ "int64_t", "max_delay" });
+	  int size = params.size();
+	  areaH.addSingleLineComment("max_updates: number of updates published in a message, max_delay: time window in ms, 0 to disable it");
+	  areaH.openFunctionPrototype(pubType + " *", funcName, size);
+	  areaH.addFunctionParameters(params.toArray(new String[size][]));
+	  areaH.closeFunctionPrototype();
+
+	  // <qfop>_publisher_t *<qfop>_publisher_new(...) {
+	  //	<qfop>_publisher_t *self = (<qfop>_publisher_t *) calloc(1, sizeof(<qfop>_publisher_t));
+	  //	if (!self)
+	  //		return NULL;
+	  //	if (max_updates == 0)
+	  //		max_updates = 1;
+	  //	self->update_headers = (mal_updateheader_t **) calloc(max_updates, sizeof(mal_updateheader_t *));
+	  //	[self-><f_><param>_is_present = (bool *) calloc(max_updates, sizeof(bool));]
+	  //	self-><f_><param> = (<update type> *) calloc(max_updates, sizeof(<update type>));
+	  //	self->cursor = mal_encoder_new_cursor(encoder);
+	  //	if (!self->update_headers || ... || !self->cursor) {
+	  //		<qfop>_publisher_destroy(&self);
+	  //		return NULL;
+	  //	}
+	  //	self-><field> = <field>;
+	  //	return self;
+	  // }
+	  areaC.addNewLine();
+	  areaC.openFunction(pubType + " *", funcName, size);
+	  areaC.addFunctionParameters(params.toArray(new String[size][]));
+	  areaC.openFunctionBody();
+	  areaC.addStatement(pubType + " *self = (" + pubType + " *) calloc(1, sizeof(" + pubType + "));");
+	  areaC.addStatement("if (!self)", 1);
+	  areaC.addStatement("return NULL;", -1);
+	  areaC.addStatement("if (max_updates == 0)", 1);
+	  areaC.addStatement("max_updates = 1;", -1);
+	  StringBuilder allocCheck = new StringBuilder("if (!self->update_headers");
+	  areaC.addStatement("self->update_headers = (mal_updateheader_t **) calloc(max_updates, sizeof(mal_updateheader_t *));");
+	  for (ParameterDetails elementDetails : elementDetailsList)
+	  {
+		  String member = "self->" + getInteractionBodyMemberName(elementDetails);
+		  if (elementDetails.isPresenceFlag)
+		  {
+			  areaC.addStatement(member + "_is_present = (bool *) calloc(max_updates, sizeof(bool));");
+			  allocCheck.append(" || !").append(member).append("_is_present");
+		  }
+		  String arrayType = getPublisherArrayType(elementDetails);
+		  areaC.addStatement(member + " = (" + arrayType + ") calloc(max_updates, sizeof(" + elementDetails.paramType.trim() + "));");
+		  allocCheck.append(" || !").append(member);
+	  }
+	  areaC.addStatement("self->cursor = mal_encoder_new_cursor(encoder);");
+	  allocCheck.append(" || !self->cursor)");
+	  areaC.addStatement(allocCheck.toString());
+	  areaC.openBlock();
+	  areaC.addStatement(pubName + "_destroy(&self);");
+	  areaC.addStatement("return NULL;");
+	  areaC.closeBlock();
+	  areaC.addStatement("self->encoder = encoder;");
+	  areaC.addStatement("self->endpoint = endpoint;");
+	  areaC.addStatement("self->broker_uri = broker_uri;");
+	  areaC.addStatement("self->initial_publish_register_tid = initial_publish_register_tid;");
+	  for (String[] field : MESSAGE_HEADER_PARAMS)
+	  {
+		  areaC.addStatement("self->" + field[1] + " = " + field[1] + ";");
+	  }
+	  areaC.addStatement("self->max_updates = max_updates;");
+	  areaC.addStatement("self->max_delay = max_delay;");
+	  areaC.addStatement("return self;");
+	  areaC.closeFunctionBody();
+
+	  // void <qfop>_publisher_destroy(<qfop>_publisher_t **self_p);
+	  funcName = pubName + "_destroy";
+	  areaH.addSingleLineComment("publishes the pending updates before destroying the publisher");
+	  areaH.openFunctionPrototype("void", funcName, 1);
+	  areaH.addFunctionParameter(pubType + " **", "self_p", true);
+	  areaH.closeFunctionPrototype();
+
+	  // void <qfop>_publisher_destroy(<qfop>_publisher_t **self_p) {
+	  //	if (self_p && *self_p) {
+	  //		<qfop>_publisher_t *self = *self_p;
+	  //		if (self->cursor)
+	  //			<qfop>_publisher_flush(self);
+	  //		// release the updates which could not be published
+	  //		for (unsigned int i = 0; i < self->update_count; i++) {
+	  //			mal_updateheader_destroy(&self->update_headers[i]);
+	  //			[<update type>_destroy(&self-><f_><param>[i]);]
+	  //		}
+	  //		if (self->cursor)
+	  //			mal_encoder_cursor_destroy(self->encoder, self->cursor);
+	  //		free(self->update_headers);
+	  //		[free(self-><f_><param>_is_present);]
+	  //		free(self-><f_><param>);
+	  //		free(self);
+	  //		*self_p = NULL;
+	  //	}
+	  // }
+	  areaC.addNewLine();
+	  areaC.openFunction("void", funcName, 1);
+	  areaC.addFunctionParameter(pubType + " **", "self_p", true);
+	  areaC.openFunctionBody();
+	  areaC.addStatement("if (self_p && *self_p)");
+	  areaC.openBlock();
+	  areaC.addStatement(pubType + " *self = *self_p;");
+	  areaC.addStatement("if (self->cursor)", 1);
+	  areaC.addStatement(pubName + "_flush(self);", -1);
+	  areaC.addSingleLineComment("release the updates which could not be published");
+	  areaC.addStatement("for (unsigned int i = 0; i < self->update_count; i++)");
+	  areaC.openBlock();
+	  areaC.addStatement("mal_updateheader_destroy(&self->update_headers[i]);");
+	  for (ParameterDetails elementDetails : elementDetailsList)
+	  {
+		  if (elementDetails.isComposite || (elementDetails.isAttribute && !elementDetails.isPresenceFlag))
+		  {
+			  areaC.addStatement(elementDetails.qfTypeNameL + "_destroy(&self->" + getInteractionBodyMemberName(elementDetails) + "[i]);");
+		  }
+	  }
+	  areaC.closeBlock();
+	  areaC.addStatement("if (self->cursor)", 1);
+	  areaC.addStatement("mal_encoder_cursor_destroy(self->encoder, self->cursor);", -1);
+	  areaC.addStatement("free(self->update_headers);");
+	  for (ParameterDetails elementDetails : elementDetailsList)
+	  {
+		  String member = "self->" + getInteractionBodyMemberName(elementDetails);
+		  if (elementDetails.isPresenceFlag)
+		  {
+			  areaC.addStatement("free(" + member + "_is_present);");
+		  }
+		  areaC.addStatement("free(" + member + ");");
+	  }
+	  areaC.addStatement("free(self);");
+	  areaC.addStatement("*self_p = NULL;");
+	  areaC.closeBlock();
+	  areaC.closeFunctionBody();
+
+	  // static int <qfop>_publisher_encode(mal_encoder_t *encoder, void *cursor,
+	  //	mal_updateheader_list_t *update_headers, <update list type> *<f_><param>) {
+	  //	int rc = 0;
+	  //	<encoding of the update headers and of the update lists>
+	  //	mal_encoder_cursor_assert(encoder, cursor);
+	  //	return rc;
+	  // }
+	  // kept apart from the send function, which releases the message on error
+	  funcName = pubName + "_encode";
+	  params = new ArrayList<String[]>();
+	  params.add(new String[]{ "mal_encoder_t *", "encoder" });
+	  params.add(new String[]{ "void *", "cursor" });
+	  params.add(new String[]{ "mal_updateheader_list_t *", "update_headers" });
+	  StringBuilder encodeArgs = new StringBuilder("encoder, cursor, update_headers");
+	  for (ParameterDetails paramDetails : paramDetailsList)
+	  {
+		  params.add(new String[]{ paramDetails.paramType, getInteractionBodyMemberName(paramDetails) });
+		  encodeArgs.append(", ").append(getInteractionBodyMemberName(paramDetails));
+	  }
+	  size = params.size();
+	  areaC.addNewLine();
+	  areaC.openFunction("static int", funcName, size);
+	  areaC.addFunctionParameters(params.toArray(new String[size][]));
+	  areaC.openFunctionBody();
+	  areaC.addStatement("int rc = 0;");
+	  addPublisherUpdateHeadersEncoding(areaC, true);
+	  for (ParameterDetails paramDetails : paramDetailsList)
+	  {
+		  String encodeFuncNameL = getInteractionParamEncodingFunctionName(updateCtxt, paramDetails, "_encode");
+		  areaC.addStatement("rc = " + encodeFuncNameL + "(cursor, encoder, " + getInteractionBodyMemberName(paramDetails) + ");");
+		  areaC.addStatement("if (rc < 0)", 1);
+		  areaC.addStatement("return rc;", -1);
+	  }
+	  areaC.addStatement("mal_encoder_cursor_assert(encoder, cursor);");
+	  areaC.addStatement("return rc;");
+	  areaC.closeFunctionBody();
+
+	  // static int <qfop>_publisher_send(<qfop>_publisher_t *self,
+	  //	mal_updateheader_list_t *update_headers, <update list type> *<f_><param>) {
+	  //	int rc = 0;
+	  //	mal_encoder_t *encoder = self->encoder;
+	  //	void *cursor = self->cursor;
+	  //	mal_encoder_cursor_init(encoder, cursor, NULL, 0, 0);
+	  //	<encoding length of the update headers and of the update lists>
+	  //	mal_message_t *message = mal_message_new(self->authentication_id, ..., mal_encoder_cursor_get_length(encoder, cursor));
+	  //	if (message == NULL)
+	  //		return -1;
+	  //	mal_encoder_cursor_init(encoder, cursor, mal_message_get_body(message), ...);
+	  //	rc = <qfop>_publisher_encode(encoder, cursor, update_headers, <f_><param>...);
+	  //	if (rc < 0) {
+	  //		mal_message_destroy(&message, mal_endpoint_get_mal_ctx(self->endpoint));
+	  //		return rc;
+	  //	}
+	  //	rc = <qfop>_publish(self->endpoint, message, self->broker_uri, self->initial_publish_register_tid);
+	  //	return rc;
+	  // }
+	  final String encodeFuncName = funcName;
+	  funcName = pubName + "_send";
+	  params = new ArrayList<String[]>();
+	  params.add(new String[]{ pubType + " *", "self" });
+	  params.add(new String[]{ "mal_updateheader_list_t *", "update_headers" });
+	  for (ParameterDetails paramDetails : paramDetailsList)
+	  {
+		  params.add(new String[]{ paramDetails.paramType, getInteractionBodyMemberName(paramDetails) });
+	  }
+	  size = params.size();
+	  areaC.addNewLine();
+	  areaC.openFunction("static int", funcName, size);
+	  areaC.addFunctionParameters(params.toArray(new String[size][]));
+	  areaC.openFunctionBody();
+	  areaC.addStatement("int rc = 0;");
+	  areaC.addStatement("mal_encoder_t *encoder = self->encoder;");
+	  areaC.addStatement("void *cursor = self->cursor;");
+	  areaC.addStatement("mal_encoder_cursor_init(encoder, cursor, NULL, 0, 0);");
+	  areaC.addSingleLineComment("Length");
+	  addPublisherUpdateHeadersEncoding(areaC, false);
+	  for (ParameterDetails paramDetails : paramDetailsList)
+	  {
+		  String encodeFuncNameL = getInteractionParamEncodingFunctionName(updateCtxt, paramDetails, "_add_encoding_length");
+		  areaC.addStatement("rc = " + encodeFuncNameL + "(encoder, " + getInteractionBodyMemberName(paramDetails) + ", cursor);");
+		  areaC.addStatement("if (rc < 0)", 1);
+		  areaC.addStatement("return rc;", -1);
+	  }
+	  areaC.addStatement("mal_message_t *message = mal_message_new(self->authentication_id, "
+			  + "self->qoslevel, self->priority, self->domain, "
+			  + "self->network_zone, self->session, self->session_name, "
+			  + "mal_encoder_cursor_get_length(encoder, cursor));");
+	  areaC.addStatement("if (message == NULL)", 1);
+	  areaC.addStatement("return -1;", -1);
+	  areaC.addStatement("mal_encoder_cursor_init("
+			  + "encoder, cursor, "
+			  + "mal_message_get_body(message), "
+			  + "mal_encoder_cursor_get_length(encoder, cursor), "
+			  + "mal_message_get_body_offset(message));");
+	  areaC.addSingleLineComment("Encoding");
+	  areaC.addStatement("rc = " + encodeFuncName + "(" + encodeArgs + ");");
+	  addRcCheck(areaC, "mal_message_destroy(&message, mal_endpoint_get_mal_ctx(self->endpoint));");
+	  areaC.addStatement("rc = " + opContext.qfOpNameL + "_publish(self->endpoint, message, self->broker_uri, self->initial_publish_register_tid);");
+	  areaC.addStatement("return rc;");
+	  areaC.closeFunctionBody();
+
+	  // int <qfop>_publisher_flush(<qfop>_publisher_t *self);
+	  funcName = pubName + "_flush";
+	  areaH.openFunctionPrototype("int", funcName, 1);
+	  areaH.addFunctionParameter(pubType + " *", "self", true);
+	  areaH.closeFunctionPrototype();
+
+	  // int <qfop>_publisher_flush(<qfop>_publisher_t *self) {
+	  //	unsigned int update_count = self->update_count;
+	  //	if (update_count == 0)
+	  //		return 0;
+	  //	mal_updateheader_list_t *update_headers = mal_updateheader_list_new(update_count);
+	  //	<update list type> *<f_><param> = <update type>_list_new(update_count);
+	  //	if (!update_headers || ...) {
+	  //		mal_updateheader_list_destroy(&update_headers);
+	  //		<update type>_list_destroy(&<f_><param>);
+	  //		return -1;
+	  //	}
+	  //	// the lists take the ownership of the updates
+	  //	memcpy(mal_updateheader_list_get_content(update_headers), self->update_headers, update_count * sizeof(mal_updateheader_t *));
+	  //	[memcpy(<update type>_list_get_presence_flags(<f_><param>), self-><f_><param>_is_present, update_count * sizeof(bool));]
+	  //	memcpy(<update type>_list_get_content(<f_><param>), self-><f_><param>, update_count * sizeof(<update type>));
+	  //	self->update_count = 0;
+	  //	int rc = <qfop>_publisher_send(self, update_headers, <f_><param>...);
+	  //	mal_updateheader_list_destroy(&update_headers);
+	  //	<update type>_list_destroy(&<f_><param>);
+	  //	return rc;
+	  // }
+	  areaC.addNewLine();
+	  areaC.openFunction("int", funcName, 1);
+	  areaC.addFunctionParameter(pubType + " *", "self", true);
+	  areaC.openFunctionBody();
+	  areaC.addStatement("unsigned int update_count = self->update_count;");
+	  areaC.addStatement("if (update_count == 0)", 1);
+	  areaC.addStatement("return 0;", -1);
+	  areaC.addStatement("mal_updateheader_list_t *update_headers = mal_updateheader_list_new(update_count);");
+	  allocCheck = new StringBuilder("if (!update_headers");
+	  StringBuilder sendArgs = new StringBuilder("self, update_headers");
+	  for (ParameterDetails paramDetails : paramDetailsList)
+	  {
+		  String member = getInteractionBodyMemberName(paramDetails);
+		  areaC.addStatement(paramDetails.paramType + member + " = " + paramDetails.qfTypeNameL + "_list_new(update_count);");
+		  allocCheck.append(" || !").append(member);
+		  sendArgs.append(", ").append(member);
+	  }
+	  allocCheck.append(")");
+	  areaC.addStatement(allocCheck.toString());
+	  areaC.openBlock();
+	  addPublisherListsDestroy(areaC, paramDetailsList);
+	  areaC.addStatement("return -1;");
+	  areaC.closeBlock();
+	  areaC.addSingleLineComment("the lists take the ownership of the updates");
+	  areaC.addStatement("memcpy(mal_updateheader_list_get_content(update_headers), self->update_headers, update_count * sizeof(mal_updateheader_t *));");
+	  for (ParameterDetails elementDetails : elementDetailsList)
+	  {
+		  String member = getInteractionBodyMemberName(elementDetails);
+		  if (elementDetails.isPresenceFlag)
+		  {
+			  areaC.addStatement("memcpy(" + elementDetails.qfTypeNameL + "_list_get_presence_flags(" + member + "), self->" + member + "_is_present, update_count * sizeof(bool));");
+		  }
+		  areaC.addStatement("memcpy(" + elementDetails.qfTypeNameL + "_list_get_content(" + member + "), self->" + member + ", update_count * sizeof(" + elementDetails.paramType.trim() + "));");
+	  }
+	  areaC.addStatement("self->update_count = 0;");
+	  areaC.addStatement("int rc = " + pubName + "_send(" + sendArgs + ");");
+	  addPublisherListsDestroy(areaC, paramDetailsList);
+	  areaC.addStatement("return rc;");
+	  areaC.closeFunctionBody();
+
+	  // int <qfop>_publisher_check(<qfop>_publisher_t *self);
+	  funcName = pubName + "_check";
+	  areaH.addSingleLineComment("publishes the pending updates if the time window has elapsed, to be called periodically");
+	  areaH.openFunctionPrototype("int", funcName, 1);
+	  areaH.addFunctionParameter(pubType + " *", "self", true);
+	  areaH.closeFunctionPrototype();
+
+	  // int <qfop>_publisher_check(<qfop>_publisher_t *self) {
+	  //	if (self->update_count > 0 && self->max_delay > 0 &&
+	  //			zclock_mono() - self->first_update_time >= self->max_delay)
+	  //		return <qfop>_publisher_flush(self);
+	  //	return 0;
+	  // }
+	  areaC.addNewLine();
+	  areaC.openFunction("int", funcName, 1);
+	  areaC.addFunctionParameter(pubType + " *", "self", true);
+	  areaC.openFunctionBody();
+	  areaC.addStatement("if (self->update_count > 0 && self->max_delay > 0 && zclock_mono() - self->first_update_time >= self->max_delay)", 1);
+	  areaC.addStatement("return " + pubName + "_flush(self);", -1);
+	  areaC.addStatement("return 0;");
+	  areaC.closeFunctionBody();
+
+	  // int <qfop>_publisher_add(<qfop>_publisher_t *self,
+	  //	mal_updateheader_t *update_header, [bool arg<index>_is_present, ]<update type> arg<index>);
+	  funcName = pubName + "_add";
+	  params = new ArrayList<String[]>();
+	  params.add(new String[]{ pubType + " *", "self" });
+	  params.add(new String[]{ "mal_updateheader_t *", "update_header" });
+	  addInteractionTypedParameters(params, elementDetailsList);
+	  size = params.size();
+	  areaH.addSingleLineComment("the publisher takes the ownership of the update header and of the update values");
+	  areaH.openFunctionPrototype("int", funcName, size);
+	  areaH.addFunctionParameters(params.toArray(new String[size][]));
+	  areaH.closeFunctionPrototype();
+
+	  // int <qfop>_publisher_add(<qfop>_publisher_t *self, ...) {
+	  //	int rc = 0;
+	  //	// the previous publication may have failed before consuming the updates
+	  //	if (self->update_count >= self->max_updates) {
+	  //		rc = <qfop>_publisher_flush(self);
+	  //		if (rc < 0)
+	  //			return rc;
+	  //	}
+	  //	if (self->update_count == 0)
+	  //		self->first_update_time = zclock_mono();
+	  //	unsigned int index = self->update_count;
+	  //	self->update_headers[index] = update_header;
+	  //	[self-><f_><param>_is_present[index] = arg<index>_is_present;]
+	  //	self-><f_><param>[index] = arg<index>;
+	  //	self->update_count++;
+	  //	if (self->update_count >= self->max_updates)
+	  //		return <qfop>_publisher_flush(self);
+	  //	return <qfop>_publisher_check(self);
+	  // }
+	  areaC.addNewLine();
+	  areaC.openFunction("int", funcName, size);
+	  areaC.addFunctionParameters(params.toArray(new String[size][]));
+	  areaC.openFunctionBody();
+	  areaC.addStatement("int rc = 0;");
+	  areaC.addSingleLineComment("the previous publication may have failed before consuming the updates");
+	  areaC.addStatement("if (self->update_count >= self->max_updates)");
+	  areaC.openBlock();
+	  areaC.addStatement("rc = " + pubName + "_flush(self);");
+	  areaC.addStatement("if (rc < 0)", 1);
+	  areaC.addStatement("return rc;", -1);
+	  areaC.closeBlock();
+	  areaC.addStatement("if (self->update_count == 0)", 1);
+	  areaC.addStatement("self->first_update_time = zclock_mono();", -1);
+	  areaC.addStatement("unsigned int index = self->update_count;");
+	  areaC.addStatement("self->update_headers[index] = update_header;");
+	  for (ParameterDetails elementDetails : elementDetailsList)
+	  {
+		  String member = "self->" + getInteractionBodyMemberName(elementDetails);
+		  String argName = "arg" + elementDetails.paramIndex;
+		  if (elementDetails.isPresenceFlag)
+		  {
+			  areaC.addStatement(member + "_is_present[index] = " + argName + "_is_present;");
+		  }
+		  areaC.addStatement(member + "[index] = " + argName + ";");
+	  }
+	  areaC.addStatement("self->update_count++;");
+	  areaC.addStatement("if (self->update_count >= self->max_updates)", 1);
+	  areaC.addStatement("return " + pubName + "_flush(self);", -1);
+	  areaC.addStatement("return " + pubName + "_check(self);");
+	  areaC.closeFunctionBody();
+  }
+
+  /**
+   * C type of the array accumulating the update values in a batched publisher.
+   */
+  private String getPublisherArrayType(ParameterDetails elementDetails)
+  {
+	  String elementType = elementDetails.paramType.trim();
+	  return elementType + (elementType.endsWith("*") ? "*" : " *");
+  }
+
+  /**
+   * Add the encoding length computation or the encoding of the update headers list
+   * of a batched publisher, depending on the encoding format.
+   */
+  private void addPublisherUpdateHeadersEncoding(CFileWriter code, boolean isEncode) throws IOException
+  {
+	  //	switch (encoder->encoding_format_code) {
+	  //	case <FORMAT>_FORMAT_CODE:
+	  //		rc = mal_updateheader_list_[add_encoding_length|encode]_malbinary(update_headers, encoder, cursor);
+	  //		if (rc < 0)
+	  //			return rc;
+	  //		break;
+	  //	default:
+	  //		return -1;
+	  //	}
+	  code.addStatement("switch (encoder->encoding_format_code)");
+	  code.openBlock();
+	  if (generateTransportMalbinary || generateTransportMalsplitbinary)
+	  {
+		  if (generateTransportMalbinary)
+		  {
+			  code.addStatement("case " + transportMalbinary.toUpperCase() + "_FORMAT_CODE:");
+		  }
+		  if (generateTransportMalsplitbinary)
+		  {
+			  code.addStatement("case " + transportMalsplitbinary.toUpperCase() + "_FORMAT_CODE:");
+		  }
+		  code.openBlock();
+		  if (isEncode)
+		  {
+			  addMalbinaryEncodingEncodeList(code, "update_headers", "mal_updateheader");
+		  }
+		  else
+		  {
+			  addMalbinaryEncodingLengthList(code, "update_headers", "mal_updateheader");
+		  }
+		  code.addStatement("break;");
+		  code.closeBlock();
+	  }
+	  code.addStatement("default:");
+	  code.addStatement("return -1;");
+	  code.closeBlock();
+  }
+
+  /**
+   * Add the destruction of the lists built by the flush function of a batched publisher.
+   */
+  private void addPublisherListsDestroy(CFileWriter code, List<ParameterDetails> paramDetailsList) throws IOException
+  {
+	  //	mal_updateheader_list_destroy(&update_headers);
+	  //	<update type>_list_destroy(&<f_><param>);
+	  code.addStatement("mal_updateheader_list_destroy(&update_headers);");
+	  for (ParameterDetails paramDetails : paramDetailsList)
+	  {
+		  code.addStatement(paramDetails.qfTypeNameL + "_list_destroy(&" + getInteractionBodyMemberName(paramDetails) + ");");
+	  }
+  }
+
   private void addDeregisterFunction(OperationContext opContext, String opStage) throws IOException
   {
 	  OpStageContext opStageCtxt = new OpStageContext(opContext, opStage, true, null);
@@ -5139,7 +11171,6 @@ public class GeneratorC extends GeneratorBase
 	  CFileWriter areaH = opStageCtxt.opContext.serviceContext.areaContext.areaHContent;
 	  CFileWriter areaC = opStageCtxt.opContext.serviceContext.areaContext.areaC;
 	  areaC.addNewLine();
-	  StringBuilder buf;
 
 //	  int <area>_<service>_<operation>_deregister(
 //	  mal_endpoint_t *endpoint, mal_message_t *message, mal_uri_t *broker_uri); 
@@ -5153,8 +11184,9 @@ public class GeneratorC extends GeneratorBase
 //			  mal_endpoint_t *endpoint, mal_message_t *message, mal_uri_t *broker_uri) {
 //			  int rc = 0;
 //		Affectation des champs liés à l'opération :
-//			  mal_message_init(message, <AREA>_AREA_NUMBER, <AREA>_AREA_VERSION, <AREA>_<SERVICE>_SERVICE_NUMBER,
-//			    <AREA>_<SERVICE>_<OPERATION>_OPERATION_NUMBER, MAL_INTERACTIONTYPE_PUBSUB, MAL_IP_STAGE_PUBSUB_DEREGISTER);
+//			  static const <area>_message_header_t header = { <AREA>_AREA_NUMBER, <AREA>_AREA_VERSION, <AREA>_<SERVICE>_SERVICE_NUMBER,
+//			    <AREA>_<SERVICE>_<OPERATION>_OPERATION_NUMBER, MAL_INTERACTIONTYPE_PUBSUB, MAL_IP_STAGE_PUBSUB_DEREGISTER };
+//			  <area>_message_init_from_header(message, &header);
 //		Envoi du message :
 //			  rc = mal_endpoint_init_operation(endpoint, message, broker_uri, true);
 //			  return rc;
@@ -5165,19 +11197,13 @@ public class GeneratorC extends GeneratorBase
 	  areaC.addFunctionParameter("mal_uri_t *", "broker_uri", true);
 	  areaC.openFunctionBody();
 	  areaC.addStatement("int rc = 0;");
-	  String areaNameU = opStageCtxt.opContext.serviceContext.areaContext.areaNameL.toUpperCase();
-	  String serviceNameU = opStageCtxt.opContext.serviceContext.serviceNameL.toUpperCase();
-	  buf = new StringBuilder();
-	  buf.append("mal_message_init(message, ");
-	  buf.append(areaNameU).append("_AREA_NUMBER, ");
-	  buf.append(areaNameU).append("_AREA_VERSION, ");
-	  buf.append(areaNameU).append("_").append(serviceNameU).append("_SERVICE_NUMBER, ");
-	  buf.append(opStageCtxt.opContext.qfOpNameL.toUpperCase()).append("_OPERATION_NUMBER, ");
-	  buf.append("MAL_INTERACTIONTYPE_PUBSUB, ");
-	  buf.append("MAL_IP_STAGE_PUBSUB_DEREGISTER");
-	  buf.append(");");
-	  areaC.addStatement(buf.toString());
+	  addStageStatsStart(opStageCtxt, areaC);
+	  addStageTraceStart(opStageCtxt, areaC, "message");
+	  addMessageInitFromHeader(opStageCtxt, "message", "PUBSUB", "PUBSUB_DEREGISTER");
+	  addStageTraceBeforeSend(opStageCtxt, areaC, "message");
 	  areaC.addStatement("rc = mal_endpoint_init_operation(endpoint, message, broker_uri, true);");
+	  addStageStatsRecord(opStageCtxt, areaC);
+	  addStageTraceEnd(opStageCtxt, areaC);
 	  areaC.addStatement("return rc;");
 	  areaC.closeFunctionBody();
   }
@@ -5195,7 +11221,6 @@ public class GeneratorC extends GeneratorBase
 	  CFileWriter areaH = opStageCtxt.opContext.serviceContext.areaContext.areaHContent;
 	  CFileWriter areaC = opStageCtxt.opContext.serviceContext.areaContext.areaC;
 	  areaC.addNewLine();
-	  StringBuilder buf;
 
 //	  int <area>_<service>_<operation>_publish_deregister(
 //	  mal_endpoint_t *endpoint, mal_message_t *message, mal_uri_t *broker_uri); 
@@ -5209,8 +11234,9 @@ public class GeneratorC extends GeneratorBase
 //			  mal_uri_t *broker_uri) {
 //			  int rc = 0;
 //	  Affectation des champs liés à l'opération :
-//			  mal_message_init(message, <AREA>_AREA_NUMBER, <AREA>_AREA_VERSION, <AREA>_<SERVICE>_SERVICE_NUMBER,
-//			    <AREA>_<SERVICE>_<OPERATION>_OPERATION_NUMBER, MAL_INTERACTIONTYPE_PUBSUB, MAL_IP_STAGE_PUBSUB_PUBLISH_DEREGISTER);
+//			  static const <area>_message_header_t header = { <AREA>_AREA_NUMBER, <AREA>_AREA_VERSION, <AREA>_<SERVICE>_SERVICE_NUMBER,
+//			    <AREA>_<SERVICE>_<OPERATION>_OPERATION_NUMBER, MAL_INTERACTIONTYPE_PUBSUB, MAL_IP_STAGE_PUBSUB_PUBLISH_DEREGISTER };
+//			  <area>_message_init_from_header(message, &header);
 //	  Envoi du message :
 //			  rc = mal_endpoint_init_operation(endpoint, message, broker_uri, true);
 //			  return rc;
@@ -5221,27 +11247,21 @@ public class GeneratorC extends GeneratorBase
 	  areaC.addFunctionParameter("mal_uri_t *", "broker_uri", true);
 	  areaC.openFunctionBody();
 	  areaC.addStatement("int rc = 0;");
-	  String areaNameU = opStageCtxt.opContext.serviceContext.areaContext.areaNameL.toUpperCase();
-	  String serviceNameU = opStageCtxt.opContext.serviceContext.serviceNameL.toUpperCase();
-	  buf = new StringBuilder();
-	  buf.append("mal_message_init(message, ");
-	  buf.append(areaNameU).append("_AREA_NUMBER, ");
-	  buf.append(areaNameU).append("_AREA_VERSION, ");
-	  buf.append(areaNameU).append("_").append(serviceNameU).append("_SERVICE_NUMBER, ");
-	  buf.append(opStageCtxt.opContext.qfOpNameL.toUpperCase()).append("_OPERATION_NUMBER, ");
-	  buf.append("MAL_INTERACTIONTYPE_PUBSUB, ");
-	  buf.append("MAL_IP_STAGE_PUBSUB_PUBLISH_DEREGISTER");
-	  buf.append(");");
-	  areaC.addStatement(buf.toString());
+	  addStageStatsStart(opStageCtxt, areaC);
+	  addStageTraceStart(opStageCtxt, areaC, "message");
+	  addMessageInitFromHeader(opStageCtxt, "message", "PUBSUB", "PUBSUB_PUBLISH_DEREGISTER");
+	  addStageTraceBeforeSend(opStageCtxt, areaC, "message");
 	  areaC.addStatement("rc = mal_endpoint_init_operation(endpoint, message, broker_uri, true);");
+	  addStageStatsRecord(opStageCtxt, areaC);
+	  addStageTraceEnd(opStageCtxt, areaC);
 	  areaC.addStatement("return rc;");
 	  areaC.closeFunctionBody();
   }
 
   private void generateZproject(File destFolder) throws IOException {
   	// generate the project.xml file
-		PrintStream out;
-		out = new PrintStream(new File(destFolder, "project.xml"));
+		PrintWriter out;
+		out = new PrintWriter(new IncrementalFileWriter(destFolder, "project", "xml"));
 		
 		out.println("<project");
 		out.println("    name = \"" + zprojectName + "\"");
@@ -5261,8 +11281,16 @@ public class GeneratorC extends GeneratorBase
 		for (String className : zclasses) {
 			out.println("    <class name = \"" + className + "\" />");
 		}
+		// list the areas forward declaration headers
+		for (String areaName : zareas) {
+			out.println("    <header name = \"" + areaName + "_fwd\" />");
+		}
 		out.println();
     out.println("</project>");
+    out.close();
+    if (out.checkError()) {
+    	throw new IOException("Failed to write " + new File(destFolder, "project.xml").getPath());
+    }
     
     // generate the <project>.h file
     File hFolder = new File(destFolder,"include");
@@ -5275,8 +11303,147 @@ public class GeneratorC extends GeneratorBase
     hout.closeDefine();
     hout.flush();
     hout.close();
+    
+    // amalgamated source file for the project
+    if (UNITY_BUILD_PROJECT.equals(unityBuild)) {
+    	generateUnitySource(new File(destFolder, "src"), zprojectName, zclasses);
+    }
+    
+    // generate the CMakeLists.txt file
+    generateCMake(destFolder);
 	}
 
+  /**
+   * Generate a CMakeLists.txt file building the zproject library.
+   * The sources of each area are compiled in a separate object library, so that areas build in parallel.
+   * 
+   * @param destFolder	folder of the project.xml file
+   * @throws IOException
+   */
+  private void generateCMake(File destFolder) throws IOException {
+		PrintWriter out;
+		out = new PrintWriter(new IncrementalFileWriter(destFolder, "CMakeLists", "txt"));
+		
+		out.println("# Auto generated CMake build file");
+		out.println("cmake_minimum_required(VERSION 3.16)");
+		out.println("project(" + zprojectName + " VERSION 1.0.0 LANGUAGES C)");
+		out.println();
+		
+		List<String> objectLibraries = new ArrayList<String>();
+		if (UNITY_BUILD_PROJECT.equals(unityBuild)) {
+			// the amalgamated project source file already holds all classes
+			String objectLibrary = zprojectName + "_objects";
+			objectLibraries.add(objectLibrary);
+			out.println("add_library(" + objectLibrary + " OBJECT src/" + zprojectName + "_unity.c)");
+			printCMakeObjectLibraryProperties(out, objectLibrary, null);
+		} else {
+			// one object library per area
+			for (Map.Entry<String, List<String>> entry : zareaClasses.entrySet()) {
+				String areaName = entry.getKey();
+				String objectLibrary = areaName + "_objects";
+				objectLibraries.add(objectLibrary);
+				out.println("# area " + areaName);
+				out.println("add_library(" + objectLibrary + " OBJECT");
+				if (UNITY_BUILD_AREA.equals(unityBuild)) {
+					out.println("    src/" + areaName + "_unity.c");
+				} else {
+					for (String className : entry.getValue()) {
+						out.println("    src/" + className + ".c");
+					}
+				}
+				out.println(")");
+				printCMakeObjectLibraryProperties(out, objectLibrary, areaName);
+			}
+		}
+		
+		// link all the object libraries in the project library
+		out.println("add_library(" + zprojectName);
+		for (String objectLibrary : objectLibraries) {
+			out.println("    $<TARGET_OBJECTS:" + objectLibrary + ">");
+		}
+		out.println(")");
+		out.println("target_include_directories(" + zprojectName + " PUBLIC include)");
+		out.println("target_link_libraries(" + zprojectName + " PUBLIC " + getCMakeLinkLibraries() + ")");
+		out.println();
+		
+		// benchmark drivers, the allocations are counted by wrapping the allocation functions at link time,
+		// which only applies to the objects linked in the driver: the generated objects are linked directly
+		// rather than through a possibly shared project library, the calls from the shared MAL libraries
+		// are not counted
+		StringBuilder benchLibraries = new StringBuilder();
+		for (String objectLibrary : objectLibraries) {
+			benchLibraries.append(" ").append(objectLibrary);
+		}
+		for (String areaName : zbenchAreas) {
+			out.println("add_executable(" + areaName + "_bench " + areaName + "_bench.c)");
+			out.println("target_link_libraries(" + areaName + "_bench PRIVATE" + benchLibraries + ")");
+			out.println("target_link_options(" + areaName + "_bench PRIVATE -Wl,--wrap=malloc,--wrap=calloc,--wrap=realloc)");
+			out.println();
+		}
+		
+		out.println("install(TARGETS " + zprojectName + ")");
+		out.println("install(DIRECTORY include/ DESTINATION include)");
+		out.close();
+		if (out.checkError()) {
+			throw new IOException("Failed to write " + new File(destFolder, "CMakeLists.txt").getPath());
+		}
+  }
+
+  /**
+   * Libraries the generated code depends on, the transport libraries follow the generated encodings.
+   * 
+   * @return	space separated list of the CMake libraries
+   */
+  private String getCMakeLinkLibraries() {
+		StringBuilder libraries = new StringBuilder("mal");
+		if (generateTransportMalbinary) {
+			libraries.append(" ").append(transportMalbinary);
+		}
+		if (generateTransportMalsplitbinary) {
+			libraries.append(" ").append(transportMalsplitbinary);
+		}
+		libraries.append(" malattributes");
+		return libraries.toString();
+  }
+
+  private void printCMakeObjectLibraryProperties(PrintWriter out, String objectLibrary, String areaName) {
+		// the area headers are part of the object library interface, the MAL headers come with the libraries
+		out.println("target_include_directories(" + objectLibrary + " PUBLIC include)");
+		out.println("target_link_libraries(" + objectLibrary + " PUBLIC " + getCMakeLinkLibraries() + ")");
+		out.println("set_target_properties(" + objectLibrary + " PROPERTIES POSITION_INDEPENDENT_CODE ON)");
+		if (cmakeUnityBatchSize > 0 && unityBuild == null) {
+			out.println("set_target_properties(" + objectLibrary + " PROPERTIES UNITY_BUILD ON UNITY_BUILD_BATCH_SIZE " + cmakeUnityBatchSize + ")");
+		}
+		if (cmakePrecompileHeaders && areaName != null) {
+			// precompile the forward declarations header only, the per-type sources include it
+			// rather than the complete area header
+			out.println("target_precompile_headers(" + objectLibrary + " PRIVATE include/" + areaName + "_fwd.h)");
+		}
+		out.println();
+  }
+
+  /**
+   * Generate an amalgamated source file including all the given class source files,
+   * so that they are compiled as a single translation unit.
+   * 
+   * @param cFolder	folder of the generated source files
+   * @param unityName	name of the unity, area or zproject name
+   * @param classNames	names of the classes to include
+   * @throws IOException
+   */
+  private void generateUnitySource(File cFolder, String unityName, List<String> classNames) throws IOException {
+  	cFolder.mkdirs();
+  	AreaCWriter unityC = new AreaCWriter(cFolder, unityName + "_unity");
+  	unityC.addSingleLineComment("amalgamated source file for " + unityName);
+  	unityC.addSingleLineComment("compile this file instead of the individual source files it includes");
+  	unityC.addNewLine();
+  	for (String className : classNames) {
+  		unityC.addInclude(className + ".c");
+  	}
+  	unityC.flush();
+  	unityC.close();
+  }
+
   public static long getAbsoluteShortForm(int area, int service, int version, int type) throws IOException
   {
   	final int TYPE_SHORT_FORM_MAX = 0x007FFFFF;
@@ -5327,6 +11494,18 @@ public class GeneratorC extends GeneratorBase
   	final CFileWriter codeEncode = new CFileWriter(encodeW);
   	final StatementWriter decodeW = new StatementWriter();
   	final CFileWriter codeDecode = new CFileWriter(decodeW);
+  	final StatementWriter decodeIntoW = new StatementWriter();
+  	final CFileWriter codeDecodeInto = new CFileWriter(decodeIntoW);
+  	final StatementWriter skipW = new StatementWriter();
+  	final CFileWriter codeSkip = new CFileWriter(skipW);
+  	final StatementWriter deltaChangesW = new StatementWriter();
+  	final CFileWriter codeDeltaChanges = new CFileWriter(deltaChangesW);
+  	final StatementWriter deltaLengthW = new StatementWriter();
+  	final CFileWriter codeDeltaLength = new CFileWriter(deltaLengthW);
+  	final StatementWriter deltaEncodeW = new StatementWriter();
+  	final CFileWriter codeDeltaEncode = new CFileWriter(deltaEncodeW);
+  	final StatementWriter deltaApplyW = new StatementWriter();
+  	final CFileWriter codeDeltaApply = new CFileWriter(deltaApplyW);
   	public EncodingCode() throws IOException {}
   }
 
@@ -5358,6 +11537,34 @@ public class GeneratorC extends GeneratorBase
   	final CFileWriter structureIncludes;
   	/** set of required areas */
   	final Set<String> reqAreas;
+  	/** names of the zproject classes generated for the area */
+  	final List<String> areaClasses;
+  	/** true when the enumeration hash function has been defined in the <area>.c file */
+  	boolean enumHashDefined = false;
+  	/** buffer for the type adapters of the <area>_bench.c file */
+  	final StatementWriter benchW;
+  	/** writer for the type adapters of the <area>_bench.c file */
+  	final CFileWriter benchCode;
+  	/** buffer for the types table of the <area>_bench.c file */
+  	final StatementWriter benchTableW;
+  	/** writer for the types table of the <area>_bench.c file */
+  	final CFileWriter benchTable;
+  	/** number of entries in the types table of the <area>_bench.c file */
+  	int benchTypeCount = 0;
+  	/** buffer for the checks of the <area>_test function */
+  	final StatementWriter testW;
+  	/** writer for the checks of the <area>_test function */
+  	final CFileWriter testCode;
+  	/** names of the instrumented functions, in the order of the <area>_stats array */
+  	final List<String> statsNames;
+  	/** true when the composites of the area use the table driven codec */
+  	final boolean tableDriven;
+  	/** buffer for the field types operations of the table driven codec, in the <area>.c file */
+  	final StatementWriter tableOpsW;
+  	/** writer for the field types operations of the table driven codec */
+  	final CFileWriter tableOpsCode;
+  	/** field types with operations already defined for the table driven codec */
+  	final Set<String> tableOpsTypes;
   	
   	public AreaContext(File destinationFolder, AreaType area) throws IOException
   	{
@@ -5385,6 +11592,18 @@ public class GeneratorC extends GeneratorBase
     	structureIncludes = new CFileWriter(structureIncludesW);
     	reqAreas = new LinkedHashSet<String>();
     	reqAreas.add(StdStrings.MAL);
+    	areaClasses = new ArrayList<String>();
+    	testW = new StatementWriter();
+    	testCode = new CFileWriter(testW);
+    	benchW = new StatementWriter();
+    	benchCode = new CFileWriter(benchW);
+    	benchTableW = new StatementWriter();
+    	benchTable = new CFileWriter(benchTableW);
+    	statsNames = new ArrayList<String>();
+    	tableDriven = tableDrivenAreas.contains(areaNameL);
+    	tableOpsW = new StatementWriter();
+    	tableOpsCode = new CFileWriter(tableOpsW);
+    	tableOpsTypes = new LinkedHashSet<String>();
   	}
   }
 
@@ -5453,6 +11672,8 @@ public class GeneratorC extends GeneratorBase
   	final String qfOpStageNameL;
   	/** list of the function parameters */
   	final List<TypeInfo> parameters;
+  	/** details of the function parameters, filled in during the parameters encoding code generation */
+  	final List<ParameterDetails> paramDetailsList = new ArrayList<ParameterDetails>();
   	
   	public OpStageContext(OperationContext opContext, String opStage, boolean isInit, List<TypeInfo> parameters) throws IOException
   	{
@@ -5480,8 +11701,24 @@ public class GeneratorC extends GeneratorBase
     final EncodingCode encodingCode;
     final StatementWriter destroyCodeW;
     final CFileWriter destroyCode;
+    /** buffer for the fields part of the random instance function used by the tests */
+    final StatementWriter randomW;
+    /** writer for the fields part of the random instance function used by the tests */
+    final CFileWriter randomCode;
   	boolean holdsOptionalField = false;
   	boolean holdsEnumField = false;
+  	/** number of fields in the delta encoding change bitmap */
+  	int deltaFieldCount = 0;
+  	/** buffer for the field descriptors of the table driven codec */
+  	final StatementWriter tableW;
+  	/** writer for the field descriptors of the table driven codec */
+  	final CFileWriter tableCode;
+  	/** buffer for the layout checks of the table driven codec */
+  	final StatementWriter tableChecksW;
+  	/** writer for the layout checks of the table driven codec */
+  	final CFileWriter tableChecksCode;
+  	/** number of field descriptors of the table driven codec */
+  	int tableFieldCount = 0;
   	
   	public CompositeContext(AreaContext areaContext, ServiceContext serviceContext, CompositeType composite, File folder) throws IOException
   	{
@@ -5513,6 +11750,12 @@ public class GeneratorC extends GeneratorBase
       encodingCode = new EncodingCode();
       destroyCodeW = new StatementWriter();
       destroyCode = new CFileWriter(destroyCodeW);
+      tableW = new StatementWriter();
+      tableCode = new CFileWriter(tableW);
+      tableChecksW = new StatementWriter();
+      tableChecksCode = new CFileWriter(tableChecksW);
+      randomW = new StatementWriter();
+      randomCode = new CFileWriter(randomW);
   	}
   }
   
@@ -5536,6 +11779,63 @@ public class GeneratorC extends GeneratorBase
   	TypeReference type = null;
   }
 
+  /**
+   * Holds the resolution of a type, computed once in the type index.
+   * The details do not depend on the list flag of the type reference.
+   * The instances are immutable and may be shared by concurrent code generations.
+   */
+  private static class TypeDetails {
+  	final boolean isAbstract;
+  	final boolean isAttribute;
+  	final boolean isComposite;
+  	final boolean isEnumeration;
+  	// <area>_[<service>_]<type>
+  	final String qfTypeNameL;
+  	// <AREA>_[<SERVICE>_]<TYPE>_SHORT_FORM
+  	final String shortForm;
+  	// <AREA>_[<SERVICE>_]<TYPE>_LIST_SHORT_FORM
+  	final String listShortForm;
+  	// C type of a value of the type, null for an abstract type which is not a composite
+  	final String cType;
+  	// malbinary encoding size of an enumeration, null for other types
+  	final MalbinaryEnumSize enumMBSize;
+  	// number of items of an enumeration, 0 for other types
+  	final int enumItemCount;
+  	
+  	public TypeDetails(boolean isAbstract, boolean isAttribute, boolean isComposite, boolean isEnumeration,
+  			String qfTypeNameL, String cType, MalbinaryEnumSize enumMBSize, int enumItemCount)
+  	{
+  		this.isAbstract = isAbstract;
+  		this.isAttribute = isAttribute;
+  		this.isComposite = isComposite;
+  		this.isEnumeration = isEnumeration;
+  		this.qfTypeNameL = qfTypeNameL;
+  		this.shortForm = qfTypeNameL.toUpperCase() + "_SHORT_FORM";
+  		this.listShortForm = qfTypeNameL.toUpperCase() + "_LIST_SHORT_FORM";
+  		this.cType = cType;
+  		this.enumMBSize = enumMBSize;
+  		this.enumItemCount = enumItemCount;
+  	}
+  }
+
+  /**
+   * Holds a member of a composite structure definition.
+   */
+  private static class StructMember {
+  	final String type;
+  	final String name;
+  	final int alignment;
+  	final boolean isFlag;
+  	
+  	public StructMember(String type, String name, boolean isFlag)
+  	{
+  		this.type = type;
+  		this.name = name;
+  		this.alignment = getStructMemberAlignment(type);
+  		this.isFlag = isFlag;
+  	}
+  }
+
   /**
    * Holds details about a parameter, to be used in code generation.
    * The structure is also used for an error.
@@ -5601,6 +11901,8 @@ public class GeneratorC extends GeneratorBase
   	private final String areaName;
   	// area name in upper case letters
   	private final String areaNameCaps;
+  	// file name in upper case letters, used in the include guard
+  	private final String fileNameCaps;
   	
     /**
      * Constructor.
@@ -5610,11 +11912,25 @@ public class GeneratorC extends GeneratorBase
      * @throws IOException If any problems creating the file.
      */
     public AreaHWriter(File folder, String areaName) throws IOException
+    {
+    	this(folder, areaName, "");
+    }
+
+    /**
+     * Constructor for an area specific file named <area><suffix>.h.
+     *
+     * @param folder The folder to create the file in.
+     * @param areaName The Area name.
+     * @param fileSuffix The suffix of the file name.
+     * @throws IOException If any problems creating the file.
+     */
+    public AreaHWriter(File folder, String areaName, String fileSuffix) throws IOException
     {
     	super();
     	this.areaName = areaName;
     	areaNameCaps = areaName.toUpperCase();
-      Writer file = StubUtils.createLowLevelWriter(folder, areaName, "h");
+    	fileNameCaps = (areaName + fileSuffix).toUpperCase();
+      Writer file = new IncrementalFileWriter(folder, areaName + fileSuffix, "h");
       out = new StatementWriter(file);
     }
 
@@ -5630,7 +11946,8 @@ public class GeneratorC extends GeneratorBase
     	super();
     	this.areaName = areaName;
     	areaNameCaps = areaName.toUpperCase();
-    	Writer file = StubUtils.createLowLevelWriter(destinationFolderName, areaName, "h");
+    	fileNameCaps = areaNameCaps;
+    	Writer file = new IncrementalFileWriter(destinationFolderName, areaName, "h");
       out = new StatementWriter(file);
     }
 
@@ -5645,11 +11962,11 @@ public class GeneratorC extends GeneratorBase
     	// #ifndef __<AREA>_H_INCLUDED__
     	// #define __<AREA>_H_INCLUDED__
     	out.append("#ifndef __");
-    	out.append(areaNameCaps);
+    	out.append(fileNameCaps);
     	out.append("_H_INCLUDED__");
     	addNewLine();
     	out.append("#define __");
-    	out.append(areaNameCaps);
+    	out.append(fileNameCaps);
     	out.append("_H_INCLUDED__");
     	addNewLine();
     	addNewLine();
@@ -5665,7 +11982,7 @@ public class GeneratorC extends GeneratorBase
     	// #endif // __<AREA>_H_INCLUDED__
     	addNewLine();
     	out.append("#endif // __");
-    	out.append(areaNameCaps);
+    	out.append(fileNameCaps);
     	out.append("_H_INCLUDED__");
     	addNewLine();
     }
@@ -5717,7 +12034,7 @@ public class GeneratorC extends GeneratorBase
     public AreaCWriter(File folder, String areaName) throws IOException
     {
     	super();
-      Writer file = StubUtils.createLowLevelWriter(folder, areaName, "c");
+      Writer file = new IncrementalFileWriter(folder, areaName, "c");
       out = new StatementWriter(file);
     }
 
@@ -5731,7 +12048,7 @@ public class GeneratorC extends GeneratorBase
     public AreaCWriter(String destinationFolderName, String areaName) throws IOException
     {
     	super();
-    	Writer file = StubUtils.createLowLevelWriter(destinationFolderName, areaName, "c");
+    	Writer file = new IncrementalFileWriter(destinationFolderName, areaName, "c");
       out = new StatementWriter(file);
     }
     
@@ -5772,7 +12089,7 @@ public class GeneratorC extends GeneratorBase
     	super();
     	this.compositeName = compositeName;
     	compositeNameCaps = compositeName.toUpperCase();
-      Writer file = StubUtils.createLowLevelWriter(folder, compositeName, "h");
+      Writer file = new IncrementalFileWriter(folder, compositeName, "h");
       out = new StatementWriter(file);
     }
 
@@ -5788,7 +12105,7 @@ public class GeneratorC extends GeneratorBase
     	super();
     	this.compositeName = compositeName;
     	compositeNameCaps = compositeName.toUpperCase();
-      Writer file = StubUtils.createLowLevelWriter(destinationFolderName, compositeName, "h");
+      Writer file = new IncrementalFileWriter(destinationFolderName, compositeName, "h");
       out = new StatementWriter(file);
     }
 
@@ -5842,7 +12159,7 @@ public class GeneratorC extends GeneratorBase
     	super();
     	this.compositeName = compositeName;
     	compositeNameCaps = compositeName.toUpperCase();
-      Writer file = StubUtils.createLowLevelWriter(folder, compositeName, "c");
+      Writer file = new IncrementalFileWriter(folder, compositeName, "c");
       out = new StatementWriter(file);
     }
 
@@ -5858,7 +12175,7 @@ public class GeneratorC extends GeneratorBase
     	super();
     	this.compositeName = compositeName;
     	compositeNameCaps = compositeName.toUpperCase();
-      Writer file = StubUtils.createLowLevelWriter(destinationFolderName, compositeName, "c");
+      Writer file = new IncrementalFileWriter(destinationFolderName, compositeName, "c");
       out = new StatementWriter(file);
     }
   }
@@ -5897,7 +12214,7 @@ public class GeneratorC extends GeneratorBase
     		listFolder = new File(folder,"src");
     	if (!listFolder.exists())
     		listFolder.mkdirs();
-    	Writer file = StubUtils.createLowLevelWriter(listFolder, typeName, suffix);
+    	Writer file = new IncrementalFileWriter(listFolder, typeName, suffix);
     	out = new StatementWriter(file);
     }
 
@@ -5914,7 +12231,7 @@ public class GeneratorC extends GeneratorBase
     	super();
     	this.typeName = typeName;
     	typeNameCaps = typeName.toUpperCase();
-      Writer file = StubUtils.createLowLevelWriter(destinationFolderName, typeName, suffix);
+      Writer file = new IncrementalFileWriter(destinationFolderName, typeName, suffix);
       out = new StatementWriter(file);
     }
 
@@ -0,0 +1,127 @@
+/*
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2016 CNES
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fr.cnes.mo.stubgen.c;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+/**
+ * 
+ * Writer of a generated file, which keeps the content in memory and writes the file
+ * only if its content changed. An unchanged file keeps its modification time, so that
+ * the build of the generated code does not recompile it and its dependents.
+ * The file is written on close, the content is encoded with the default charset
+ * as with a FileWriter.
+ *
+ */
+class IncrementalFileWriter extends Writer {
+
+	/** generated file */
+	private final File file;
+	/** content of the file */
+	private final StringBuilder content = new StringBuilder();
+	/** true once the file has been written */
+	private boolean closed = false;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param folder	folder of the file, created if needed
+	 * @param name	name of the file without extension
+	 * @param ext	extension of the file
+	 */
+	IncrementalFileWriter(File folder, String name, String ext)
+	{
+		this.file = new File(folder, name + "." + ext);
+	}
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param folderName	folder of the file, created if needed
+	 * @param name	name of the file without extension
+	 * @param ext	extension of the file
+	 */
+	IncrementalFileWriter(String folderName, String name, String ext)
+	{
+		this(new File(folderName), name, ext);
+	}
+	
+	@Override
+	public void write(char[] cbuf, int off, int len) throws IOException
+	{
+		content.append(cbuf, off, len);
+	}
+	
+	@Override
+	public void write(String str, int off, int len) throws IOException
+	{
+		content.append(str, off, off + len);
+	}
+	
+	@Override
+	public Writer append(CharSequence csq) throws IOException
+	{
+		content.append(csq);
+		return this;
+	}
+	
+	/**
+	 * The content is kept in memory until the writer is closed.
+	 */
+	@Override
+	public void flush() throws IOException
+	{
+	}
+	
+	/**
+	 * Write the file if its content differs from the content on disk.
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		if (closed)
+		{
+			return;
+		}
+		closed = true;
+		byte[] bytes = content.toString().getBytes(Charset.defaultCharset());
+		if (file.isFile() &&
+				file.length() == bytes.length &&
+				Arrays.equals(Files.readAllBytes(file.toPath()), bytes))
+		{
+			return;
+		}
+		File folder = file.getParentFile();
+		if (folder != null && !folder.exists() && !folder.mkdirs())
+		{
+			throw new IOException("Failed to create directory: " + folder.getPath());
+		}
+		Files.write(file.toPath(), bytes);
+	}
+}
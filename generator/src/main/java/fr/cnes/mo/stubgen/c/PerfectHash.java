@@ -0,0 +1,208 @@
+/*
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2016 CNES
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fr.cnes.mo.stubgen.c;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 
+ * Perfect hash table computed at generation time (hash and displace).
+ * The table is not minimal: its size is the power of 2 at least equal to the
+ * number of keys, doubled when the keys cannot be placed, so some slots stay empty.
+ * A key is first hashed with seed 0 to select a bucket, the bucket seed is then
+ * used to hash the key again and select its slot.
+ * The hash function is a seeded FNV-1a followed by the murmur3 finalizer,
+ * the generated C code must compute exactly the same values.
+ *
+ */
+class PerfectHash {
+
+	static final int FNV_OFFSET_BASIS = 0x811c9dc5;
+	static final int FNV_PRIME = 0x01000193;
+	
+	// maximum number of seeds tried for a bucket before the table is enlarged
+	private static final int MAX_SEED = 1 << 16;
+
+	/** number of buckets and slots, a power of 2 */
+	final int size;
+	/** seed of each bucket */
+	final int[] seeds;
+	/** index of the key in each slot, -1 for an empty slot */
+	final int[] slots;
+	
+	private PerfectHash(int size, int[] seeds, int[] slots)
+	{
+		this.size = size;
+		this.seeds = seeds;
+		this.slots = slots;
+	}
+	
+	/**
+	 * Hash function shared with the generated code.
+	 * All computations are done modulo 2^32 as with the C uint32_t type.
+	 */
+	static int hash(byte[] key, int seed)
+	{
+		int h = FNV_OFFSET_BASIS ^ seed;
+		for (byte b : key)
+		{
+			h ^= (b & 0xff);
+			h *= FNV_PRIME;
+		}
+		h ^= h >>> 16;
+		h *= 0x85ebca6b;
+		h ^= h >>> 13;
+		h *= 0xc2b2ae35;
+		h ^= h >>> 16;
+		return h;
+	}
+	
+	/**
+	 * Key for an integer value, 4 bytes in little endian order.
+	 */
+	static byte[] intKey(int value)
+	{
+		return new byte[] { (byte) value, (byte) (value >>> 8), (byte) (value >>> 16), (byte) (value >>> 24) };
+	}
+	
+	/**
+	 * Key for a string, the bytes of its UTF-8 encoding.
+	 */
+	static byte[] stringKey(String value)
+	{
+		return value.getBytes(StandardCharsets.UTF_8);
+	}
+	
+	/**
+	 * Compute a perfect hash table for the keys.
+	 * 
+	 * @param keys distinct keys
+	 * @return the table, slots contains the index of the keys in the list
+	 */
+	static PerfectHash build(List<byte[]> keys)
+	{
+		for (int i = 0; i < keys.size(); i++)
+		{
+			for (int j = i + 1; j < keys.size(); j++)
+			{
+				if (Arrays.equals(keys.get(i), keys.get(j)))
+				{
+					throw new IllegalArgumentException("duplicate perfect hash key at index " + i + " and " + j);
+				}
+			}
+		}
+		int size = 1;
+		while (size < keys.size())
+		{
+			size <<= 1;
+		}
+		while (true)
+		{
+			PerfectHash table = tryBuild(keys, size);
+			if (table != null)
+			{
+				return table;
+			}
+			size <<= 1;
+		}
+	}
+	
+	private static PerfectHash tryBuild(List<byte[]> keys, int size)
+	{
+		int mask = size - 1;
+		final List<List<Integer>> buckets = new ArrayList<List<Integer>>(size);
+		for (int i = 0; i < size; i++)
+		{
+			buckets.add(new ArrayList<Integer>());
+		}
+		for (int i = 0; i < keys.size(); i++)
+		{
+			buckets.get(hash(keys.get(i), 0) & mask).add(i);
+		}
+		// place the largest buckets first
+		Integer[] order = new Integer[size];
+		for (int i = 0; i < size; i++)
+		{
+			order[i] = i;
+		}
+		Arrays.sort(order, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer a, Integer b)
+			{
+				return buckets.get(b).size() - buckets.get(a).size();
+			}
+		});
+		
+		int[] seeds = new int[size];
+		int[] slots = new int[size];
+		Arrays.fill(slots, -1);
+		for (int b : order)
+		{
+			List<Integer> bucket = buckets.get(b);
+			if (bucket.isEmpty())
+			{
+				break;
+			}
+			boolean placed = false;
+			for (int seed = 1; seed < MAX_SEED && ! placed; seed++)
+			{
+				int[] candidates = new int[bucket.size()];
+				placed = true;
+				for (int k = 0; k < bucket.size() && placed; k++)
+				{
+					int slot = hash(keys.get(bucket.get(k)), seed) & mask;
+					if (slots[slot] != -1)
+					{
+						placed = false;
+					}
+					for (int l = 0; l < k && placed; l++)
+					{
+						if (candidates[l] == slot)
+						{
+							placed = false;
+						}
+					}
+					candidates[k] = slot;
+				}
+				if (placed)
+				{
+					for (int k = 0; k < bucket.size(); k++)
+					{
+						slots[candidates[k]] = bucket.get(k);
+					}
+					seeds[b] = seed;
+				}
+			}
+			if (! placed)
+			{
+				return null;
+			}
+		}
+		return new PerfectHash(size, seeds, slots);
+	}
+}
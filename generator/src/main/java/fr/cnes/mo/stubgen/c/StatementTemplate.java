@@ -0,0 +1,94 @@
+/*
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2016 CNES
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fr.cnes.mo.stubgen.c;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 
+ * Statement shape parsed once into literal segments and placeholders.
+ * A placeholder {n} is replaced by the argument at index n, the arguments are
+ * appended directly to the writer without building an intermediate string.
+ * A brace which does not open a placeholder is kept as a literal.
+ *
+ */
+class StatementTemplate {
+
+	/** literal segments, literals[i] precedes the placeholder i, the last one ends the statement */
+	private final String[] literals;
+	/** argument index of each placeholder */
+	private final int[] indexes;
+	
+	StatementTemplate(String shape)
+	{
+		List<String> literalList = new ArrayList<String>();
+		List<Integer> indexList = new ArrayList<Integer>();
+		int start = 0;
+		int pos = 0;
+		while ((pos = shape.indexOf('{', pos)) >= 0)
+		{
+			int end = pos + 1;
+			while (end < shape.length() && Character.isDigit(shape.charAt(end)))
+			{
+				end++;
+			}
+			if (end == pos + 1 || end == shape.length() || shape.charAt(end) != '}')
+			{
+				// not a placeholder
+				pos++;
+				continue;
+			}
+			literalList.add(shape.substring(start, pos));
+			indexList.add(Integer.valueOf(shape.substring(pos + 1, end)));
+			start = end + 1;
+			pos = start;
+		}
+		literalList.add(shape.substring(start));
+		literals = literalList.toArray(new String[literalList.size()]);
+		indexes = new int[indexList.size()];
+		for (int i = 0; i < indexes.length; i++)
+		{
+			indexes[i] = indexList.get(i);
+		}
+	}
+	
+	/**
+	 * Append the statement to the writer.
+	 * 
+	 * @param out	writer of the statement
+	 * @param args	values of the placeholders
+	 * @throws IOException
+	 */
+	void appendTo(Appendable out, String... args) throws IOException
+	{
+		for (int i = 0; i < indexes.length; i++)
+		{
+			out.append(literals[i]);
+			out.append(args[indexes[i]]);
+		}
+		out.append(literals[indexes.length]);
+	}
+}
@@ -104,6 +104,7 @@ public class StatementWriter implements Appendable, Closeable, Flushable {
 		if (out != null)
 		{
 			out.flush();
+			out.close();
 		}
 		else
 		{